@@ -0,0 +1,717 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 분석 경로 재생 부하 측정기 (/api/audio/analyze 처리량, 지연 분포, 요청당 할당량)
+ *
+ * WAV 녹음을 윈도우 단위로 잘라 실제 백엔드(컨트롤러 → 수락 제어 → 분석 서비스 → ML 클라이언트)로 보내고,
+ * ML 서비스 자리에는 이 프로세스에 내장한 스텁 서버를 둡니다. 스텁은 지정한 지연 뒤에 고정된 분포(정상/위험 비율)의
+ * 예측 결과를 돌려주므로, 모델과 네트워크 없이 한 대의 리눅스 장비에서 같은 조건을 반복해 측정할 수 있습니다.
+ * 빌드 없이 단일 파일로 실행합니다 (Java 17 이상):
+ *
+ *   # 백엔드를 직접 띄워서 측정 (ml.service.url을 스텁으로 지정, 끝나면 종료)
+ *   java bench/ReplayBench.java --launch target/factory-1.0.0.jar --audio ../audio_files --rate 200
+ *
+ *   # 이미 떠 있는 백엔드(--ml.service.url=http://localhost:5055)로 측정
+ *   java bench/ReplayBench.java --audio ../audio_files --concurrency 64
+ *
+ * 부하 모델:
+ *   --rate > 0이면 열린 루프입니다. 초당 rate건을 일정 간격으로 보내고, 지연은 예정 전송 시각부터 잽니다
+ *   (백엔드가 밀려도 측정이 낙관적으로 왜곡되지 않음). 진행 중인 요청이 concurrency에 이르면 그 회차는 보내지 않고 "누락"으로 셉니다.
+ *   --rate 0이면 닫힌 루프입니다. concurrency개의 요청을 끊김 없이 유지합니다.
+ *
+ * 요청당 할당량은 측정 전후 /system/info의 heapAllocatedBytes(백엔드 JVM 전체 힙 할당 누적) 차이를 성공 요청 수로 나눈 값입니다.
+ * 스케줄러 등 백그라운드 작업의 할당도 포함되므로, 같은 조건의 이전/이후 측정을 비교하는 용도로 사용합니다.
+ *
+ * 옵션 (기본값):
+ *   --url http://localhost:8080   백엔드 주소
+ *   --user admin --password 1234  토큰 발급에 사용할 계정 (--token으로 직접 지정 가능)
+ *   --audio ../audio_files        WAV 파일 또는 디렉터리 (쉼표로 여러 개, 하위 디렉터리 포함, PCM int16 / float32)
+ *   --window-ms 2000              요청 하나에 담을 녹음 길이
+ *   --rate 0                      초당 요청 수 (0이면 닫힌 루프)
+ *   --concurrency 64              동시에 진행 중인 요청 수 상한
+ *   --duration 30 --warmup 5      측정/예열 시간 (초)
+ *   --devices 16                  X-Device-Id로 나누어 보낼 장치 수
+ *   --stub-port 5055              내장 ML 스텁 포트 (0이면 스텁을 띄우지 않음 - 실제 ML 서비스로 측정)
+ *   --stub-latency-ms 20          스텁 응답 지연 (호출 단위, 배치여도 한 번)
+ *   --stub-jitter-ms 5            지연에 더하는 균등 분포 지터 [0, jitter)
+ *   --danger-ratio 0.02           위험 예측을 돌려줄 항목 비율
+ *   --classes 7                   예측 클래스 수 (0 = 정상, 1~3 = 위험)
+ *   --model-version ""            스텁이 알리는 모델 버전 (비우면 백엔드 예측 캐시가 동작하지 않음)
+ *   --launch <jar>                백엔드 jar를 자식 프로세스로 실행 (로그: replay-backend.log)
+ *   --jvm-args "" --backend-args ""  --launch 때 추가할 JVM 옵션 / 애플리케이션 인자 (공백으로 구분)
+ */
+public class ReplayBench {
+    
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern DANGEROUS = Pattern.compile("\"(?:isDangerous|dangerous)\"\\s*:\\s*true");
+    private static final String TENSOR_MIME_TYPE = "application/x-factory-tensor";
+    
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        List<Window> windows = loadWindows(options);
+        
+        StubMLServer stub = null;
+        if (options.stubPort > 0) {
+            stub = new StubMLServer(options);
+            stub.start();
+            System.out.printf("ML 스텁: http://127.0.0.1:%d (지연 %dms + 지터 %dms, 위험 비율 %.3f, 클래스 %d개)%n",
+                options.stubPort, options.stubLatencyMs, options.stubJitterMs, options.dangerRatio, options.classes);
+        }
+        
+        Process backend = options.launch != null ? launchBackend(options) : null;
+        HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        try {
+            awaitReady(client, options, backend);
+            String token = options.token != null ? options.token : login(client, options);
+            
+            System.out.printf("대상: %s/api/audio/analyze, 윈도우 %d개 (%dms), %s, 동시 요청 상한 %d, 예열 %ds, 측정 %ds%n",
+                options.url, windows.size(), options.windowMs,
+                options.rate > 0 ? "열린 루프 " + options.rate + " req/s" : "닫힌 루프",
+                options.concurrency, options.warmupSeconds, options.durationSeconds);
+            
+            run(client, options, token, windows, options.warmupSeconds, new Recorder());
+            
+            long[] before = readAllocation(client, options, token);
+            long stubCallsBefore = stub != null ? stub.calls.get() : 0;
+            long stubItemsBefore = stub != null ? stub.items.get() : 0;
+            Recorder recorder = new Recorder();
+            long elapsedNanos = run(client, options, token, windows, options.durationSeconds, recorder);
+            long[] after = readAllocation(client, options, token);
+            
+            recorder.report(elapsedNanos);
+            reportAllocation(before, after, recorder.successCount());
+            if (stub != null) {
+                long calls = stub.calls.get() - stubCallsBefore;
+                long items = stub.items.get() - stubItemsBefore;
+                System.out.printf("ML 스텁 호출 %d회, 윈도우 %d개 (호출당 평균 %.2f개)%n",
+                    calls, items, calls > 0 ? (double) items / calls : 0.0);
+            }
+        } finally {
+            if (backend != null) {
+                backend.destroy();
+                if (!backend.waitFor(15, TimeUnit.SECONDS)) {
+                    backend.destroyForcibly();
+                }
+            }
+            if (stub != null) {
+                stub.stop();
+            }
+        }
+    }
+    
+    /**
+     * 지정한 시간 동안 요청을 보내고 모두 끝날 때까지 기다립니다.
+     */
+    private static long run(HttpClient client, Options options, String token, List<Window> windows,
+                            int seconds, Recorder recorder) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        AtomicLong sequence = new AtomicLong();
+        if (options.rate > 0) {
+            runOpenLoop(client, options, token, windows, start, deadline, sequence, recorder);
+        } else {
+            CountDownLatch done = new CountDownLatch(options.concurrency);
+            for (int i = 0; i < options.concurrency; i++) {
+                closedLoop(client, options, token, windows, deadline, sequence, recorder, done);
+            }
+            done.await();
+        }
+        return System.nanoTime() - start;
+    }
+    
+    /**
+     * 예정 시각마다 요청을 보냅니다. 진행 중인 요청이 상한이면 그 회차는 누락으로 기록합니다.
+     */
+    private static void runOpenLoop(HttpClient client, Options options, String token, List<Window> windows,
+                                    long start, long deadline, AtomicLong sequence, Recorder recorder)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(options.concurrency);
+        double intervalNanos = 1e9 / options.rate;
+        for (long i = 0; ; i++) {
+            long scheduledAt = start + (long) (i * intervalNanos);
+            if (scheduledAt >= deadline) {
+                break;
+            }
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                recorder.recordDropped();
+                continue;
+            }
+            send(client, options, token, windows, sequence.getAndIncrement(), scheduledAt, recorder)
+                .whenComplete((ignored, error) -> inFlight.release());
+        }
+        inFlight.acquire(options.concurrency);
+    }
+    
+    private static void closedLoop(HttpClient client, Options options, String token, List<Window> windows,
+                                   long deadline, AtomicLong sequence, Recorder recorder, CountDownLatch done) {
+        long sentAt = System.nanoTime();
+        if (sentAt >= deadline) {
+            done.countDown();
+            return;
+        }
+        send(client, options, token, windows, sequence.getAndIncrement(), sentAt, recorder)
+            .whenComplete((ignored, error) -> closedLoop(client, options, token, windows, deadline, sequence, recorder, done));
+    }
+    
+    private static CompletableFuture<HttpResponse<String>> send(
+            HttpClient client, Options options, String token, List<Window> windows,
+            long index, long startedAt, Recorder recorder) {
+        Window window = windows.get((int) (index % windows.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.url + "/api/audio/analyze"))
+            .timeout(Duration.ofSeconds(30))
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", "application/octet-stream")
+            .header("X-Sample-Rate", String.valueOf(window.sampleRate))
+            .header("X-Channels", String.valueOf(window.channels))
+            .header("X-Sample-Format", window.sampleFormat)
+            .header("X-Device-Id", "replay-" + (index % options.devices))
+            .POST(HttpRequest.BodyPublishers.ofByteArray(window.pcm))
+            .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .whenComplete((response, error) -> {
+                long nanos = System.nanoTime() - startedAt;
+                if (error != null) {
+                    recorder.recordError();
+                } else if (response.statusCode() == 429 || response.statusCode() == 503) {
+                    recorder.recordRejected();
+                } else if (response.statusCode() >= 400) {
+                    recorder.recordError();
+                } else {
+                    recorder.record(nanos, DANGEROUS.matcher(response.body()).find());
+                }
+            });
+    }
+    
+    // ===== 입력 (WAV) =====
+    
+    /**
+     * 녹음 하나의 분석 요청 윈도우 (PCM 바이트 그대로 전송하므로 리샘플링/다운믹스도 백엔드 경로에 포함)
+     */
+    private record Window(byte[] pcm, int sampleRate, int channels, String sampleFormat) {
+    }
+    
+    private static List<Window> loadWindows(Options options) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String location : options.audio.split(",")) {
+            Path path = Path.of(location.trim());
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> walk = Files.walk(path)) {
+                    walk.filter(p -> p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".wav"))
+                        .sorted()
+                        .forEach(files::add);
+                }
+            } else if (Files.exists(path)) {
+                files.add(path);
+            }
+        }
+        
+        List<Window> windows = new ArrayList<>();
+        for (Path file : files) {
+            try {
+                windows.addAll(splitWav(file, options.windowMs));
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.printf("건너뜀: %s (%s)%n", file, e.getMessage());
+            }
+        }
+        if (windows.isEmpty()) {
+            throw new IllegalStateException("재생할 WAV 녹음이 없습니다: " + options.audio
+                + " (webm 녹음은 ffmpeg -i in.webm -ac 1 -ar 16000 out.wav 로 변환)");
+        }
+        System.out.printf("녹음 %d개에서 윈도우 %d개를 읽었습니다%n", files.size(), windows.size());
+        return windows;
+    }
+    
+    /**
+     * RIFF/WAVE 파일을 windowMs 길이로 자릅니다. 마지막 자투리는 버리며, 한 윈도우보다 짧은 녹음은 통째로 사용합니다.
+     */
+    private static List<Window> splitWav(Path file, int windowMs) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 12 || buffer.getInt(0) != 0x46464952 || buffer.getInt(8) != 0x45564157) {
+            throw new IllegalArgumentException("RIFF/WAVE 형식이 아닙니다");
+        }
+        
+        int format = -1;
+        int channels = 0;
+        int sampleRate = 0;
+        int bitsPerSample = 0;
+        int dataOffset = -1;
+        int dataLength = 0;
+        int position = 12;
+        while (position + 8 <= buffer.limit()) {
+            int chunkId = buffer.getInt(position);
+            int chunkSize = buffer.getInt(position + 4);
+            int body = position + 8;
+            if (chunkId == 0x20746D66) {  // "fmt "
+                format = buffer.getShort(body) & 0xFFFF;
+                channels = buffer.getShort(body + 2) & 0xFFFF;
+                sampleRate = buffer.getInt(body + 4);
+                bitsPerSample = buffer.getShort(body + 14) & 0xFFFF;
+                if (format == 0xFFFE && chunkSize >= 26) {
+                    format = buffer.getShort(body + 24) & 0xFFFF;  // WAVE_FORMAT_EXTENSIBLE의 하위 형식
+                }
+            } else if (chunkId == 0x61746164) {  // "data"
+                dataOffset = body;
+                dataLength = Math.min(chunkSize < 0 ? Integer.MAX_VALUE : chunkSize, buffer.limit() - body);
+                break;
+            }
+            position = body + chunkSize + (chunkSize & 1);
+        }
+        
+        String sampleFormat;
+        if (format == 1 && bitsPerSample == 16) {
+            sampleFormat = "int16";
+        } else if (format == 3 && bitsPerSample == 32) {
+            sampleFormat = "float32";
+        } else {
+            throw new IllegalArgumentException("PCM int16 / float32만 지원합니다 (format " + format + ", " + bitsPerSample + "bit)");
+        }
+        if (dataOffset < 0 || channels <= 0 || sampleRate <= 0) {
+            throw new IllegalArgumentException("fmt 또는 data 청크가 없습니다");
+        }
+        
+        int frameBytes = channels * bitsPerSample / 8;
+        int windowBytes = (int) ((long) sampleRate * windowMs / 1000) * frameBytes;
+        int frames = dataLength / frameBytes;
+        List<Window> windows = new ArrayList<>();
+        if (frames * frameBytes < windowBytes) {
+            windows.add(new Window(Arrays.copyOfRange(buffer.array(), dataOffset, dataOffset + frames * frameBytes),
+                sampleRate, channels, sampleFormat));
+            return windows;
+        }
+        for (int offset = 0; offset + windowBytes <= frames * frameBytes; offset += windowBytes) {
+            windows.add(new Window(Arrays.copyOfRange(buffer.array(), dataOffset + offset, dataOffset + offset + windowBytes),
+                sampleRate, channels, sampleFormat));
+        }
+        return windows;
+    }
+    
+    // ===== 백엔드 =====
+    
+    private static Process launchBackend(Options options) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(split(options.jvmArgs));
+        command.add("-jar");
+        command.add(options.launch);
+        if (options.stubPort > 0) {
+            command.add("--ml.service.url=http://127.0.0.1:" + options.stubPort);
+        }
+        int port = URI.create(options.url).getPort();
+        if (port > 0) {
+            command.add("--server.port=" + port);
+        }
+        command.addAll(split(options.backendArgs));
+        
+        File log = new File("replay-backend.log");
+        System.out.printf("백엔드 실행: %s (로그: %s)%n", String.join(" ", command), log.getAbsolutePath());
+        return new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log)
+            .start();
+    }
+    
+    /**
+     * 백엔드의 시작 예열이 끝날 때까지 기다립니다 (GET /api/health/ready).
+     */
+    private static void awaitReady(HttpClient client, Options options, Process backend) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(180);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.url + "/api/health/ready"))
+            .timeout(Duration.ofSeconds(5))
+            .GET()
+            .build();
+        while (true) {
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+                if (response.statusCode() == 404 || response.statusCode() == 401 || response.statusCode() == 403) {
+                    return;  // 준비 상태 확인이 없는 이전 버전
+                }
+            } catch (IOException e) {
+                if (backend == null) {
+                    throw new IllegalStateException("백엔드에 연결할 수 없습니다: " + options.url, e);
+                }
+            }
+            if (backend != null && !backend.isAlive()) {
+                throw new IllegalStateException("백엔드가 종료되었습니다 (종료 코드 " + backend.exitValue() + ", replay-backend.log 참고)");
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("백엔드가 준비되지 않았습니다: " + options.url);
+            }
+            Thread.sleep(500);
+        }
+    }
+    
+    private static String login(HttpClient client, Options options) throws Exception {
+        String json = String.format("{\"user_id\":\"%s\",\"password\":\"%s\"}", options.user, options.password);
+        HttpResponse<String> response = client.send(
+            HttpRequest.newBuilder(URI.create(options.url + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("로그인 실패 (" + response.statusCode() + "): " + response.body());
+        }
+        return matcher.group(1);
+    }
+    
+    /**
+     * 백엔드 JVM의 {힙 할당 누적 바이트, GC 횟수, GC 시간(ms)}을 읽습니다. 지원하지 않으면 null.
+     */
+    private static long[] readAllocation(HttpClient client, Options options, String token) {
+        try {
+            HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(options.url + "/system/info"))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build(),
+                HttpResponse.BodyHandlers.ofString());
+            long allocated = jsonLong(response.body(), "heapAllocatedBytes");
+            if (response.statusCode() != 200 || allocated < 0) {
+                return null;
+            }
+            return new long[]{allocated, jsonLong(response.body(), "gcCount"), jsonLong(response.body(), "gcTimeMillis")};
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
+    private static long jsonLong(String json, String field) {
+        Matcher matcher = Pattern.compile("\"" + field + "\"\\s*:\\s*(-?\\d+)").matcher(json);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+    
+    private static void reportAllocation(long[] before, long[] after, long requests) {
+        if (before == null || after == null) {
+            System.out.println("할당량: 백엔드가 /system/info의 heapAllocatedBytes를 제공하지 않습니다");
+            return;
+        }
+        long allocated = after[0] - before[0];
+        System.out.printf("백엔드 할당 %.1f MB (요청당 %.1f KB), GC %d회 / %d ms%n",
+            allocated / 1e6, requests > 0 ? allocated / 1024.0 / requests : 0.0,
+            after[1] - before[1], after[2] - before[2]);
+    }
+    
+    private static List<String> split(String args) {
+        List<String> result = new ArrayList<>();
+        for (String arg : args.trim().split("\\s+")) {
+            if (!arg.isEmpty()) {
+                result.add(arg);
+            }
+        }
+        return result;
+    }
+    
+    // ===== ML 스텁 =====
+    
+    /**
+     * ml_service/app.py와 같은 API를 흉내 내는 ML 서버
+     *
+     * 요청 본문은 항목 수만 세고(JSON 단일/배치, 바이너리 프레임) 모델 계산 없이, 정해진 지연 뒤에
+     * 고정된 두 가지 예측(정상/위험) 중 하나를 항목마다 돌려줍니다. 위험 여부는 호출 순번의 해시로 정하므로
+     * 전체 비율은 --danger-ratio를 따르고 실행마다 같은 순서가 나옵니다.
+     * 응답은 지연 스케줄러에서 보내므로 스레드 수와 무관하게 동시 호출 수만큼 겹쳐서 처리됩니다.
+     */
+    private static final class StubMLServer {
+        private final Options options;
+        private final String normalPrediction;
+        private final String dangerPrediction;
+        private final String shapes;
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong items = new AtomicLong();
+        private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4, daemon("ml-stub-delay"));
+        private HttpServer server;
+        
+        StubMLServer(Options options) {
+            this.options = options;
+            double[] normal = new double[options.classes];
+            double[] danger = new double[options.classes];
+            Arrays.fill(normal, 0.04 / Math.max(1, options.classes - 1));
+            Arrays.fill(danger, 0.04 / Math.max(1, options.classes - 1));
+            normal[0] = 0.96;
+            danger[Math.min(1, options.classes - 1)] = 0.96;
+            this.normalPrediction = toJson(normal);
+            this.dangerPrediction = toJson(danger);
+            this.shapes = "\"input_shape\":[null,128,63,1],\"output_shape\":[null," + options.classes + "]";
+        }
+        
+        void start() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", options.stubPort), 1024);
+            server.setExecutor(Executors.newFixedThreadPool(8, daemon("ml-stub")));
+            server.createContext("/api/health", exchange -> respond(exchange, 200,
+                exchange.getRequestURI().getPath().endsWith("/ready")
+                    ? "{\"ready\":true}"
+                    : "{\"status\":\"healthy\",\"model_loaded\":true}"));
+            server.createContext("/api/model/info", exchange -> respond(exchange, 200,
+                "{\"success\":true,\"data\":{" + shapes
+                    + (options.modelVersion.isEmpty() ? "" : ",\"model_version\":\"" + options.modelVersion + "\"")
+                    + ",\"wire_formats\":[\"application/json\",\"" + TENSOR_MIME_TYPE + "\"]}}"));
+            server.createContext("/api/predict", this::predict);
+            server.start();
+        }
+        
+        void stop() {
+            server.stop(0);
+            scheduler.shutdownNow();
+        }
+        
+        private void predict(HttpExchange exchange) throws IOException {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            boolean binary = contentType != null && contentType.startsWith(TENSOR_MIME_TYPE);
+            int count = binary ? binaryItemCount(body) : jsonItemCount(body);
+            boolean batch = binary ? count > 1 : startsWith(body, "{\"batch\"");
+            calls.incrementAndGet();
+            items.addAndGet(count);
+            
+            StringBuilder json = new StringBuilder(64 + count * 96).append("{\"success\":true,\"prediction\":");
+            if (batch) {
+                json.append('[');
+                for (int i = 0; i < count; i++) {
+                    json.append(i > 0 ? "," : "").append(nextPrediction());
+                }
+                json.append("],\"errors\":[");
+                for (int i = 0; i < count; i++) {
+                    json.append(i > 0 ? ",null" : "null");
+                }
+                json.append("],\"count\":").append(count);
+            } else {
+                json.append(nextPrediction());
+            }
+            json.append(',').append(shapes).append('}');
+            
+            long delay = options.stubLatencyMs
+                + (options.stubJitterMs > 0 ? Math.floorMod(mix(calls.get()), options.stubJitterMs) : 0);
+            scheduler.schedule(() -> {
+                try {
+                    respond(exchange, 200, json.toString());
+                } catch (IOException ignored) {
+                    // 백엔드가 먼저 연결을 끊은 경우 (제한 시간 초과)
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+        
+        private String nextPrediction() {
+            long hash = mix(sequence.getAndIncrement());
+            double uniform = (hash >>> 11) * 0x1p-53;
+            return uniform < options.dangerRatio ? dangerPrediction : normalPrediction;
+        }
+        
+        /**
+         * 바이너리 프레임 헤더의 u16 항목 수 ("FTN1", flags, reserved, count)
+         */
+        private static int binaryItemCount(byte[] body) {
+            return body.length >= 8 ? Math.max(1, (body[6] & 0xFF) | (body[7] & 0xFF) << 8) : 1;
+        }
+        
+        /**
+         * {"batch":[{...},{...}]}의 항목 수. 항목은 중첩 객체가 없는 평평한 객체이므로 '{' 개수로 셉니다.
+         */
+        private static int jsonItemCount(byte[] body) {
+            if (!startsWith(body, "{\"batch\"")) {
+                return 1;
+            }
+            int braces = 0;
+            for (byte b : body) {
+                if (b == '{') {
+                    braces++;
+                }
+            }
+            return Math.max(1, braces - 1);
+        }
+        
+        private static boolean startsWith(byte[] body, String prefix) {
+            byte[] expected = prefix.getBytes(StandardCharsets.US_ASCII);
+            if (body.length < expected.length) {
+                return false;
+            }
+            return Arrays.equals(body, 0, expected.length, expected, 0, expected.length);
+        }
+        
+        private static long mix(long value) {
+            long z = value * 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+        
+        private static String toJson(double[] values) {
+            StringBuilder json = new StringBuilder("[");
+            for (int i = 0; i < values.length; i++) {
+                json.append(i > 0 ? "," : "").append(String.format(Locale.ROOT, "%.4f", values[i]));
+            }
+            return json.append(']').toString();
+        }
+        
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+    
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    // ===== 결과 =====
+    
+    private static final class Recorder {
+        private long[] latencies = new long[4096];
+        private int count;
+        private long dangerous;
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        
+        synchronized void record(long nanos, boolean danger) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (danger) {
+                dangerous++;
+            }
+        }
+        
+        void recordRejected() {
+            rejected.incrementAndGet();
+        }
+        
+        void recordError() {
+            errors.incrementAndGet();
+        }
+        
+        void recordDropped() {
+            dropped.incrementAndGet();
+        }
+        
+        synchronized long successCount() {
+            return count;
+        }
+        
+        synchronized void report(long elapsedNanos) {
+            long[] all = Arrays.copyOf(latencies, count);
+            Arrays.sort(all);
+            
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("성공 %d건 (위험 판정 %d건), 거절(429/503) %d건, 오류 %d건, 누락 %d건, 처리량 %.1f req/s%n",
+                count, dangerous, rejected.get(), errors.get(), dropped.get(), count / seconds);
+            if (count > 0) {
+                System.out.printf("지연(ms) p50 %.1f / p90 %.1f / p99 %.1f / p999 %.1f / 최대 %.1f%n",
+                    percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+                    percentile(all, 0.999), all[count - 1] / 1e6);
+            }
+        }
+        
+        private static double percentile(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+        }
+    }
+    
+    private static final class Options {
+        private String url = "http://localhost:8080";
+        private String user = "admin";
+        private String password = "1234";
+        private String token;
+        private String audio = "../audio_files";
+        private int windowMs = 2000;
+        private double rate = 0;
+        private int concurrency = 64;
+        private int durationSeconds = 30;
+        private int warmupSeconds = 5;
+        private int devices = 16;
+        private int stubPort = 5055;
+        private int stubLatencyMs = 20;
+        private int stubJitterMs = 5;
+        private double dangerRatio = 0.02;
+        private int classes = 7;
+        private String modelVersion = "";
+        private String launch;
+        private String jvmArgs = "";
+        private String backendArgs = "";
+        
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--url" -> options.url = value;
+                    case "--user" -> options.user = value;
+                    case "--password" -> options.password = value;
+                    case "--token" -> options.token = value;
+                    case "--audio" -> options.audio = value;
+                    case "--window-ms" -> options.windowMs = Integer.parseInt(value);
+                    case "--rate" -> options.rate = Double.parseDouble(value);
+                    case "--concurrency" -> options.concurrency = Math.max(1, Integer.parseInt(value));
+                    case "--duration" -> options.durationSeconds = Integer.parseInt(value);
+                    case "--warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                    case "--devices" -> options.devices = Math.max(1, Integer.parseInt(value));
+                    case "--stub-port" -> options.stubPort = Integer.parseInt(value);
+                    case "--stub-latency-ms" -> options.stubLatencyMs = Integer.parseInt(value);
+                    case "--stub-jitter-ms" -> options.stubJitterMs = Integer.parseInt(value);
+                    case "--danger-ratio" -> options.dangerRatio = Double.parseDouble(value);
+                    case "--classes" -> options.classes = Math.max(2, Integer.parseInt(value));
+                    case "--model-version" -> options.modelVersion = value;
+                    case "--launch" -> options.launch = value;
+                    case "--jvm-args" -> options.jvmArgs = value;
+                    case "--backend-args" -> options.backendArgs = value;
+                    default -> throw new IllegalArgumentException("알 수 없는 옵션: " + args[i]);
+                }
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 요청 스레드 모드(플랫폼 / 가상 스레드) 비교용 부하 발생기
+ *
+ * 동시 사용자 수만큼의 요청을 끊김 없이 유지하면서(closed loop) 처리량과 지연 분포(p50/p99/p999)를 측정합니다.
+ * 빌드 없이 단일 파일로 실행합니다 (Java 17 이상):
+ *
+ *   java bench/ThreadModeBench.java --concurrency 400 --duration 30
+ *   java bench/ThreadModeBench.java --path /api/events --method GET --concurrency 400
+ *
+ * 옵션 (기본값):
+ *   --url http://localhost:8080   백엔드 주소
+ *   --user admin --password 1234  토큰 발급에 사용할 계정 (--token으로 직접 지정 가능)
+ *   --path /api/audio/analyze     POST면 int16 PCM 노이즈 윈도우를 전송, GET이면 본문 없음
+ *   --method POST
+ *   --concurrency 200             동시에 진행 중인 요청 수
+ *   --duration 30 --warmup 5      측정/예열 시간 (초)
+ *   --samples 32000               분석 요청 윈도우 길이 (16kHz 기준 2초)
+ *   --devices 16                  X-Device-Id로 나누어 보낼 장치 수
+ */
+public class ThreadModeBench {
+    
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        
+        String token = options.token != null ? options.token : login(client, options);
+        byte[] body = options.method.equals("POST") ? noiseWindow(options.samples) : new byte[0];
+        
+        System.out.printf("대상: %s %s%s, 동시 요청 %d, 예열 %ds, 측정 %ds%n",
+            options.method, options.url, options.path, options.concurrency, options.warmupSeconds, options.durationSeconds);
+        
+        run(client, options, token, body, options.warmupSeconds, null);
+        Recorder recorder = new Recorder(options.concurrency);
+        long elapsedNanos = run(client, options, token, body, options.durationSeconds, recorder);
+        recorder.report(elapsedNanos);
+    }
+    
+    /**
+     * 동시 사용자마다 응답을 받는 즉시 다음 요청을 보내는 비동기 체인을 만들고, 지정한 시간이 지나면 멈춥니다.
+     */
+    private static long run(HttpClient client, Options options, String token, byte[] body,
+                            int seconds, Recorder recorder) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(options.concurrency);
+        for (int i = 0; i < options.concurrency; i++) {
+            HttpRequest request = buildRequest(options, token, body, "bench-" + (i % options.devices));
+            int user = i;
+            loop(client, request, deadline, recorder, user, done);
+        }
+        done.await();
+        return System.nanoTime() - start;
+    }
+    
+    private static void loop(HttpClient client, HttpRequest request, long deadline,
+                             Recorder recorder, int user, CountDownLatch done) {
+        long sentAt = System.nanoTime();
+        if (sentAt >= deadline) {
+            done.countDown();
+            return;
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, error) -> {
+                if (recorder != null) {
+                    recorder.record(user, System.nanoTime() - sentAt,
+                        error == null && response.statusCode() < 400);
+                }
+                loop(client, request, deadline, recorder, user, done);
+            });
+    }
+    
+    private static HttpRequest buildRequest(Options options, String token, byte[] body, String deviceId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.url + options.path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Authorization", "Bearer " + token);
+        if (options.method.equals("POST")) {
+            builder.header("Content-Type", "application/octet-stream")
+                .header("X-Sample-Rate", "16000")
+                .header("X-Device-Id", deviceId)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        } else {
+            builder.GET();
+        }
+        return builder.build();
+    }
+    
+    private static String login(HttpClient client, Options options) throws Exception {
+        String json = String.format("{\"user_id\":\"%s\",\"password\":\"%s\"}", options.user, options.password);
+        HttpResponse<String> response = client.send(
+            HttpRequest.newBuilder(URI.create(options.url + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("로그인 실패 (" + response.statusCode() + "): " + response.body());
+        }
+        return matcher.group(1);
+    }
+    
+    /**
+     * 무음 게이트를 통과하도록 진폭이 있는 int16 리틀 엔디언 노이즈 윈도우를 만듭니다.
+     */
+    private static byte[] noiseWindow(int samples) {
+        Random random = new Random(42);
+        ByteBuffer buffer = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            buffer.putShort((short) (random.nextGaussian() * 3000));
+        }
+        return buffer.array();
+    }
+    
+    /**
+     * 사용자별 지연 기록 (각 사용자의 체인은 한 번에 하나의 요청만 진행하므로 사용자별 배열은 경합이 없음)
+     */
+    private static final class Recorder {
+        private final long[][] latencies;
+        private final int[] counts;
+        private final AtomicLong errors = new AtomicLong();
+        
+        Recorder(int users) {
+            this.latencies = new long[users][1024];
+            this.counts = new int[users];
+        }
+        
+        void record(int user, long nanos, boolean success) {
+            if (!success) {
+                errors.incrementAndGet();
+                return;
+            }
+            if (counts[user] == latencies[user].length) {
+                latencies[user] = Arrays.copyOf(latencies[user], counts[user] * 2);
+            }
+            latencies[user][counts[user]++] = nanos;
+        }
+        
+        void report(long elapsedNanos) {
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (int i = 0; i < counts.length; i++) {
+                System.arraycopy(latencies[i], 0, all, offset, counts[i]);
+                offset += counts[i];
+            }
+            Arrays.sort(all);
+            
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("성공 %d건, 오류 %d건, 처리량 %.1f req/s%n", total, errors.get(), total / seconds);
+            if (total > 0) {
+                System.out.printf("지연(ms) p50 %.1f / p90 %.1f / p99 %.1f / p999 %.1f / 최대 %.1f%n",
+                    percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+                    percentile(all, 0.999), all[total - 1] / 1e6);
+            }
+        }
+        
+        private static double percentile(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+        }
+    }
+    
+    private static final class Options {
+        private String url = "http://localhost:8080";
+        private String path = "/api/audio/analyze";
+        private String method = "POST";
+        private String user = "admin";
+        private String password = "1234";
+        private String token;
+        private int concurrency = 200;
+        private int durationSeconds = 30;
+        private int warmupSeconds = 5;
+        private int samples = 32000;
+        private int devices = 16;
+        
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--url" -> options.url = value;
+                    case "--path" -> options.path = value;
+                    case "--method" -> options.method = value.toUpperCase();
+                    case "--user" -> options.user = value;
+                    case "--password" -> options.password = value;
+                    case "--token" -> options.token = value;
+                    case "--concurrency" -> options.concurrency = Integer.parseInt(value);
+                    case "--duration" -> options.durationSeconds = Integer.parseInt(value);
+                    case "--warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                    case "--samples" -> options.samples = Integer.parseInt(value);
+                    case "--devices" -> options.devices = Math.max(1, Integer.parseInt(value));
+                    default -> throw new IllegalArgumentException("알 수 없는 옵션: " + args[i]);
+                }
+            }
+            return options;
+        }
+    }
+}
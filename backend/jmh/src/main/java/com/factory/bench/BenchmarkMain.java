@@ -0,0 +1,38 @@
+package com.factory.bench;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+
+/**
+ * benchmarks.jar 진입점
+ *
+ * JMH 명령행 옵션을 그대로 받되, 시간과 함께 요청당 할당량을 보도록 gc 프로파일러를 항상 붙입니다
+ * (결과의 gc.alloc.rate.norm = 호출 1회당 할당 바이트).
+ *
+ *   java -jar target/benchmarks.jar                         전체 실행
+ *   java -jar target/benchmarks.jar MLResponseDecoder -f 2  이름 패턴 + JMH 옵션
+ *   java -jar target/benchmarks.jar -l                      벤치마크 목록
+ */
+public class BenchmarkMain {
+    
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = List.of(args);
+        if (arguments.contains("-h") || arguments.contains("-l") || arguments.contains("-lp") || arguments.contains("-lprof")) {
+            Main.main(args);
+            return;
+        }
+        
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        if (commandLine.getProfilers().stream().noneMatch(profiler -> profiler.getKlass().equals(GCProfiler.class.getName()))) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,57 @@
+package com.factory.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청마다 JwtAuthenticationFilter가 수행하는 토큰 검증
+ *
+ * 필터는 validateToken 후 getUserIdFromToken을 호출하므로 요청당 비용은 filterPath(두 번 파싱)입니다.
+ * 비밀 키와 만료 시간은 application.yml과 같은 값을 사용합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtProviderBenchmark {
+    
+    private static final String SECRET = "your-super-secret-key-change-this-in-production-min-256-bits-required-for-security";
+    private static final long EXPIRATION_MILLIS = 86400000L;
+    
+    private JwtProvider jwtProvider;
+    private String token;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtProvider = new JwtProvider(SECRET, EXPIRATION_MILLIS);
+        token = jwtProvider.generateToken("admin");
+    }
+    
+    @Benchmark
+    public boolean validateToken() {
+        return jwtProvider.validateToken(token);
+    }
+    
+    @Benchmark
+    public String getUserIdFromToken() {
+        return jwtProvider.getUserIdFromToken(token);
+    }
+    
+    @Benchmark
+    public String filterPath() {
+        return jwtProvider.validateToken(token) ? jwtProvider.getUserIdFromToken(token) : null;
+    }
+}
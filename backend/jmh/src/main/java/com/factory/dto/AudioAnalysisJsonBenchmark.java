@@ -0,0 +1,98 @@
+package com.factory.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /api/audio/analyze JSON 요청/응답의 Jackson 변환 (Spring MVC와 같은 기본 설정의 ObjectMapper)
+ *
+ * 요청 윈도우 크기: 16000 = 16kHz 1초, 32000 = 16kHz 2초, 96000 = 48kHz 2초 (브라우저 기본 레이트)
+ * 샘플 값은 브라우저 Float32Array를 JSON.stringify 한 것처럼 float 정밀도의 double 표기입니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AudioAnalysisJsonBenchmark {
+    
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+    
+    @State(Scope.Thread)
+    public static class RequestState {
+        @Param({"16000", "32000", "96000"})
+        int windowSamples;
+        
+        AudioAnalysisRequest request;
+        byte[] json;
+        
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            Random random = new Random(42);
+            List<Double> audioData = new ArrayList<>(windowSamples);
+            for (int i = 0; i < windowSamples; i++) {
+                audioData.add((double) (float) (random.nextGaussian() * 0.1));
+            }
+            request = new AudioAnalysisRequest(audioData, 16000, windowSamples / 16, "mic-1");
+            json = OBJECT_MAPPER.writeValueAsBytes(request);
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class ResponseState {
+        AudioAnalysisResponse response;
+        byte[] json;
+        
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            response = AudioAnalysisResponse.builder()
+                .success(true)
+                .isDangerous(false)
+                .dangerProbability(0.031)
+                .predictions(List.of(0.912, 0.011, 0.012, 0.008, 0.031, 0.017, 0.009))
+                .predictedClass(0)
+                .dangerEpisode(false)
+                .message("정상 소리입니다. (신뢰도: 91.20%)")
+                .build();
+            json = OBJECT_MAPPER.writeValueAsBytes(response);
+        }
+    }
+    
+    @Benchmark
+    public AudioAnalysisRequest readRequest(RequestState state) throws IOException {
+        return OBJECT_MAPPER.readValue(state.json, AudioAnalysisRequest.class);
+    }
+    
+    @Benchmark
+    public byte[] writeRequest(RequestState state) throws IOException {
+        return OBJECT_MAPPER.writeValueAsBytes(state.request);
+    }
+    
+    @Benchmark
+    public AudioAnalysisResponse readResponse(ResponseState state) throws IOException {
+        return OBJECT_MAPPER.readValue(state.json, AudioAnalysisResponse.class);
+    }
+    
+    @Benchmark
+    public byte[] writeResponse(ResponseState state) throws IOException {
+        return OBJECT_MAPPER.writeValueAsBytes(state.response);
+    }
+}
@@ -0,0 +1,82 @@
+package com.factory.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AudioAnalysisService의 정규화(convertAudioToModelInput)와 위험 판단(decide, calculateDangerProbability)
+ *
+ * 위험 판단은 정상 / 위험 / 애매(위험 클래스지만 임계값 미달) 세 가지 예측을 번갈아 넣어
+ * 분기 예측이 한 경로에 고정되지 않도록 합니다. 위험 경로의 경고 로그는 logback.xml에서 꺼 두었으므로
+ * 로그 출력 비용은 포함하지 않습니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysisDecisionBenchmark {
+    
+    private static final double[][] PREDICTIONS = {
+        {0.91, 0.01, 0.02, 0.01, 0.03, 0.01, 0.01},  // 정상
+        {0.02, 0.93, 0.01, 0.01, 0.01, 0.01, 0.01},  // 위험 (scream)
+        {0.20, 0.55, 0.05, 0.05, 0.05, 0.05, 0.05},  // 위험 클래스지만 조건 미충족
+    };
+    private static final int CLASS_COUNT = 7;
+    
+    @State(Scope.Thread)
+    public static class WindowState {
+        @Param({"16000", "32000"})
+        int windowSamples;
+        
+        float[] samples;
+        AudioAnalysisService.AnalysisScratch scratch;
+        
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            samples = new float[windowSamples];
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = (float) (random.nextGaussian() * 0.1);
+            }
+            scratch = new AudioAnalysisService.AnalysisScratch();
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class PredictionState {
+        AudioAnalysisService.AnalysisScratch scratch = new AudioAnalysisService.AnalysisScratch();
+        double[] probabilities = new double[CLASS_COUNT];
+        int next;
+    }
+    
+    @Benchmark
+    public float[] normalize(WindowState state) {
+        return AudioAnalysisService.convertAudioToModelInput(state.samples, state.samples.length, state.scratch);
+    }
+    
+    @Benchmark
+    public void decide(PredictionState state, Blackhole blackhole) {
+        double[] prediction = PREDICTIONS[state.next];
+        state.next = state.next == PREDICTIONS.length - 1 ? 0 : state.next + 1;
+        System.arraycopy(prediction, 0, state.probabilities, 0, CLASS_COUNT);
+        
+        AudioAnalysisService.decide(state.probabilities, CLASS_COUNT, state.scratch);
+        blackhole.consume(state.scratch);
+        blackhole.consume(AudioAnalysisService.calculateDangerProbability(state.probabilities, CLASS_COUNT));
+    }
+}
@@ -0,0 +1,105 @@
+package com.factory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MLService의 예측 응답 파싱 (MLResponseDecoder)
+ *
+ * ML 서비스(Flask jsonify)가 보내는 모양 그대로의 응답을 batchSize개 항목으로 만들어 디코딩합니다.
+ * 1이면 단일 응답, 2 이상이면 배치 응답({"prediction": [[...], ...], "errors": [...]}) 입니다.
+ * jacksonMap은 비교 기준으로, 같은 본문을 Map으로 읽는 일반적인 Jackson 파싱입니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MLResponseDecoderBenchmark {
+    
+    private static final int CLASS_COUNT = 7;
+    
+    @Param({"1", "16"})
+    private int batchSize;
+    
+    private ObjectMapper objectMapper;
+    private MLResponseDecoder decoder;
+    private byte[] json;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        decoder = new MLResponseDecoder(objectMapper.getFactory());
+        json = responseJson(batchSize, new Random(42));
+    }
+    
+    @Benchmark
+    public Object decode() throws IOException {
+        return batchSize == 1 ? decoder.decodeSingle(json) : decoder.decodeBatch(json, batchSize);
+    }
+    
+    @Benchmark
+    public Map<?, ?> jacksonMap() throws IOException {
+        return objectMapper.readValue(json, Map.class);
+    }
+    
+    private static byte[] responseJson(int count, Random random) {
+        StringBuilder builder = new StringBuilder("{\"success\":true,\"prediction\":");
+        if (count == 1) {
+            appendPrediction(builder, random);
+        } else {
+            builder.append('[');
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                appendPrediction(builder, random);
+            }
+            builder.append("],\"errors\":[");
+            for (int i = 0; i < count; i++) {
+                builder.append(i > 0 ? ",null" : "null");
+            }
+            builder.append("],\"count\":").append(count);
+        }
+        builder.append(",\"input_shape\":[null,128,63,1],\"output_shape\":[null,").append(CLASS_COUNT).append("]}");
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * softmax 출력처럼 합이 1인 확률을 파이썬 float 표기(유효 숫자 17자리)로 추가합니다.
+     */
+    private static void appendPrediction(StringBuilder builder, Random random) {
+        double[] values = new double[CLASS_COUNT];
+        double sum = 0;
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            values[i] = random.nextDouble();
+            sum += values[i];
+        }
+        builder.append('[');
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(values[i] / sum);
+        }
+        builder.append(']');
+    }
+}
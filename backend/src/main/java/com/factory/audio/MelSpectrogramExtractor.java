@@ -0,0 +1,340 @@
+package com.factory.audio;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 오디오 샘플을 모델 입력용 log-mel spectrogram으로 변환합니다.
+ *
+ * ml_service/model_loader.py의 audio_to_mel_spectrogram()과 동일한 결과를 내도록 구현되어 있습니다.
+ * - 길이 조정: sampleRate * 2초로 자르거나 0으로 패딩
+ * - 최대 절대값으로 정규화
+ * - STFT: n_fft=2048, hop=512, periodic Hann 윈도우, center=True (양쪽 n_fft/2 만큼 0 패딩)
+ * - Mel 필터뱅크: 128개, fmin=0, fmax=sampleRate/2, Slaney mel 스케일 + Slaney 정규화 (librosa 기본값)
+ * - power_to_db(ref=max, amin=1e-10, top_db=80) 후 (dB + 80) / 80 을 [0, 1]로 클리핑
+ *
+ * 출력은 (n_mels, frames, 1) 텐서를 행 우선으로 펼친 배열입니다 (index = mel * frames + frame).
+ * 16kHz 기준 (128, 63, 1) = 8,064개 값입니다.
+ *
+ * FFT 테이블과 mel 필터뱅크는 샘플링 레이트별로 한 번만 계산하여 캐시하며,
+ * 계산용 작업 버퍼는 스레드별로 재사용합니다.
+ * 캐시는 모델 레이트(16kHz)와 먼저 요청된 MAX_CACHED_RATES개 레이트까지만 보관하고, 그 밖의 레이트는 호출마다 계산합니다.
+ * (리샘플링을 끈 경우 요청의 레이트가 그대로 들어오므로 캐시가 무한히 커지지 않도록)
+ */
+public final class MelSpectrogramExtractor {
+    
+    public static final int N_FFT = 2048;
+    public static final int HOP_LENGTH = 512;
+    public static final int N_MELS = 128;
+    public static final double DURATION_SECONDS = 2.0;
+    
+    private static final double AMIN = 1e-10;
+    private static final double TOP_DB = 80.0;
+    
+    private static final int MODEL_SAMPLE_RATE = 16000;
+    private static final int MAX_CACHED_RATES = 8;
+    
+    private static final Map<Integer, MelSpectrogramExtractor> CACHE = new ConcurrentHashMap<>();
+    
+    private final int sampleRate;
+    private final int targetLength;
+    private final int frames;
+    
+    // FFT (N_FFT 실수 입력 → N_FFT/2 복소 FFT + 후처리)
+    private final int half;
+    private final int[] bitReverse;
+    private final double[] fftCos;
+    private final double[] fftSin;
+    private final double[] postCos;
+    private final double[] postSin;
+    private final double[] window;
+    
+    // 희소 mel 필터뱅크: 밴드 m은 FFT bin [filterStart[m], filterStart[m] + filterWeights[m].length) 사용
+    private final int[] filterStart;
+    private final double[][] filterWeights;
+    
+    private final ThreadLocal<Workspace> workspace;
+    
+    private MelSpectrogramExtractor(int sampleRate) {
+        this.sampleRate = sampleRate;
+        this.targetLength = (int) (sampleRate * DURATION_SECONDS);
+        this.frames = 1 + targetLength / HOP_LENGTH;
+        
+        this.half = N_FFT / 2;
+        this.bitReverse = new int[half];
+        int bits = Integer.numberOfTrailingZeros(half);
+        for (int i = 0; i < half; i++) {
+            bitReverse[i] = Integer.reverse(i) >>> (32 - bits);
+        }
+        this.fftCos = new double[half / 2];
+        this.fftSin = new double[half / 2];
+        for (int i = 0; i < half / 2; i++) {
+            double angle = -2.0 * Math.PI * i / half;
+            fftCos[i] = Math.cos(angle);
+            fftSin[i] = Math.sin(angle);
+        }
+        this.postCos = new double[half + 1];
+        this.postSin = new double[half + 1];
+        for (int k = 0; k <= half; k++) {
+            double angle = -2.0 * Math.PI * k / N_FFT;
+            postCos[k] = Math.cos(angle);
+            postSin[k] = Math.sin(angle);
+        }
+        this.window = new double[N_FFT];
+        for (int n = 0; n < N_FFT; n++) {
+            window[n] = 0.5 - 0.5 * Math.cos(2.0 * Math.PI * n / N_FFT);
+        }
+        
+        double[][] dense = melFilterBank(sampleRate, N_FFT, N_MELS, 0.0, sampleRate / 2.0);
+        this.filterStart = new int[N_MELS];
+        this.filterWeights = new double[N_MELS][];
+        for (int m = 0; m < N_MELS; m++) {
+            int lo = 0;
+            while (lo < dense[m].length && dense[m][lo] == 0.0) lo++;
+            int hi = dense[m].length;
+            while (hi > lo && dense[m][hi - 1] == 0.0) hi--;
+            filterStart[m] = lo;
+            filterWeights[m] = java.util.Arrays.copyOfRange(dense[m], lo, hi);
+        }
+        
+        this.workspace = ThreadLocal.withInitial(() -> new Workspace(half, frames));
+    }
+    
+    /**
+     * 샘플링 레이트에 맞는 (캐시된) 추출기를 반환합니다.
+     *
+     * @throws IllegalArgumentException 지원 범위(PolyphaseResampler.MIN_RATE ~ MAX_RATE)를 벗어난 레이트
+     */
+    public static MelSpectrogramExtractor forSampleRate(int sampleRate) {
+        if (!PolyphaseResampler.isSupportedRate(sampleRate)) {
+            throw new IllegalArgumentException("지원하지 않는 샘플링 레이트입니다: " + sampleRate
+                + " (" + PolyphaseResampler.MIN_RATE + " ~ " + PolyphaseResampler.MAX_RATE + "Hz)");
+        }
+        MelSpectrogramExtractor extractor = CACHE.get(sampleRate);
+        if (extractor != null) {
+            return extractor;
+        }
+        if (sampleRate != MODEL_SAMPLE_RATE && CACHE.size() >= MAX_CACHED_RATES) {
+            return new MelSpectrogramExtractor(sampleRate);
+        }
+        return CACHE.computeIfAbsent(sampleRate, MelSpectrogramExtractor::new);
+    }
+    
+    public int getFrames() {
+        return frames;
+    }
+    
+    /**
+     * 출력 텐서 크기 (n_mels * frames)
+     */
+    public int getOutputSize() {
+        return N_MELS * frames;
+    }
+    
+    /**
+     * 모델 입력 shape (n_mels, frames, 1)
+     */
+    public int[] getOutputShape() {
+        return new int[]{N_MELS, frames, 1};
+    }
+    
+    /**
+     * log-mel spectrogram을 계산하여 out[0..getOutputSize())에 기록합니다.
+     *
+     * @param samples 오디오 샘플
+     * @param length 유효한 샘플 수
+     * @param out 출력 버퍼 (getOutputSize() 이상)
+     */
+    public void extract(float[] samples, int length, float[] out) {
+        Workspace ws = workspace.get();
+        int usable = Math.min(length, targetLength);
+        
+        // 정규화 (-1.0 ~ 1.0 범위로) - 2초로 자른 뒤의 최대값 기준 (Python과 동일)
+        double maxVal = 0.0;
+        for (int i = 0; i < usable; i++) {
+            maxVal = Math.max(maxVal, Math.abs(samples[i]));
+        }
+        double scale = maxVal > 0 ? 1.0 / maxVal : 1.0;
+        
+        double[] re = ws.re;
+        double[] im = ws.im;
+        double[] power = ws.power;
+        double[] mel = ws.mel;
+        int pad = N_FFT / 2;
+        double melMax = 0.0;
+        
+        for (int t = 0; t < frames; t++) {
+            // center=True: 신호 앞뒤로 n_fft/2 만큼 0 패딩한 것과 동일
+            int origin = t * HOP_LENGTH - pad;
+            for (int n = 0; n < half; n++) {
+                int i0 = origin + 2 * n;
+                int i1 = i0 + 1;
+                double x0 = (i0 >= 0 && i0 < usable) ? samples[i0] * scale * window[2 * n] : 0.0;
+                double x1 = (i1 >= 0 && i1 < usable) ? samples[i1] * scale * window[2 * n + 1] : 0.0;
+                int r = bitReverse[n];
+                re[r] = x0;
+                im[r] = x1;
+            }
+            fft(re, im);
+            powerSpectrum(re, im, power);
+            
+            for (int m = 0; m < N_MELS; m++) {
+                double[] weights = filterWeights[m];
+                int start = filterStart[m];
+                double sum = 0.0;
+                for (int k = 0; k < weights.length; k++) {
+                    sum += weights[k] * power[start + k];
+                }
+                mel[m * frames + t] = sum;
+                if (sum > melMax) {
+                    melMax = sum;
+                }
+            }
+        }
+        
+        // power_to_db(ref=np.max, top_db=80) → (dB + 80) / 80 → [0, 1] 클리핑
+        double refDb = 10.0 * Math.log10(Math.max(AMIN, melMax));
+        int size = N_MELS * frames;
+        double dbMax = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            double db = 10.0 * Math.log10(Math.max(AMIN, mel[i])) - refDb;
+            mel[i] = db;
+            if (db > dbMax) {
+                dbMax = db;
+            }
+        }
+        double floor = dbMax - TOP_DB;
+        for (int i = 0; i < size; i++) {
+            double db = Math.max(mel[i], floor);
+            double v = (db + TOP_DB) / TOP_DB;
+            out[i] = (float) (v < 0.0 ? 0.0 : (v > 1.0 ? 1.0 : v));
+        }
+    }
+    
+    /**
+     * 비트 반전 순서로 채워진 복소 배열에 대해 in-place radix-2 FFT를 수행합니다.
+     */
+    private void fft(double[] re, double[] im) {
+        int n = half;
+        for (int size = 2; size <= n; size <<= 1) {
+            int halfSize = size >>> 1;
+            int step = n / size;
+            for (int start = 0; start < n; start += size) {
+                for (int j = 0; j < halfSize; j++) {
+                    double wr = fftCos[j * step];
+                    double wi = fftSin[j * step];
+                    int a = start + j;
+                    int b = a + halfSize;
+                    double tr = re[b] * wr - im[b] * wi;
+                    double ti = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+    
+    /**
+     * 짝/홀 샘플을 복소수로 묶어 계산한 N/2 FFT 결과(Z)로부터
+     * 실수 입력 N FFT의 파워 스펙트럼 |X[k]|^2 (k = 0..N/2)을 구합니다.
+     *
+     * X[k] = E[k] + W^k * O[k],  E[k] = (Z[k] + conj(Z[M-k])) / 2,  O[k] = (Z[k] - conj(Z[M-k])) / 2i
+     */
+    private void powerSpectrum(double[] re, double[] im, double[] power) {
+        int m = half;
+        for (int k = 0; k <= m; k++) {
+            int a = k % m;
+            int b = (m - k) % m;
+            double zr = re[a];
+            double zi = im[a];
+            double cr = re[b];
+            double ci = -im[b];
+            
+            double er = 0.5 * (zr + cr);
+            double ei = 0.5 * (zi + ci);
+            // (Z - conj) / 2i = (dr + i di) / 2i = (di - i dr) / 2
+            double dr = zr - cr;
+            double di = zi - ci;
+            double or = 0.5 * di;
+            double oi = -0.5 * dr;
+            
+            double wr = postCos[k];
+            double wi = postSin[k];
+            double xr = er + (or * wr - oi * wi);
+            double xi = ei + (or * wi + oi * wr);
+            power[k] = xr * xr + xi * xi;
+        }
+    }
+    
+    /**
+     * librosa.filters.mel(sr, n_fft, n_mels, fmin, fmax, htk=False, norm='slaney')과 동일한 필터뱅크
+     */
+    static double[][] melFilterBank(int sampleRate, int nFft, int nMels, double fmin, double fmax) {
+        int bins = 1 + nFft / 2;
+        double[] fftFreqs = new double[bins];
+        for (int k = 0; k < bins; k++) {
+            fftFreqs[k] = (double) k * sampleRate / nFft;
+        }
+        
+        double minMel = hzToMel(fmin);
+        double maxMel = hzToMel(fmax);
+        double[] melF = new double[nMels + 2];
+        for (int i = 0; i < melF.length; i++) {
+            melF[i] = melToHz(minMel + (maxMel - minMel) * i / (nMels + 1));
+        }
+        
+        double[][] weights = new double[nMels][bins];
+        for (int m = 0; m < nMels; m++) {
+            double lowerDiff = melF[m + 1] - melF[m];
+            double upperDiff = melF[m + 2] - melF[m + 1];
+            double enorm = 2.0 / (melF[m + 2] - melF[m]);
+            for (int k = 0; k < bins; k++) {
+                double lower = (fftFreqs[k] - melF[m]) / lowerDiff;
+                double upper = (melF[m + 2] - fftFreqs[k]) / upperDiff;
+                double w = Math.max(0.0, Math.min(lower, upper));
+                // librosa는 필터뱅크를 float32로 반환
+                weights[m][k] = (float) (w * enorm);
+            }
+        }
+        return weights;
+    }
+    
+    // Slaney mel 스케일 (librosa htk=False)
+    private static final double F_SP = 200.0 / 3;
+    private static final double MIN_LOG_HZ = 1000.0;
+    private static final double MIN_LOG_MEL = MIN_LOG_HZ / F_SP;
+    private static final double LOG_STEP = Math.log(6.4) / 27.0;
+    
+    static double hzToMel(double hz) {
+        if (hz >= MIN_LOG_HZ) {
+            return MIN_LOG_MEL + Math.log(hz / MIN_LOG_HZ) / LOG_STEP;
+        }
+        return hz / F_SP;
+    }
+    
+    static double melToHz(double mel) {
+        if (mel >= MIN_LOG_MEL) {
+            return MIN_LOG_HZ * Math.exp(LOG_STEP * (mel - MIN_LOG_MEL));
+        }
+        return F_SP * mel;
+    }
+    
+    /**
+     * 스레드별 작업 버퍼
+     */
+    private static final class Workspace {
+        private final double[] re;
+        private final double[] im;
+        private final double[] power;
+        private final double[] mel;
+        
+        Workspace(int half, int frames) {
+            this.re = new double[half];
+            this.im = new double[half];
+            this.power = new double[half + 1];
+            this.mel = new double[N_MELS * frames];
+        }
+    }
+}
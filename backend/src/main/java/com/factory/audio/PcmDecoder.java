@@ -0,0 +1,162 @@
+package com.factory.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * 리틀 엔디언 PCM 바이트 스트림을 모노 float 샘플 배열로 디코딩합니다.
+ *
+ * 지원 형식:
+ * - int16: 16비트 정수 PCM (-32768 ~ 32767 → -1.0 ~ 1.0)
+ * - float32: 32비트 부동소수점 PCM
+ *
+ * 다채널 입력은 프레임 단위로 평균을 내어 모노로 다운믹스합니다.
+ * 박싱된 Double 리스트를 거치지 않고 스트림에서 바로 primitive 배열로 변환합니다.
+ */
+public final class PcmDecoder {
+    
+    private static final int CHUNK_SIZE = 8192;
+    private static final float INT16_SCALE = 1.0f / 32768.0f;
+    
+    /** 지원하는 최대 채널 수 (프레임 크기 계산이 넘치거나 거대한 버퍼를 할당하지 않도록 제한) */
+    public static final int MAX_CHANNELS = 8;
+    
+    public enum SampleFormat {
+        INT16(2),
+        FLOAT32(4);
+        
+        private final int bytesPerSample;
+        
+        SampleFormat(int bytesPerSample) {
+            this.bytesPerSample = bytesPerSample;
+        }
+        
+        public int getBytesPerSample() {
+            return bytesPerSample;
+        }
+        
+        /**
+         * 헤더 값(int16, float32 등)을 샘플 형식으로 변환합니다.
+         */
+        public static SampleFormat parse(String value) {
+            if (value == null || value.isBlank()) {
+                return INT16;
+            }
+            switch (value.trim().toLowerCase()) {
+                case "int16":
+                case "s16le":
+                case "pcm16":
+                    return INT16;
+                case "float32":
+                case "f32le":
+                    return FLOAT32;
+                default:
+                    throw new IllegalArgumentException("지원하지 않는 샘플 형식입니다: " + value);
+            }
+        }
+    }
+    
+    private PcmDecoder() {
+    }
+    
+    /**
+     * 입력 스트림 전체를 읽어 모노 샘플 배열로 디코딩합니다.
+     *
+     * @param in PCM 바이트 스트림
+     * @param format 샘플 형식
+     * @param channels 채널 수 (1 ~ MAX_CHANNELS)
+     * @param contentLength 전체 바이트 수 (모르면 -1)
+     * @param maxBytes 허용하는 최대 바이트 수
+     * @return 디코딩된 샘플 (배열 길이 == 샘플 수)
+     */
+    public static float[] decode(InputStream in, SampleFormat format, int channels,
+                                 long contentLength, long maxBytes) throws IOException {
+        if (!isSupportedChannels(channels)) {
+            throw new IllegalArgumentException("지원하지 않는 채널 수입니다: " + channels + " (1 ~ " + MAX_CHANNELS + ")");
+        }
+        if (contentLength > maxBytes) {
+            throw new IllegalArgumentException("오디오 데이터가 너무 큽니다: " + contentLength + " bytes");
+        }
+        
+        int frameBytes = Math.multiplyExact(format.getBytesPerSample(), channels);
+        int initialFrames = contentLength > 0 ? (int) (contentLength / frameBytes) : 16000;
+        float[] samples = new float[Math.max(initialFrames, 1)];
+        int frameCount = 0;
+        
+        // 청크 경계에 걸친 프레임을 처리하기 위해 남은 바이트를 앞으로 당겨서 이어 읽음
+        byte[] chunk = new byte[Math.max(CHUNK_SIZE - CHUNK_SIZE % frameBytes, frameBytes)];
+        int pending = 0;
+        long totalBytes = 0;
+        int read;
+        while ((read = in.read(chunk, pending, chunk.length - pending)) != -1) {
+            totalBytes += read;
+            if (totalBytes > maxBytes) {
+                throw new IllegalArgumentException("오디오 데이터가 너무 큽니다: " + totalBytes + " bytes 초과");
+            }
+            
+            int available = pending + read;
+            int frames = available / frameBytes;
+            if (frameCount + frames > samples.length) {
+                samples = Arrays.copyOf(samples, Math.max(samples.length * 2, frameCount + frames));
+            }
+            
+            decodeFrames(chunk, frames, format, channels, samples, frameCount);
+            frameCount += frames;
+            
+            int consumed = frames * frameBytes;
+            pending = available - consumed;
+            if (pending > 0) {
+                System.arraycopy(chunk, consumed, chunk, 0, pending);
+            }
+        }
+        
+        if (pending != 0) {
+            throw new IllegalArgumentException("PCM 데이터 길이가 프레임 크기(" + frameBytes + " bytes)의 배수가 아닙니다");
+        }
+        
+        return frameCount == samples.length ? samples : Arrays.copyOf(samples, frameCount);
+    }
+    
+    /**
+     * 지원 범위(1 ~ MAX_CHANNELS) 안의 채널 수인지 확인합니다.
+     */
+    public static boolean isSupportedChannels(int channels) {
+        return channels >= 1 && channels <= MAX_CHANNELS;
+    }
+    
+    /**
+     * 바이트 배열의 PCM 프레임들을 모노 샘플로 변환하여 출력 배열에 기록합니다.
+     */
+    public static void decodeFrames(byte[] src, int frames, SampleFormat format, int channels,
+                                    float[] dst, int dstOffset) {
+        decodeFrames(src, 0, frames, format, channels, dst, dstOffset);
+    }
+    
+    /**
+     * 바이트 배열의 srcOffset 위치부터 PCM 프레임들을 모노 샘플로 변환합니다.
+     */
+    public static void decodeFrames(byte[] src, int srcOffset, int frames, SampleFormat format, int channels,
+                                    float[] dst, int dstOffset) {
+        float channelScale = 1.0f / channels;
+        int pos = srcOffset;
+        for (int f = 0; f < frames; f++) {
+            float sum = 0.0f;
+            for (int c = 0; c < channels; c++) {
+                if (format == SampleFormat.INT16) {
+                    short value = (short) ((src[pos] & 0xFF) | (src[pos + 1] << 8));
+                    sum += value * INT16_SCALE;
+                    pos += 2;
+                } else {
+                    int bits = (src[pos] & 0xFF)
+                        | ((src[pos + 1] & 0xFF) << 8)
+                        | ((src[pos + 2] & 0xFF) << 16)
+                        | (src[pos + 3] << 24);
+                    sum += Float.intBitsToFloat(bits);
+                    pos += 4;
+                }
+            }
+            dst[dstOffset + f] = channels == 1 ? sum : sum * channelScale;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.factory.audio;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 다상(polyphase) windowed-sinc 리샘플러
+ *
+ * 입력/출력 샘플링 레이트의 비를 기약분수 L/M으로 나타내고, 출력 샘플마다 입력 위치의 소수부(위상)에 해당하는
+ * 필터 계수 한 줄만 곱합니다. 필터는 Kaiser 윈도우를 씌운 sinc 저역통과 필터이며,
+ * 차단 주파수는 두 레이트 중 낮은 쪽 나이퀴스트의 94% 입니다 (다운샘플링 시 앨리어싱 방지).
+ *
+ * - 레이트는 MIN_RATE ~ MAX_RATE 범위만 지원합니다. (범위 밖 레이트는 테이블이 수백 MB까지 커질 수 있음)
+ * - 필터 테이블(위상 × 탭)은 표준 레이트(COMMON_RATES) 쌍마다 한 번만 계산하여 캐시합니다.
+ *   그 밖의 레이트 쌍은 최근 사용한 MAX_UNCOMMON_ENTRIES개만 보관합니다. (요청마다 임의의 레이트가 들어와도 캐시가 커지지 않도록)
+ * - 위상 수 L이 MAX_PHASES를 넘는 특이한 레이트 쌍은 위상을 MAX_PHASES 단계로 양자화합니다.
+ * - 상태가 없으므로 여러 스레드에서 동시에 사용할 수 있습니다.
+ *
+ * 예) 48000 → 16000: L/M = 1/3, 위상 1개 × 104탭 / 44100 → 16000: L/M = 160/441, 위상 160개 × 94탭
+ */
+public final class PolyphaseResampler {
+    
+    private static final int ZERO_CROSSINGS = 16;   // 필터 한쪽에 포함하는 sinc 영점 수
+    private static final double ROLLOFF = 0.94;     // 차단 주파수 (낮은 쪽 나이퀴스트 대비)
+    private static final double KAISER_BETA = 8.0;  // 저지대역 감쇠 약 80dB
+    private static final int MAX_PHASES = 1024;
+    
+    /** 지원하는 샘플링 레이트 범위 (Hz) */
+    public static final int MIN_RATE = 8000;
+    public static final int MAX_RATE = 192000;
+    
+    /** 필터 테이블을 캐시하는 표준 레이트 (정렬됨, 최대 12 × 12 쌍) */
+    private static final int[] COMMON_RATES = {
+        8000, 11025, 16000, 22050, 24000, 32000, 44100, 48000, 88200, 96000, 176400, 192000
+    };
+    
+    private static final int MAX_UNCOMMON_ENTRIES = 8;
+    
+    private static final Map<Long, PolyphaseResampler> CACHE = new ConcurrentHashMap<>();
+    private static final Map<Long, PolyphaseResampler> UNCOMMON_CACHE =
+        new LinkedHashMap<Long, PolyphaseResampler>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PolyphaseResampler> eldest) {
+                return size() > MAX_UNCOMMON_ENTRIES;
+            }
+        };
+    
+    private final int inputRate;
+    private final int outputRate;
+    private final int up;        // L
+    private final int down;      // M
+    private final int phases;    // 테이블 위상 수 (L 또는 MAX_PHASES)
+    private final int halfTaps;  // H: 출력 위치 앞쪽으로 H-1개, 뒤쪽으로 H개 입력 샘플 사용
+    private final int taps;      // 2H
+    private final float[] table; // [phase * taps + k]
+    
+    private PolyphaseResampler(int inputRate, int outputRate) {
+        this.inputRate = inputRate;
+        this.outputRate = outputRate;
+        int g = gcd(inputRate, outputRate);
+        this.up = outputRate / g;
+        this.down = inputRate / g;
+        this.phases = Math.min(up, MAX_PHASES);
+        
+        // 입력 샘플 단위의 차단 주파수 (cycles/sample)
+        double cutoff = 0.5 * ROLLOFF * Math.min(1.0, (double) up / down);
+        this.halfTaps = (int) Math.ceil(ZERO_CROSSINGS / (2.0 * cutoff));
+        this.taps = 2 * halfTaps;
+        this.table = new float[phases * taps];
+        
+        double kaiserNorm = besselI0(KAISER_BETA);
+        for (int p = 0; p < phases; p++) {
+            double frac = (double) p / phases;
+            double sum = 0.0;
+            double[] row = new double[taps];
+            for (int k = 0; k < taps; k++) {
+                // 탭 k는 입력 인덱스 base - H + 1 + k, 출력 위치와의 거리 tau = frac + H - 1 - k
+                double tau = frac + halfTaps - 1 - k;
+                double x = tau / halfTaps;
+                if (Math.abs(x) >= 1.0) {
+                    continue;
+                }
+                double window = besselI0(KAISER_BETA * Math.sqrt(1.0 - x * x)) / kaiserNorm;
+                row[k] = 2.0 * cutoff * sinc(2.0 * cutoff * tau) * window;
+                sum += row[k];
+            }
+            // 위상마다 DC 이득을 1로 맞춤 (위상별 이득 차이로 생기는 잡음 제거)
+            for (int k = 0; k < taps; k++) {
+                table[p * taps + k] = (float) (row[k] / sum);
+            }
+        }
+    }
+    
+    /**
+     * 레이트 쌍에 맞는 (캐시된) 리샘플러를 반환합니다.
+     *
+     * @throws IllegalArgumentException 지원 범위를 벗어난 레이트
+     */
+    public static PolyphaseResampler forRates(int inputRate, int outputRate) {
+        if (!isSupportedRate(inputRate) || !isSupportedRate(outputRate)) {
+            throw new IllegalArgumentException("지원하지 않는 샘플링 레이트입니다: " + inputRate + " → " + outputRate
+                + " (" + MIN_RATE + " ~ " + MAX_RATE + "Hz)");
+        }
+        long key = ((long) inputRate << 32) | outputRate;
+        if (isCommonRate(inputRate) && isCommonRate(outputRate)) {
+            return CACHE.computeIfAbsent(key, k -> new PolyphaseResampler(inputRate, outputRate));
+        }
+        PolyphaseResampler resampler;
+        synchronized (UNCOMMON_CACHE) {
+            resampler = UNCOMMON_CACHE.get(key);
+        }
+        if (resampler == null) {
+            // 테이블 계산은 잠금 밖에서 (동시에 처음 요청되면 중복 계산될 수 있음)
+            resampler = new PolyphaseResampler(inputRate, outputRate);
+            synchronized (UNCOMMON_CACHE) {
+                UNCOMMON_CACHE.put(key, resampler);
+            }
+        }
+        return resampler;
+    }
+    
+    /**
+     * 지원 범위(MIN_RATE ~ MAX_RATE) 안의 레이트인지 확인합니다.
+     */
+    public static boolean isSupportedRate(int rate) {
+        return rate >= MIN_RATE && rate <= MAX_RATE;
+    }
+    
+    private static boolean isCommonRate(int rate) {
+        return Arrays.binarySearch(COMMON_RATES, rate) >= 0;
+    }
+    
+    public int getInputRate() {
+        return inputRate;
+    }
+    
+    public int getOutputRate() {
+        return outputRate;
+    }
+    
+    /**
+     * 입력 샘플 수에 대한 출력 샘플 수 (ceil(length * L / M))
+     */
+    public int getOutputLength(int inputLength) {
+        return (int) (((long) inputLength * up + down - 1) / down);
+    }
+    
+    /**
+     * in[0..length)을 리샘플링하여 out[0..getOutputLength(length))에 기록합니다.
+     * 입력 범위 밖의 샘플은 0으로 취급합니다.
+     *
+     * @return 기록한 출력 샘플 수
+     */
+    public int resample(float[] in, int length, float[] out) {
+        int outLength = getOutputLength(length);
+        long position = 0;  // 출력 j의 입력 위치 × L (= j * M)
+        for (int j = 0; j < outLength; j++, position += down) {
+            int base = (int) (position / up);
+            int remainder = (int) (position - (long) base * up);
+            int phase = phases == up ? remainder : (int) ((long) remainder * phases / up);
+            int row = phase * taps;
+            int start = base - halfTaps + 1;
+            
+            float acc = 0.0f;
+            if (start >= 0 && start + taps <= length) {
+                for (int k = 0; k < taps; k++) {
+                    acc += table[row + k] * in[start + k];
+                }
+            } else {
+                int from = Math.max(0, -start);
+                int to = Math.min(taps, length - start);
+                for (int k = from; k < to; k++) {
+                    acc += table[row + k] * in[start + k];
+                }
+            }
+            out[j] = acc;
+        }
+        return outLength;
+    }
+    
+    private static double sinc(double x) {
+        if (x == 0.0) {
+            return 1.0;
+        }
+        double px = Math.PI * x;
+        return Math.sin(px) / px;
+    }
+    
+    /**
+     * 0차 제1종 변형 베셀 함수 (Kaiser 윈도우용 급수 전개)
+     */
+    private static double besselI0(double x) {
+        double sum = 1.0;
+        double term = 1.0;
+        double halfX = x / 2.0;
+        for (int k = 1; k < 50; k++) {
+            term *= (halfX / k) * (halfX / k);
+            sum += term;
+            if (term < sum * 1e-12) {
+                break;
+            }
+        }
+        return sum;
+    }
+    
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,103 @@
+package com.factory.audio;
+
+/**
+ * 연속 PCM 스트림에 대한 슬라이딩 윈도우 버퍼입니다.
+ *
+ * 윈도우 크기(windowSize)만큼 샘플이 모이면 첫 윈도우가 준비되고,
+ * 이후에는 hopSize 샘플마다 다음 윈도우가 준비됩니다 (hopSize < windowSize이면 겹침 분석).
+ * 내부적으로 고정 크기 링 버퍼를 사용하므로 스트림 길이와 무관하게 메모리 사용량이 일정합니다.
+ *
+ * 사용 예:
+ * <pre>
+ * int pos = 0;
+ * while (pos &lt; count) {
+ *     pos += window.write(samples, pos, count - pos);
+ *     if (window.isReady()) {
+ *         window.copyTo(windowBuffer);
+ *         // windowBuffer 분석
+ *         window.advance();
+ *     }
+ * }
+ * </pre>
+ *
+ * 스레드 안전하지 않으며, 세션(연결)마다 하나씩 사용합니다.
+ */
+public class SlidingWindow {
+    
+    private final float[] ring;
+    private final int windowSize;
+    private final int hopSize;
+    
+    private int writePos;          // 다음 샘플을 쓸 링 버퍼 위치
+    private int untilReady;        // 다음 윈도우가 준비될 때까지 남은 샘플 수
+    private long totalSamples;     // 지금까지 받은 전체 샘플 수
+    
+    public SlidingWindow(int windowSize, int hopSize) {
+        if (windowSize <= 0 || hopSize <= 0) {
+            throw new IllegalArgumentException("윈도우/홉 크기는 1 이상이어야 합니다");
+        }
+        this.ring = new float[windowSize];
+        this.windowSize = windowSize;
+        this.hopSize = hopSize;
+        this.untilReady = windowSize;
+    }
+    
+    /**
+     * 다음 윈도우가 준비될 때까지 샘플을 기록합니다.
+     *
+     * @return 실제로 기록한 샘플 수 (윈도우가 준비되면 length보다 작을 수 있음)
+     */
+    public int write(float[] src, int offset, int length) {
+        if (untilReady == 0) {
+            return 0;
+        }
+        int n = Math.min(length, untilReady);
+        int first = Math.min(n, windowSize - writePos);
+        System.arraycopy(src, offset, ring, writePos, first);
+        if (n > first) {
+            System.arraycopy(src, offset + first, ring, 0, n - first);
+        }
+        writePos = (writePos + n) % windowSize;
+        untilReady -= n;
+        totalSamples += n;
+        return n;
+    }
+    
+    /**
+     * 분석할 윈도우가 준비되었는지 여부
+     */
+    public boolean isReady() {
+        return untilReady == 0;
+    }
+    
+    /**
+     * 현재 윈도우를 시간 순서대로 dst[0..windowSize)에 복사합니다.
+     */
+    public void copyTo(float[] dst) {
+        int tail = windowSize - writePos;
+        System.arraycopy(ring, writePos, dst, 0, tail);
+        System.arraycopy(ring, 0, dst, tail, writePos);
+    }
+    
+    /**
+     * 현재 윈도우 처리를 마치고 다음 hop을 기다립니다.
+     */
+    public void advance() {
+        untilReady = hopSize;
+    }
+    
+    public int getWindowSize() {
+        return windowSize;
+    }
+    
+    public int getHopSize() {
+        return hopSize;
+    }
+    
+    /**
+     * 현재 윈도우의 마지막 샘플 다음 위치 (스트림 시작 기준 샘플 인덱스)
+     */
+    public long getWindowEnd() {
+        return totalSamples;
+    }
+}
@@ -0,0 +1,43 @@
+package com.factory.config;
+
+import com.factory.service.AnalysisTimings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 분석 요청의 도착 시각을 기록하는 필터 (audio.timing.enabled일 때만)
+ *
+ * 보안 필터(JWT 검증)와 본문 파싱보다 먼저 실행되어, 컨트롤러 진입까지의 시간이
+ * Server-Timing의 request 항목으로 보고됩니다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AnalysisTimingFilter extends OncePerRequestFilter {
+    
+    private static final String ANALYZE_PATH = "/api/audio/analyze";
+    
+    @Value("${audio.timing.enabled:false}")
+    private boolean timingEnabled;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !timingEnabled || !request.getRequestURI().endsWith(ANALYZE_PATH);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        request.setAttribute(AnalysisTimings.ARRIVAL_ATTRIBUTE, System.nanoTime());
+        filterChain.doFilter(request, response);
+    }
+}
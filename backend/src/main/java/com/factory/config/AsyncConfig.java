@@ -0,0 +1,71 @@
+package com.factory.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 비동기 처리용 실행기 설정
+ * (ML 응답 이후의 분석 후처리는 장치별 단일 스레드 샤드(AnalysisShards)에서 실행)
+ */
+@Configuration
+@Slf4j
+public class AsyncConfig {
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    @Value("${audio.alert.executor.core-size:2}")
+    private int alertCoreSize;
+    
+    @Value("${audio.alert.executor.max-size:4}")
+    private int alertMaxSize;
+    
+    @Value("${audio.alert.executor.queue-capacity:1000}")
+    private int alertQueueCapacity;
+    
+    /**
+     * 위험 이벤트 저장과 사용자별 알림 생성 실행기
+     * 분석 응답이 알림 생성(사용자 수에 비례)을 기다리지 않도록 분리합니다.
+     * 대기열이 가득 차면 호출 스레드에서 직접 실행하여 알림 유실 없이 분석 속도를 늦춥니다.
+     * 종료 시에는 대기 중인 알림을 모두 처리한 뒤 종료합니다.
+     * 가상 스레드 모드에서는 작업 스레드를 가상 스레드로 만들어 JDBC 대기 중에 플랫폼 스레드를 점유하지 않습니다
+     * (동시 실행 수는 그대로 max-size로 제한되어 DB 커넥션 풀을 넘지 않음).
+     */
+    @Bean(name = "dangerAlertExecutor")
+    public ThreadPoolTaskExecutor dangerAlertExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(alertCoreSize);
+        executor.setMaxPoolSize(alertMaxSize);
+        executor.setQueueCapacity(alertQueueCapacity);
+        executor.setThreadNamePrefix("danger-alert-");
+        if (useVirtualThreads()) {
+            executor.setThreadFactory(VirtualThreads.factory("danger-alert-"));
+        }
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * spring.threads.virtual.enabled가 켜져 있고 JVM이 가상 스레드를 지원하는지 확인합니다.
+     * (Tomcat 요청 스레드는 Spring Boot가 같은 설정으로 가상 스레드로 전환하며, Java 21 미만에서는 무시됨)
+     */
+    private boolean useVirtualThreads() {
+        if (!virtualThreads) {
+            return false;
+        }
+        if (!VirtualThreads.isSupported()) {
+            log.warn("spring.threads.virtual.enabled=true 이지만 Java {}에서는 가상 스레드를 사용할 수 없어 플랫폼 스레드로 실행합니다 (Java 21 이상 필요)",
+                Runtime.version().feature());
+            return false;
+        }
+        return true;
+    }
+}
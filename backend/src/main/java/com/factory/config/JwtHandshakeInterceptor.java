@@ -0,0 +1,57 @@
+package com.factory.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * WebSocket 핸드셰이크 시점에 JWT를 한 번만 검증합니다.
+ * 브라우저 WebSocket API는 헤더를 지정할 수 없으므로 token 쿼리 파라미터도 허용합니다.
+ * 검증된 사용자 ID와 쿼리 파라미터는 세션 속성으로 전달됩니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtHandshakeInterceptor implements HandshakeInterceptor {
+    
+    public static final String ATTR_USER_ID = "userId";
+    public static final String ATTR_QUERY_PARAMS = "queryParams";
+    
+    private final JwtProvider jwtProvider;
+    
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        Map<String, String> params = UriComponentsBuilder.fromUri(request.getURI())
+                .build()
+                .getQueryParams()
+                .toSingleValueMap();
+        
+        String token = params.get("token");
+        String bearerToken = request.getHeaders().getFirst("Authorization");
+        if (!StringUtils.hasText(token) && StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            token = bearerToken.substring(7);
+        }
+        
+        if (!StringUtils.hasText(token) || !jwtProvider.validateToken(token)) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        
+        attributes.put(ATTR_USER_ID, jwtProvider.getUserIdFromToken(token));
+        attributes.put(ATTR_QUERY_PARAMS, params);
+        return true;
+    }
+    
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
@@ -1,15 +1,97 @@
 package com.factory.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * ML 서비스 호출용 HTTP 클라이언트 설정
+ *
+ * - 커넥션 풀(keep-alive)을 사용하여 요청마다 TCP 연결을 새로 맺지 않습니다.
+ * - 연결/응답/풀 대기 시간에 제한을 두어 ML 서비스가 느려져도 스레드가 무한정 묶이지 않습니다.
+ * - 예측 호출은 논블로킹 비동기 클라이언트를 사용하므로 응답을 기다리는 동안 요청 스레드를 점유하지 않습니다.
+ */
 @Configuration
 public class RestTemplateConfig {
     
+    @Value("${ml.http.max-connections:32}")
+    private int maxConnections;
+    
+    @Value("${ml.http.connect-timeout-ms:1000}")
+    private long connectTimeoutMs;
+    
+    @Value("${ml.http.response-timeout-ms:5000}")
+    private long responseTimeoutMs;
+    
+    @Value("${ml.http.pool-timeout-ms:1000}")
+    private long poolTimeoutMs;
+    
+    @Value("${ml.http.idle-evict-ms:30000}")
+    private long idleEvictMs;
+    
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnections)
+            .setDefaultConnectionConfig(connectionConfig())
+            .build();
+        
+        CloseableHttpClient httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig())
+            .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+            .build();
+        
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+    
+    /**
+     * ML 예측 호출용 비동기 HTTP 클라이언트
+     * 응답은 I/O 리액터 스레드에서 콜백으로 전달됩니다.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient mlHttpAsyncClient() {
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnections)
+            .setDefaultConnectionConfig(connectionConfig())
+            .build();
+        
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig())
+            .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+            .build();
+        client.start();
+        return client;
+    }
+    
+    private ConnectionConfig connectionConfig() {
+        return ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+            .setSocketTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+            .build();
+    }
+    
+    private RequestConfig requestConfig() {
+        return RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+            .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+            .build();
     }
 }
-
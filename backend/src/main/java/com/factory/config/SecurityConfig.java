@@ -1,6 +1,9 @@
 package com.factory.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -10,6 +13,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -23,6 +28,12 @@ public class SecurityConfig {
     
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     
+    @Value("${server.port:8080}")
+    private int serverPort;
+    
+    @Value("${management.server.port:-1}")
+    private int managementPort; // 계측 엔드포인트 전용 포트 (API 포트와 같거나 지정하지 않으면 스크레이프에도 인증 필요)
+    
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -31,7 +42,15 @@ public class SecurityConfig {
                 .sessionManagement(session -> 
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // 비동기 응답(CompletableFuture) 재디스패치는 최초 요청에서 이미 인가됨
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/auth/register", "/auth/login").permitAll()
+                        // 준비 상태 확인은 로드 밸런서가 토큰 없이 호출
+                        .requestMatchers("/api/health/**").permitAll()
+                        // 계측 스크레이프는 내부 관리 포트로 들어온 요청만 토큰 없이 허용
+                        .requestMatchers(new AndRequestMatcher(EndpointRequest.to("prometheus"), managementPortOnly())).permitAll()
+                        // WebSocket은 핸드셰이크 인터셉터(JwtHandshakeInterceptor)에서 JWT를 검증
+                        .requestMatchers("/ws/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -39,12 +58,22 @@ public class SecurityConfig {
         return http.build();
     }
     
+    /**
+     * 관리 포트(management.server.port)로 들어온 요청인지 확인합니다.
+     * 관리 포트를 따로 두지 않았으면 어떤 요청도 해당하지 않습니다.
+     */
+    private RequestMatcher managementPortOnly() {
+        boolean separatePort = managementPort > 0 && managementPort != serverPort;
+        return request -> separatePort && request.getLocalPort() == managementPort;
+    }
+    
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("Server-Timing"));  // 브라우저에서 단계별 처리 시간 확인
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
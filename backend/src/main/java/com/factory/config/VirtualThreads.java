@@ -0,0 +1,59 @@
+package com.factory.config;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 가상 스레드(Java 21+) 지원 여부 확인과 가상 스레드 팩토리 생성
+ *
+ * 빌드 대상은 Java 17이므로 Java 21 API(Thread.isVirtual 등)는 실행 시점에 찾아서 사용합니다.
+ * Java 17에서 실행하면 isSupported()는 false이고 isVirtual()은 항상 false입니다.
+ */
+public final class VirtualThreads {
+    
+    private static final MethodHandle IS_VIRTUAL = findIsVirtual();
+    
+    private VirtualThreads() {
+    }
+    
+    /**
+     * 현재 JVM에서 가상 스레드를 사용할 수 있는지
+     */
+    public static boolean isSupported() {
+        return IS_VIRTUAL != null;
+    }
+    
+    /**
+     * 스레드가 가상 스레드인지 확인합니다.
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+    
+    /**
+     * 이름이 prefix + 번호인 가상 스레드를 만드는 팩토리 (isSupported()일 때만 사용)
+     */
+    public static ThreadFactory factory(String threadNamePrefix) {
+        return new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory();
+    }
+    
+    private static MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup()
+                .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
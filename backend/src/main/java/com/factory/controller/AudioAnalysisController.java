@@ -1,13 +1,28 @@
 package com.factory.controller;
 
+import com.factory.audio.PcmDecoder;
+import com.factory.audio.PolyphaseResampler;
 import com.factory.dto.AudioAnalysisRequest;
 import com.factory.dto.AudioAnalysisResponse;
 import com.factory.dto.ErrorResponse;
+import com.factory.service.AnalysisAdmission;
+import com.factory.service.AnalysisMetrics;
+import com.factory.service.AnalysisTimings;
 import com.factory.service.AudioAnalysisService;
+import com.factory.service.DangerAlertService;
+import com.factory.service.MLService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
 @RestController
 @RequestMapping("/api/audio")
 @RequiredArgsConstructor
@@ -15,6 +30,19 @@ import org.springframework.web.bind.annotation.*;
 public class AudioAnalysisController {
     
     private final AudioAnalysisService audioAnalysisService;
+    private final MLService mlService;
+    private final DangerAlertService dangerAlertService;
+    private final AnalysisAdmission analysisAdmission;
+    private final AnalysisMetrics analysisMetrics;
+    
+    @Value("${audio.ingest.max-bytes:4194304}")
+    private long maxIngestBytes;
+    
+    @Value("${audio.timing.enabled:false}")
+    private boolean timingEnabled; // true면 분석 응답에 Server-Timing 헤더 (단계별 처리 시간)
+    
+    @Value("${audio.timing.response-field:false}")
+    private boolean timingResponseField; // true면 응답 본문 timings 필드에도 포함
     
     /**
      * 오디오 데이터를 분석하여 위험 여부를 판단합니다.
@@ -23,30 +51,231 @@ public class AudioAnalysisController {
      * {
      *   "audioData": [0.1, 0.2, 0.3, ...],
      *   "sampleRate": 16000,
-     *   "duration": 1000
+     *   "duration": 1000,
+     *   "deviceId": "mic-1"     (선택 - 같은 장치의 연속 위험은 이벤트 한 번으로 묶음)
      * }
+     * 
+     * ML 서비스 응답은 비동기로 기다리므로, 분석 중에는 요청 스레드(Tomcat)를 점유하지 않습니다.
+     * 동시 분석 수가 한도를 넘으면 대기열에서 기다리며, 대기열이 가득 차면 429, 대기 시간을 넘기면 503을
+     * Retry-After 헤더와 함께 반환합니다 (우선 장치/위험 의심 장치는 일반 요청보다 먼저 처리).
+     * audio.timing.enabled가 켜져 있으면 단계별 처리 시간을 Server-Timing 헤더로 반환합니다.
      */
     @PostMapping("/analyze")
-    public ResponseEntity<?> analyzeAudio(@RequestBody AudioAnalysisRequest request) {
+    public CompletableFuture<ResponseEntity<?>> analyzeAudio(@RequestBody AudioAnalysisRequest request,
+                                                             HttpServletRequest httpRequest) {
+        AnalysisTimings timings = startTimings(httpRequest);
         try {
             if (request.getAudioData() == null || request.getAudioData().isEmpty()) {
-                return ResponseEntity.badRequest()
-                    .body(new ErrorResponse("오디오 데이터가 필요합니다."));
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(new ErrorResponse("오디오 데이터가 필요합니다.")));
+            }
+            if (!isSupportedSampleRate(request.getSampleRate())) {
+                return CompletableFuture.completedFuture(unsupportedSampleRate(request.getSampleRate()));
             }
             
-            AudioAnalysisResponse response = audioAnalysisService.analyzeAudio(request);
+            return analysisAdmission.submit(request.getDeviceId(),
+                    timeAdmission(timings, () -> audioAnalysisService.analyzeAudioAsync(request, timings)))
+                .<ResponseEntity<?>>thenApply(response -> toResponseEntity(response, timings))
+                .exceptionally(error -> rejectionResponse(error, timings));
             
-            if (response.isSuccess()) {
-                return ResponseEntity.ok(response);
-            } else {
-                return ResponseEntity.badRequest()
-                    .body(new ErrorResponse(response.getError()));
-            }
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(ResponseEntity.internalServerError()
+                .body(new ErrorResponse("오디오 분석 중 오류 발생: " + e.getMessage())));
+        }
+    }
+    
+    /**
+     * 바이너리 PCM 데이터를 분석하여 위험 여부를 판단합니다.
+     * JSON 숫자 배열 대신 리틀 엔디언 PCM을 그대로 전송하므로 파싱/박싱 비용이 없습니다.
+     * 
+     * POST /api/audio/analyze
+     * Content-Type: application/octet-stream
+     * X-Sample-Rate: 16000        (선택, 기본값 16000, 8000 ~ 192000)
+     * X-Channels: 1               (선택, 기본값 1, 최대 8 - 다채널은 모노로 다운믹스)
+     * X-Sample-Format: int16      (선택, int16 | float32)
+     * X-Device-Id: mic-1          (선택, 오디오 입력 장치 ID)
+     * 
+     * (본문: PCM 샘플 바이트)
+     */
+    @PostMapping(value = "/analyze", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public CompletableFuture<ResponseEntity<?>> analyzePcm(
+            @RequestHeader(value = "X-Sample-Rate", required = false) Integer sampleRate,
+            @RequestHeader(value = "X-Channels", defaultValue = "1") int channels,
+            @RequestHeader(value = "X-Sample-Format", required = false) String sampleFormat,
+            @RequestHeader(value = "X-Device-Id", required = false) String deviceId,
+            HttpServletRequest httpRequest) {
+        if (!isSupportedSampleRate(sampleRate)) {
+            return CompletableFuture.completedFuture(unsupportedSampleRate(sampleRate));
+        }
+        if (!PcmDecoder.isSupportedChannels(channels)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(new ErrorResponse(
+                "지원하지 않는 채널 수입니다: " + channels + " (1 ~ " + PcmDecoder.MAX_CHANNELS + ")")));
+        }
+        AnalysisTimings timings = startTimings(httpRequest);
+        float[] samples;
+        long decodeStart = System.nanoTime();
+        try {
+            samples = PcmDecoder.decode(
+                httpRequest.getInputStream(),
+                PcmDecoder.SampleFormat.parse(sampleFormat),
+                channels,
+                httpRequest.getContentLengthLong(),
+                maxIngestBytes
+            );
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                .body(new ErrorResponse(e.getMessage())));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                .body(new ErrorResponse("PCM 데이터 읽기 실패: " + e.getMessage())));
+        }
+        // 본문 수신 시간 포함 (PCM은 스트림에서 읽으면서 변환)
+        long decodeEnd = System.nanoTime();
+        analysisMetrics.recordStage(AnalysisMetrics.Stage.DECODE, decodeEnd - decodeStart);
+        if (timings != null) {
+            timings.record(AnalysisTimings.Stage.DECODE, decodeStart, decodeEnd);
+        }
+        
+        if (samples.length == 0) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                .body(new ErrorResponse("오디오 데이터가 필요합니다.")));
+        }
+        
+        try {
+            return analysisAdmission.submit(deviceId, timeAdmission(timings,
+                    () -> audioAnalysisService.analyzeSamplesAsync(samples, samples.length, sampleRate, deviceId, timings)))
+                .<ResponseEntity<?>>thenApply(response -> toResponseEntity(response, timings))
+                .exceptionally(error -> rejectionResponse(error, timings));
             
         } catch (Exception e) {
-            return ResponseEntity.internalServerError()
-                .body(new ErrorResponse("오디오 분석 중 오류 발생: " + e.getMessage()));
+            return CompletableFuture.completedFuture(ResponseEntity.internalServerError()
+                .body(new ErrorResponse("오디오 분석 중 오류 발생: " + e.getMessage())));
+        }
+    }
+    
+    /**
+     * ML 클라이언트 상태 조회 (서킷 브레이커 상태, 동시 호출 수, 거절/헤지 횟수, p95 응답 시간)
+     * 
+     * GET /api/audio/ml/status
+     */
+    @GetMapping("/ml/status")
+    public ResponseEntity<?> getMLClientStatus() {
+        try {
+            return ResponseEntity.ok(mlService.getClientStatus());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("ML 클라이언트 상태 조회 실패: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * 위험 이벤트/알림 파이프라인 상태 조회 (대기열 깊이, 처리/실패 건수, 위험 구간 통계)
+     * 
+     * GET /api/audio/alerts/status
+     */
+    @GetMapping("/alerts/status")
+    public ResponseEntity<?> getAlertStatus() {
+        try {
+            return ResponseEntity.ok(dangerAlertService.getStatus());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("알림 파이프라인 상태 조회 실패: " + e.getMessage()));
         }
     }
+    
+    /**
+     * 분석 수락 제어 상태 조회 (동시 분석 수, 레인별 대기 수, 거절/시간 초과 횟수)
+     * 
+     * GET /api/audio/admission/status
+     */
+    @GetMapping("/admission/status")
+    public ResponseEntity<?> getAdmissionStatus() {
+        try {
+            return ResponseEntity.ok(analysisAdmission.getStatus());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("수락 제어 상태 조회 실패: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * 단계별 시각 기록을 시작합니다. 꺼져 있으면 null (분석 경로는 null 확인만 수행)
+     * AnalysisTimingFilter가 남긴 도착 시각부터 지금까지(인증, 본문 파싱)는 request 단계로 기록합니다.
+     */
+    private AnalysisTimings startTimings(HttpServletRequest httpRequest) {
+        if (!timingEnabled) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (httpRequest.getAttribute(AnalysisTimings.ARRIVAL_ATTRIBUTE) instanceof Long arrival) {
+            AnalysisTimings timings = AnalysisTimings.startingAt(arrival);
+            timings.record(AnalysisTimings.Stage.REQUEST, arrival, now);
+            return timings;
+        }
+        return AnalysisTimings.startingAt(now);
+    }
+    
+    /**
+     * 수락 대기열에서 기다린 시간을 admission 단계로 기록하도록 분석 작업을 감쌉니다.
+     */
+    private static <T> Supplier<CompletableFuture<T>> timeAdmission(AnalysisTimings timings, Supplier<CompletableFuture<T>> analysis) {
+        if (timings == null) {
+            return analysis;
+        }
+        long submitted = System.nanoTime();
+        return () -> {
+            timings.record(AnalysisTimings.Stage.ADMISSION, submitted, System.nanoTime());
+            return analysis.get();
+        };
+    }
+    
+    /**
+     * 샘플링 레이트 확인 (생략 시 16kHz, 리샘플링/특징 추출 테이블 크기가 레이트에 비례하므로 범위를 제한)
+     */
+    private static boolean isSupportedSampleRate(Integer sampleRate) {
+        return sampleRate == null || PolyphaseResampler.isSupportedRate(sampleRate);
+    }
+    
+    private static ResponseEntity<?> unsupportedSampleRate(Integer sampleRate) {
+        return ResponseEntity.badRequest().body(new ErrorResponse("지원하지 않는 샘플링 레이트입니다: " + sampleRate
+            + " (" + PolyphaseResampler.MIN_RATE + " ~ " + PolyphaseResampler.MAX_RATE + "Hz)"));
+    }
+    
+    /**
+     * 수락 거절(429/503)을 Retry-After 헤더가 있는 응답으로 변환합니다.
+     */
+    private ResponseEntity<?> rejectionResponse(Throwable error, AnalysisTimings timings) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof AnalysisAdmission.RejectedException rejected) {
+            return withTimings(ResponseEntity.status(rejected.getStatus()), timings)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(rejected.getRetryAfterSeconds()))
+                .body(new ErrorResponse(rejected.getMessage()));
+        }
+        return withTimings(ResponseEntity.internalServerError(), timings)
+            .body(new ErrorResponse("오디오 분석 중 오류 발생: " + cause.getMessage()));
+    }
+    
+    private ResponseEntity<?> toResponseEntity(AudioAnalysisResponse response, AnalysisTimings timings) {
+        if (response.isSuccess()) {
+            if (timings != null && timingResponseField) {
+                timings.finish();
+                response.setTimings(timings.toList());
+            }
+            return withTimings(ResponseEntity.ok(), timings).body(response);
+        } else {
+            return withTimings(ResponseEntity.badRequest(), timings)
+                .body(new ErrorResponse(response.getError()));
+        }
+    }
+    
+    /**
+     * 단계별 시각 기록이 있으면 Server-Timing 헤더를 추가합니다.
+     */
+    private static ResponseEntity.BodyBuilder withTimings(ResponseEntity.BodyBuilder builder, AnalysisTimings timings) {
+        if (timings != null) {
+            timings.finish();
+            builder.header(AnalysisTimings.HEADER, timings.toServerTiming());
+        }
+        return builder;
+    }
 }
-
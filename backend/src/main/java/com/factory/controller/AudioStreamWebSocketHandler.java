@@ -0,0 +1,304 @@
+package com.factory.controller;
+
+import com.factory.audio.PcmDecoder;
+import com.factory.audio.PolyphaseResampler;
+import com.factory.audio.SlidingWindow;
+import com.factory.config.JwtHandshakeInterceptor;
+import com.factory.dto.AudioAnalysisResponse;
+import com.factory.dto.AudioStreamMessage;
+import com.factory.service.AnalysisAdmission;
+import com.factory.service.AudioAnalysisService;
+import com.factory.service.DangerEpisodeTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 실시간 오디오 스트리밍 분석 WebSocket 핸들러
+ *
+ * 연결: ws://host/ws/audio/stream?token=JWT&sampleRate=16000&channels=1&format=int16&windowMs=2000&hopMs=500&deviceId=mic-1
+ *
+ * - 클라이언트는 리틀 엔디언 PCM 바이너리 프레임을 연속으로 전송합니다 (프레임 경계는 자유).
+ * - 서버는 windowMs 길이의 슬라이딩 윈도우를 hopMs마다 분석하여 결과(JSON 텍스트 메시지)를 보냅니다.
+ * - 같은 deviceId의 연속된 위험 윈도우는 하나의 위험 구간으로 묶여 이벤트가 한 번만 생성됩니다
+ *   (deviceId를 생략하면 세션마다 별도의 장치로 취급).
+ * - JWT 검증은 핸드셰이크 시 한 번만 수행되며, 이후 윈도우마다 HTTP/인증/JSON 파싱 비용이 없습니다.
+ * - ML 응답은 기다리지 않으므로 컨테이너 스레드는 다음 프레임을 바로 처리하고,
+ *   결과는 분석이 끝나는 대로 윈도우 순서대로 전송됩니다.
+ * - 윈도우도 HTTP 분석 요청과 같은 수락 제어(AnalysisAdmission)를 거치며, 거절된 윈도우는
+ *   type=rejected 메시지(retryAfterSeconds 포함)로 알리고 다음 윈도우는 계속 분석합니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AudioStreamWebSocketHandler extends BinaryWebSocketHandler {
+    
+    private static final String ATTR_STREAM = "audioStream";
+    
+    private static final int SEND_TIME_LIMIT_MS = 5000;       // 느린 클라이언트로의 전송 한도 (넘으면 세션 종료)
+    private static final int SEND_BUFFER_LIMIT = 256 * 1024;  // 전송 대기 메시지 한도 (바이트)
+    
+    private final AudioAnalysisService audioAnalysisService;
+    private final AnalysisAdmission analysisAdmission;
+    private final DangerEpisodeTracker dangerEpisodeTracker;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${audio.stream.window-ms:2000}")
+    private int defaultWindowMs;
+    
+    @Value("${audio.stream.hop-ms:500}")
+    private int defaultHopMs;
+    
+    @Value("${audio.stream.max-window-ms:10000}")
+    private int maxWindowMs;
+    
+    @Value("${audio.stream.min-hop-ms:100}")
+    private int minHopMs;
+    
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        try {
+            StreamState state = createState(session);
+            session.getAttributes().put(ATTR_STREAM, state);
+            
+            log.info("오디오 스트림 시작: 세션={}, 사용자={}, {}Hz, 윈도우={}ms, 홉={}ms",
+                session.getId(), state.userId, state.sampleRate, state.windowMs, state.hopMs);
+            
+            send(state.outbound, AudioStreamMessage.builder()
+                .type("ready")
+                .sampleRate(state.sampleRate)
+                .windowMs(state.windowMs)
+                .hopMs(state.hopMs)
+                .build());
+        } catch (IllegalArgumentException e) {
+            send(session, AudioStreamMessage.builder()
+                .type("error")
+                .error(e.getMessage())
+                .build());
+            session.close(CloseStatus.BAD_DATA.withReason("잘못된 스트림 설정"));
+        }
+    }
+    
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        StreamState state = (StreamState) session.getAttributes().get(ATTR_STREAM);
+        if (state == null) {
+            return;
+        }
+        
+        int frames = state.decode(message.getPayload());
+        
+        SlidingWindow window = state.window;
+        int pos = 0;
+        while (pos < frames) {
+            pos += window.write(state.decoded, pos, frames - pos);
+            if (window.isReady()) {
+                analyzeWindow(state);
+                window.advance();
+            }
+        }
+    }
+    
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.warn("오디오 스트림 전송 오류: 세션={}, {}", session.getId(), exception.getMessage());
+    }
+    
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        StreamState state = (StreamState) session.getAttributes().remove(ATTR_STREAM);
+        if (state != null) {
+            log.info("오디오 스트림 종료: 세션={}, 사용자={}, 수신 샘플={}, 상태={}",
+                session.getId(), state.userId, state.window.getWindowEnd(), status);
+            if (state.sessionDevice) {
+                dangerEpisodeTracker.forget(state.deviceId);
+            }
+        }
+    }
+    
+    private void analyzeWindow(StreamState state) {
+        SlidingWindow window = state.window;
+        long windowEnd = window.getWindowEnd();
+        long windowStart = windowEnd - window.getWindowSize();
+        
+        // 수락 대기열에서 기다렸다가 다른 스레드에서 분석을 시작할 수 있으므로 윈도우마다 별도 배열로 복사
+        float[] samples = new float[window.getWindowSize()];
+        window.copyTo(samples);
+        CompletableFuture<AudioAnalysisResponse> analysis = analysisAdmission.submit(state.deviceId,
+            () -> audioAnalysisService.analyzeSamplesAsync(samples, samples.length, state.sampleRate, state.deviceId));
+        
+        // 앞 윈도우의 결과를 보낸 뒤에 전송 (분석 완료 순서와 무관하게 윈도우 순서 유지)
+        state.lastSend = state.lastSend
+            .thenCompose(previous -> analysis.<Void>handle((result, error) -> {
+                sendResult(state, windowStart, windowEnd, result, error);
+                return null;
+            }));
+    }
+    
+    private void sendResult(StreamState state, long windowStart, long windowEnd,
+                            AudioAnalysisResponse result, Throwable error) {
+        AudioStreamMessage.AudioStreamMessageBuilder message = AudioStreamMessage.builder()
+            .windowStartMs(windowStart * 1000 / state.sampleRate)
+            .windowEndMs(windowEnd * 1000 / state.sampleRate);
+        
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof AnalysisAdmission.RejectedException rejected) {
+            message.type("rejected").error(rejected.getMessage()).retryAfterSeconds(rejected.getRetryAfterSeconds());
+        } else if (cause != null) {
+            message.type("error").error("오디오 분석 중 오류 발생: " + cause.getMessage());
+        } else if (result.isSuccess()) {
+            message.type("verdict").result(result);
+        } else {
+            message.type("error").error(result.getError());
+        }
+        
+        try {
+            send(state.outbound, message.build());
+        } catch (IOException | RuntimeException e) {
+            // 전송 실패가 다음 윈도우의 전송 체인을 끊지 않도록 여기서 처리
+            log.debug("분석 결과 전송 실패: 세션={}, {}", state.outbound.getId(), e.getMessage());
+        }
+    }
+    
+    private void send(WebSocketSession session, AudioStreamMessage message) throws IOException {
+        if (session.isOpen()) {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private StreamState createState(WebSocketSession session) {
+        Map<String, Object> attributes = session.getAttributes();
+        Map<String, String> params = (Map<String, String>) attributes.getOrDefault(
+            JwtHandshakeInterceptor.ATTR_QUERY_PARAMS, Map.of());
+        
+        int sampleRate = parseInt(params.get("sampleRate"), 16000);
+        int channels = parseInt(params.get("channels"), 1);
+        int windowMs = parseInt(params.get("windowMs"), defaultWindowMs);
+        int hopMs = parseInt(params.get("hopMs"), defaultHopMs);
+        
+        if (!PolyphaseResampler.isSupportedRate(sampleRate)) {
+            throw new IllegalArgumentException("지원하지 않는 샘플링 레이트입니다: " + sampleRate);
+        }
+        if (!PcmDecoder.isSupportedChannels(channels)) {
+            throw new IllegalArgumentException("지원하지 않는 채널 수입니다: " + channels);
+        }
+        if (windowMs <= 0 || windowMs > maxWindowMs) {
+            throw new IllegalArgumentException("윈도우 길이는 1 ~ " + maxWindowMs + "ms 범위여야 합니다");
+        }
+        if (hopMs < minHopMs || hopMs > windowMs) {
+            throw new IllegalArgumentException("홉 길이는 " + minHopMs + "ms ~ 윈도우 길이 범위여야 합니다");
+        }
+        
+        String deviceId = params.getOrDefault("deviceId", params.get("sourceId"));
+        boolean sessionDevice = deviceId == null || deviceId.isBlank();
+        if (sessionDevice) {
+            deviceId = "ws-" + session.getId();
+        } else if (deviceId.length() > 64) {
+            throw new IllegalArgumentException("deviceId는 64자 이하여야 합니다");
+        }
+        
+        return new StreamState(
+            new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT),
+            (String) attributes.get(JwtHandshakeInterceptor.ATTR_USER_ID),
+            deviceId, sessionDevice,
+            PcmDecoder.SampleFormat.parse(params.get("format")),
+            channels, sampleRate, windowMs, hopMs);
+    }
+    
+    private int parseInt(String value, int defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("숫자 파라미터 형식 오류: " + value);
+        }
+    }
+    
+    /**
+     * 세션별 스트림 상태
+     * 하나의 WebSocket 세션의 메시지는 순차적으로 처리되므로 동기화가 필요 없습니다.
+     * 분석 결과는 분석 샤드/ML 응답 스레드에서 전송되므로 전송은 outbound(동시 전송 직렬화)와 lastSend 체인으로만 합니다.
+     */
+    private static final class StreamState {
+        private final WebSocketSession outbound;      // 여러 스레드에서 보내도 한 번에 하나씩 전송
+        private final String userId;
+        private final String deviceId;
+        private final boolean sessionDevice;          // deviceId를 세션 ID로 만든 경우 (종료 시 상태 제거)
+        private final PcmDecoder.SampleFormat format;
+        private final int channels;
+        private final int frameBytes;
+        private final int sampleRate;
+        private final int windowMs;
+        private final int hopMs;
+        private final SlidingWindow window;
+        
+        private byte[] pending = new byte[16 * 1024]; // 프레임 경계에 걸친 바이트 + 수신 데이터
+        private int carry;                            // 이전 메시지에서 남은 바이트 수
+        private float[] decoded = new float[8 * 1024];
+        private CompletableFuture<Void> lastSend = CompletableFuture.completedFuture(null); // 마지막 윈도우의 결과 전송
+        
+        StreamState(WebSocketSession outbound, String userId, String deviceId, boolean sessionDevice,
+                    PcmDecoder.SampleFormat format, int channels,
+                    int sampleRate, int windowMs, int hopMs) {
+            this.outbound = outbound;
+            this.userId = userId;
+            this.deviceId = deviceId;
+            this.sessionDevice = sessionDevice;
+            this.format = format;
+            this.channels = channels;
+            this.frameBytes = format.getBytesPerSample() * channels;
+            this.sampleRate = sampleRate;
+            this.windowMs = windowMs;
+            this.hopMs = hopMs;
+            int windowSize = (int) ((long) sampleRate * windowMs / 1000);
+            int hopSize = Math.max(1, (int) ((long) sampleRate * hopMs / 1000));
+            this.window = new SlidingWindow(windowSize, hopSize);
+        }
+        
+        /**
+         * 수신한 바이트를 모노 샘플로 디코딩하여 decoded에 기록합니다.
+         *
+         * @return 디코딩된 샘플(프레임) 수
+         */
+        int decode(ByteBuffer payload) {
+            int incoming = payload.remaining();
+            int available = carry + incoming;
+            if (pending.length < available) {
+                byte[] grown = new byte[Math.max(available, pending.length * 2)];
+                System.arraycopy(pending, 0, grown, 0, carry);
+                pending = grown;
+            }
+            payload.get(pending, carry, incoming);
+            
+            int frames = available / frameBytes;
+            if (decoded.length < frames) {
+                decoded = new float[frames];
+            }
+            PcmDecoder.decodeFrames(pending, 0, frames, format, channels, decoded, 0);
+            
+            int consumed = frames * frameBytes;
+            carry = available - consumed;
+            if (carry > 0) {
+                System.arraycopy(pending, consumed, pending, 0, carry);
+            }
+            return frames;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.factory.controller;
+
+import com.factory.dto.DeviceRequest;
+import com.factory.dto.DeviceResponse;
+import com.factory.dto.ErrorResponse;
+import com.factory.service.DeviceRegistryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/devices")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class DeviceController {
+    
+    private final DeviceRegistryService deviceRegistryService;
+    
+    /**
+     * 등록된 오디오 입력 장치 목록 조회
+     */
+    @GetMapping
+    public ResponseEntity<?> getDevices() {
+        try {
+            List<DeviceResponse> devices = deviceRegistryService.getAllDevices();
+            return ResponseEntity.ok(devices);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(new ErrorResponse("장치 목록 조회 실패: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * 장치 등록/수정 (장치 ID별 설치 구역)
+     * 
+     * PUT /api/devices/mic-1
+     * { "name": "프레스 1번 마이크", "zone": "A동 1층", "area": "프레스 구역", "highPriority": true }
+     */
+    @PutMapping("/{deviceId}")
+    public ResponseEntity<?> saveDevice(@PathVariable String deviceId, @RequestBody DeviceRequest request) {
+        try {
+            return ResponseEntity.ok(deviceRegistryService.saveDevice(deviceId, request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("장치 등록 실패: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * 장치 삭제
+     */
+    @DeleteMapping("/{deviceId}")
+    public ResponseEntity<?> deleteDevice(@PathVariable String deviceId) {
+        try {
+            deviceRegistryService.deleteDevice(deviceId);
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("장치 삭제 실패: " + e.getMessage()));
+        }
+    }
+}
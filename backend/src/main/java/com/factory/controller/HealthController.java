@@ -0,0 +1,28 @@
+package com.factory.controller;
+
+import com.factory.dto.ReadinessResponse;
+import com.factory.service.AnalysisWarmup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/health")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class HealthController {
+    
+    private final AnalysisWarmup analysisWarmup;
+    
+    /**
+     * 준비 상태 확인 (로드 밸런서/롤링 배포용, 인증 불필요)
+     * 시작 시 분석 경로 예열이 끝나기 전에는 503을 반환합니다.
+     */
+    @GetMapping("/ready")
+    public ResponseEntity<ReadinessResponse> getReadiness() {
+        ReadinessResponse status = analysisWarmup.getStatus();
+        return ResponseEntity.status(Boolean.TRUE.equals(status.getReady()) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+            .body(status);
+    }
+}
@@ -0,0 +1,24 @@
+package com.factory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdmissionStatusResponse {
+    private Boolean enabled;
+    private Integer maxInFlight;      // 동시 분석 한도
+    private Integer inFlight;
+    private Integer priorityQueued;   // 우선 레인 대기 수 (우선 장치, 의심 윈도우)
+    private Integer routineQueued;    // 일반 레인 대기 수
+    private Double avgServiceMs;      // 분석 한 건의 평균 처리 시간 (Retry-After 계산용)
+    private Long admitted;
+    private Long queued;              // 대기 후 수락되었거나 대기 중인 요청 누계
+    private Long shedRoutine;         // 거절/밀려난 일반 요청 (429)
+    private Long shedPriority;        // 거절된 우선 요청 (429)
+    private Long timedOut;            // 대기 시간 초과 (503)
+}
@@ -0,0 +1,16 @@
+package com.factory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalysisStageTiming {
+    private String stage;         // request, admission, decode, resample, normalize, features, ml, shard, decision, total
+    private Double startMs;       // 요청 도착 기준 시작 시각
+    private Double durationMs;
+}
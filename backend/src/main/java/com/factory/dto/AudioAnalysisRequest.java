@@ -1,5 +1,6 @@
 package com.factory.dto;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,5 +14,7 @@ public class AudioAnalysisRequest {
     private List<Double> audioData; // 오디오 샘플 데이터
     private Integer sampleRate;    // 샘플링 레이트 (예: 16000, 44100)
     private Integer duration;      // 녹음 시간 (밀리초)
+    @JsonAlias("sourceId")
+    private String deviceId;       // 오디오 입력 장치 ID (장치 등록부의 구역으로 이벤트 생성, 없으면 기본 장치)
 }
 
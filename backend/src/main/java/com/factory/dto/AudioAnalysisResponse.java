@@ -17,7 +17,9 @@ public class AudioAnalysisResponse {
     private Double dangerProbability;     // 위험 확률 (0.0 ~ 1.0)
     private List<Double> predictions;     // 전체 예측 결과 (7개 클래스)
     private Integer predictedClass;       // 예측된 클래스 인덱스
+    private boolean dangerEpisode;         // 출처의 위험 구간 진행 여부 (최근 윈도우 K-of-N 판정)
     private String message;               // 메시지
     private String error;                  // 오류 메시지
+    private List<AnalysisStageTiming> timings;  // 단계별 처리 시간 (audio.timing.response-field가 켜져 있을 때만)
 }
 
@@ -0,0 +1,22 @@
+package com.factory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AudioStreamMessage {
+    private String type;                  // ready, verdict, error, rejected
+    private Long windowStartMs;           // 윈도우 시작 위치 (스트림 시작 기준, 밀리초)
+    private Long windowEndMs;             // 윈도우 끝 위치 (스트림 시작 기준, 밀리초)
+    private Integer sampleRate;           // 세션 샘플링 레이트
+    private Integer windowMs;             // 윈도우 길이 (밀리초)
+    private Integer hopMs;                // 홉 길이 (밀리초)
+    private AudioAnalysisResponse result; // 분석 결과 (type=verdict)
+    private String error;                 // 오류 메시지 (type=error, rejected)
+    private Long retryAfterSeconds;       // 수락 제어로 거절된 윈도우의 재시도 권장 시간 (type=rejected)
+}
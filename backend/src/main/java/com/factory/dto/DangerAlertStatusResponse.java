@@ -0,0 +1,30 @@
+package com.factory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DangerAlertStatusResponse {
+    private Integer queueDepth;       // 처리 대기 중인 이벤트/알림 작업 수
+    private Integer queueCapacity;
+    private Integer activeWorkers;
+    private Long submitted;
+    private Long completed;           // 처리 완료 (실패 포함)
+    private Long failed;
+    private Long callerRuns;          // 대기열이 가득 차 분석 스레드에서 직접 처리한 횟수
+    private Long analyzedWindows;
+    private Long dangerWindows;       // 윈도우 단위 위험 판정 수
+    private Long episodesOpened;      // 이벤트를 생성한 위험 구간 수
+    private Long episodesClosed;
+    private Integer trackedSources;
+    
+    // 장치별 분석 샤드
+    private Integer analysisShards;
+    private Integer shardQueueDepth;     // 전체 샤드 대기 작업 수
+    private Integer maxShardQueueDepth;  // 가장 밀린 샤드의 대기 작업 수
+}
@@ -0,0 +1,15 @@
+package com.factory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceRequest {
+    private String name;  // 장치 이름 (선택)
+    private String zone;  // 설치 구역 (예: A동 1층)
+    private String area;  // 세부 구역 (예: 프레스 구역)
+    private Boolean highPriority;  // 우선 장치 여부 (과부하 시 일반 장치보다 먼저 분석, 생략하면 기존 값 유지)
+}
@@ -0,0 +1,22 @@
+package com.factory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceResponse {
+    private String deviceId;
+    private String name;
+    private String zone;
+    private String area;
+    private Boolean highPriority;
+    private Integer shard;        // 분석이 배정되는 샤드 번호
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,40 @@
+package com.factory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MLClientStatusResponse {
+    private String inferenceMode;     // remote, local
+    private String transport;         // ML 서비스 요청 형식 (application/json, application/x-factory-tensor)
+    private String endpoint;          // 예측 요청 대상 (HTTP URL 또는 unix:소켓 경로)
+    private Integer socketPending;    // 유닉스 도메인 소켓으로 보내고 응답을 기다리는 요청 수
+    private String circuitState;      // CLOSED, OPEN, HALF_OPEN
+    private Integer inFlight;         // 진행 중인 ML 호출 수
+    private Integer maxConcurrent;    // 벌크헤드 동시 호출 한도
+    private Long calls;
+    private Long failures;
+    private Long slowCalls;
+    private Long rejectedByBulkhead;
+    private Long rejectedByCircuit;
+    private Long circuitOpened;       // OPEN 전환 횟수
+    private Long hedgesSent;
+    private Long hedgesWon;
+    private Double latencyP95Ms;
+    private Long batches;
+    private Long batchedItems;
+    private Long batchRejected;
+    private Integer batchQueueDepth;
+    private String modelVersion;      // 예측 캐시 기준 모델 버전 (확인 전이면 null)
+    private Long cacheHits;
+    private Long cacheMisses;
+    private Long cacheEvictions;
+    private Long cacheInvalidations;  // 모델 버전 변경으로 캐시를 비운 횟수
+    private Integer cacheEntries;
+    private Long cacheBytes;          // 추정 메모리 사용량
+}
@@ -1,16 +1,62 @@
 package com.factory.dto;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
+import java.io.IOException;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonSerialize(using = MLPredictionRequest.Serializer.class)
 public class MLPredictionRequest {
-    private List<Double> data;
+    private float[] data;        // 정규화된 오디오 샘플 또는 log-mel 특징 (재사용 버퍼일 수 있음)
+    private int length;          // data 중 유효한 값 수
     private Integer sampleRate;  // 샘플링 레이트 (기본값: 16000)
+    private int[] featureShape;  // null이 아니면 data는 이 shape의 특징 텐서 (예: [128, 63, 1])
+    
+    public MLPredictionRequest(float[] data, Integer sampleRate) {
+        this(data, data != null ? data.length : 0, sampleRate, null);
+    }
+    
+    public MLPredictionRequest(float[] data, int length, Integer sampleRate) {
+        this(data, length, sampleRate, null);
+    }
+    
+    /**
+     * data 배열의 앞쪽 length개만 직렬화합니다.
+     * 재사용 버퍼를 잘라내는 복사 없이 그대로 전송하기 위해 사용합니다.
+     * 
+     * 파형:  {"data": [...], "sampleRate": 16000}
+     * 특징:  {"features": [...], "feature_shape": [128, 63, 1], "sampleRate": 16000}
+     */
+    public static class Serializer extends JsonSerializer<MLPredictionRequest> {
+        @Override
+        public void serialize(MLPredictionRequest value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName(value.getFeatureShape() != null ? "features" : "data");
+            gen.writeStartArray();
+            float[] data = value.getData();
+            if (data != null) {
+                int length = Math.min(value.getLength(), data.length);
+                for (int i = 0; i < length; i++) {
+                    gen.writeNumber(data[i]);
+                }
+            }
+            gen.writeEndArray();
+            if (value.getFeatureShape() != null) {
+                gen.writeFieldName("feature_shape");
+                gen.writeArray(value.getFeatureShape(), 0, value.getFeatureShape().length);
+            }
+            if (value.getSampleRate() != null) {
+                gen.writeNumberField("sampleRate", value.getSampleRate());
+            }
+            gen.writeEndObject();
+        }
+    }
 }
-
@@ -0,0 +1,19 @@
+package com.factory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadinessResponse {
+    private Boolean ready;             // 트래픽을 받을 준비가 되었는지 (예열 완료 후 true)
+    private String warmupState;        // PENDING, WARMING, DONE, UNSTABLE, DISABLED
+    private Integer warmupRounds;      // 성공한 예열 라운드 수
+    private Double warmupLatencyMs;    // 마지막 예열 라운드의 분석 지연 중앙값
+    private Integer mlConnections;     // 미리 열어 둔 ML 서비스 연결 수
+    private Long warmupDurationMs;
+}
@@ -24,5 +24,8 @@ public class SystemInfoResponse {
     private String javaVersion;
     private String uptime;
     private Integer processorCount;
+    private Long heapAllocatedBytes;  // JVM 시작 이후 힙 할당 누적 바이트 (부하 측정 시 요청당 할당량 계산용)
+    private Long gcCount;
+    private Long gcTimeMillis;
 }
 
@@ -0,0 +1,58 @@
+package com.factory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 오디오 입력 장치(마이크) 등록 정보 - 장치 ID별 설치 구역
+ */
+@Entity
+@Table(name = "devices")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Device {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "device_id", nullable = false, unique = true, length = 64)
+    private String deviceId;
+    
+    @Column(name = "name", length = 100)
+    private String name;
+    
+    @Column(name = "zone", nullable = false, length = 100)
+    private String zone; // 예: A동 1층
+    
+    @Column(name = "area", length = 100)
+    private String area; // 예: 프레스 구역
+    
+    @Column(name = "high_priority", nullable = false)
+    @Builder.Default
+    private Boolean highPriority = false; // 과부하 시에도 분석 요청을 먼저 수락
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,707 @@
+package com.factory.inference;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * 위험 소리 분류 CNN의 순수 Java 추론 엔진
+ *
+ * ml_service/export_weights.py로 변환한 바이너리 가중치(.cnn)를 읽어
+ * Conv2D / Pooling / BatchNorm / Dense 레이어를 float 배열 위에서 직접 실행합니다.
+ * 텐서는 Keras와 같은 channels_last(H, W, C) 행 우선 배열입니다.
+ *
+ * - 레이어별 출력 shape은 로드 시 한 번만 계산하고, 활성값 버퍼는 스레드별로 재사용합니다.
+ * - 합성곱/풀링은 출력 행 단위로 나누어 ForkJoinPool에서 병렬 실행합니다.
+ * - 인스턴스는 불변이므로 여러 스레드에서 동시에 predict를 호출해도 됩니다.
+ * - 파일 끝에 Keras 기준 출력(고정 입력 referenceInput()에 대한 결과)이 있으면 함께 읽어
+ *   referenceError()로 Keras와 같은 값을 내는지 확인할 수 있습니다.
+ */
+public final class CnnModel {
+    
+    private static final int MAGIC = 0x4E4E4346;  // "FCNN" (리틀 엔디언)
+    private static final int REFERENCE_MAGIC = 0x46455246;  // "FREF" (리틀 엔디언, 선택)
+    private static final int VERSION = 1;
+    
+    // 레이어 타입 코드 (export_weights.py와 동일)
+    private static final int CONV2D = 1;
+    private static final int MAX_POOL = 2;
+    private static final int AVG_POOL = 3;
+    private static final int DENSE = 4;
+    private static final int FLATTEN = 5;
+    private static final int BATCH_NORM = 6;
+    private static final int GLOBAL_AVG = 7;
+    private static final int ACTIVATION = 8;
+    private static final int GLOBAL_MAX = 9;
+    
+    // 활성화 함수 코드
+    private static final int LINEAR = 0;
+    private static final int RELU = 1;
+    private static final int SOFTMAX = 2;
+    private static final int SIGMOID = 3;
+    private static final int TANH = 4;
+    
+    private static final int PARALLEL_MIN_WORK = 1 << 16;  // 이보다 작은 레이어는 순차 실행
+    
+    private final int[] inputShape;
+    private final Layer[] layers;
+    private final int[] layerOutputSizes;
+    private final int outputSize;
+    private final int maxActivationSize;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<float[][]> workspace;
+    private final float[] referenceOutput;  // 없으면 null
+    
+    private CnnModel(int[] inputShape, Layer[] layers, ForkJoinPool pool, float[] referenceOutput) {
+        this.inputShape = inputShape;
+        this.layers = layers;
+        this.pool = pool;
+        this.layerOutputSizes = new int[layers.length];
+        
+        int[] shape = inputShape;
+        int max = size(shape);
+        for (int i = 0; i < layers.length; i++) {
+            shape = layers[i].bind(shape);
+            layerOutputSizes[i] = size(shape);
+            max = Math.max(max, layerOutputSizes[i]);
+        }
+        this.outputSize = size(shape);
+        if (referenceOutput != null && referenceOutput.length != outputSize) {
+            throw new IllegalArgumentException("기준 출력 크기 불일치: " + referenceOutput.length + ", 모델 출력 " + outputSize);
+        }
+        this.referenceOutput = referenceOutput;
+        this.maxActivationSize = max;
+        this.workspace = ThreadLocal.withInitial(() -> new float[][] {
+            new float[maxActivationSize], new float[maxActivationSize]
+        });
+    }
+    
+    /**
+     * 변환된 가중치 파일을 로드합니다.
+     *
+     * @param path .cnn 파일 경로
+     * @param pool 합성곱 병렬 실행에 사용할 풀 (null이면 순차 실행)
+     */
+    public static CnnModel load(Path path, ForkJoinPool pool) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return load(in, pool);
+        }
+    }
+    
+    public static CnnModel load(InputStream stream, ForkJoinPool pool) throws IOException {
+        Reader in = new Reader(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("CNN 가중치 파일 형식이 아닙니다");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("지원하지 않는 가중치 파일 버전입니다: " + version);
+        }
+        
+        int[] inputShape = {in.readInt(), in.readInt(), in.readInt()};
+        int layerCount = in.readInt();
+        List<Layer> layers = new ArrayList<>(layerCount);
+        for (int i = 0; i < layerCount; i++) {
+            int type = in.readInt();
+            switch (type) {
+                case CONV2D:
+                    layers.add(Conv2D.read(in));
+                    break;
+                case MAX_POOL:
+                case AVG_POOL:
+                    layers.add(new Pool2D(type == MAX_POOL,
+                        in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt() == 1));
+                    break;
+                case DENSE:
+                    layers.add(Dense.read(in));
+                    break;
+                case FLATTEN:
+                    layers.add(new Flatten());
+                    break;
+                case BATCH_NORM: {
+                    int channels = in.readInt();
+                    layers.add(new BatchNorm(in.readFloats(channels), in.readFloats(channels)));
+                    break;
+                }
+                case GLOBAL_AVG:
+                case GLOBAL_MAX:
+                    layers.add(new GlobalPool(type == GLOBAL_MAX));
+                    break;
+                case ACTIVATION:
+                    layers.add(new Activation(in.readInt()));
+                    break;
+                default:
+                    throw new IOException("지원하지 않는 레이어 타입입니다: " + type + " (레이어 " + i + ")");
+            }
+        }
+        
+        float[] referenceOutput = null;
+        if (!in.atEnd()) {
+            if (in.readInt() != REFERENCE_MAGIC) {
+                throw new IOException("가중치 파일 끝에 알 수 없는 데이터가 있습니다");
+            }
+            referenceOutput = in.readFloats(in.readInt());
+        }
+        
+        try {
+            return new CnnModel(inputShape, layers.toArray(new Layer[0]), pool, referenceOutput);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("레이어 구성이 올바르지 않습니다: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 한 개의 입력 텐서에 대해 추론을 수행합니다.
+     *
+     * @param input 입력 텐서 (H, W, C 행 우선, 앞의 getInputSize()개 사용)
+     * @param output 결과를 기록할 배열 (getOutputSize() 이상)
+     */
+    public void predict(float[] input, float[] output) {
+        predict(input, layers.length, output);
+    }
+    
+    /**
+     * 앞의 layerCount개 레이어만 실행하고 그 출력을 기록합니다 (레이어별 기준값 비교용).
+     */
+    void predict(float[] input, int layerCount, float[] output) {
+        if (input.length < getInputSize()) {
+            throw new IllegalArgumentException("입력 크기가 모델 입력보다 작습니다: " + input.length + " < " + getInputSize());
+        }
+        float[][] buffers = workspace.get();
+        float[] current = input;
+        int target = 0;
+        for (int i = 0; i < layerCount; i++) {
+            float[] next = buffers[target];
+            layers[i].forward(current, next, this);
+            current = next;
+            target ^= 1;
+        }
+        System.arraycopy(current, 0, output, 0, getOutputSize(layerCount));
+    }
+    
+    /**
+     * Keras 기준 출력을 만들 때 쓰는 고정 입력 (input[i] = (i % 97) / 96, export_weights.py와 동일)
+     */
+    public static float[] referenceInput(int size) {
+        float[] input = new float[size];
+        for (int i = 0; i < size; i++) {
+            input[i] = (i % 97) / 96.0f;
+        }
+        return input;
+    }
+    
+    public boolean hasReferenceOutput() {
+        return referenceOutput != null;
+    }
+    
+    /**
+     * 고정 입력에 대한 출력과 파일에 기록된 Keras 기준 출력의 최대 절대 오차
+     *
+     * @throws IllegalStateException 기준 출력이 없는 파일
+     */
+    public double referenceError() {
+        if (referenceOutput == null) {
+            throw new IllegalStateException("가중치 파일에 기준 출력이 없습니다");
+        }
+        float[] output = new float[outputSize];
+        predict(referenceInput(getInputSize()), output);
+        double maxError = 0.0;
+        for (int i = 0; i < outputSize; i++) {
+            maxError = Math.max(maxError, Math.abs(output[i] - referenceOutput[i]));
+        }
+        return maxError;
+    }
+    
+    public int[] getInputShape() {
+        return inputShape.clone();
+    }
+    
+    public int getInputSize() {
+        return size(inputShape);
+    }
+    
+    public int getOutputSize() {
+        return outputSize;
+    }
+    
+    public int getLayerCount() {
+        return layers.length;
+    }
+    
+    /**
+     * 앞의 layerCount개 레이어를 실행한 출력의 크기 (0이면 입력 크기)
+     */
+    int getOutputSize(int layerCount) {
+        return layerCount == 0 ? getInputSize() : layerOutputSizes[layerCount - 1];
+    }
+    
+    /**
+     * 0 ~ count-1 범위를 병렬로 실행합니다. 작업량이 작거나 풀이 없으면 순차 실행합니다.
+     */
+    private void forRange(int count, long work, IntConsumer body) {
+        if (pool == null || count < 2 || work < PARALLEL_MIN_WORK || pool.getParallelism() < 2) {
+            for (int i = 0; i < count; i++) {
+                body.accept(i);
+            }
+            return;
+        }
+        pool.submit(() -> IntStream.range(0, count).parallel().forEach(body)).join();
+    }
+    
+    private static int size(int[] shape) {
+        int size = 1;
+        for (int dim : shape) {
+            size *= dim;
+        }
+        return size;
+    }
+    
+    private static void activate(float[] data, int offset, int length, int activation) {
+        int end = offset + length;
+        switch (activation) {
+            case LINEAR:
+                break;
+            case RELU:
+                for (int i = offset; i < end; i++) {
+                    if (data[i] < 0) {
+                        data[i] = 0;
+                    }
+                }
+                break;
+            case SIGMOID:
+                for (int i = offset; i < end; i++) {
+                    data[i] = (float) (1.0 / (1.0 + Math.exp(-data[i])));
+                }
+                break;
+            case TANH:
+                for (int i = offset; i < end; i++) {
+                    data[i] = (float) Math.tanh(data[i]);
+                }
+                break;
+            case SOFTMAX: {
+                float max = Float.NEGATIVE_INFINITY;
+                for (int i = offset; i < end; i++) {
+                    max = Math.max(max, data[i]);
+                }
+                double sum = 0.0;
+                for (int i = offset; i < end; i++) {
+                    double e = Math.exp(data[i] - max);
+                    data[i] = (float) e;
+                    sum += e;
+                }
+                for (int i = offset; i < end; i++) {
+                    data[i] = (float) (data[i] / sum);
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("지원하지 않는 활성화 함수입니다: " + activation);
+        }
+    }
+    
+    private static void checkActivation(int activation) {
+        if (activation < LINEAR || activation > TANH) {
+            throw new IllegalArgumentException("지원하지 않는 활성화 함수입니다: " + activation);
+        }
+    }
+    
+    /**
+     * TensorFlow 규칙의 출력 크기 (valid: 버림, same: 올림)
+     */
+    private static int outputDim(int in, int kernel, int stride, boolean same) {
+        return same ? (in + stride - 1) / stride : (in - kernel) / stride + 1;
+    }
+    
+    /**
+     * TensorFlow 규칙의 앞쪽(위/왼쪽) 패딩 크기 (홀수 패딩은 뒤쪽에 하나 더 붙음)
+     */
+    private static int padBefore(int in, int out, int kernel, int stride, boolean same) {
+        if (!same) {
+            return 0;
+        }
+        return Math.max((out - 1) * stride + kernel - in, 0) / 2;
+    }
+    
+    private interface Layer {
+        /**
+         * 입력 shape을 받아 출력 shape을 계산하고 내부 크기 정보를 확정합니다.
+         */
+        int[] bind(int[] inputShape);
+        
+        void forward(float[] in, float[] out, CnnModel model);
+    }
+    
+    private static final class Conv2D implements Layer {
+        private final int kh, kw, inC, outC, strideH, strideW, activation;
+        private final boolean same;
+        private final float[] kernel;  // [kh][kw][inC][outC]
+        private final float[] bias;
+        private int inH, inW, outH, outW, padTop, padLeft;
+        
+        private Conv2D(int kh, int kw, int inC, int outC, int strideH, int strideW, boolean same,
+                       int activation, float[] kernel, float[] bias) {
+            this.kh = kh;
+            this.kw = kw;
+            this.inC = inC;
+            this.outC = outC;
+            this.strideH = strideH;
+            this.strideW = strideW;
+            this.same = same;
+            this.activation = activation;
+            this.kernel = kernel;
+            this.bias = bias;
+            checkActivation(activation);
+        }
+        
+        static Conv2D read(Reader in) throws IOException {
+            int kh = in.readInt();
+            int kw = in.readInt();
+            int inC = in.readInt();
+            int outC = in.readInt();
+            int strideH = in.readInt();
+            int strideW = in.readInt();
+            boolean same = in.readInt() == 1;
+            int activation = in.readInt();
+            float[] kernel = in.readFloats(kh * kw * inC * outC);
+            float[] bias = in.readFloats(outC);
+            return new Conv2D(kh, kw, inC, outC, strideH, strideW, same, activation, kernel, bias);
+        }
+        
+        @Override
+        public int[] bind(int[] shape) {
+            if (shape.length != 3 || shape[2] != inC) {
+                throw new IllegalArgumentException("Conv2D 입력 채널 불일치: " + Arrays.toString(shape) + ", 기대 채널 " + inC);
+            }
+            inH = shape[0];
+            inW = shape[1];
+            outH = outputDim(inH, kh, strideH, same);
+            outW = outputDim(inW, kw, strideW, same);
+            padTop = padBefore(inH, outH, kh, strideH, same);
+            padLeft = padBefore(inW, outW, kw, strideW, same);
+            if (outH <= 0 || outW <= 0) {
+                throw new IllegalArgumentException("Conv2D 출력 크기가 0 이하입니다: " + Arrays.toString(shape));
+            }
+            return new int[] {outH, outW, outC};
+        }
+        
+        @Override
+        public void forward(float[] in, float[] out, CnnModel model) {
+            long work = (long) outH * outW * kh * kw * inC * outC;
+            model.forRange(outH, work, oy -> forwardRow(in, out, oy));
+        }
+        
+        private void forwardRow(float[] in, float[] out, int oy) {
+            for (int ox = 0; ox < outW; ox++) {
+                int outBase = (oy * outW + ox) * outC;
+                System.arraycopy(bias, 0, out, outBase, outC);
+                for (int ky = 0; ky < kh; ky++) {
+                    int iy = oy * strideH + ky - padTop;
+                    if (iy < 0 || iy >= inH) {
+                        continue;
+                    }
+                    for (int kx = 0; kx < kw; kx++) {
+                        int ix = ox * strideW + kx - padLeft;
+                        if (ix < 0 || ix >= inW) {
+                            continue;
+                        }
+                        int inBase = (iy * inW + ix) * inC;
+                        int kernelBase = (ky * kw + kx) * inC * outC;
+                        for (int ic = 0; ic < inC; ic++) {
+                            float v = in[inBase + ic];
+                            if (v == 0.0f) {
+                                continue;  // ReLU 이후의 0 값은 건너뜀
+                            }
+                            int k = kernelBase + ic * outC;
+                            for (int oc = 0; oc < outC; oc++) {
+                                out[outBase + oc] += v * kernel[k + oc];
+                            }
+                        }
+                    }
+                }
+                activate(out, outBase, outC, activation);
+            }
+        }
+    }
+    
+    private static final class Pool2D implements Layer {
+        private final boolean max;
+        private final int ph, pw, strideH, strideW;
+        private final boolean same;
+        private int inH, inW, channels, outH, outW, padTop, padLeft;
+        
+        Pool2D(boolean max, int ph, int pw, int strideH, int strideW, boolean same) {
+            this.max = max;
+            this.ph = ph;
+            this.pw = pw;
+            this.strideH = strideH;
+            this.strideW = strideW;
+            this.same = same;
+        }
+        
+        @Override
+        public int[] bind(int[] shape) {
+            if (shape.length != 3) {
+                throw new IllegalArgumentException("Pooling 입력은 3차원이어야 합니다: " + Arrays.toString(shape));
+            }
+            inH = shape[0];
+            inW = shape[1];
+            channels = shape[2];
+            outH = outputDim(inH, ph, strideH, same);
+            outW = outputDim(inW, pw, strideW, same);
+            padTop = padBefore(inH, outH, ph, strideH, same);
+            padLeft = padBefore(inW, outW, pw, strideW, same);
+            if (outH <= 0 || outW <= 0) {
+                throw new IllegalArgumentException("Pooling 출력 크기가 0 이하입니다: " + Arrays.toString(shape));
+            }
+            return new int[] {outH, outW, channels};
+        }
+        
+        @Override
+        public void forward(float[] in, float[] out, CnnModel model) {
+            long work = (long) outH * outW * ph * pw * channels;
+            model.forRange(outH, work, oy -> forwardRow(in, out, oy));
+        }
+        
+        private void forwardRow(float[] in, float[] out, int oy) {
+            int y0 = Math.max(0, oy * strideH - padTop);
+            int y1 = Math.min(inH, oy * strideH - padTop + ph);
+            for (int ox = 0; ox < outW; ox++) {
+                int x0 = Math.max(0, ox * strideW - padLeft);
+                int x1 = Math.min(inW, ox * strideW - padLeft + pw);
+                int outBase = (oy * outW + ox) * channels;
+                Arrays.fill(out, outBase, outBase + channels, max ? Float.NEGATIVE_INFINITY : 0.0f);
+                for (int iy = y0; iy < y1; iy++) {
+                    for (int ix = x0; ix < x1; ix++) {
+                        int inBase = (iy * inW + ix) * channels;
+                        if (max) {
+                            for (int c = 0; c < channels; c++) {
+                                out[outBase + c] = Math.max(out[outBase + c], in[inBase + c]);
+                            }
+                        } else {
+                            for (int c = 0; c < channels; c++) {
+                                out[outBase + c] += in[inBase + c];
+                            }
+                        }
+                    }
+                }
+                if (!max) {
+                    // same 패딩에서는 패딩 영역을 제외한 실제 원소 수로 나눔 (TensorFlow와 동일)
+                    float scale = 1.0f / ((y1 - y0) * (x1 - x0));
+                    for (int c = 0; c < channels; c++) {
+                        out[outBase + c] *= scale;
+                    }
+                }
+            }
+        }
+    }
+    
+    private static final class Dense implements Layer {
+        private final int inSize, outSize, activation;
+        private final float[] kernel;  // [in][out]
+        private final float[] bias;
+        
+        private Dense(int inSize, int outSize, int activation, float[] kernel, float[] bias) {
+            this.inSize = inSize;
+            this.outSize = outSize;
+            this.activation = activation;
+            this.kernel = kernel;
+            this.bias = bias;
+            checkActivation(activation);
+        }
+        
+        static Dense read(Reader in) throws IOException {
+            int inSize = in.readInt();
+            int outSize = in.readInt();
+            int activation = in.readInt();
+            float[] kernel = in.readFloats(inSize * outSize);
+            float[] bias = in.readFloats(outSize);
+            return new Dense(inSize, outSize, activation, kernel, bias);
+        }
+        
+        @Override
+        public int[] bind(int[] shape) {
+            if (shape.length != 1 || shape[0] != inSize) {
+                throw new IllegalArgumentException("Dense 입력 크기 불일치: " + Arrays.toString(shape) + ", 기대 " + inSize);
+            }
+            return new int[] {outSize};
+        }
+        
+        @Override
+        public void forward(float[] in, float[] out, CnnModel model) {
+            System.arraycopy(bias, 0, out, 0, outSize);
+            for (int i = 0; i < inSize; i++) {
+                float v = in[i];
+                if (v == 0.0f) {
+                    continue;
+                }
+                int k = i * outSize;
+                for (int o = 0; o < outSize; o++) {
+                    out[o] += v * kernel[k + o];
+                }
+            }
+            activate(out, 0, outSize, activation);
+        }
+    }
+    
+    private static final class Flatten implements Layer {
+        private int size;
+        
+        @Override
+        public int[] bind(int[] shape) {
+            size = size(shape);
+            return new int[] {size};
+        }
+        
+        @Override
+        public void forward(float[] in, float[] out, CnnModel model) {
+            // H, W, C 행 우선 배열은 이미 Keras Flatten 순서와 같음
+            System.arraycopy(in, 0, out, 0, size);
+        }
+    }
+    
+    private static final class BatchNorm implements Layer {
+        private final float[] scale;
+        private final float[] shift;
+        private int size;
+        
+        BatchNorm(float[] scale, float[] shift) {
+            this.scale = scale;
+            this.shift = shift;
+        }
+        
+        @Override
+        public int[] bind(int[] shape) {
+            if (shape[shape.length - 1] != scale.length) {
+                throw new IllegalArgumentException("BatchNorm 채널 불일치: " + Arrays.toString(shape) + ", 기대 " + scale.length);
+            }
+            size = size(shape);
+            return shape;
+        }
+        
+        @Override
+        public void forward(float[] in, float[] out, CnnModel model) {
+            int channels = scale.length;
+            for (int base = 0; base < size; base += channels) {
+                for (int c = 0; c < channels; c++) {
+                    out[base + c] = in[base + c] * scale[c] + shift[c];
+                }
+            }
+        }
+    }
+    
+    private static final class GlobalPool implements Layer {
+        private final boolean max;
+        private int positions, channels;
+        
+        GlobalPool(boolean max) {
+            this.max = max;
+        }
+        
+        @Override
+        public int[] bind(int[] shape) {
+            if (shape.length != 3) {
+                throw new IllegalArgumentException("Global pooling 입력은 3차원이어야 합니다: " + Arrays.toString(shape));
+            }
+            positions = shape[0] * shape[1];
+            channels = shape[2];
+            return new int[] {channels};
+        }
+        
+        @Override
+        public void forward(float[] in, float[] out, CnnModel model) {
+            Arrays.fill(out, 0, channels, max ? Float.NEGATIVE_INFINITY : 0.0f);
+            for (int p = 0; p < positions; p++) {
+                int base = p * channels;
+                for (int c = 0; c < channels; c++) {
+                    out[c] = max ? Math.max(out[c], in[base + c]) : out[c] + in[base + c];
+                }
+            }
+            if (!max) {
+                for (int c = 0; c < channels; c++) {
+                    out[c] /= positions;
+                }
+            }
+        }
+    }
+    
+    private static final class Activation implements Layer {
+        private final int activation;
+        private int size;
+        private int lastDim;
+        
+        Activation(int activation) {
+            checkActivation(activation);
+            this.activation = activation;
+        }
+        
+        @Override
+        public int[] bind(int[] shape) {
+            size = size(shape);
+            lastDim = shape[shape.length - 1];
+            return shape;
+        }
+        
+        @Override
+        public void forward(float[] in, float[] out, CnnModel model) {
+            System.arraycopy(in, 0, out, 0, size);
+            if (activation == SOFTMAX) {
+                // Keras Softmax는 마지막 축 기준
+                for (int base = 0; base < size; base += lastDim) {
+                    activate(out, base, lastDim, SOFTMAX);
+                }
+            } else {
+                activate(out, 0, size, activation);
+            }
+        }
+    }
+    
+    /**
+     * 리틀 엔디언 int32 / float32 판독기
+     */
+    private static final class Reader {
+        private final PushbackInputStream source;
+        private final DataInputStream in;
+        private final byte[] intBytes = new byte[4];
+        
+        Reader(InputStream in) {
+            this.source = new PushbackInputStream(in, 1);
+            this.in = new DataInputStream(source);
+        }
+        
+        boolean atEnd() throws IOException {
+            int next = source.read();
+            if (next < 0) {
+                return true;
+            }
+            source.unread(next);
+            return false;
+        }
+        
+        int readInt() throws IOException {
+            in.readFully(intBytes);
+            return ByteBuffer.wrap(intBytes).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        }
+        
+        float[] readFloats(int count) throws IOException {
+            if (count < 0) {
+                throw new IOException("잘못된 가중치 개수입니다: " + count);
+            }
+            byte[] bytes = new byte[count * 4];
+            in.readFully(bytes);
+            float[] values = new float[count];
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(values);
+            return values;
+        }
+    }
+}
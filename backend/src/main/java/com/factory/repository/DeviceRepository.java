@@ -0,0 +1,13 @@
+package com.factory.repository;
+
+import com.factory.entity.Device;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DeviceRepository extends JpaRepository<Device, Long> {
+    Optional<Device> findByDeviceId(String deviceId);
+    void deleteByDeviceId(String deviceId);
+}
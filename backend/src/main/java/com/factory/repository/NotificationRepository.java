@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -25,5 +26,21 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Modifying
     @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.userId = :userId")
     void markAsReadByIdAndUserId(@Param("id") Long id, @Param("userId") String userId);
+    
+    /**
+     * 비상 알림이 켜진 모든 사용자(설정이 없으면 기본값 활성화)에게 같은 알림을 한 문장으로 생성합니다.
+     * 
+     * @return 생성된 알림 수
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notifications (user_id, type, title, message, priority, is_read, created_at) " +
+        "SELECT u.user_id, :type, :title, :message, :priority, FALSE, :createdAt " +
+        "FROM users u LEFT JOIN notification_settings s ON s.user_id = u.user_id " +
+        "WHERE s.user_id IS NULL OR s.emergency_enabled = TRUE", nativeQuery = true)
+    int insertForEmergencyRecipients(@Param("type") String type,
+                                     @Param("title") String title,
+                                     @Param("message") String message,
+                                     @Param("priority") String priority,
+                                     @Param("createdAt") LocalDateTime createdAt);
 }
 
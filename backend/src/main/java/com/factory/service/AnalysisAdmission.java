@@ -0,0 +1,303 @@
+package com.factory.service;
+
+import com.factory.dto.AdmissionStatusResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 분석 요청 수락 제어 (AudioAnalysisService 앞단)
+ *
+ * - 동시에 진행 중인 분석 수를 max-in-flight로 제한하고, 초과분은 레인별 대기열에서 기다립니다.
+ * - 우선 레인: 등록부에서 우선 장치로 지정된 장치, 또는 최근 위험 투표/열린 위험 구간이 있는 장치
+ *   일반 레인: 그 외 모든 윈도우
+ * - 자리가 나면 항상 우선 레인부터 수락합니다. 대기열이 가득 차면 일반 요청은 바로 거절(429)하고,
+ *   우선 요청은 가장 오래 기다린 일반 요청을 밀어내고 그 자리를 씁니다. 일반 요청보다 먼저 버려지는 우선 요청은 없습니다.
+ * - max-wait-ms 안에 자리를 얻지 못한 요청은 503으로 거절합니다.
+ * - 거절 응답에는 최근 평균 처리 시간과 앞선 대기 수로 계산한 Retry-After(초)를 함께 보냅니다.
+ *
+ * 대기 중인 요청에는 스레드를 쓰지 않으며, 자리를 얻으면 장치의 분석 샤드에서 이어서 실행됩니다.
+ */
+@Component
+public class AnalysisAdmission {
+    
+    public enum Lane { PRIORITY, ROUTINE }
+    
+    /**
+     * 수락 거절 (status: 429 대기열 가득 참 / 503 대기 시간 초과)
+     */
+    public static final class RejectedException extends RuntimeException {
+        private final int status;
+        private final long retryAfterSeconds;
+        
+        RejectedException(int status, long retryAfterSeconds, String message) {
+            super(message, null, false, false);
+            this.status = status;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+        
+        public int getStatus() {
+            return status;
+        }
+        
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+    
+    private static final double EWMA_ALPHA = 0.1;
+    private static final long MAX_RETRY_AFTER_SECONDS = 30;
+    
+    private final DeviceRegistryService deviceRegistryService;
+    private final DangerEpisodeTracker dangerEpisodeTracker;
+    private final AnalysisShards analysisShards;
+    
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final int priorityCapacity;
+    private final int routineCapacity;
+    private final long maxWaitMillis;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Waiter<?>> priorityQueue = new ArrayDeque<>();
+    private final ArrayDeque<Waiter<?>> routineQueue = new ArrayDeque<>();
+    private int inFlight;
+    private double avgServiceMillis = 100.0;  // 분석 한 건의 평균 처리 시간 (EWMA)
+    
+    private final LongAdder admittedCount = new LongAdder();
+    private final LongAdder queuedCount = new LongAdder();
+    private final LongAdder shedRoutineCount = new LongAdder();
+    private final LongAdder shedPriorityCount = new LongAdder();
+    private final LongAdder timedOutCount = new LongAdder();
+    
+    public AnalysisAdmission(DeviceRegistryService deviceRegistryService,
+                             DangerEpisodeTracker dangerEpisodeTracker,
+                             AnalysisShards analysisShards,
+                             @Value("${audio.admission.enabled:true}") boolean enabled,
+                             @Value("${audio.admission.max-in-flight:64}") int maxInFlight,
+                             @Value("${audio.admission.priority-queue-capacity:256}") int priorityCapacity,
+                             @Value("${audio.admission.routine-queue-capacity:256}") int routineCapacity,
+                             @Value("${audio.admission.max-wait-ms:2000}") long maxWaitMillis) {
+        this.deviceRegistryService = deviceRegistryService;
+        this.dangerEpisodeTracker = dangerEpisodeTracker;
+        this.analysisShards = analysisShards;
+        this.enabled = enabled;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.priorityCapacity = Math.max(0, priorityCapacity);
+        this.routineCapacity = Math.max(0, routineCapacity);
+        this.maxWaitMillis = Math.max(1, maxWaitMillis);
+    }
+    
+    /**
+     * 장치의 레인을 정합니다. 우선 장치이거나 최근 윈도우가 의심스러우면 우선 레인입니다.
+     */
+    public Lane laneOf(String deviceId) {
+        return deviceRegistryService.isHighPriority(deviceId) || dangerEpisodeTracker.isSuspicious(deviceId)
+            ? Lane.PRIORITY : Lane.ROUTINE;
+    }
+    
+    /**
+     * 자리가 있으면 분석을 바로(호출 스레드에서) 시작하고, 없으면 레인 대기열에 넣습니다.
+     * 거절되면 반환된 Future가 RejectedException으로 완료됩니다.
+     *
+     * @param deviceId 분석할 윈도우의 장치 ID (레인과 이어서 실행할 샤드를 정함)
+     * @param analysis 분석을 시작하고 결과 Future를 반환하는 작업
+     */
+    public <T> CompletableFuture<T> submit(String deviceId, Supplier<CompletableFuture<T>> analysis) {
+        if (!enabled) {
+            return analysis.get();
+        }
+        
+        Lane lane = laneOf(deviceId);
+        Waiter<T> waiter;
+        Waiter<?> evicted = null;
+        long retryAfter;
+        lock.lock();
+        try {
+            if (inFlight < maxInFlight) {
+                inFlight++;
+                admittedCount.increment();
+                waiter = null;
+            } else {
+                ArrayDeque<Waiter<?>> queue = lane == Lane.PRIORITY ? priorityQueue : routineQueue;
+                // 우선 대기열이 넘친 만큼은 일반 대기열의 자리를 빌려 쓴 것
+                int borrowed = Math.max(0, priorityQueue.size() - priorityCapacity);
+                boolean full = lane == Lane.PRIORITY
+                    ? priorityQueue.size() >= priorityCapacity
+                    : routineQueue.size() + borrowed >= routineCapacity;
+                if (full) {
+                    if (lane == Lane.ROUTINE || routineQueue.isEmpty()) {
+                        retryAfter = retryAfterSeconds(priorityQueue.size() + routineQueue.size());
+                        (lane == Lane.PRIORITY ? shedPriorityCount : shedRoutineCount).increment();
+                        return CompletableFuture.failedFuture(new RejectedException(429, retryAfter,
+                            "분석 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요"));
+                    }
+                    // 가장 오래 기다린 일반 요청을 밀어내고 그 자리를 우선 요청이 사용
+                    evicted = routineQueue.pollFirst();
+                    shedRoutineCount.increment();
+                }
+                waiter = new Waiter<>(deviceId, analysis);
+                queue.addLast(waiter);
+                queuedCount.increment();
+            }
+            retryAfter = retryAfterSeconds(priorityQueue.size() + routineQueue.size());
+        } finally {
+            lock.unlock();
+        }
+        
+        if (evicted != null) {
+            evicted.promise.completeExceptionally(new RejectedException(429, retryAfter,
+                "우선 분석 요청으로 인해 처리할 수 없습니다. 잠시 후 다시 시도해 주세요"));
+        }
+        if (waiter == null) {
+            return start(analysis);
+        }
+        
+        Waiter<T> queued = waiter;
+        CompletableFuture.delayedExecutor(maxWaitMillis, TimeUnit.MILLISECONDS).execute(() -> expire(queued));
+        return queued.promise;
+    }
+    
+    /**
+     * 수락 제어 상태 조회
+     */
+    public AdmissionStatusResponse getStatus() {
+        lock.lock();
+        try {
+            return AdmissionStatusResponse.builder()
+                .enabled(enabled)
+                .maxInFlight(maxInFlight)
+                .inFlight(inFlight)
+                .priorityQueued(priorityQueue.size())
+                .routineQueued(routineQueue.size())
+                .avgServiceMs(avgServiceMillis)
+                .admitted(admittedCount.sum())
+                .queued(queuedCount.sum())
+                .shedRoutine(shedRoutineCount.sum())
+                .shedPriority(shedPriorityCount.sum())
+                .timedOut(timedOutCount.sum())
+                .build();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 수락된 분석을 시작하고, 끝나면 자리를 반환합니다.
+     */
+    private <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> analysis) {
+        long startedAt = System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result = analysis.get();
+        } catch (RuntimeException e) {
+            release(startedAt);
+            return CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, error) -> release(startedAt));
+        return result;
+    }
+    
+    /**
+     * 자리를 반환합니다. 대기 중인 요청이 있으면 (우선 레인부터) 자리를 넘겨주고 장치 샤드에서 시작합니다.
+     */
+    private void release(long startedAt) {
+        double elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000.0;
+        lock.lock();
+        try {
+            avgServiceMillis += EWMA_ALPHA * (elapsedMillis - avgServiceMillis);
+        } finally {
+            lock.unlock();
+        }
+        handOff();
+    }
+    
+    private void handOff() {
+        Waiter<?> next;
+        lock.lock();
+        try {
+            next = priorityQueue.pollFirst();
+            if (next == null) {
+                next = routineQueue.pollFirst();
+            }
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+            admittedCount.increment();
+        } finally {
+            lock.unlock();
+        }
+        resume(next);
+    }
+    
+    private <T> void resume(Waiter<T> waiter) {
+        try {
+            analysisShards.executorFor(waiter.deviceId).execute(() -> start(waiter.analysis).whenComplete((value, error) -> {
+                if (error != null) {
+                    waiter.promise.completeExceptionally(error);
+                } else {
+                    waiter.promise.complete(value);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            // 샤드 대기열이 가득 참: 넘겨받은 자리를 다음 대기 요청에 다시 넘김
+            handOff();
+            waiter.promise.completeExceptionally(new RejectedException(503, 1, "분석 대기열이 가득 찼습니다"));
+        }
+    }
+    
+    private void expire(Waiter<?> waiter) {
+        long retryAfter;
+        lock.lock();
+        try {
+            if (!priorityQueue.remove(waiter) && !routineQueue.remove(waiter)) {
+                return;  // 이미 수락되었거나 밀려남
+            }
+            timedOutCount.increment();
+            retryAfter = retryAfterSeconds(priorityQueue.size() + routineQueue.size());
+        } finally {
+            lock.unlock();
+        }
+        waiter.promise.completeExceptionally(new RejectedException(503, retryAfter,
+            "분석 대기 시간(" + maxWaitMillis + "ms)을 초과했습니다"));
+    }
+    
+    /**
+     * 대기 중인 요청이 모두 처리되는 데 걸릴 예상 시간(초, 1 ~ 30) (lock 안에서 호출)
+     */
+    private long retryAfterSeconds(int queued) {
+        double millis = (queued + 1) * avgServiceMillis / maxInFlight;
+        return Math.max(1, Math.min(MAX_RETRY_AFTER_SECONDS, (long) Math.ceil(millis / 1000.0)));
+    }
+    
+    /**
+     * 대기 중인 분석 요청
+     */
+    private static final class Waiter<T> {
+        private final String deviceId;
+        private final Supplier<CompletableFuture<T>> analysis;
+        private final CompletableFuture<T> promise = new CompletableFuture<>();
+        
+        Waiter(String deviceId, Supplier<CompletableFuture<T>> analysis) {
+            this.deviceId = deviceId;
+            this.analysis = analysis;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.factory.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 분석 파이프라인 구성 요소가 이미 집계하고 있는 카운터와 대기열 상태를 계측 레지스트리에 노출합니다.
+ *
+ * 모두 스크레이프 시점에 기존 LongAdder/대기열 크기를 읽는 게이지와 함수 카운터이므로
+ * 분석 경로에서 따로 기록하는 비용이 없습니다. (Spring Boot가 시작 시 MeterBinder 빈을 레지스트리에 등록)
+ */
+@Component
+@RequiredArgsConstructor
+public class AnalysisMeterBinder implements MeterBinder {
+    
+    private final AnalysisAdmission analysisAdmission;
+    private final AnalysisShards analysisShards;
+    private final AudioActivityGate audioActivityGate;
+    private final DangerEpisodeTracker dangerEpisodeTracker;
+    private final DangerAlertService dangerAlertService;
+    private final MLService mlService;
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // 수락 제어
+        Gauge.builder("analysis.in.flight", analysisAdmission, AnalysisAdmission::getInFlight)
+            .description("진행 중인 분석 수 (수락 제어 슬롯 점유)")
+            .register(registry);
+        Gauge.builder("analysis.admission.queue.depth", analysisAdmission, a -> a.getStatus().getPriorityQueued())
+            .description("수락 대기열에서 기다리는 분석 요청 수")
+            .tag("lane", "priority")
+            .register(registry);
+        Gauge.builder("analysis.admission.queue.depth", analysisAdmission, a -> a.getStatus().getRoutineQueued())
+            .description("수락 대기열에서 기다리는 분석 요청 수")
+            .tag("lane", "routine")
+            .register(registry);
+        FunctionCounter.builder("analysis.admission.admitted", analysisAdmission, a -> a.getStatus().getAdmitted())
+            .description("수락된 분석 요청 수")
+            .register(registry);
+        FunctionCounter.builder("analysis.admission.shed", analysisAdmission, a -> a.getStatus().getShedRoutine())
+            .description("대기열이 가득 차 거절된 분석 요청 수 (429)")
+            .tag("lane", "routine")
+            .register(registry);
+        FunctionCounter.builder("analysis.admission.shed", analysisAdmission, a -> a.getStatus().getShedPriority())
+            .description("대기열이 가득 차 거절된 분석 요청 수 (429)")
+            .tag("lane", "priority")
+            .register(registry);
+        FunctionCounter.builder("analysis.admission.timeouts", analysisAdmission, a -> a.getStatus().getTimedOut())
+            .description("대기 시간을 넘겨 거절된 분석 요청 수 (503)")
+            .register(registry);
+        
+        // 분석 샤드 (ML 응답 이후 위험 판단)
+        Gauge.builder("analysis.shard.queue.depth", analysisShards, AnalysisShards::getQueueDepth)
+            .description("모든 분석 샤드 대기열의 작업 수")
+            .register(registry);
+        Gauge.builder("analysis.shard.queue.max.depth", analysisShards, AnalysisShards::getMaxShardQueueDepth)
+            .description("가장 깊은 분석 샤드 대기열의 작업 수")
+            .register(registry);
+        
+        // 무음/험 게이트
+        FunctionCounter.builder("audio.gate.windows", audioActivityGate, AudioActivityGate::getPassedCount)
+            .description("게이트를 거친 윈도우 수 (결과별)")
+            .tag("result", "pass")
+            .register(registry);
+        FunctionCounter.builder("audio.gate.windows", audioActivityGate, AudioActivityGate::getGatedSilenceCount)
+            .description("게이트를 거친 윈도우 수 (결과별)")
+            .tag("result", "silence")
+            .register(registry);
+        FunctionCounter.builder("audio.gate.windows", audioActivityGate, AudioActivityGate::getGatedHumCount)
+            .description("게이트를 거친 윈도우 수 (결과별)")
+            .tag("result", "hum")
+            .register(registry);
+        
+        // 위험 구간
+        FunctionCounter.builder("danger.episodes", dangerEpisodeTracker, DangerEpisodeTracker::getEpisodesOpened)
+            .description("위험 구간 수 (시작/종료)")
+            .tag("event", "opened")
+            .register(registry);
+        FunctionCounter.builder("danger.episodes", dangerEpisodeTracker, DangerEpisodeTracker::getEpisodesClosed)
+            .description("위험 구간 수 (시작/종료)")
+            .tag("event", "closed")
+            .register(registry);
+        Gauge.builder("danger.episode.sources", dangerEpisodeTracker, DangerEpisodeTracker::getActiveSourceCount)
+            .description("위험 구간 상태를 추적 중인 출처 수")
+            .register(registry);
+        
+        // 위험 이벤트/알림 생성
+        Gauge.builder("danger.alert.queue.depth", dangerAlertService, DangerAlertService::getQueueDepth)
+            .description("이벤트/알림 생성을 기다리는 작업 수")
+            .register(registry);
+        FunctionCounter.builder("danger.alerts.processed", dangerAlertService, s -> s.getStatus().getCompleted())
+            .description("처리된 이벤트/알림 생성 작업 수 (실패 포함)")
+            .register(registry);
+        FunctionCounter.builder("danger.alerts.failed", dangerAlertService, s -> s.getStatus().getFailed())
+            .description("실패한 이벤트/알림 생성 작업 수")
+            .register(registry);
+        FunctionCounter.builder("danger.alerts.caller.runs", dangerAlertService, s -> s.getStatus().getCallerRuns())
+            .description("알림 대기열이 가득 차 분석 스레드에서 직접 처리한 작업 수")
+            .register(registry);
+        
+        // ML 클라이언트 (보호 계층, 캐시, 배칭, 소켓)
+        mlService.bindMetrics(registry);
+    }
+}
@@ -0,0 +1,145 @@
+package com.factory.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 분석 경로 계측 (관리 포트의 GET /actuator/prometheus로 스크레이프)
+ *
+ * 단계별 지연 히스토그램, ML 호출 오류 원인별 카운터, 예측 클래스별 판정 카운터를 시작 시 모두 만들어 두고
+ * 분석 경로에서는 배열에서 꺼내 기록만 합니다. (태그 조합 조회/문자열 생성 없음)
+ * 타이머는 고정 경계 버킷 히스토그램이므로 기록 비용은 버킷 하나의 원자적 증가와 합계/최대값 갱신뿐이고,
+ * 카운터는 잠금 없는 누산기(DoubleAdder)입니다.
+ *
+ * 대기열 깊이, 진행 중인 호출 수 같은 게이지와 기존 LongAdder 카운터는 AnalysisMeterBinder가
+ * 스크레이프 시점에 읽어 가므로 분석 경로에 추가 비용이 없습니다.
+ */
+@Component
+public class AnalysisMetrics {
+    
+    /**
+     * 분석 단계 (analysis.stage.duration의 stage 태그)
+     */
+    public enum Stage {
+        /** 요청 본문 → float 샘플 (JSON 숫자 배열 변환 또는 바이너리 PCM 디코딩) */
+        DECODE("decode"),
+        /** 16kHz 리샘플링 (입력이 16kHz가 아닐 때만) */
+        RESAMPLE("resample"),
+        /** 진폭 정규화 */
+        NORMALIZE("normalize"),
+        /** log-mel 특징 추출 (백엔드 특징 추출이 켜져 있을 때만) */
+        FEATURES("features"),
+        /** ML 예측 요청부터 응답까지 (캐시, 배칭 대기, 보호 계층 포함) */
+        ML("ml"),
+        /** 예측 결과로 위험 판단, 위험 구간 기록 (분석 샤드) */
+        DECISION("decision"),
+        /** 위험 이벤트 저장과 사용자 알림 생성 (알림 실행기) */
+        EVENT("event");
+        
+        private final String tag;
+        
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+    
+    /**
+     * ML 호출 오류 원인 (ml.errors의 cause 태그)
+     * 헤지 요청을 포함하여 전송 시도마다 집계합니다.
+     * 보호 계층의 거절(circuit_open, bulkhead_full)은 MLCallGuard의 카운터를 AnalysisMeterBinder가 같은 이름으로 노출합니다.
+     */
+    public enum MLErrorCause {
+        /** 연결/응답/커넥션 풀 대기 제한 시간 초과 */
+        TIMEOUT("timeout"),
+        /** 연결 실패, 연결 끊김 등 그 밖의 입출력 오류 */
+        CONNECTION("connection"),
+        /** HTTP 5xx */
+        SERVER_ERROR("server_error"),
+        /** 빈 응답, 응답 파싱 실패 */
+        BAD_RESPONSE("bad_response"),
+        /** HTTP 415 (바이너리 전송 미지원, JSON으로 재전송) */
+        UNSUPPORTED("unsupported"),
+        /** 요청 인코딩 실패 */
+        ENCODE("encode");
+        
+        private final String tag;
+        
+        MLErrorCause(String tag) {
+            this.tag = tag;
+        }
+    }
+    
+    /** 예측 클래스 인덱스별 태그 값 (범위를 벗어난 인덱스는 unknown) */
+    private static final String[] CLASS_TAGS = {
+        "normal", "scream", "help", "emergency", "background_noise", "factory_noise", "road_noise", "unknown"
+    };
+    
+    private final Timer[] stageTimers;
+    private final Counter[] mlErrors;
+    private final Counter[] safeVerdicts;
+    private final Counter[] dangerVerdicts;
+    
+    public AnalysisMetrics(MeterRegistry registry) {
+        Stage[] stages = Stage.values();
+        stageTimers = new Timer[stages.length];
+        for (Stage stage : stages) {
+            stageTimers[stage.ordinal()] = Timer.builder("analysis.stage.duration")
+                .description("분석 단계별 처리 시간")
+                .tag("stage", stage.tag)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(50_000))  // 50µs ~ 10s 범위의 버킷만 사용
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+        }
+        
+        MLErrorCause[] causes = MLErrorCause.values();
+        mlErrors = new Counter[causes.length];
+        for (MLErrorCause cause : causes) {
+            mlErrors[cause.ordinal()] = Counter.builder("ml.errors")
+                .description("ML 호출 오류 (원인별)")
+                .tag("cause", cause.tag)
+                .register(registry);
+        }
+        
+        safeVerdicts = new Counter[CLASS_TAGS.length];
+        dangerVerdicts = new Counter[CLASS_TAGS.length];
+        for (int i = 0; i < CLASS_TAGS.length; i++) {
+            safeVerdicts[i] = verdictCounter(registry, CLASS_TAGS[i], false);
+            dangerVerdicts[i] = verdictCounter(registry, CLASS_TAGS[i], true);
+        }
+    }
+    
+    private static Counter verdictCounter(MeterRegistry registry, String classTag, boolean dangerous) {
+        return Counter.builder("analysis.verdicts")
+            .description("모델 판정 윈도우 수 (예측 클래스, 위험 여부별, 게이트에서 걸러진 윈도우 제외)")
+            .tag("class", classTag)
+            .tag("dangerous", String.valueOf(dangerous))
+            .register(registry);
+    }
+    
+    /**
+     * 단계 처리 시간을 기록합니다.
+     *
+     * @param nanos System.nanoTime() 차이
+     */
+    public void recordStage(Stage stage, long nanos) {
+        stageTimers[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordMLError(MLErrorCause cause) {
+        mlErrors[cause.ordinal()].increment();
+    }
+    
+    /**
+     * 위험 판단 결과를 예측 클래스별로 집계합니다.
+     */
+    public void recordVerdict(int predictedClass, boolean dangerous) {
+        int index = predictedClass >= 0 && predictedClass < CLASS_TAGS.length - 1 ? predictedClass : CLASS_TAGS.length - 1;
+        (dangerous ? dangerVerdicts : safeVerdicts)[index].increment();
+    }
+}
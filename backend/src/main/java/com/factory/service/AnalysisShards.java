@@ -0,0 +1,108 @@
+package com.factory.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 장치(오디오 출처)별로 분석 후처리를 고정된 단일 스레드 샤드에 배정하는 실행기
+ *
+ * 같은 장치의 작업은 항상 같은 샤드 스레드에서 순서대로 실행되므로,
+ * 장치별 상태(위험 구간 투표 등)는 샤드 안에서 락 없이 다룰 수 있습니다.
+ * 샤드마다 대기열 크기가 제한되어 있으며, 가득 차면 작업이 거절됩니다
+ * (호출 스레드에서 실행하면 단일 스레드 소유 규칙이 깨지므로 CallerRuns를 쓰지 않음).
+ */
+@Component
+@Slf4j
+public class AnalysisShards {
+    
+    private final ThreadPoolExecutor[] shards;
+    
+    public AnalysisShards(@Value("${audio.analysis.shards.count:0}") int count,
+                          @Value("${audio.analysis.shards.queue-capacity:500}") int queueCapacity) {
+        int shardCount = count > 0 ? count : Math.max(2, Runtime.getRuntime().availableProcessors());
+        this.shards = new ThreadPoolExecutor[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            String name = "analysis-shard-" + i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        }
+        log.info("분석 샤드 {}개 (샤드별 대기열 {})", shardCount, queueCapacity);
+    }
+    
+    /**
+     * 장치가 배정된 샤드 번호
+     */
+    public int shardOf(String deviceId) {
+        return Math.floorMod(DangerEpisodeTracker.sourceKey(deviceId).hashCode(), shards.length);
+    }
+    
+    /**
+     * 장치가 배정된 샤드의 실행기
+     */
+    public Executor executorFor(String deviceId) {
+        return shards[shardOf(deviceId)];
+    }
+    
+    /**
+     * 샤드 번호로 실행기를 조회합니다.
+     */
+    public Executor executor(int shard) {
+        return shards[shard];
+    }
+    
+    public int getShardCount() {
+        return shards.length;
+    }
+    
+    /**
+     * 모든 샤드의 대기 중인 작업 수 합계
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (ThreadPoolExecutor shard : shards) {
+            depth += shard.getQueue().size();
+        }
+        return depth;
+    }
+    
+    /**
+     * 가장 많이 밀려 있는 샤드의 대기 작업 수 (특정 장치 쏠림 확인용)
+     */
+    public int getMaxShardQueueDepth() {
+        int max = 0;
+        for (ThreadPoolExecutor shard : shards) {
+            max = Math.max(max, shard.getQueue().size());
+        }
+        return max;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+        for (ThreadPoolExecutor shard : shards) {
+            try {
+                if (!shard.awaitTermination(10, TimeUnit.SECONDS)) {
+                    shard.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                shard.shutdownNow();
+            }
+        }
+    }
+}
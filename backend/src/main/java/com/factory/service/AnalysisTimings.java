@@ -0,0 +1,161 @@
+package com.factory.service;
+
+import com.factory.dto.AnalysisStageTiming;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 분석 요청 한 건의 단계별 시각 (Server-Timing 헤더, AudioAnalysisResponse.timings)
+ *
+ * 요청 도착 시각을 기준으로 각 단계의 시작/종료를 System.nanoTime()으로 기록합니다.
+ * audio.timing.enabled가 꺼져 있으면 객체를 만들지 않으므로 분석 경로에는 null 확인만 남습니다.
+ *
+ * 단계는 분석 경로를 따라 요청 스레드 → ML 응답 스레드 → 분석 샤드 순서로 기록되고,
+ * CompletableFuture 연결이 기록 사이의 순서(happens-before)를 보장하므로 따로 동기화하지 않습니다.
+ * 위험 이벤트/알림 생성은 응답과 분리된 비동기 작업이므로 포함하지 않습니다 (analysis_stage_duration_seconds{stage="event"}).
+ */
+public final class AnalysisTimings {
+    
+    /** 요청 도착 시각(System.nanoTime())을 담는 요청 속성 (AnalysisTimingFilter) */
+    public static final String ARRIVAL_ATTRIBUTE = AnalysisTimings.class.getName() + ".arrival";
+    
+    public static final String HEADER = "Server-Timing";
+    
+    /**
+     * 기록 단계 (Server-Timing 항목 이름은 헤더 규칙상 ASCII)
+     */
+    public enum Stage {
+        REQUEST("request", "auth and body parsing"),
+        ADMISSION("admission", "admission queue wait"),
+        DECODE("decode", "PCM decode / JSON to samples"),
+        RESAMPLE("resample", "resample to 16kHz"),
+        NORMALIZE("normalize", "amplitude normalization"),
+        FEATURES("features", "log-mel extraction"),
+        ML("ml", "ML round trip"),
+        SHARD("shard", "analysis shard queue wait"),
+        DECISION("decision", "verdict and episode tracking");
+        
+        private final String label;
+        private final String description;
+        
+        Stage(String label, String description) {
+            this.label = label;
+            this.description = description;
+        }
+        
+        static Stage of(AnalysisMetrics.Stage stage) {
+            switch (stage) {
+                case DECODE:
+                    return DECODE;
+                case RESAMPLE:
+                    return RESAMPLE;
+                case NORMALIZE:
+                    return NORMALIZE;
+                case FEATURES:
+                    return FEATURES;
+                case ML:
+                    return ML;
+                case DECISION:
+                    return DECISION;
+                default:
+                    return null;
+            }
+        }
+    }
+    
+    private static final int STAGE_COUNT = Stage.values().length;
+    
+    private final long origin;
+    private final long[] starts = new long[STAGE_COUNT];
+    private final long[] ends = new long[STAGE_COUNT];
+    private int recorded;  // 단계별 기록 여부 (비트)
+    private long finished;
+    
+    private AnalysisTimings(long origin) {
+        this.origin = origin;
+    }
+    
+    /**
+     * @param origin 요청 도착 시각 (System.nanoTime())
+     */
+    public static AnalysisTimings startingAt(long origin) {
+        return new AnalysisTimings(origin);
+    }
+    
+    public void record(Stage stage, long startNanos, long endNanos) {
+        starts[stage.ordinal()] = startNanos;
+        ends[stage.ordinal()] = endNanos;
+        recorded |= 1 << stage.ordinal();
+    }
+    
+    /**
+     * 계측 단계(AnalysisMetrics.Stage)와 같은 구간을 기록합니다. 응답에 포함되지 않는 단계(event)는 무시합니다.
+     */
+    void record(AnalysisMetrics.Stage stage, long startNanos, long endNanos) {
+        Stage timingStage = Stage.of(stage);
+        if (timingStage != null) {
+            record(timingStage, startNanos, endNanos);
+        }
+    }
+    
+    /**
+     * 앞 단계가 끝난 시각부터 지금까지를 기록합니다. (대기 구간, 앞 단계가 없으면 기록하지 않음)
+     */
+    void recordSince(Stage stage, Stage previous, long endNanos) {
+        if (isRecorded(previous)) {
+            record(stage, ends[previous.ordinal()], endNanos);
+        }
+    }
+    
+    /**
+     * 응답을 만드는 시점에 호출하여 전체 시간(total)을 확정합니다. (헤더와 본문이 같은 값을 쓰도록 처음 호출만 반영)
+     */
+    public void finish() {
+        if (finished == 0) {
+            finished = System.nanoTime();
+        }
+    }
+    
+    private boolean isRecorded(Stage stage) {
+        return (recorded & (1 << stage.ordinal())) != 0;
+    }
+    
+    /**
+     * Server-Timing 헤더 값 (밀리초, 기록된 단계만)
+     * 예: request;dur=0.412;desc="auth and body parsing", ml;dur=12.034;desc="ML round trip", total;dur=14.220
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder(256);
+        for (Stage stage : Stage.values()) {
+            if (isRecorded(stage)) {
+                header.append(stage.label).append(";dur=")
+                    .append(toMillis(ends[stage.ordinal()] - starts[stage.ordinal()]))
+                    .append(";desc=\"").append(stage.description).append("\", ");
+            }
+        }
+        return header.append("total;dur=").append(toMillis(finished - origin)).toString();
+    }
+    
+    /**
+     * 응답 본문용 단계 목록 (요청 도착 기준 시작 시각과 처리 시간, 밀리초)
+     * 마지막 항목은 전체 시간(total)입니다.
+     */
+    public List<AnalysisStageTiming> toList() {
+        List<AnalysisStageTiming> timings = new ArrayList<>(STAGE_COUNT + 1);
+        for (Stage stage : Stage.values()) {
+            if (isRecorded(stage)) {
+                timings.add(new AnalysisStageTiming(stage.label,
+                    toMillis(starts[stage.ordinal()] - origin),
+                    toMillis(ends[stage.ordinal()] - starts[stage.ordinal()])));
+            }
+        }
+        timings.add(new AnalysisStageTiming("total", 0.0, toMillis(finished - origin)));
+        return timings;
+    }
+    
+    /** 나노초 → 밀리초 (마이크로초 단위 반올림) */
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,183 @@
+package com.factory.service;
+
+import com.factory.dto.AudioAnalysisResponse;
+import com.factory.dto.ReadinessResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 시작 시 분석 경로 예열
+ *
+ * 배포 직후에는 ML 서비스 연결이 풀에 없고, 특징 추출/응답 파싱 코드가 아직 JIT 컴파일되지 않았으며,
+ * ML 서비스의 모델도 첫 호출에서 준비되므로 처음 몇 분석의 지연이 크게 튑니다.
+ * ApplicationRunner로 실행되므로 예열이 끝날 때까지 Spring의 readiness 상태는 REFUSING_TRAFFIC으로 남고,
+ * 끝나면 Spring이 ACCEPTING_TRAFFIC으로 바꿉니다 (GET /api/health/ready).
+ *
+ * 1. ML 서비스 연결을 미리 엽니다 (HTTP keep-alive 풀 또는 유닉스 도메인 소켓).
+ * 2. 합성 노이즈 윈도우를 실제 분석 경로(AudioAnalysisService)로 라운드마다 동시에 보내고,
+ *    라운드 지연 중앙값의 변화가 tolerance 이하가 되면 (최소 min-rounds 라운드) 끝냅니다.
+ *    ML 서비스가 아직 응답하지 않으면 retry-delay-ms마다 다시 시도합니다.
+ * 3. max-duration-ms 안에 안정되지 않으면 경고를 남기고 준비 완료로 넘어갑니다.
+ *
+ * 합성 윈도우는 위험 구간 추적과 이벤트/알림 생성을 하지 않습니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalysisWarmup implements ApplicationRunner {
+    
+    public enum State { PENDING, WARMING, DONE, UNSTABLE, DISABLED }
+    
+    private static final String DEVICE_PREFIX = "warmup-";
+    private static final int SAMPLE_RATE = 16000;
+    
+    private final MLService mlService;
+    private final AudioAnalysisService audioAnalysisService;
+    private final ApplicationAvailability applicationAvailability;
+    
+    @Value("${audio.warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${audio.warmup.connections:8}")
+    private int connections;
+    
+    @Value("${audio.warmup.concurrency:8}")
+    private int concurrency;
+    
+    @Value("${audio.warmup.window-samples:32000}")
+    private int windowSamples;
+    
+    @Value("${audio.warmup.min-rounds:3}")
+    private int minRounds;
+    
+    @Value("${audio.warmup.max-rounds:30}")
+    private int maxRounds;
+    
+    @Value("${audio.warmup.tolerance:0.2}")
+    private double tolerance;
+    
+    @Value("${audio.warmup.retry-delay-ms:1000}")
+    private long retryDelayMs;
+    
+    @Value("${audio.warmup.max-duration-ms:60000}")
+    private long maxDurationMs;
+    
+    private volatile State state = State.PENDING;
+    private volatile int rounds;
+    private volatile double lastMedianMillis = Double.NaN;
+    private volatile int connectionsOpened;
+    private volatile long durationMillis;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+    
+    /**
+     * 준비 상태와 예열 결과 조회
+     */
+    public ReadinessResponse getStatus() {
+        return ReadinessResponse.builder()
+            .ready(applicationAvailability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC)
+            .warmupState(state.name())
+            .warmupRounds(rounds)
+            .warmupLatencyMs(Double.isNaN(lastMedianMillis) ? null : lastMedianMillis)
+            .mlConnections(connectionsOpened)
+            .warmupDurationMs(durationMillis)
+            .build();
+    }
+    
+    private void warmUp() {
+        if (!enabled) {
+            state = State.DISABLED;
+            return;
+        }
+        state = State.WARMING;
+        long start = System.nanoTime();
+        long deadline = start + maxDurationMs * 1_000_000L;
+        log.info("분석 경로 예열 시작 (동시 {}건, 최대 {}ms)", concurrency, maxDurationMs);
+        
+        connectionsOpened = mlService.prewarmConnections(Math.max(0, connections)).join();
+        
+        Random random = new Random();
+        float[][] windows = new float[Math.max(1, concurrency)][windowSamples];
+        double previous = Double.NaN;
+        boolean stable = false;
+        while (!stable && rounds < maxRounds && System.nanoTime() < deadline) {
+            double median = runRound(windows, random);
+            if (Double.isNaN(median)) {
+                // ML 서비스가 아직 준비되지 않음 (모델 로드 중 등)
+                log.debug("예열 윈도우가 모두 실패하여 {}ms 후 다시 시도합니다", retryDelayMs);
+                if (!sleep(retryDelayMs)) {
+                    break;
+                }
+                continue;
+            }
+            rounds++;
+            lastMedianMillis = median;
+            stable = rounds >= minRounds && Math.abs(median - previous) <= tolerance * previous;
+            previous = median;
+            log.debug("예열 라운드 {}: 지연 중앙값 {}ms", rounds, String.format("%.1f", median));
+        }
+        
+        durationMillis = (System.nanoTime() - start) / 1_000_000L;
+        state = stable ? State.DONE : State.UNSTABLE;
+        if (stable) {
+            log.info("분석 경로 예열 완료: {}라운드, 지연 중앙값 {}ms, ML 연결 {}개, {}ms 소요",
+                rounds, String.format("%.1f", lastMedianMillis), connectionsOpened, durationMillis);
+        } else {
+            log.warn("분석 경로 예열이 안정되지 않았지만 준비 완료로 전환합니다: {}라운드, 지연 중앙값 {}ms, ML 연결 {}개, {}ms 소요",
+                rounds, Double.isNaN(lastMedianMillis) ? "-" : String.format("%.1f", lastMedianMillis),
+                connectionsOpened, durationMillis);
+        }
+    }
+    
+    /**
+     * 합성 윈도우를 동시에 보내고 성공한 분석의 지연 중앙값(ms)을 반환합니다 (모두 실패하면 NaN).
+     * 윈도우마다 다른 노이즈를 써서 예측 캐시에 걸리지 않게 하고, 장치 ID를 나누어 여러 샤드를 거치게 합니다.
+     */
+    private double runRound(float[][] windows, Random random) {
+        int count = windows.length;
+        double[] latencies = new double[count];
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[count];
+        for (int i = 0; i < count; i++) {
+            float[] window = windows[i];
+            for (int k = 0; k < window.length; k++) {
+                window[k] = (float) (random.nextGaussian() * 0.1);
+            }
+            int slot = i;
+            long sentAt = System.nanoTime();
+            futures[i] = audioAnalysisService.analyzeSyntheticAsync(window, window.length, SAMPLE_RATE, DEVICE_PREFIX + i)
+                .thenAccept(response -> latencies[slot] = isAnalyzed(response)
+                    ? (System.nanoTime() - sentAt) / 1_000_000.0 : Double.NaN);
+        }
+        CompletableFuture.allOf(futures).join();
+        
+        double[] succeeded = Arrays.stream(latencies).filter(latency -> !Double.isNaN(latency)).sorted().toArray();
+        return succeeded.length > 0 ? succeeded[succeeded.length / 2] : Double.NaN;
+    }
+    
+    private boolean isAnalyzed(AudioAnalysisResponse response) {
+        return response.isSuccess() && response.getPredictions() != null;
+    }
+    
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.factory.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ML 호출 전에 윈도우를 가볍게 사전 분류하는 에너지/음성 활동 게이트
+ *
+ * 정규화 전의 원본 샘플에서 평균(DC 오프셋)을 뺀 값으로 RMS, 피크, 영교차율(ZCR)을 계산하여
+ * - 무음/저에너지 구간 (RMS와 피크가 모두 임계값 미만)
+ * - 작고 일정한 험(hum) 소음 (RMS가 상한 미만이고, ZCR이 매우 낮고 crest factor가 사인파에 가까움)
+ * 인 윈도우는 모델을 호출하지 않고 바로 정상으로 처리합니다.
+ *
+ * DC 오프셋이 있는 마이크에서는 원본 샘플이 0을 거의 지나지 않으므로, 평균을 빼지 않으면 큰 소리도 험으로 걸러집니다.
+ * 또한 험 규칙은 RMS 상한 미만에만 적용하여, 큰 저주파 소리는 모델이 판단하도록 합니다. (위험 감지에서는 놓치는 쪽이 더 나쁨)
+ *
+ * 게이트는 리샘플링 전에 실행되므로 영교차율은 초당 교차 수로 비교합니다.
+ * (샘플당 비율로 비교하면 같은 임계값이 16kHz에서는 160Hz, 48kHz에서는 480Hz가 됨)
+ *
+ * 비명/도움 요청 같은 음성은 ZCR과 crest factor가 높으므로 게이트를 통과합니다.
+ */
+@Component
+@Slf4j
+public class AudioActivityGate {
+    
+    public enum Result {
+        PASS,         // 모델로 분석
+        SILENCE,      // 무음/저에너지
+        STEADY_HUM    // 일정한 저주파 험
+    }
+    
+    @Value("${audio.gate.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${audio.gate.rms-threshold:0.01}")
+    private double rmsThreshold;      // 이 값 미만의 RMS는 무음 후보
+    
+    @Value("${audio.gate.peak-threshold:0.05}")
+    private double peakThreshold;     // 이 값 미만의 피크는 무음 후보
+    
+    @Value("${audio.gate.hum-max-crossing-rate:320}")
+    private double humMaxCrossingRate; // 험으로 볼 최대 영교차율 (초당 교차 수, 사인파 주파수의 2배 - 320 ≈ 160Hz)
+    
+    @Value("${audio.gate.hum-max-crest:1.8}")
+    private double humMaxCrest;       // 험으로 볼 최대 crest factor (피크/RMS, 사인파 ≈ 1.41)
+    
+    @Value("${audio.gate.hum-max-rms:0.1}")
+    private double humMaxRms;         // 험으로 볼 최대 RMS (이 이상이면 저주파라도 모델로 분석)
+    
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder gatedSilence = new LongAdder();
+    private final LongAdder gatedHum = new LongAdder();
+    
+    /**
+     * 윈도우를 모델로 보낼지 판단합니다.
+     *
+     * @param samples 원본 오디오 샘플 (정규화 전)
+     * @param length 유효한 샘플 수
+     * @param sampleRate 샘플링 레이트 (영교차율을 초당 교차 수로 환산)
+     */
+    public Result evaluate(float[] samples, int length, int sampleRate) {
+        if (!enabled || length <= 0) {
+            passed.increment();
+            return Result.PASS;
+        }
+        
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            sum += samples[i];
+        }
+        double mean = sum / length;
+        
+        double sumSquares = 0.0;
+        double peak = 0.0;
+        int zeroCrossings = 0;
+        boolean prevNegative = samples[0] < mean;
+        for (int i = 0; i < length; i++) {
+            double s = samples[i] - mean;
+            sumSquares += s * s;
+            double abs = Math.abs(s);
+            if (abs > peak) {
+                peak = abs;
+            }
+            boolean negative = s < 0;
+            if (negative != prevNegative) {
+                zeroCrossings++;
+                prevNegative = negative;
+            }
+        }
+        
+        double rms = Math.sqrt(sumSquares / length);
+        double zcr = (double) zeroCrossings * sampleRate / length;
+        
+        if (rms < rmsThreshold && peak < peakThreshold) {
+            gatedSilence.increment();
+            if (log.isDebugEnabled()) {
+                log.debug("무음 구간으로 분석 생략: RMS={}, 피크={}", rms, peak);
+            }
+            return Result.SILENCE;
+        }
+        
+        double crest = rms > 0 ? peak / rms : 0.0;
+        if (rms < humMaxRms && zcr < humMaxCrossingRate && crest < humMaxCrest) {
+            gatedHum.increment();
+            if (log.isDebugEnabled()) {
+                log.debug("일정한 험 소음으로 분석 생략: ZCR={}/s, crest={}", zcr, crest);
+            }
+            return Result.STEADY_HUM;
+        }
+        
+        passed.increment();
+        return Result.PASS;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public long getPassedCount() {
+        return passed.sum();
+    }
+    
+    public long getGatedSilenceCount() {
+        return gatedSilence.sum();
+    }
+    
+    public long getGatedHumCount() {
+        return gatedHum.sum();
+    }
+}
@@ -1,16 +1,20 @@
 package com.factory.service;
 
+import com.factory.audio.MelSpectrogramExtractor;
+import com.factory.audio.PolyphaseResampler;
+import com.factory.config.VirtualThreads;
 import com.factory.dto.AudioAnalysisRequest;
 import com.factory.dto.AudioAnalysisResponse;
 import com.factory.dto.MLPredictionResponse;
-import com.factory.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @RequiredArgsConstructor
@@ -18,10 +22,11 @@ import java.util.List;
 public class AudioAnalysisService {
     
     private final MLService mlService;
-    private final EventService eventService;
-    private final NotificationService notificationService;
-    private final NotificationSettingsService notificationSettingsService;
-    private final UserRepository userRepository;
+    private final DangerAlertService dangerAlertService;
+    private final AudioActivityGate audioActivityGate;
+    private final DangerEpisodeTracker dangerEpisodeTracker;
+    private final AnalysisShards analysisShards;
+    private final AnalysisMetrics analysisMetrics;
     
     // 클래스 정의 (7개 클래스)
     // 0: normal (정상)
@@ -39,6 +44,16 @@ public class AudioAnalysisService {
     private static final double NORMAL_CLASS_THRESHOLD = 0.4; // 정상 클래스 확률 임계값 (40% 이상이면 정상) - 더 관대하게
     private static final double NORMAL_CLASS_MIN = 0.15; // 정상 클래스 최소 확률 (15% 미만이면 위험 가능성 높음) - 더 엄격하게
     
+    private static final int MODEL_SAMPLE_RATE = 16000; // 모델 학습 샘플링 레이트
+    
+    private static final ThreadLocal<AnalysisScratch> SCRATCH = ThreadLocal.withInitial(AnalysisScratch::new);
+    
+    @Value("${audio.features.local-extraction:true}")
+    private boolean localFeatureExtraction; // true면 Mel Spectrogram을 백엔드에서 계산
+    
+    @Value("${audio.resample.enabled:true}")
+    private boolean resampleInput; // true면 16kHz가 아닌 입력(브라우저 44.1/48kHz 등)을 16kHz로 변환 후 분석
+    
     /**
      * 오디오 데이터를 분석하여 위험 여부를 판단합니다.
      * 
@@ -46,159 +61,437 @@ public class AudioAnalysisService {
      * @return 분석 결과
      */
     public AudioAnalysisResponse analyzeAudio(AudioAnalysisRequest request) {
-        try {
-            // 1. 오디오 데이터를 모델 입력 형식으로 변환
-            List<Double> modelInput = convertAudioToModelInput(request);
-            
-            if (modelInput == null || modelInput.isEmpty()) {
-                return AudioAnalysisResponse.builder()
-                    .success(false)
-                    .error("오디오 데이터 변환 실패")
-                    .build();
+        return analyzeAudioAsync(request).join();
+    }
+    
+    /**
+     * 오디오 데이터를 비동기로 분석합니다.
+     * ML 서비스 응답을 기다리는 동안 호출 스레드를 점유하지 않습니다.
+     * 
+     * @param request 오디오 데이터 요청
+     * @return 분석 결과 Future (예외로 완료되지 않으며, 실패 시 success=false 응답)
+     */
+    public CompletableFuture<AudioAnalysisResponse> analyzeAudioAsync(AudioAnalysisRequest request) {
+        return analyzeAudioAsync(request, null);
+    }
+    
+    /**
+     * 단계별 시각을 기록하며 오디오 데이터를 비동기로 분석합니다.
+     * 
+     * @param timings 단계별 시각 기록 (null이면 기록하지 않음)
+     */
+    public CompletableFuture<AudioAnalysisResponse> analyzeAudioAsync(AudioAnalysisRequest request, AnalysisTimings timings) {
+        List<Double> audioData = request.getAudioData();
+        if (audioData == null || audioData.isEmpty()) {
+            return CompletableFuture.completedFuture(AudioAnalysisResponse.builder()
+                .success(false)
+                .error("오디오 데이터 변환 실패")
+                .build());
+        }
+        
+        long decodeStart = System.nanoTime();
+        int length = audioData.size();
+        // 가상 스레드의 ThreadLocal 버퍼는 요청마다 새로 생기므로 재사용 버퍼 대신 요청 크기만큼만 할당
+        float[] samples = VirtualThreads.isVirtual(Thread.currentThread())
+            ? new float[length] : SCRATCH.get().inputBuffer(length);
+        for (int i = 0; i < length; i++) {
+            Double val = audioData.get(i);
+            samples[i] = val != null ? val.floatValue() : 0.0f;
+        }
+        lap(AnalysisMetrics.Stage.DECODE, decodeStart, false, timings);
+        
+        return analyzeSamplesAsync(samples, length, request.getSampleRate(), request.getDeviceId(), timings);
+    }
+    
+    /**
+     * PCM 샘플 배열을 분석하여 위험 여부를 판단합니다.
+     * JSON 요청과 바이너리(application/octet-stream) 요청이 모두 이 경로를 사용합니다.
+     * 
+     * 정규화와 판단 로직은 스레드별 재사용 버퍼(AnalysisScratch)에서 수행되므로
+     * 정상 상태에서는 응답 객체와 ML 요청 본문 외에 윈도우마다 새로 할당하는 배열/리스트가 없습니다.
+     * 
+     * @param samples 모노 오디오 샘플 (-1.0 ~ 1.0)
+     * @param length 유효한 샘플 수
+     * @param sampleRate 샘플링 레이트 (null이면 16000)
+     * @return 분석 결과
+     */
+    public AudioAnalysisResponse analyzeSamples(float[] samples, int length, Integer sampleRate) {
+        return analyzeSamples(samples, length, sampleRate, null);
+    }
+    
+    /**
+     * 장치를 지정하여 PCM 샘플 배열을 분석합니다.
+     * 같은 장치의 연속된 위험 윈도우는 하나의 위험 구간으로 묶여 이벤트가 한 번만 생성됩니다.
+     * 
+     * @param deviceId 오디오 입력 장치 ID (마이크/스트림, null이면 기본 장치)
+     */
+    public AudioAnalysisResponse analyzeSamples(float[] samples, int length, Integer sampleRate, String deviceId) {
+        return analyzeSamplesAsync(samples, length, sampleRate, deviceId).join();
+    }
+    
+    /**
+     * PCM 샘플 배열을 비동기로 분석합니다.
+     * 
+     * 게이트, 정규화, 특징 추출과 요청 인코딩은 호출 스레드에서 끝나므로 반환 직후 samples 버퍼를 재사용해도 됩니다.
+     * ML 응답 이후의 판단/이벤트 생성은 장치가 배정된 분석 샤드(AnalysisShards)에서 실행됩니다.
+     * 
+     * @return 분석 결과 Future (예외로 완료되지 않으며, 실패 시 success=false 응답)
+     */
+    public CompletableFuture<AudioAnalysisResponse> analyzeSamplesAsync(float[] samples, int length, Integer sampleRate) {
+        return analyzeSamplesAsync(samples, length, sampleRate, null);
+    }
+    
+    /**
+     * 장치를 지정하여 PCM 샘플 배열을 비동기로 분석합니다.
+     * 같은 장치의 윈도우는 항상 같은 샤드에서 도착 순서대로 판단됩니다.
+     * 
+     * @param deviceId 오디오 입력 장치 ID (마이크/스트림, null이면 기본 장치)
+     * @return 분석 결과 Future (예외로 완료되지 않으며, 실패 시 success=false 응답)
+     */
+    public CompletableFuture<AudioAnalysisResponse> analyzeSamplesAsync(float[] samples, int length, Integer sampleRate, String deviceId) {
+        return analyzeSamplesAsync(samples, length, sampleRate, deviceId, null);
+    }
+    
+    /**
+     * 단계별 시각을 기록하며 PCM 샘플 배열을 비동기로 분석합니다.
+     * 
+     * @param timings 단계별 시각 기록 (null이면 기록하지 않음)
+     */
+    public CompletableFuture<AudioAnalysisResponse> analyzeSamplesAsync(float[] samples, int length, Integer sampleRate, String deviceId,
+                                                                        AnalysisTimings timings) {
+        if (VirtualThreads.isVirtual(Thread.currentThread())) {
+            // 가상 스레드는 요청마다 새로 만들어져 스레드별 작업 버퍼(SCRATCH, Mel 작업 공간)가 매번 새로 할당되므로,
+            // 전처리는 장치의 샤드(플랫폼 스레드)에서 실행하고 가상 스레드는 끝날 때까지 대기 (samples 재사용 규칙 유지)
+            try {
+                return CompletableFuture.supplyAsync(
+                    () -> analyzeOnCurrentThread(samples, length, sampleRate, deviceId, false, timings),
+                    analysisShards.executorFor(deviceId)).join();
+            } catch (RejectedExecutionException e) {
+                return CompletableFuture.completedFuture(analysisFailure(e));
             }
-            
-            // 2. AI 모델로 예측 수행
-            Integer sampleRate = request.getSampleRate() != null ? request.getSampleRate() : 16000;
-            MLPredictionResponse mlResponse = mlService.predict(modelInput, sampleRate);
-            
-            if (!mlResponse.isSuccess() || mlResponse.getPrediction() == null) {
-                return AudioAnalysisResponse.builder()
+        }
+        return analyzeOnCurrentThread(samples, length, sampleRate, deviceId, false, timings);
+    }
+    
+    /**
+     * 예열용 합성 윈도우를 실제 분석과 같은 경로(게이트, 리샘플링, 특징 추출, ML 호출, 샤드에서의 판단)로 분석합니다.
+     * 위험 구간 추적과 이벤트/알림 생성은 하지 않습니다. (AnalysisWarmup에서 사용)
+     */
+    CompletableFuture<AudioAnalysisResponse> analyzeSyntheticAsync(float[] samples, int length, Integer sampleRate, String deviceId) {
+        return analyzeOnCurrentThread(samples, length, sampleRate, deviceId, true, null);
+    }
+    
+    /**
+     * @param synthetic true면 예열용 윈도우 (위험 구간 추적/이벤트 생성 없음)
+     * @param timings 단계별 시각 기록 (null이면 기록하지 않음)
+     */
+    private CompletableFuture<AudioAnalysisResponse> analyzeOnCurrentThread(float[] samples, int length, Integer sampleRate,
+                                                                            String deviceId, boolean synthetic, AnalysisTimings timings) {
+        try {
+            AnalysisScratch scratch = SCRATCH.get();
+            int rate = sampleRate != null ? sampleRate : MODEL_SAMPLE_RATE;
+            if (!PolyphaseResampler.isSupportedRate(rate)) {
+                return CompletableFuture.completedFuture(AudioAnalysisResponse.builder()
                     .success(false)
-                    .error(mlResponse.getError() != null ? mlResponse.getError() : "예측 실패")
-                    .build();
+                    .error("지원하지 않는 샘플링 레이트입니다: " + rate)
+                    .build());
             }
             
-            // 3. 예측 결과 분석
-            List<Double> predictions = mlResponse.getPrediction();
-            
-            if (predictions == null || predictions.isEmpty()) {
-                return AudioAnalysisResponse.builder()
-                    .success(false)
-                    .error("예측 결과가 비어있습니다")
-                    .build();
+            // 0. 무음/험 구간은 모델 호출 없이 바로 정상 처리
+            AudioActivityGate.Result gateResult = audioActivityGate.evaluate(samples, length, rate);
+            if (gateResult != AudioActivityGate.Result.PASS) {
+                return synthetic
+                    ? CompletableFuture.completedFuture(gatedResponse(gateResult, false))
+                    : recordQuietWindow(gateResult, deviceId);
             }
             
-            // 4. 위험 여부 판단
-            int predictedClass = findMaxIndex(predictions);
-            double maxProbability = predictions.get(predictedClass);
-            double normalClassProbability = predictions.size() > 0 ? predictions.get(0) : 0.0; // 클래스 0 (정상) 확률
-            
-            // 모든 클래스 확률 로그 출력 (디버깅용)
-            log.info("=== AI 예측 결과 ===");
-            for (int i = 0; i < predictions.size(); i++) {
-                String className = getClassLabel(i);
-                log.info("클래스 {} ({}): {}%", i, className, String.format("%.2f", predictions.get(i) * 100));
+            // 1. 모델 학습 레이트(16kHz)로 리샘플링 후 모델 입력 형식으로 변환
+            long stageStart = System.nanoTime();
+            if (resampleInput && rate != MODEL_SAMPLE_RATE) {
+                PolyphaseResampler resampler = PolyphaseResampler.forRates(rate, MODEL_SAMPLE_RATE);
+                float[] resampled = scratch.resampledBuffer(resampler.getOutputLength(length));
+                length = resampler.resample(samples, length, resampled);
+                samples = resampled;
+                rate = MODEL_SAMPLE_RATE;
+                stageStart = lap(AnalysisMetrics.Stage.RESAMPLE, stageStart, synthetic, timings);
             }
-            log.info("최대 확률 클래스: {} ({}), 확률: {}%", 
-                predictedClass, getClassLabel(predictedClass), String.format("%.2f", maxProbability * 100));
+            float[] modelInput = convertAudioToModelInput(samples, length, scratch);
+            stageStart = lap(AnalysisMetrics.Stage.NORMALIZE, stageStart, synthetic, timings);
             
-            // 최소 신뢰도 체크: 확률이 너무 낮으면 정상으로 처리
-            if (maxProbability < MIN_CONFIDENCE) {
-                log.warn("예측 확률이 너무 낮아 정상으로 처리: 클래스={}, 확률={}%", 
-                    predictedClass, String.format("%.2f", maxProbability * 100));
-                predictedClass = 0; // 정상 클래스로 강제 설정
-                maxProbability = normalClassProbability;
+            if (modelInput == null) {
+                return CompletableFuture.completedFuture(AudioAnalysisResponse.builder()
+                    .success(false)
+                    .error("오디오 데이터 변환 실패")
+                    .build());
             }
             
-            // 위험 판단 로직
-            boolean isDangerous = false;
-            
-            // 1. 정상 클래스(0)의 확률이 높으면 항상 정상
-            if (normalClassProbability >= NORMAL_CLASS_THRESHOLD) {
-                isDangerous = false;
-                predictedClass = 0;
-                maxProbability = normalClassProbability;
-                log.info("정상 클래스 확률이 높아 정상으로 처리: 정상 확률={}%", 
-                    String.format("%.2f", normalClassProbability * 100));
-            }
-            // 2. 위험 클래스이면서 확률이 임계값 이상일 때만 위험으로 판단
-            else if (isDangerClass(predictedClass)) {
-                // 위험 클래스인 경우, 다음 조건을 모두 만족해야 위험으로 판단:
-                // - 위험 클래스 확률이 임계값(85%) 이상 (일반 대화 오감지 방지)
-                // - 정상 클래스 확률이 15% 미만 (정상 소리가 거의 없을 때만)
-                // - 위험 클래스 확률이 정상 클래스 확률보다 훨씬 높아야 함 (최소 3배 이상)
-                double dangerToNormalRatio = maxProbability / (normalClassProbability + 0.01); // 0으로 나누기 방지
-                
-                if (normalClassProbability < NORMAL_CLASS_MIN && 
-                    maxProbability >= DANGER_THRESHOLD && 
-                    dangerToNormalRatio >= 3.0) { // 위험 확률이 정상 확률보다 3배 이상 높을 때만
-                    isDangerous = true;
-                    log.warn("⚠️ 위험 감지: 클래스={} ({}), 확률={}%, 정상 확률={}%, 비율={}", 
-                        predictedClass, getClassLabel(predictedClass), 
-                        String.format("%.2f", maxProbability * 100), 
-                        String.format("%.2f", normalClassProbability * 100),
-                        String.format("%.2f", dangerToNormalRatio));
-                } else {
-                    isDangerous = false;
-                    log.info("위험 클래스이지만 조건 미충족으로 정상 처리: 위험 클래스={} ({}), 위험 확률={}%, 정상 확률={}%, 비율={}, 임계값={}%", 
-                        predictedClass, getClassLabel(predictedClass), 
-                        String.format("%.2f", maxProbability * 100), 
-                        String.format("%.2f", normalClassProbability * 100),
-                        String.format("%.2f", dangerToNormalRatio),
-                        String.format("%.2f", DANGER_THRESHOLD * 100));
-                }
+            // 2. AI 모델로 예측 수행
+            CompletableFuture<MLPredictionResponse> prediction;
+            if (localFeatureExtraction) {
+                // log-mel 특징을 백엔드에서 계산하여 전송 (32,000 샘플 → 8,064 값)
+                MelSpectrogramExtractor extractor = MelSpectrogramExtractor.forSampleRate(rate);
+                float[] features = scratch.featureBuffer(extractor.getOutputSize());
+                extractor.extract(modelInput, length, features);
+                stageStart = lap(AnalysisMetrics.Stage.FEATURES, stageStart, synthetic, timings);
+                prediction = mlService.predictFeaturesAsync(features, extractor.getOutputSize(), extractor.getOutputShape(), rate);
             } else {
-                // 정상 클래스(0, 4, 5, 6)인 경우 항상 정상
-                isDangerous = false;
-                log.info("정상 클래스로 판단: 클래스={} ({})", predictedClass, getClassLabel(predictedClass));
+                prediction = mlService.predictAsync(modelInput, length, rate);
             }
-            
-            // 위험 확률 계산 (위험 클래스들의 확률 합)
-            double dangerProbability = calculateDangerProbability(predictions);
-            
-            // 위험 감지 시에만 이벤트 생성
-            if (isDangerous) {
-                createDangerEvent(predictedClass, maxProbability);
+            if (!synthetic) {
+                long mlStart = stageStart;
+                prediction = prediction.whenComplete((response, error) ->
+                    lap(AnalysisMetrics.Stage.ML, mlStart, false, timings));
             }
             
-            return AudioAnalysisResponse.builder()
-                .success(true)
-                .isDangerous(isDangerous)
-                .dangerProbability(dangerProbability)
-                .predictions(predictions)
-                .predictedClass(predictedClass)
-                .message(isDangerous ? 
-                    String.format("⚠️ 위험 소리 감지! (클래스: %d, 확률: %.2f%%)", predictedClass, maxProbability * 100) :
-                    String.format("✅ 정상 소리 (클래스: %d, 확률: %.2f%%)", predictedClass, maxProbability * 100))
-                .build();
+            return prediction
+                .thenApplyAsync(response -> interpretPrediction(response, deviceId, synthetic, timings), analysisShards.executorFor(deviceId))
+                .exceptionally(this::analysisFailure);
                 
         } catch (Exception e) {
-            log.error("오디오 분석 중 오류 발생", e);
+            return CompletableFuture.completedFuture(analysisFailure(e));
+        }
+    }
+    
+    /**
+     * ML 예측 결과로 위험 여부를 판단하고 응답을 생성합니다.
+     * 이벤트/알림은 장치별 위험 구간이 새로 열릴 때만, 응답과 별도로 비동기 생성합니다.
+     * (장치가 배정된 분석 샤드 스레드에서 실행)
+     */
+    private AudioAnalysisResponse interpretPrediction(MLPredictionResponse mlResponse, String deviceId, boolean synthetic,
+                                                      AnalysisTimings timings) {
+        long decisionStart = System.nanoTime();
+        if (timings != null) {
+            timings.recordSince(AnalysisTimings.Stage.SHARD, AnalysisTimings.Stage.ML, decisionStart);
+        }
+        if (!mlResponse.isSuccess() || mlResponse.getPrediction() == null) {
             return AudioAnalysisResponse.builder()
                 .success(false)
-                .error("오디오 분석 실패: " + e.getMessage())
+                .error(mlResponse.getError() != null ? mlResponse.getError() : "예측 실패")
                 .build();
         }
+        
+        // 3. 예측 결과 분석
+        List<Double> predictions = mlResponse.getPrediction();
+        
+        if (predictions == null || predictions.isEmpty()) {
+            return AudioAnalysisResponse.builder()
+                .success(false)
+                .error("예측 결과가 비어있습니다")
+                .build();
+        }
+        
+        AnalysisScratch scratch = SCRATCH.get();
+        int classCount = predictions.size();
+        double[] probabilities = scratch.probabilityBuffer(classCount);
+        for (int i = 0; i < classCount; i++) {
+            probabilities[i] = predictions.get(i);
+        }
+        
+        // 4. 위험 여부 판단
+        decide(probabilities, classCount, scratch);
+        boolean isDangerous = scratch.dangerous;
+        int predictedClass = scratch.predictedClass;
+        double maxProbability = scratch.maxProbability;
+        if (!synthetic) {
+            analysisMetrics.recordVerdict(predictedClass, isDangerous);
+        }
+        
+        // 위험 확률 계산 (위험 클래스들의 확률 합)
+        double dangerProbability = calculateDangerProbability(probabilities, classCount);
+        
+        // 위험 구간이 새로 열렸을 때만 이벤트 생성 (구간 진행 중의 위험 윈도우는 이벤트 없음)
+        // 이벤트/알림 생성은 비동기 대기열로 넘기고 판정 결과는 바로 반환
+        boolean episodeActive = false;
+        if (!synthetic) {
+            DangerEpisodeTracker.Verdict verdict = dangerEpisodeTracker.record(deviceId, isDangerous, probabilities, DANGER_CLASSES);
+            if (verdict.opened()) {
+                dangerAlertService.publish(deviceId, verdict.dangerClass(), verdict.probability());
+            }
+            episodeActive = verdict.episodeActive();
+        }
+        
+        AudioAnalysisResponse response = AudioAnalysisResponse.builder()
+            .success(true)
+            .isDangerous(isDangerous)
+            .dangerProbability(dangerProbability)
+            .predictions(predictions)
+            .predictedClass(predictedClass)
+            .dangerEpisode(episodeActive)
+            .message(isDangerous ? 
+                String.format("⚠️ 위험 소리 감지! (클래스: %d, 확률: %.2f%%)", predictedClass, maxProbability * 100) :
+                String.format("✅ 정상 소리 (클래스: %d, 확률: %.2f%%)", predictedClass, maxProbability * 100))
+            .build();
+        lap(AnalysisMetrics.Stage.DECISION, decisionStart, synthetic, timings);
+        return response;
+    }
+    
+    /**
+     * 단계 처리 시간을 계측에 기록하고(요청별 기록이 있으면 함께) 현재 시각(다음 단계의 시작)을 반환합니다.
+     * 예열용 합성 윈도우는 단계 지연 분포를 왜곡하지 않도록 계측에 기록하지 않습니다.
+     */
+    private long lap(AnalysisMetrics.Stage stage, long stageStart, boolean synthetic, AnalysisTimings timings) {
+        long now = System.nanoTime();
+        if (!synthetic) {
+            analysisMetrics.recordStage(stage, now - stageStart);
+        }
+        if (timings != null) {
+            timings.record(stage, stageStart, now);
+        }
+        return now;
+    }
+    
+    private AudioAnalysisResponse analysisFailure(Throwable e) {
+        log.error("오디오 분석 중 오류 발생", e);
+        return AudioAnalysisResponse.builder()
+            .success(false)
+            .error("오디오 분석 실패: " + e.getMessage())
+            .build();
+    }
+    
+    /**
+     * 게이트에서 걸러진 윈도우를 장치의 샤드에서 기록하고 정상 응답을 생성합니다.
+     * 샤드 대기열이 가득 차면 기록을 건너뛰고 바로 정상 응답을 반환합니다 (구간 종료는 다음 윈도우에서 판단).
+     */
+    private CompletableFuture<AudioAnalysisResponse> recordQuietWindow(AudioActivityGate.Result gateResult, String deviceId) {
+        try {
+            return CompletableFuture.supplyAsync(
+                () -> gatedResponse(gateResult, dangerEpisodeTracker.recordQuiet(deviceId).episodeActive()),
+                analysisShards.executorFor(deviceId));
+        } catch (RejectedExecutionException e) {
+            log.debug("샤드 대기열이 가득 차 조용한 윈도우 기록 생략: {}", deviceId);
+            return CompletableFuture.completedFuture(gatedResponse(gateResult, false));
+        }
     }
     
     /**
-     * 오디오 데이터를 정규화하고 Python ML 서비스로 전달합니다.
-     * Mel Spectrogram 변환은 Python ML 서비스에서 수행됩니다.
+     * 게이트에서 걸러진 윈도우에 대한 정상 응답을 생성합니다.
+     */
+    private AudioAnalysisResponse gatedResponse(AudioActivityGate.Result gateResult, boolean episodeActive) {
+        return AudioAnalysisResponse.builder()
+            .success(true)
+            .isDangerous(false)
+            .dangerProbability(0.0)
+            .predictedClass(0)
+            .dangerEpisode(episodeActive)
+            .message(gateResult == AudioActivityGate.Result.SILENCE ?
+                "✅ 정상 소리 (무음 구간 - 모델 분석 생략)" :
+                "✅ 정상 소리 (일정한 소음 - 모델 분석 생략)")
+            .build();
+    }
+    
+    /**
+     * 클래스별 확률로 위험 여부를 판단하고 결과를 scratch에 기록합니다.
+     * (predictedClass, maxProbability, dangerous)
+     * 
+     * 정상 경로의 로그는 debug 레벨로 두어, 로그가 꺼져 있을 때 문자열 포맷팅 비용이 없도록 합니다.
+     * (상태가 없으므로 JMH 벤치마크(backend/jmh)에서 직접 호출할 수 있도록 패키지 범위로 둡니다)
+     */
+    static void decide(double[] probabilities, int classCount, AnalysisScratch scratch) {
+        int predictedClass = findMaxIndex(probabilities, classCount);
+        double maxProbability = probabilities[predictedClass];
+        double normalClassProbability = probabilities[0]; // 클래스 0 (정상) 확률
+        
+        // 모든 클래스 확률 로그 출력 (디버깅용)
+        if (log.isDebugEnabled()) {
+            log.debug("=== AI 예측 결과 ===");
+            for (int i = 0; i < classCount; i++) {
+                log.debug("클래스 {} ({}): {}%", i, getClassLabel(i), String.format("%.2f", probabilities[i] * 100));
+            }
+            log.debug("최대 확률 클래스: {} ({}), 확률: {}%", 
+                predictedClass, getClassLabel(predictedClass), String.format("%.2f", maxProbability * 100));
+        }
+        
+        // 최소 신뢰도 체크: 확률이 너무 낮으면 정상으로 처리
+        if (maxProbability < MIN_CONFIDENCE) {
+            if (log.isDebugEnabled()) {
+                log.debug("예측 확률이 너무 낮아 정상으로 처리: 클래스={}, 확률={}%", 
+                    predictedClass, String.format("%.2f", maxProbability * 100));
+            }
+            predictedClass = 0; // 정상 클래스로 강제 설정
+            maxProbability = normalClassProbability;
+        }
+        
+        // 위험 판단 로직
+        boolean isDangerous = false;
+        
+        // 1. 정상 클래스(0)의 확률이 높으면 항상 정상
+        if (normalClassProbability >= NORMAL_CLASS_THRESHOLD) {
+            predictedClass = 0;
+            maxProbability = normalClassProbability;
+            if (log.isDebugEnabled()) {
+                log.debug("정상 클래스 확률이 높아 정상으로 처리: 정상 확률={}%", 
+                    String.format("%.2f", normalClassProbability * 100));
+            }
+        }
+        // 2. 위험 클래스이면서 확률이 임계값 이상일 때만 위험으로 판단
+        else if (isDangerClass(predictedClass)) {
+            // 위험 클래스인 경우, 다음 조건을 모두 만족해야 위험으로 판단:
+            // - 위험 클래스 확률이 임계값(85%) 이상 (일반 대화 오감지 방지)
+            // - 정상 클래스 확률이 15% 미만 (정상 소리가 거의 없을 때만)
+            // - 위험 클래스 확률이 정상 클래스 확률보다 훨씬 높아야 함 (최소 3배 이상)
+            double dangerToNormalRatio = maxProbability / (normalClassProbability + 0.01); // 0으로 나누기 방지
+            
+            if (normalClassProbability < NORMAL_CLASS_MIN && 
+                maxProbability >= DANGER_THRESHOLD && 
+                dangerToNormalRatio >= 3.0) { // 위험 확률이 정상 확률보다 3배 이상 높을 때만
+                isDangerous = true;
+                log.warn("⚠️ 위험 감지: 클래스={} ({}), 확률={}%, 정상 확률={}%, 비율={}", 
+                    predictedClass, getClassLabel(predictedClass), 
+                    String.format("%.2f", maxProbability * 100), 
+                    String.format("%.2f", normalClassProbability * 100),
+                    String.format("%.2f", dangerToNormalRatio));
+            } else if (log.isDebugEnabled()) {
+                log.debug("위험 클래스이지만 조건 미충족으로 정상 처리: 위험 클래스={} ({}), 위험 확률={}%, 정상 확률={}%, 비율={}, 임계값={}%", 
+                    predictedClass, getClassLabel(predictedClass), 
+                    String.format("%.2f", maxProbability * 100), 
+                    String.format("%.2f", normalClassProbability * 100),
+                    String.format("%.2f", dangerToNormalRatio),
+                    String.format("%.2f", DANGER_THRESHOLD * 100));
+            }
+        } else {
+            // 정상 클래스(0, 4, 5, 6)인 경우 항상 정상
+            if (log.isDebugEnabled()) {
+                log.debug("정상 클래스로 판단: 클래스={} ({})", predictedClass, getClassLabel(predictedClass));
+            }
+        }
+        
+        scratch.predictedClass = predictedClass;
+        scratch.maxProbability = maxProbability;
+        scratch.dangerous = isDangerous;
+    }
+    
+    /**
+     * 오디오 데이터를 정규화합니다.
+     * Mel Spectrogram 변환은 audio.features.local-extraction 설정에 따라
+     * 백엔드(MelSpectrogramExtractor) 또는 Python ML 서비스에서 수행됩니다.
      * 
      * 모델 요구사항:
      * - 입력: Mel Spectrogram (128, 63, 1)
      * - 샘플링 레이트: 16kHz
      * - 오디오 길이: 2초 (32000 샘플)
+     * 
+     * @return 정규화된 샘플이 담긴 스레드별 버퍼 (앞의 length개만 유효)
      */
-    private List<Double> convertAudioToModelInput(AudioAnalysisRequest request) {
-        List<Double> audioData = request.getAudioData();
-        
-        if (audioData == null || audioData.isEmpty()) {
+    static float[] convertAudioToModelInput(float[] samples, int length, AnalysisScratch scratch) {
+        if (samples == null || length <= 0) {
             return null;
         }
         
         // 오디오 데이터를 정규화 (-1.0 ~ 1.0 범위로)
-        // Python ML 서비스에서 Mel Spectrogram 변환을 수행하므로,
+        // Mel Spectrogram 변환은 별도 단계에서 수행하므로,
         // 여기서는 정규화만 수행합니다.
-        double maxVal = audioData.stream().mapToDouble(Math::abs).max().orElse(1.0);
-        if (maxVal == 0) maxVal = 1.0;
+        float maxVal = 0.0f;
+        for (int i = 0; i < length; i++) {
+            maxVal = Math.max(maxVal, Math.abs(samples[i]));
+        }
+        float scale = maxVal == 0 ? 1.0f : 1.0f / maxVal;
         
-        List<Double> normalized = new ArrayList<>();
-        for (Double val : audioData) {
-            normalized.add(val / maxVal);
+        float[] normalized = scratch.normalizedBuffer(length);
+        for (int i = 0; i < length; i++) {
+            normalized[i] = samples[i] * scale;
         }
         
-        // Python ML 서비스에서 2초 길이로 조정하므로,
+        // 2초 길이 조정은 Mel Spectrogram 변환 단계에서 수행하므로,
         // 여기서는 정규화된 원본 데이터를 그대로 반환
         return normalized;
     }
@@ -206,12 +499,12 @@ public class AudioAnalysisService {
     /**
      * 예측 결과에서 최대값의 인덱스를 찾습니다.
      */
-    private int findMaxIndex(List<Double> values) {
+    private static int findMaxIndex(double[] values, int count) {
         int maxIndex = 0;
-        double maxValue = values.get(0);
-        for (int i = 1; i < values.size(); i++) {
-            if (values.get(i) > maxValue) {
-                maxValue = values.get(i);
+        double maxValue = values[0];
+        for (int i = 1; i < count; i++) {
+            if (values[i] > maxValue) {
+                maxValue = values[i];
                 maxIndex = i;
             }
         }
@@ -221,7 +514,7 @@ public class AudioAnalysisService {
     /**
      * 클래스가 위험 클래스인지 확인합니다.
      */
-    private boolean isDangerClass(int classIndex) {
+    private static boolean isDangerClass(int classIndex) {
         for (int dangerClass : DANGER_CLASSES) {
             if (classIndex == dangerClass) {
                 return true;
@@ -233,86 +526,20 @@ public class AudioAnalysisService {
     /**
      * 위험 확률을 계산합니다 (위험 클래스들의 확률 합).
      */
-    private double calculateDangerProbability(List<Double> predictions) {
+    static double calculateDangerProbability(double[] probabilities, int classCount) {
         double sum = 0.0;
         for (int dangerClass : DANGER_CLASSES) {
-            if (dangerClass < predictions.size()) {
-                sum += predictions.get(dangerClass);
+            if (dangerClass < classCount) {
+                sum += probabilities[dangerClass];
             }
         }
         return sum;
     }
     
-    /**
-     * 위험 감지 시 이벤트와 알림을 생성합니다.
-     */
-    private void createDangerEvent(int predictedClass, double probability) {
-        try {
-            String zone = "A동 1층";
-            String area = "프레스 구역";
-            
-            // 클래스별로 다른 타입 설정
-            String type;
-            String classLabel;
-            switch (predictedClass) {
-                case 1: // scream
-                    type = "scream";
-                    classLabel = "비명 소리";
-                    break;
-                case 2: // help
-                    type = "help";
-                    classLabel = "도움 요청";
-                    break;
-                case 3: // emergency
-                    type = "emergency";
-                    classLabel = "비상 상황";
-                    break;
-                default:
-                    type = "emergency";
-                    classLabel = "위험 소리";
-            }
-            
-            String severity = probability > 0.8 ? "high" : probability > 0.5 ? "medium" : "low";
-            
-            // 클래스별 메시지 생성
-            String message = String.format("%s 감지 (확률: %.1f%%)", classLabel, probability * 100);
-            
-            // 이벤트 생성
-            eventService.createEvent(zone, area, type, message, severity);
-            
-            // 모든 사용자에게 알림 생성 (설정이 활성화된 경우만)
-            String title = "⚠️ 위험 소리 감지";
-            String notificationMessage = String.format("%s %s에서 %s", zone, area, message);
-            String priority = severity;
-            
-            userRepository.findAll().forEach(user -> {
-                try {
-                    // 사용자의 비상 알림 설정 확인
-                    if (notificationSettingsService.isEmergencyEnabled(user.getUserId())) {
-                        notificationService.createNotification(
-                            user.getUserId(),
-                            type,
-                            title,
-                            notificationMessage,
-                            priority
-                        );
-                    }
-                } catch (Exception e) {
-                    log.error("알림 생성 실패 (사용자: {}): {}", user.getUserId(), e.getMessage());
-                }
-            });
-            
-            log.info("위험 이벤트 및 알림 생성 완료: {} - {}", zone, message);
-            
-        } catch (Exception e) {
-            log.error("이벤트/알림 생성 실패", e);
-        }
-    }
-    
     /**
      * 클래스 인덱스를 레이블로 변환합니다.
      */
-    private String getClassLabel(int classIndex) {
+    private static String getClassLabel(int classIndex) {
         switch (classIndex) {
             case 0:
                 return "정상 소리 (normal)";
@@ -333,5 +560,56 @@ public class AudioAnalysisService {
         }
     }
     
+    /**
+     * 분석 경로에서 재사용하는 스레드별 작업 버퍼입니다.
+     * 버퍼는 필요한 크기보다 작을 때만 늘어나며, 이후 윈도우에서는 그대로 재사용됩니다.
+     */
+    static final class AnalysisScratch {
+        private float[] input = new float[32000];
+        private float[] normalized = new float[32000];
+        private float[] resampled = new float[32000];
+        private double[] probabilities = new double[8];
+        private float[] features = new float[MelSpectrogramExtractor.N_MELS * 63];
+        
+        // decide() 결과
+        private int predictedClass;
+        private double maxProbability;
+        private boolean dangerous;
+        
+        float[] inputBuffer(int length) {
+            if (input.length < length) {
+                input = new float[length];
+            }
+            return input;
+        }
+        
+        float[] resampledBuffer(int length) {
+            if (resampled.length < length) {
+                resampled = new float[length];
+            }
+            return resampled;
+        }
+        
+        float[] normalizedBuffer(int length) {
+            if (normalized.length < length) {
+                normalized = new float[length];
+            }
+            return normalized;
+        }
+        
+        float[] featureBuffer(int length) {
+            if (features.length < length) {
+                features = new float[length];
+            }
+            return features;
+        }
+        
+        double[] probabilityBuffer(int length) {
+            if (probabilities.length < length) {
+                probabilities = new double[length];
+            }
+            return probabilities;
+        }
+    }
+    
 }
-
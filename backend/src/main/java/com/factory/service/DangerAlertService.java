@@ -0,0 +1,143 @@
+package com.factory.service;
+
+import com.factory.dto.DangerAlertStatusResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 위험 이벤트와 사용자 알림 생성을 분석 요청과 분리하여 비동기로 처리하는 서비스
+ *
+ * 분석 응답은 판정이 끝나는 즉시 반환되고, 이벤트 저장과 사용자별 알림 생성은
+ * 전용 실행기(dangerAlertExecutor)의 제한된 대기열에서 순서대로 처리됩니다.
+ * 대기열이 가득 차면 제출한 스레드가 직접 실행하므로(back-pressure) 알림이 유실되지 않습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DangerAlertService {
+    
+    private final EventService eventService;
+    private final NotificationService notificationService;
+    private final ThreadPoolTaskExecutor dangerAlertExecutor;
+    private final DangerEpisodeTracker dangerEpisodeTracker;
+    private final DeviceRegistryService deviceRegistryService;
+    private final AnalysisShards analysisShards;
+    private final AnalysisMetrics analysisMetrics;
+    
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder callerRunsCount = new LongAdder();
+    
+    /**
+     * 위험 이벤트/알림 생성을 대기열에 넣고 바로 반환합니다.
+     * 이벤트의 구역은 장치 등록부에서 장치 ID로 찾습니다 (등록되지 않은 장치는 기본 구역).
+     *
+     * @param deviceId 위험을 감지한 오디오 입력 장치 ID
+     * @param predictedClass 위험 클래스 인덱스
+     * @param probability 위험 클래스 확률
+     */
+    public void publish(String deviceId, int predictedClass, double probability) {
+        submittedCount.increment();
+        Thread submitter = Thread.currentThread();
+        dangerAlertExecutor.execute(() -> {
+            if (Thread.currentThread() == submitter) {
+                // 대기열이 가득 차서 제출 스레드에서 직접 실행됨
+                callerRunsCount.increment();
+            }
+            long start = System.nanoTime();
+            createDangerEvent(deviceId, predictedClass, probability);
+            analysisMetrics.recordStage(AnalysisMetrics.Stage.EVENT, System.nanoTime() - start);
+            completedCount.increment();
+        });
+    }
+    
+    /**
+     * 알림 파이프라인 상태(대기열 깊이, 처리/실패 건수)와 위험 구간 통계를 조회합니다.
+     */
+    public DangerAlertStatusResponse getStatus() {
+        ThreadPoolExecutor executor = dangerAlertExecutor.getThreadPoolExecutor();
+        return DangerAlertStatusResponse.builder()
+            .queueDepth(executor.getQueue().size())
+            .queueCapacity(executor.getQueue().size() + executor.getQueue().remainingCapacity())
+            .activeWorkers(executor.getActiveCount())
+            .submitted(submittedCount.sum())
+            .completed(completedCount.sum())
+            .failed(failedCount.sum())
+            .callerRuns(callerRunsCount.sum())
+            .analyzedWindows(dangerEpisodeTracker.getWindowCount())
+            .dangerWindows(dangerEpisodeTracker.getDangerWindowCount())
+            .episodesOpened(dangerEpisodeTracker.getEpisodesOpened())
+            .episodesClosed(dangerEpisodeTracker.getEpisodesClosed())
+            .trackedSources(dangerEpisodeTracker.getActiveSourceCount())
+            .analysisShards(analysisShards.getShardCount())
+            .shardQueueDepth(analysisShards.getQueueDepth())
+            .maxShardQueueDepth(analysisShards.getMaxShardQueueDepth())
+            .build();
+    }
+    
+    public int getQueueDepth() {
+        return dangerAlertExecutor.getThreadPoolExecutor().getQueue().size();
+    }
+    
+    /**
+     * 위험 감지 시 이벤트와 알림을 생성합니다. (알림 실행기 스레드에서 실행)
+     */
+    private void createDangerEvent(String deviceId, int predictedClass, double probability) {
+        try {
+            DeviceRegistryService.Location location = deviceRegistryService.resolve(deviceId);
+            String zone = location.zone();
+            String area = location.area();
+            
+            // 클래스별로 다른 타입 설정
+            String type;
+            String classLabel;
+            switch (predictedClass) {
+                case 1: // scream
+                    type = "scream";
+                    classLabel = "비명 소리";
+                    break;
+                case 2: // help
+                    type = "help";
+                    classLabel = "도움 요청";
+                    break;
+                case 3: // emergency
+                    type = "emergency";
+                    classLabel = "비상 상황";
+                    break;
+                default:
+                    type = "emergency";
+                    classLabel = "위험 소리";
+            }
+            
+            String severity = probability > 0.8 ? "high" : probability > 0.5 ? "medium" : "low";
+            
+            // 클래스별 메시지 생성
+            String message = String.format("%s 감지 (확률: %.1f%%)", classLabel, probability * 100);
+            
+            // 이벤트 생성
+            eventService.createEvent(zone, area, type, message, severity);
+            
+            // 모든 사용자에게 알림 생성 (설정이 활성화된 경우만)
+            String title = "⚠️ 위험 소리 감지";
+            String place = area != null && !area.isBlank() ? zone + " " + area : zone;
+            String notificationMessage = String.format("%s에서 %s", place, message);
+            String priority = severity;
+            
+            // 비상 알림을 켠 사용자 전원에게 한 번의 INSERT ... SELECT로 생성
+            int recipients = notificationService.broadcastEmergencyNotification(
+                type, title, notificationMessage, priority);
+            
+            log.info("위험 이벤트 및 알림 생성 완료: {} - {} (장치 {}, 알림 {}명)", place, message, deviceId, recipients);
+            
+        } catch (Exception e) {
+            failedCount.increment();
+            log.error("이벤트/알림 생성 실패", e);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.factory.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 출처(마이크/장치/스트림)별로 위험 판정을 시간적으로 묶어 하나의 위험 구간(episode)으로 만드는 상태 머신
+ *
+ * - 최근 N개 윈도우의 위험 투표(비트)와 위험 클래스 확률을 링 버퍼에 보관합니다.
+ * - 최근 N개 중 K개 이상이 위험이면 위험 구간을 열고, 이때 한 번만 이벤트/알림을 생성합니다.
+ * - 구간이 열린 동안에는 위험 윈도우가 계속 들어와도 이벤트를 만들지 않으며,
+ *   마지막 위험 윈도우 이후 quiet-ms 동안 위험이 없으면 구간을 닫습니다 (히스테리시스).
+ *
+ * 5초 동안 이어지는 비명이 윈도우마다 이벤트/알림을 만들던 것을 구간당 한 번으로 줄입니다.
+ *
+ * 출처별 상태는 해당 출처가 배정된 분석 샤드(AnalysisShards)가 소유합니다.
+ * record/recordQuiet는 반드시 그 샤드 스레드에서 호출해야 하며, 상태에 락을 걸지 않습니다.
+ */
+@Component
+@Slf4j
+public class DangerEpisodeTracker {
+    
+    /**
+     * 윈도우 하나를 기록한 결과
+     *
+     * @param episodeActive 기록 후 위험 구간이 열려 있는지
+     * @param opened 이번 윈도우로 구간이 새로 열렸는지 (이벤트 생성 대상)
+     * @param dangerClass 구간을 대표하는 위험 클래스 (opened일 때만 유효)
+     * @param probability 대표 클래스의 평균 확률 (위험으로 투표한 윈도우 기준, opened일 때만 유효)
+     */
+    public record Verdict(boolean episodeActive, boolean opened, int dangerClass, double probability) {
+        static final Verdict INACTIVE = new Verdict(false, false, -1, 0.0);
+        static final Verdict ACTIVE = new Verdict(true, false, -1, 0.0);
+    }
+    
+    public static final String DEFAULT_SOURCE = "default";
+    
+    @Value("${audio.episode.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${audio.episode.window-size:5}")
+    private int windowSize;           // N: 투표에 사용하는 최근 윈도우 수 (최대 64)
+    
+    @Value("${audio.episode.open-votes:2}")
+    private int openVotes;            // K: 구간을 여는 데 필요한 위험 윈도우 수
+    
+    @Value("${audio.episode.quiet-ms:5000}")
+    private long quietMillis;         // 마지막 위험 윈도우 이후 이 시간 동안 조용하면 구간 종료
+    
+    @Value("${audio.episode.idle-evict-ms:600000}")
+    private long idleEvictMillis;     // 이 시간 동안 윈도우가 없는 출처의 상태는 제거
+    
+    private final AnalysisShards shards;
+    private final List<Map<String, SourceState>> shardSources;  // 샤드별 출처 상태 (각 샤드 스레드만 접근)
+    
+    private final LongAdder windowCount = new LongAdder();
+    private final LongAdder dangerWindowCount = new LongAdder();
+    private final LongAdder episodesOpened = new LongAdder();
+    private final LongAdder episodesClosed = new LongAdder();
+    private final LongAdder trackedSources = new LongAdder();
+    
+    // 최근 윈도우에 위험 투표가 있거나 구간이 열린 출처 (샤드 밖에서 읽기용, 상태가 바뀔 때만 갱신)
+    private final Set<String> suspiciousSources = ConcurrentHashMap.newKeySet();
+    
+    public DangerEpisodeTracker(AnalysisShards shards) {
+        this.shards = shards;
+        List<Map<String, SourceState>> sources = new ArrayList<>(shards.getShardCount());
+        for (int i = 0; i < shards.getShardCount(); i++) {
+            sources.add(new HashMap<>());
+        }
+        this.shardSources = List.copyOf(sources);
+    }
+    
+    /**
+     * 모델로 분석한 윈도우의 판정을 기록합니다. (출처가 배정된 샤드 스레드에서 호출)
+     *
+     * @param sourceId 오디오 출처 (null이면 기본 출처)
+     * @param dangerous 윈도우 단위 위험 판정
+     * @param probabilities 클래스별 확률
+     * @param dangerClasses 위험 클래스 인덱스 목록
+     */
+    public Verdict record(String sourceId, boolean dangerous, double[] probabilities, int[] dangerClasses) {
+        windowCount.increment();
+        if (dangerous) {
+            dangerWindowCount.increment();
+        }
+        
+        if (!enabled) {
+            // 스무딩 비활성화: 위험 윈도우마다 이벤트 생성 (이전 동작)
+            if (!dangerous) {
+                return Verdict.INACTIVE;
+            }
+            int best = dangerClasses[0];
+            for (int dangerClass : dangerClasses) {
+                if (dangerClass < probabilities.length && probabilities[dangerClass] > probabilities[best]) {
+                    best = dangerClass;
+                }
+            }
+            episodesOpened.increment();
+            return new Verdict(true, true, best, probabilities[best]);
+        }
+        
+        String key = sourceKey(sourceId);
+        Map<String, SourceState> sources = shardSources.get(shards.shardOf(key));
+        SourceState state = sources.get(key);
+        if (state == null) {
+            state = new SourceState(clampedWindowSize(), dangerClasses.length);
+            sources.put(key, state);
+            trackedSources.increment();
+        }
+        return state.recordAndFlag(key, dangerous, probabilities, dangerClasses, System.currentTimeMillis());
+    }
+    
+    /**
+     * 모델을 호출하지 않은 조용한 윈도우(무음/험)를 기록합니다. 열린 구간의 종료 판단에 사용됩니다.
+     * (출처가 배정된 샤드 스레드에서 호출)
+     */
+    public Verdict recordQuiet(String sourceId) {
+        windowCount.increment();
+        if (!enabled) {
+            return Verdict.INACTIVE;
+        }
+        String key = sourceKey(sourceId);
+        SourceState state = shardSources.get(shards.shardOf(key)).get(key);
+        if (state == null) {
+            return Verdict.INACTIVE;
+        }
+        return state.recordAndFlag(key, false, null, null, System.currentTimeMillis());
+    }
+    
+    /**
+     * 출처의 최근 윈도우에 위험 투표가 있거나 위험 구간이 열려 있는지 확인합니다.
+     * 어느 스레드에서든 호출할 수 있습니다 (수락 제어의 우선순위 판단용).
+     */
+    public boolean isSuspicious(String sourceId) {
+        return suspiciousSources.contains(sourceKey(sourceId));
+    }
+    
+    /**
+     * 출처의 상태를 제거합니다 (스트림 종료 등). 열린 구간은 함께 닫힙니다.
+     * 어느 스레드에서든 호출할 수 있으며, 실제 제거는 출처의 샤드에서 실행됩니다.
+     */
+    public void forget(String sourceId) {
+        String key = sourceKey(sourceId);
+        int shard = shards.shardOf(key);
+        try {
+            shards.executor(shard).execute(() -> {
+                SourceState state = shardSources.get(shard).remove(key);
+                if (state != null) {
+                    trackedSources.decrement();
+                    suspiciousSources.remove(key);
+                    state.close(key, System.currentTimeMillis(), "출처 종료");
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 샤드가 밀려 있으면 유휴 정리에서 제거됨
+            log.debug("출처 상태 제거 보류: {}", key);
+        }
+    }
+    
+    /**
+     * 오래 입력이 없는 출처의 상태를 정리합니다. 각 샤드에 정리 작업을 넣어 샤드 스레드에서 실행합니다.
+     */
+    @Scheduled(fixedDelayString = "${audio.episode.evict-interval-ms:60000}")
+    public void evictIdleSources() {
+        for (int i = 0; i < shardSources.size(); i++) {
+            Map<String, SourceState> sources = shardSources.get(i);
+            try {
+                shards.executor(i).execute(() -> {
+                    long now = System.currentTimeMillis();
+                    sources.entrySet().removeIf(entry -> {
+                        if (now - entry.getValue().lastSeenAt < idleEvictMillis) {
+                            return false;
+                        }
+                        entry.getValue().close(entry.getKey(), now, "입력 없음");
+                        trackedSources.decrement();
+                        suspiciousSources.remove(entry.getKey());
+                        return true;
+                    });
+                });
+            } catch (RejectedExecutionException e) {
+                log.debug("샤드 {} 유휴 출처 정리 보류 (대기열 가득 참)", i);
+            }
+        }
+    }
+    
+    public int getActiveSourceCount() {
+        return trackedSources.intValue();
+    }
+    
+    public long getWindowCount() {
+        return windowCount.sum();
+    }
+    
+    public long getDangerWindowCount() {
+        return dangerWindowCount.sum();
+    }
+    
+    public long getEpisodesOpened() {
+        return episodesOpened.sum();
+    }
+    
+    public long getEpisodesClosed() {
+        return episodesClosed.sum();
+    }
+    
+    private int clampedWindowSize() {
+        return Math.max(1, Math.min(64, windowSize));
+    }
+    
+    /**
+     * 출처 ID를 상태/샤드 배정에 쓰는 키로 정규화합니다 (비어 있으면 기본 출처).
+     */
+    static String sourceKey(String sourceId) {
+        return sourceId == null || sourceId.isBlank() ? DEFAULT_SOURCE : sourceId;
+    }
+    
+    /**
+     * 출처별 상태 (소유 샤드 스레드에서만 접근)
+     */
+    private final class SourceState {
+        private final int size;
+        private final int classSlots;
+        private long votes;               // 최근 size개 윈도우의 위험 투표 비트
+        private final float[] dangerProbs; // [윈도우][위험 클래스] 확률 링 버퍼
+        private int head;
+        
+        private boolean active;
+        private long openedAt;
+        private long lastDangerAt;
+        private long lastSeenAt;
+        private int episodeWindows;
+        private boolean flagged;          // suspiciousSources에 들어 있는지
+        
+        SourceState(int size, int classSlots) {
+            this.size = size;
+            this.classSlots = classSlots;
+            this.dangerProbs = new float[size * classSlots];
+        }
+        
+        Verdict recordAndFlag(String sourceId, boolean dangerous, double[] probabilities, int[] dangerClasses, long now) {
+            Verdict verdict = record(sourceId, dangerous, probabilities, dangerClasses, now);
+            boolean suspicious = active || votes != 0;
+            if (suspicious != flagged) {
+                flagged = suspicious;
+                if (suspicious) {
+                    suspiciousSources.add(sourceId);
+                } else {
+                    suspiciousSources.remove(sourceId);
+                }
+            }
+            return verdict;
+        }
+        
+        Verdict record(String sourceId, boolean dangerous, double[] probabilities, int[] dangerClasses, long now) {
+            lastSeenAt = now;
+            
+            long bit = 1L << head;
+            int base = head * classSlots;
+            if (dangerous) {
+                votes |= bit;
+                for (int c = 0; c < classSlots; c++) {
+                    int dangerClass = c < dangerClasses.length ? dangerClasses[c] : -1;
+                    dangerProbs[base + c] = dangerClass >= 0 && dangerClass < probabilities.length
+                        ? (float) probabilities[dangerClass] : 0.0f;
+                }
+            } else {
+                votes &= ~bit;
+            }
+            head = (head + 1) % size;
+            
+            if (active) {
+                episodeWindows++;
+                if (dangerous) {
+                    lastDangerAt = now;
+                } else if (now - lastDangerAt >= quietMillis) {
+                    close(sourceId, now, "조용한 구간 " + quietMillis + "ms");
+                    return Verdict.INACTIVE;
+                }
+                return Verdict.ACTIVE;
+            }
+            
+            if (!dangerous || Long.bitCount(votes) < Math.min(openVotes, size)) {
+                return Verdict.INACTIVE;
+            }
+            
+            // 구간 시작: 위험으로 투표한 윈도우들의 평균 확률이 가장 높은 위험 클래스를 대표로 사용
+            int voteCount = Long.bitCount(votes);
+            int bestSlot = 0;
+            float bestSum = -1.0f;
+            for (int c = 0; c < classSlots; c++) {
+                float sum = 0.0f;
+                for (int w = 0; w < size; w++) {
+                    if ((votes & (1L << w)) != 0) {
+                        sum += dangerProbs[w * classSlots + c];
+                    }
+                }
+                if (sum > bestSum) {
+                    bestSum = sum;
+                    bestSlot = c;
+                }
+            }
+            
+            active = true;
+            openedAt = now;
+            lastDangerAt = now;
+            episodeWindows = 1;
+            episodesOpened.increment();
+            log.info("위험 구간 시작: 출처={}, 최근 {}개 중 {}개 위험", sourceId, size, voteCount);
+            return new Verdict(true, true, dangerClasses[bestSlot], bestSum / voteCount);
+        }
+        
+        void close(String sourceId, long now, String reason) {
+            if (!active) {
+                return;
+            }
+            active = false;
+            votes = 0;  // 다음 구간은 새 투표로만 열림
+            episodesClosed.increment();
+            log.info("위험 구간 종료: 출처={}, 지속 {}ms, 윈도우 {}개 ({})",
+                sourceId, now - openedAt, episodeWindows, reason);
+        }
+    }
+}
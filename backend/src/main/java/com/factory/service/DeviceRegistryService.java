@@ -0,0 +1,169 @@
+package com.factory.service;
+
+import com.factory.dto.DeviceRequest;
+import com.factory.dto.DeviceResponse;
+import com.factory.entity.Device;
+import com.factory.repository.DeviceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 오디오 입력 장치 등록부 (장치 ID → 설치 구역)
+ *
+ * 분석 경로에서는 DB를 조회하지 않도록 전체 목록을 메모리에 두고,
+ * 등록/수정/삭제 트랜잭션이 커밋된 뒤와 주기적으로(다른 인스턴스의 변경 반영) 다시 읽습니다.
+ * 등록되지 않은 장치는 기본 구역으로 처리합니다.
+ *
+ * - 메모리 목록은 커밋된 뒤에만 교체하므로, 롤백된 변경은 반영되지 않습니다.
+ * - DB 읽기와 교체를 한 잠금 안에서 하므로, 먼저 읽은 (오래된) 목록이 나중에 읽은 목록을 덮어쓰지 않습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeviceRegistryService {
+    
+    /**
+     * 장치 설치 위치
+     */
+    public record Location(String zone, String area) {
+    }
+    
+    private final DeviceRepository deviceRepository;
+    private final AnalysisShards analysisShards;
+    
+    @Value("${audio.devices.default-zone:A동 1층}")
+    private String defaultZone;
+    
+    @Value("${audio.devices.default-area:프레스 구역}")
+    private String defaultArea;
+    
+    /**
+     * 메모리 목록 (위치와 우선 장치를 함께 교체)
+     */
+    private record Snapshot(Map<String, Location> locations, Set<String> priorityDevices) {
+    }
+    
+    private final Object refreshLock = new Object();
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Set.of());
+    
+    /**
+     * 장치의 설치 위치를 조회합니다. 등록되지 않은 장치(또는 ID 없음)는 기본 구역을 반환합니다.
+     */
+    public Location resolve(String deviceId) {
+        Location location = deviceId != null ? snapshot.locations().get(deviceId) : null;
+        return location != null ? location : new Location(defaultZone, defaultArea);
+    }
+    
+    /**
+     * 과부하 시 우선 수락하는 장치인지 확인합니다.
+     */
+    public boolean isHighPriority(String deviceId) {
+        return deviceId != null && snapshot.priorityDevices().contains(deviceId);
+    }
+    
+    public List<DeviceResponse> getAllDevices() {
+        return deviceRepository.findAll().stream()
+            .map(this::mapToResponse)
+            .collect(Collectors.toList());
+    }
+    
+    @Transactional
+    public DeviceResponse saveDevice(String deviceId, DeviceRequest request) {
+        if (deviceId == null || deviceId.isBlank() || deviceId.length() > 64) {
+            throw new IllegalArgumentException("장치 ID는 1 ~ 64자여야 합니다");
+        }
+        if (request.getZone() == null || request.getZone().isBlank()) {
+            throw new IllegalArgumentException("구역(zone)이 필요합니다");
+        }
+        
+        Device device = deviceRepository.findByDeviceId(deviceId)
+            .orElseGet(() -> Device.builder().deviceId(deviceId).build());
+        device.setName(request.getName());
+        device.setZone(request.getZone());
+        device.setArea(request.getArea());
+        if (request.getHighPriority() != null) {
+            device.setHighPriority(request.getHighPriority());
+        }
+        device = deviceRepository.save(device);
+        
+        refreshAfterCommit();
+        log.info("장치 등록: {} → {} {}", deviceId, device.getZone(), device.getArea());
+        
+        return mapToResponse(device);
+    }
+    
+    @Transactional
+    public void deleteDevice(String deviceId) {
+        deviceRepository.deleteByDeviceId(deviceId);
+        
+        refreshAfterCommit();
+        log.info("장치 삭제: {}", deviceId);
+    }
+    
+    /**
+     * 장치 목록을 DB에서 다시 읽어 메모리 목록을 교체합니다.
+     */
+    @Scheduled(fixedDelayString = "${audio.devices.refresh-ms:60000}")
+    public void refresh() {
+        synchronized (refreshLock) {
+            try {
+                Map<String, Location> loaded = new HashMap<>();
+                Set<String> priority = new HashSet<>();
+                for (Device device : deviceRepository.findAll()) {
+                    loaded.put(device.getDeviceId(), new Location(device.getZone(), device.getArea()));
+                    if (Boolean.TRUE.equals(device.getHighPriority())) {
+                        priority.add(device.getDeviceId());
+                    }
+                }
+                if (loaded.size() != snapshot.locations().size()) {
+                    log.info("장치 등록부 갱신: {}개", loaded.size());
+                }
+                snapshot = new Snapshot(Map.copyOf(loaded), Set.copyOf(priority));
+            } catch (DataAccessException e) {
+                log.warn("장치 등록부 갱신 실패: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 메모리 목록을 다시 읽습니다 (롤백되면 그대로 둠).
+     */
+    private void refreshAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh();
+            }
+        });
+    }
+    
+    private DeviceResponse mapToResponse(Device device) {
+        return DeviceResponse.builder()
+            .deviceId(device.getDeviceId())
+            .name(device.getName())
+            .zone(device.getZone())
+            .area(device.getArea())
+            .highPriority(device.getHighPriority())
+            .shard(analysisShards.shardOf(device.getDeviceId()))
+            .updatedAt(device.getUpdatedAt())
+            .build();
+    }
+}
@@ -0,0 +1,197 @@
+package com.factory.service;
+
+import com.factory.audio.MelSpectrogramExtractor;
+import com.factory.audio.PolyphaseResampler;
+import com.factory.dto.MLPredictionRequest;
+import com.factory.dto.MLPredictionResponse;
+import com.factory.inference.CnnModel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 백엔드 프로세스 안에서 CNN을 직접 실행하는 로컬 추론 엔진 (ml.inference.mode=local)
+ *
+ * 네트워크 왕복과 JSON 인코딩 없이 호출 스레드에서 바로 추론하며,
+ * 합성곱 레이어는 전용 ForkJoinPool에서 여러 코어로 나누어 실행됩니다.
+ * 원본 파형 요청은 Python 서비스와 같은 log-mel 변환을 거친 뒤 추론합니다.
+ */
+@Slf4j
+class LocalInferenceEngine {
+    
+    /**
+     * 가중치 파일의 Keras 기준 출력과 비교할 때 허용하는 최대 절대 오차
+     * (float32 누적 순서 차이로 생기는 오차보다 충분히 크고, 레이어 구현 차이로 생기는 오차보다는 작음)
+     */
+    private static final double REFERENCE_TOLERANCE = 1e-4;
+    
+    private final CnnModel model;
+    private final ForkJoinPool pool;
+    private final String version;
+    private final List<Integer> inputShape;
+    private final List<Integer> outputShape;
+    private final ThreadLocal<Buffers> buffers;
+    
+    private LocalInferenceEngine(CnnModel model, ForkJoinPool pool, String version) {
+        this.model = model;
+        this.pool = pool;
+        this.version = version;
+        List<Integer> shape = new ArrayList<>();
+        shape.add(null);  // Keras와 같이 배치 차원은 null
+        for (int dim : model.getInputShape()) {
+            shape.add(dim);
+        }
+        this.inputShape = shape;
+        this.outputShape = Arrays.asList(null, model.getOutputSize());
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(model.getInputSize(), model.getOutputSize()));
+    }
+    
+    /**
+     * 가중치 파일을 로드하여 엔진을 생성합니다.
+     *
+     * @param modelPath export_weights.py로 변환한 .cnn 파일
+     * @param threads 합성곱 병렬 스레드 수 (0 이하면 CPU 코어 수)
+     */
+    static LocalInferenceEngine load(String modelPath, int threads) throws IOException {
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("ml-inference-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            CnnModel model;
+            try (InputStream in = new DigestInputStream(Files.newInputStream(Path.of(modelPath)), digest)) {
+                model = CnnModel.load(in, pool);
+            }
+            verifyReference(model, modelPath);
+            String version = "local-" + HexFormat.of().formatHex(digest.digest(), 0, 6);
+            log.info("로컬 추론 모델 로드 완료: {} (버전 {}, 입력 {}, 출력 {}, 레이어 {}개, 스레드 {}개)",
+                modelPath, version, Arrays.toString(model.getInputShape()), model.getOutputSize(),
+                model.getLayerCount(), parallelism);
+            return new LocalInferenceEngine(model, pool, version);
+        } catch (NoSuchAlgorithmException e) {
+            pool.shutdownNow();
+            throw new IllegalStateException(e);
+        } catch (IOException | RuntimeException e) {
+            pool.shutdownNow();
+            throw e;
+        }
+    }
+    
+    /**
+     * 가중치 파일에 Keras 기준 출력이 있으면 같은 고정 입력으로 한 번 추론하여 비교합니다.
+     * 다르면 로컬 추론이 원격 모델과 다른 판정을 낼 수 있으므로 로드를 실패시킵니다 (원격 ML 서비스 사용).
+     */
+    private static void verifyReference(CnnModel model, String modelPath) throws IOException {
+        if (!model.hasReferenceOutput()) {
+            log.warn("가중치 파일에 Keras 기준 출력이 없어 검증을 생략합니다: {} (export_weights.py로 다시 변환 권장)", modelPath);
+            return;
+        }
+        double error = model.referenceError();
+        if (!(error <= REFERENCE_TOLERANCE)) {
+            throw new IOException("로컬 추론 결과가 Keras 기준 출력과 다릅니다 (최대 오차 " + error + ")");
+        }
+        log.info("Keras 기준 출력 검증 통과: 최대 오차 {}", error);
+    }
+    
+    /**
+     * 예측을 수행합니다. Python 서비스 응답과 같은 형식의 결과를 반환합니다.
+     */
+    MLPredictionResponse predict(MLPredictionRequest request) {
+        try {
+            Buffers local = buffers.get();
+            float[] input;
+            int length;
+            if (request.getFeatureShape() != null) {
+                input = request.getData();
+                length = request.getLength();
+            } else {
+                // 원본 파형이면 log-mel 특징으로 변환
+                int sampleRate = request.getSampleRate() != null ? request.getSampleRate() : 16000;
+                if (!PolyphaseResampler.isSupportedRate(sampleRate)) {
+                    return errorResponse("지원하지 않는 샘플링 레이트입니다: " + sampleRate);
+                }
+                MelSpectrogramExtractor extractor = MelSpectrogramExtractor.forSampleRate(sampleRate);
+                input = local.features(extractor.getOutputSize());
+                extractor.extract(request.getData(), request.getLength(), input);
+                length = extractor.getOutputSize();
+            }
+            
+            if (length != model.getInputSize()) {
+                return errorResponse("입력 크기가 모델과 맞지 않습니다: " + length + " (모델 입력 "
+                    + Arrays.toString(model.getInputShape()) + ")");
+            }
+            
+            model.predict(input, local.output);
+            
+            List<Double> prediction = new ArrayList<>(local.output.length);
+            for (float value : local.output) {
+                prediction.add((double) value);
+            }
+            
+            MLPredictionResponse response = new MLPredictionResponse();
+            response.setSuccess(true);
+            response.setPrediction(prediction);
+            response.setInputShape(inputShape);
+            response.setOutputShape(outputShape);
+            return response;
+            
+        } catch (Exception e) {
+            log.error("로컬 추론 실패: {}", e.getMessage(), e);
+            return errorResponse("로컬 추론 실패: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 모델 버전 (가중치 파일 내용의 SHA-256 앞 12자리)
+     */
+    String getVersion() {
+        return version;
+    }
+    
+    void shutdown() {
+        pool.shutdown();
+    }
+    
+    private static MLPredictionResponse errorResponse(String message) {
+        MLPredictionResponse response = new MLPredictionResponse();
+        response.setSuccess(false);
+        response.setError(message);
+        return response;
+    }
+    
+    /**
+     * 스레드별 특징/출력 버퍼
+     */
+    private static final class Buffers {
+        private float[] features;
+        private final float[] output;
+        
+        Buffers(int inputSize, int outputSize) {
+            this.features = new float[inputSize];
+            this.output = new float[outputSize];
+        }
+        
+        float[] features(int length) {
+            if (features.length < length) {
+                features = new float[length];
+            }
+            return features;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.factory.service;
+
+import com.factory.dto.MLPredictionResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 동시에 들어온 ML 예측 요청을 모아서 한 번의 배치 호출로 보내는 디스패처
+ *
+ * - 첫 요청이 들어오면 최대 maxWait 동안 또는 maxBatchSize개가 모일 때까지 기다린 뒤 배치를 전송합니다.
+ * - 배치 전송은 비동기로 최대 maxInFlight개까지 동시에 진행되며, 모두 사용 중이면 수집 스레드가
+ *   자리가 날 때까지 기다리므로 자연스럽게 다음 배치가 더 커집니다(back-pressure).
+ * - 각 호출자는 자신의 요청에 해당하는 결과 조각만 받습니다.
+ *
+ * 요청은 제출 시점에 이미 (JSON 또는 바이너리 항목으로) 인코딩된 바이트이므로, 호출자는 제출 직후 원본 버퍼를 재사용해도 됩니다.
+ */
+@Slf4j
+class MLBatchDispatcher {
+    
+    private final Function<List<byte[]>, CompletableFuture<List<MLPredictionResponse>>> sender;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingPrediction> queue;
+    private final Semaphore inFlight;
+    private final Thread collector;
+    private volatile boolean running = true;
+    
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder itemCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    
+    MLBatchDispatcher(Function<List<byte[]>, CompletableFuture<List<MLPredictionResponse>>> sender,
+                      int maxBatchSize, long maxWaitMillis, int maxInFlight, int queueCapacity) {
+        this.sender = sender;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+        
+        this.collector = new Thread(this::collectLoop, "ml-batch-collector");
+        this.collector.setDaemon(true);
+        this.collector.start();
+    }
+    
+    /**
+     * 인코딩된 예측 요청을 대기열에 넣고, 배치 처리 후 완료되는 Future를 반환합니다.
+     * 반환된 Future는 예외로 완료되지 않으며, 실패 시 success=false 응답으로 완료됩니다.
+     */
+    CompletableFuture<MLPredictionResponse> submit(byte[] encodedRequest) {
+        PendingPrediction pending = new PendingPrediction(encodedRequest);
+        if (!running || !queue.offer(pending)) {
+            rejectedCount.increment();
+            pending.future.complete(errorResponse("ML 배치 대기열이 가득 찼습니다"));
+        }
+        return pending.future;
+    }
+    
+    void shutdown() {
+        running = false;
+        collector.interrupt();
+        PendingPrediction pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.complete(errorResponse("ML 서비스가 종료되었습니다"));
+        }
+    }
+    
+    long getBatchCount() {
+        return batchCount.sum();
+    }
+    
+    long getItemCount() {
+        return itemCount.sum();
+    }
+    
+    long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+    
+    int getQueueDepth() {
+        return queue.size();
+    }
+    
+    private void collectLoop() {
+        while (running) {
+            try {
+                PendingPrediction first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                
+                List<PendingPrediction> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingPrediction next = remaining > 0
+                        ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                        : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                
+                inFlight.acquire();
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("ML 배치 수집 중 오류 발생", e);
+            }
+        }
+    }
+    
+    private void dispatch(List<PendingPrediction> batch) {
+        batchCount.increment();
+        itemCount.add(batch.size());
+        
+        List<byte[]> requests = new ArrayList<>(batch.size());
+        for (PendingPrediction pending : batch) {
+            requests.add(pending.request);
+        }
+        
+        CompletableFuture<List<MLPredictionResponse>> result;
+        try {
+            result = sender.apply(requests);
+        } catch (Exception e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        
+        result.whenComplete((responses, error) -> {
+            inFlight.release();
+            if (error != null) {
+                log.error("ML 배치 예측 실패 ({}건): {}", batch.size(), error.getMessage(), error);
+                for (PendingPrediction pending : batch) {
+                    pending.future.complete(errorResponse("ML 배치 예측 실패: " + error.getMessage()));
+                }
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                MLPredictionResponse response = responses != null && i < responses.size() ? responses.get(i) : null;
+                batch.get(i).future.complete(response != null ? response : errorResponse("배치 예측 결과가 누락되었습니다"));
+            }
+        });
+    }
+    
+    private static MLPredictionResponse errorResponse(String message) {
+        MLPredictionResponse response = new MLPredictionResponse();
+        response.setSuccess(false);
+        response.setError(message);
+        return response;
+    }
+    
+    private static final class PendingPrediction {
+        private final byte[] request;
+        private final CompletableFuture<MLPredictionResponse> future = new CompletableFuture<>();
+        
+        PendingPrediction(byte[] request) {
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.factory.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * ML 서비스 호출 보호 계층 (벌크헤드 + 서킷 브레이커 + 헤지 요청)
+ *
+ * - 벌크헤드: 동시에 진행 중인 호출 수를 제한하고, 초과분은 기다리지 않고 바로 거절합니다.
+ * - 서킷 브레이커: 최근 windowSize건 중 실패율 또는 느린 호출 비율이 임계값을 넘으면 OPEN으로 전환하여
+ *   openDuration 동안 즉시 실패시키고, 이후 HALF_OPEN에서 소수의 탐색 호출로 회복 여부를 확인합니다.
+ * - 헤지 요청: 최근 응답 시간의 p95가 지나도 응답이 없으면 같은 요청을 한 번 더 보내고 먼저 도착한 응답을 사용합니다.
+ *
+ * 거절된 호출은 {@link RejectedException}으로 완료됩니다.
+ */
+@Slf4j
+class MLCallGuard {
+    
+    enum State {
+        CLOSED,     // 정상 호출
+        OPEN,       // 즉시 실패
+        HALF_OPEN   // 회복 확인을 위한 탐색 호출만 허용
+    }
+    
+    /**
+     * 벌크헤드 또는 서킷 브레이커에 의해 호출이 거절되었을 때의 예외
+     */
+    static final class RejectedException extends RuntimeException {
+        RejectedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+    
+    private static final int MIN_LATENCY_SAMPLES = 20;  // 헤지 지연을 계산하기 위한 최소 표본 수
+    
+    // 벌크헤드
+    private final int maxConcurrent;
+    private final Semaphore bulkhead;
+    
+    // 서킷 브레이커 설정
+    private final int windowSize;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    
+    // 서킷 브레이커 상태 (this로 동기화)
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+    private final boolean[] failureRing;
+    private final boolean[] slowRing;
+    private int ringPos;
+    private int ringCount;
+    private int ringFailures;
+    private int ringSlow;
+    
+    // 헤지 요청
+    private final boolean hedgeEnabled;
+    private final long hedgeMinDelayNanos;
+    private final ScheduledExecutorService hedgeTimer;
+    private final LatencyTracker latencies = new LatencyTracker(512);
+    
+    // 지표
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder slowCalls = new LongAdder();
+    private final LongAdder rejectedByBulkhead = new LongAdder();
+    private final LongAdder rejectedByCircuit = new LongAdder();
+    private final LongAdder circuitOpened = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    
+    MLCallGuard(int maxConcurrent,
+                int windowSize, int minCalls, double failureRateThreshold,
+                long slowCallMillis, double slowCallRateThreshold,
+                long openMillis, int halfOpenProbes,
+                boolean hedgeEnabled, long hedgeMinDelayMillis) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.bulkhead = new Semaphore(this.maxConcurrent);
+        this.windowSize = Math.max(1, windowSize);
+        this.minCalls = Math.max(1, Math.min(minCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.failureRing = new boolean[this.windowSize];
+        this.slowRing = new boolean[this.windowSize];
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, hedgeMinDelayMillis));
+        this.hedgeTimer = hedgeEnabled
+            ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ml-hedge-timer");
+                thread.setDaemon(true);
+                return thread;
+            })
+            : null;
+    }
+    
+    /**
+     * 보호 계층을 거쳐 호출을 실행합니다.
+     *
+     * @param call 실제 호출 (헤지 시 한 번 더 호출될 수 있으므로 멱등이어야 함, 예외로 완료되면 실패로 집계)
+     */
+    <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+        State admittedIn = acquirePermission();
+        if (admittedIn == null) {
+            rejectedByCircuit.increment();
+            return CompletableFuture.failedFuture(
+                new RejectedException("ML 서비스 일시 차단 중입니다 (서킷 브레이커 OPEN)"));
+        }
+        if (!bulkhead.tryAcquire()) {
+            releaseProbe(admittedIn);
+            rejectedByBulkhead.increment();
+            return CompletableFuture.failedFuture(
+                new RejectedException("ML 서비스 동시 호출 한도(" + maxConcurrent + ")를 초과했습니다"));
+        }
+        
+        calls.increment();
+        long start = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        CompletableFuture<T> primary = attempt(call, result, outstanding, false);
+        
+        ScheduledFuture<?> hedge = null;
+        long hedgeDelay = hedgeDelayNanos(admittedIn);
+        if (hedgeDelay > 0) {
+            hedge = hedgeTimer.schedule(() -> {
+                if (result.isDone() || !bulkhead.tryAcquire()) {
+                    return;
+                }
+                hedgesSent.increment();
+                outstanding.incrementAndGet();
+                CompletableFuture<T> duplicate = attempt(call, result, outstanding, true);
+                result.whenComplete((value, error) -> duplicate.cancel(false));
+            }, hedgeDelay, TimeUnit.NANOSECONDS);
+        }
+        
+        ScheduledFuture<?> pendingHedge = hedge;
+        result.whenComplete((value, error) -> {
+            if (pendingHedge != null) {
+                pendingHedge.cancel(false);
+            }
+            primary.cancel(false);  // 헤지 요청이 이긴 경우 원래 요청 정리
+            long elapsed = System.nanoTime() - start;
+            boolean failed = error != null;
+            if (!failed) {
+                latencies.record(elapsed);
+            }
+            record(admittedIn, elapsed, failed);
+        });
+        return result;
+    }
+    
+    /**
+     * 한 번의 실제 호출을 실행하고, 먼저 성공한 응답으로 result를 완료합니다.
+     * 모든 시도가 실패하면 마지막 실패로 완료합니다. 벌크헤드 허가는 시도가 끝날 때 반환됩니다.
+     */
+    private <T> CompletableFuture<T> attempt(Supplier<CompletableFuture<T>> call, CompletableFuture<T> result,
+                                             AtomicInteger outstanding, boolean hedged) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        
+        future.whenComplete((value, error) -> {
+            bulkhead.release();
+            int remaining = outstanding.decrementAndGet();
+            if (error == null) {
+                if (result.complete(value) && hedged) {
+                    hedgesWon.increment();
+                }
+            } else if (remaining == 0) {
+                result.completeExceptionally(error);
+            }
+        });
+        return future;
+    }
+    
+    private long hedgeDelayNanos(State admittedIn) {
+        if (!hedgeEnabled || admittedIn != State.CLOSED) {
+            return 0;
+        }
+        long p95 = latencies.percentile(0.95, MIN_LATENCY_SAMPLES);
+        return p95 > 0 ? Math.max(hedgeMinDelayNanos, p95) : 0;
+    }
+    
+    /**
+     * 호출 허가를 받습니다.
+     *
+     * @return 허가된 상태 (CLOSED 또는 HALF_OPEN), 거절이면 null
+     */
+    private synchronized State acquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return null;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight + halfOpenSuccesses >= halfOpenProbes) {
+                return null;
+            }
+            halfOpenInFlight++;
+            return State.HALF_OPEN;
+        }
+        return State.CLOSED;
+    }
+    
+    private synchronized void releaseProbe(State admittedIn) {
+        if (admittedIn == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+    
+    private synchronized void record(State admittedIn, long elapsedNanos, boolean failed) {
+        boolean slow = elapsedNanos >= slowCallNanos;
+        if (failed) {
+            failures.increment();
+        }
+        if (slow) {
+            slowCalls.increment();
+        }
+        
+        if (admittedIn == State.HALF_OPEN) {
+            if (halfOpenInFlight > 0) {
+                halfOpenInFlight--;
+            }
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            if (failed || slow) {
+                transition(State.OPEN);
+            } else if (++halfOpenSuccesses >= halfOpenProbes) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        
+        if (state != State.CLOSED) {
+            return;  // OPEN 전환 전에 시작된 호출의 결과는 무시
+        }
+        
+        if (ringCount == windowSize) {
+            ringFailures -= failureRing[ringPos] ? 1 : 0;
+            ringSlow -= slowRing[ringPos] ? 1 : 0;
+        } else {
+            ringCount++;
+        }
+        failureRing[ringPos] = failed;
+        slowRing[ringPos] = slow;
+        ringFailures += failed ? 1 : 0;
+        ringSlow += slow ? 1 : 0;
+        ringPos = (ringPos + 1) % windowSize;
+        
+        if (ringCount >= minCalls) {
+            double failureRate = (double) ringFailures / ringCount;
+            double slowRate = (double) ringSlow / ringCount;
+            if (failureRate >= failureRateThreshold || slowRate >= slowCallRateThreshold) {
+                log.warn("ML 서킷 브레이커 OPEN: 실패율={}%, 느린 호출 비율={}% (최근 {}건)",
+                    String.format("%.1f", failureRate * 100), String.format("%.1f", slowRate * 100), ringCount);
+                transition(State.OPEN);
+            }
+        }
+    }
+    
+    private void transition(State next) {
+        if (state == next) {
+            return;
+        }
+        log.info("ML 서킷 브레이커 상태 변경: {} → {}", state, next);
+        state = next;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        if (next == State.OPEN) {
+            openedAt = System.nanoTime();
+            circuitOpened.increment();
+        } else {
+            Arrays.fill(failureRing, false);
+            Arrays.fill(slowRing, false);
+            ringPos = 0;
+            ringCount = 0;
+            ringFailures = 0;
+            ringSlow = 0;
+        }
+    }
+    
+    void shutdown() {
+        if (hedgeTimer != null) {
+            hedgeTimer.shutdownNow();
+        }
+    }
+    
+    synchronized State getState() {
+        // OPEN 유지 시간이 지났으면 다음 호출에서 HALF_OPEN으로 전환되므로 그대로 보고
+        return state;
+    }
+    
+    int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+    
+    int getInFlight() {
+        return maxConcurrent - bulkhead.availablePermits();
+    }
+    
+    long getCallCount() {
+        return calls.sum();
+    }
+    
+    long getFailureCount() {
+        return failures.sum();
+    }
+    
+    long getSlowCallCount() {
+        return slowCalls.sum();
+    }
+    
+    long getRejectedByBulkheadCount() {
+        return rejectedByBulkhead.sum();
+    }
+    
+    long getRejectedByCircuitCount() {
+        return rejectedByCircuit.sum();
+    }
+    
+    long getCircuitOpenedCount() {
+        return circuitOpened.sum();
+    }
+    
+    long getHedgesSentCount() {
+        return hedgesSent.sum();
+    }
+    
+    long getHedgesWonCount() {
+        return hedgesWon.sum();
+    }
+    
+    double getLatencyP95Millis() {
+        return latencies.percentile(0.95, 1) / 1_000_000.0;
+    }
+    
+    /**
+     * 최근 응답 시간 표본을 보관하고 백분위수를 계산합니다.
+     * 백분위수는 일정 건수마다 한 번만 다시 계산하여 호출마다 정렬하지 않습니다.
+     */
+    private static final class LatencyTracker {
+        private static final int RECOMPUTE_EVERY = 32;
+        
+        private final long[] samples;
+        private final long[] sorted;
+        private int pos;
+        private int count;
+        private int sinceRecompute = RECOMPUTE_EVERY;
+        private double cachedQuantile = -1;
+        private long cachedValue;
+        
+        LatencyTracker(int capacity) {
+            this.samples = new long[capacity];
+            this.sorted = new long[capacity];
+        }
+        
+        synchronized void record(long nanos) {
+            samples[pos] = nanos;
+            pos = (pos + 1) % samples.length;
+            if (count < samples.length) {
+                count++;
+            }
+            sinceRecompute++;
+        }
+        
+        synchronized long percentile(double quantile, int minSamples) {
+            if (count < minSamples) {
+                return 0;
+            }
+            if (sinceRecompute >= RECOMPUTE_EVERY || quantile != cachedQuantile) {
+                System.arraycopy(samples, 0, sorted, 0, count);
+                Arrays.sort(sorted, 0, count);
+                cachedValue = sorted[Math.min(count - 1, (int) Math.ceil(quantile * count) - 1)];
+                cachedQuantile = quantile;
+                sinceRecompute = 0;
+            }
+            return cachedValue;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.factory.service;
+
+import com.factory.dto.MLPredictionRequest;
+import com.factory.dto.MLPredictionResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 같은 오디오에 대한 ML 예측 결과를 재사용하는 LRU 캐시
+ *
+ * - 키는 입력 데이터(정규화된 샘플 또는 특징)의 64비트 해시 + 길이 + 샘플링 레이트 + 특징 shape 입니다.
+ * - 모델 버전이 바뀌면 전체를 비웁니다. 버전을 아직 모르면 캐시를 사용하지 않습니다.
+ * - 항목 수와 추정 메모리 사용량 두 가지 한도를 모두 지키도록 오래 사용하지 않은 항목부터 제거합니다.
+ * - 성공한 응답만 저장하며, 조회 시에는 읽기 전용 리스트를 담은 새 응답 객체를 반환합니다.
+ */
+class MLPredictionCache {
+    
+    private static final long ENTRY_OVERHEAD_BYTES = 160;  // 키, 맵 노드, 응답 객체
+    private static final long LIST_ITEM_BYTES = 24;        // 박싱된 Double/Integer + 참조
+    
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private String modelVersion;
+    private long bytes;
+    
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+    
+    MLPredictionCache(int maxEntries, long maxBytes) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxBytes = Math.max(1, maxBytes);
+    }
+    
+    /**
+     * 현재 모델 버전을 갱신합니다. 이전 버전과 다르면 캐시를 비웁니다.
+     */
+    synchronized void updateModelVersion(String version) {
+        if (Objects.equals(modelVersion, version)) {
+            return;
+        }
+        if (!entries.isEmpty()) {
+            invalidationCount.increment();
+        }
+        entries.clear();
+        bytes = 0;
+        modelVersion = version;
+    }
+    
+    synchronized String getModelVersion() {
+        return modelVersion;
+    }
+    
+    /**
+     * 요청의 캐시 키를 계산합니다. 요청 버퍼가 재사용되기 전에 호출해야 합니다.
+     * 모델 버전을 모르면 null을 반환합니다.
+     */
+    Key keyOf(MLPredictionRequest request) {
+        String version = getModelVersion();
+        if (version == null || request.getData() == null) {
+            return null;
+        }
+        int length = Math.min(request.getLength(), request.getData().length);
+        int sampleRate = request.getSampleRate() != null ? request.getSampleRate() : 0;
+        int shape = request.getFeatureShape() != null ? 31 + Arrays.hashCode(request.getFeatureShape()) : 0;
+        return new Key(fingerprint(request.getData(), length), length, sampleRate, shape, version);
+    }
+    
+    MLPredictionResponse get(Key key) {
+        Entry entry;
+        synchronized (this) {
+            entry = key.version.equals(modelVersion) ? entries.get(key) : null;
+        }
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return new MLPredictionResponse(true, entry.prediction, entry.inputShape, entry.outputShape, null);
+    }
+    
+    void put(Key key, MLPredictionResponse response) {
+        if (!response.isSuccess() || response.getPrediction() == null) {
+            return;
+        }
+        Entry entry = new Entry(readOnlyCopy(response.getPrediction()),
+            readOnlyCopy(response.getInputShape()), readOnlyCopy(response.getOutputShape()));
+        
+        synchronized (this) {
+            if (!key.version.equals(modelVersion)) {
+                return;  // 요청 중에 모델이 바뀐 결과는 저장하지 않음
+            }
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                bytes -= previous.bytes;
+            }
+            bytes += entry.bytes;
+            
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                bytes -= eldest.next().bytes;
+                eldest.remove();
+                evictionCount.increment();
+            }
+        }
+    }
+    
+    synchronized int getSize() {
+        return entries.size();
+    }
+    
+    synchronized long getBytes() {
+        return bytes;
+    }
+    
+    long getHitCount() {
+        return hitCount.sum();
+    }
+    
+    long getMissCount() {
+        return missCount.sum();
+    }
+    
+    long getEvictionCount() {
+        return evictionCount.sum();
+    }
+    
+    long getInvalidationCount() {
+        return invalidationCount.sum();
+    }
+    
+    /**
+     * 4개 레인으로 나누어 계산하는 64비트 해시 (레인끼리 의존성이 없어 CPU가 병렬로 처리)
+     */
+    static long fingerprint(float[] data, int length) {
+        long h0 = 0x9E3779B97F4A7C15L;
+        long h1 = 0xC2B2AE3D27D4EB4FL;
+        long h2 = 0x165667B19E3779F9L;
+        long h3 = 0x27D4EB2F165667C5L;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            h0 = mix(h0, Float.floatToRawIntBits(data[i]));
+            h1 = mix(h1, Float.floatToRawIntBits(data[i + 1]));
+            h2 = mix(h2, Float.floatToRawIntBits(data[i + 2]));
+            h3 = mix(h3, Float.floatToRawIntBits(data[i + 3]));
+        }
+        for (; i < length; i++) {
+            h0 = mix(h0, Float.floatToRawIntBits(data[i]));
+        }
+        long h = Long.rotateLeft(h0, 1) + Long.rotateLeft(h1, 7) + Long.rotateLeft(h2, 12) + Long.rotateLeft(h3, 18);
+        return finish(h ^ length);
+    }
+    
+    private static long mix(long h, int value) {
+        return Long.rotateLeft(h ^ (value * 0x9E3779B97F4A7C15L), 27) * 0xC2B2AE3D27D4EB4FL;
+    }
+    
+    private static long finish(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+    
+    private static <T> List<T> readOnlyCopy(List<T> list) {
+        // 배치 차원이 null인 shape도 있으므로 List.copyOf 대신 복사 후 감쌈
+        return list != null ? Collections.unmodifiableList(new ArrayList<>(list)) : null;
+    }
+    
+    record Key(long hash, int length, int sampleRate, int shape, String version) {
+    }
+    
+    private static final class Entry {
+        private final List<Double> prediction;
+        private final List<Integer> inputShape;
+        private final List<Integer> outputShape;
+        private final long bytes;
+        
+        Entry(List<Double> prediction, List<Integer> inputShape, List<Integer> outputShape) {
+            this.prediction = prediction;
+            this.inputShape = inputShape;
+            this.outputShape = outputShape;
+            long items = prediction.size()
+                + (inputShape != null ? inputShape.size() : 0)
+                + (outputShape != null ? outputShape.size() : 0);
+            this.bytes = ENTRY_OVERHEAD_BYTES + items * LIST_ITEM_BYTES;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.factory.service;
+
+import com.factory.dto.MLPredictionResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * ML 서비스의 예측 응답 JSON을 토큰 단위로 읽어 바로 double 배열로 변환하는 디코더
+ *
+ * 중간 Map/List 객체와 값마다의 박싱 없이 필요한 필드만 읽고, 나머지 필드(traceback, count 등)는 건너뜁니다.
+ * 필드 타입이 예상과 다르면 어느 필드가 잘못되었는지 담은 IOException을 던집니다.
+ *
+ * 단일: {"success": true, "prediction": [0.1, 0.9] 또는 [[0.1, 0.9]], "input_shape": [...], "output_shape": [...]}
+ * 배치: {"success": true, "prediction": [[...], null], "errors": [null, "..."], "input_shape": [...], "output_shape": [...]}
+ * 실패: {"success": false, "error": "..."}
+ */
+class MLResponseDecoder {
+    
+    private static final double[] EMPTY = new double[0];
+    
+    private final JsonFactory jsonFactory;
+    
+    MLResponseDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+    
+    /**
+     * 단일 예측 응답을 디코딩합니다. 중첩 배열이면 첫 번째 행을 사용합니다.
+     */
+    MLPredictionResponse decodeSingle(byte[] json) throws IOException {
+        Body body = parse(json);
+        
+        MLPredictionResponse result = new MLPredictionResponse();
+        result.setSuccess(body.success);
+        if (body.rows != null && !body.rows.isEmpty() && body.rows.get(0) != null) {
+            result.setPrediction(new DoubleArrayList(body.rows.get(0)));
+        }
+        result.setInputShape(body.inputShape);
+        result.setOutputShape(body.outputShape);
+        result.setError(body.error);
+        return result;
+    }
+    
+    /**
+     * 배치 예측 응답을 요청 순서대로 디코딩합니다.
+     * 결과 행이 없는 항목은 항목별 오류(errors) 또는 전체 오류(error)로 실패 처리합니다.
+     */
+    List<MLPredictionResponse> decodeBatch(byte[] json, int count) throws IOException {
+        Body body = parse(json);
+        
+        List<MLPredictionResponse> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MLPredictionResponse result = new MLPredictionResponse();
+            double[] row = body.rows != null && body.nested && i < body.rows.size() ? body.rows.get(i) : null;
+            if (row != null) {
+                result.setSuccess(true);
+                result.setPrediction(new DoubleArrayList(row));
+                result.setInputShape(body.inputShape);
+                result.setOutputShape(body.outputShape);
+            } else {
+                String error = body.errors != null && i < body.errors.size() ? body.errors.get(i) : null;
+                if (error == null) {
+                    error = body.error;
+                }
+                result.setSuccess(false);
+                result.setError(error != null ? error : "예측 실패");
+            }
+            results.add(result);
+        }
+        return results;
+    }
+    
+    private Body parse(byte[] json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("응답이 JSON 객체가 아닙니다");
+            }
+            
+            Body body = new Body();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "success" -> body.success = readBoolean(parser, token, field);
+                    case "prediction" -> readPrediction(parser, token, body);
+                    case "input_shape" -> body.inputShape = readShape(parser, token, field);
+                    case "output_shape" -> body.outputShape = readShape(parser, token, field);
+                    case "error" -> body.error = readString(parser, token, field);
+                    case "errors" -> body.errors = readStrings(parser, token, field);
+                    default -> parser.skipChildren();
+                }
+            }
+            return body;
+        }
+    }
+    
+    /**
+     * prediction 필드: 숫자 배열(단일) 또는 숫자 배열/null의 배열(중첩)
+     */
+    private void readPrediction(JsonParser parser, JsonToken token, Body body) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return;
+        }
+        expect(token == JsonToken.START_ARRAY, "prediction", "배열");
+        
+        List<double[]> rows = new ArrayList<>();
+        JsonToken first = parser.nextToken();
+        if (first == JsonToken.START_ARRAY || first == JsonToken.VALUE_NULL) {
+            body.nested = true;
+            for (JsonToken t = first; t != JsonToken.END_ARRAY; t = parser.nextToken()) {
+                if (t == JsonToken.VALUE_NULL) {
+                    rows.add(null);
+                } else {
+                    expect(t == JsonToken.START_ARRAY, "prediction[" + rows.size() + "]", "숫자 배열 또는 null");
+                    rows.add(readNumbers(parser, parser.nextToken(), "prediction[" + rows.size() + "]"));
+                }
+            }
+        } else {
+            rows.add(readNumbers(parser, first, "prediction"));
+        }
+        body.rows = rows;
+    }
+    
+    /**
+     * 배열 시작 토큰 다음부터 END_ARRAY까지의 숫자를 읽습니다.
+     */
+    private static double[] readNumbers(JsonParser parser, JsonToken token, String field) throws IOException {
+        double[] values = EMPTY;
+        int size = 0;
+        for (JsonToken t = token; t != JsonToken.END_ARRAY; t = parser.nextToken()) {
+            expect(t == JsonToken.VALUE_NUMBER_FLOAT || t == JsonToken.VALUE_NUMBER_INT,
+                field + "[" + size + "]", "숫자");
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.max(8, size * 2));
+            }
+            values[size++] = parser.getDoubleValue();
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+    
+    /**
+     * shape 필드: 정수 또는 null(배치 차원)의 배열
+     */
+    private static List<Integer> readShape(JsonParser parser, JsonToken token, String field) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(token == JsonToken.START_ARRAY, field, "배열");
+        List<Integer> shape = new ArrayList<>(4);
+        for (JsonToken t = parser.nextToken(); t != JsonToken.END_ARRAY; t = parser.nextToken()) {
+            if (t == JsonToken.VALUE_NULL) {
+                shape.add(null);
+            } else {
+                expect(t == JsonToken.VALUE_NUMBER_INT, field + "[" + shape.size() + "]", "정수 또는 null");
+                shape.add(parser.getIntValue());
+            }
+        }
+        return Collections.unmodifiableList(shape);
+    }
+    
+    private static List<String> readStrings(JsonParser parser, JsonToken token, String field) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(token == JsonToken.START_ARRAY, field, "배열");
+        List<String> values = new ArrayList<>();
+        for (JsonToken t = parser.nextToken(); t != JsonToken.END_ARRAY; t = parser.nextToken()) {
+            values.add(readString(parser, t, field + "[" + values.size() + "]"));
+        }
+        return values;
+    }
+    
+    private static String readString(JsonParser parser, JsonToken token, String field) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(token == JsonToken.VALUE_STRING, field, "문자열 또는 null");
+        return parser.getText();
+    }
+    
+    private static boolean readBoolean(JsonParser parser, JsonToken token, String field) throws IOException {
+        expect(token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE, field, "true/false");
+        return token == JsonToken.VALUE_TRUE;
+    }
+    
+    private static void expect(boolean condition, String field, String expected) throws IOException {
+        if (!condition) {
+            throw new IOException("응답 형식 오류: '" + field + "' 값이 잘못되었습니다 (기대: " + expected + ")");
+        }
+    }
+    
+    /**
+     * 디코딩 중 모은 응답 필드
+     */
+    private static final class Body {
+        private boolean success;
+        private boolean nested;
+        private List<double[]> rows;
+        private List<Integer> inputShape;
+        private List<Integer> outputShape;
+        private String error;
+        private List<String> errors;
+    }
+    
+    /**
+     * double 배열을 그대로 감싸는 읽기 전용 리스트 (값을 꺼낼 때만 박싱)
+     */
+    private static final class DoubleArrayList extends AbstractList<Double> implements RandomAccess {
+        private final double[] values;
+        
+        DoubleArrayList(double[] values) {
+            this.values = values;
+        }
+        
+        @Override
+        public Double get(int index) {
+            return values[index];
+        }
+        
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+}
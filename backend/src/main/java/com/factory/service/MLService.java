@@ -1,21 +1,42 @@
 package com.factory.service;
 
+import com.factory.dto.MLClientStatusResponse;
 import com.factory.dto.MLPredictionRequest;
 import com.factory.dto.MLPredictionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
@@ -25,137 +46,726 @@ public class MLService {
     @Value("${ml.service.url:http://localhost:5000}")
     private String mlServiceUrl;
     
+    @Value("${ml.inference.mode:remote}")
+    private String inferenceMode;
+    
+    @Value("${ml.inference.local.model-path:../ml_service/models/final.cnn}")
+    private String localModelPath;
+    
+    @Value("${ml.inference.local.threads:0}")
+    private int localThreads;
+    
+    @Value("${ml.cache.enabled:true}")
+    private boolean cacheEnabled;
+    
+    @Value("${ml.cache.max-entries:4096}")
+    private int cacheMaxEntries;
+    
+    @Value("${ml.cache.max-bytes:8388608}")
+    private long cacheMaxBytes;
+    
+    @Value("${ml.batch.enabled:true}")
+    private boolean batchEnabled;
+    
+    @Value("${ml.batch.max-size:16}")
+    private int batchMaxSize;
+    
+    @Value("${ml.batch.max-wait-ms:5}")
+    private long batchMaxWaitMs;
+    
+    @Value("${ml.batch.max-in-flight:4}")
+    private int batchMaxInFlight;
+    
+    @Value("${ml.batch.queue-capacity:1024}")
+    private int batchQueueCapacity;
+    
+    @Value("${ml.transport.format:binary}")
+    private String transportFormat;
+    
+    @Value("${ml.transport.compress:false}")
+    private boolean transportCompress;
+    
+    @Value("${ml.transport.uds-path:}")
+    private String udsPath;
+    
+    @Value("${ml.transport.uds-connections:2}")
+    private int udsConnections;
+    
+    @Value("${ml.http.response-timeout-ms:5000}")
+    private long responseTimeoutMs;
+    
+    private static final byte[] BATCH_PREFIX = "{\"batch\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BATCH_SUFFIX = "]}".getBytes(StandardCharsets.US_ASCII);
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT = new ParameterizedTypeReference<>() {};
+    
     private final RestTemplate restTemplate;
+    private final CloseableHttpAsyncClient mlHttpAsyncClient;
+    private final ObjectMapper objectMapper;
+    private final AnalysisMetrics analysisMetrics;
+    
+    @Value("${ml.resilience.bulkhead.max-concurrent:16}")
+    private int bulkheadMaxConcurrent;
+    
+    @Value("${ml.resilience.circuit.window-size:50}")
+    private int circuitWindowSize;
+    
+    @Value("${ml.resilience.circuit.min-calls:20}")
+    private int circuitMinCalls;
+    
+    @Value("${ml.resilience.circuit.failure-rate:0.5}")
+    private double circuitFailureRate;
+    
+    @Value("${ml.resilience.circuit.slow-call-ms:2000}")
+    private long circuitSlowCallMs;
+    
+    @Value("${ml.resilience.circuit.slow-call-rate:0.8}")
+    private double circuitSlowCallRate;
+    
+    @Value("${ml.resilience.circuit.open-ms:10000}")
+    private long circuitOpenMs;
+    
+    @Value("${ml.resilience.circuit.half-open-probes:3}")
+    private int circuitHalfOpenProbes;
+    
+    @Value("${ml.resilience.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+    
+    @Value("${ml.resilience.hedge.min-delay-ms:50}")
+    private long hedgeMinDelayMs;
+    
+    private MLBatchDispatcher batchDispatcher;
+    private MLCallGuard callGuard;
+    private LocalInferenceEngine localEngine;
+    private MLPredictionCache predictionCache;
+    private MLResponseDecoder responseDecoder;
+    private MLSocketTransport socketTransport;
+    
+    /** ML 서비스가 바이너리 형식을 지원한다고 확인되어 바이너리로 전송 중인지 */
+    private volatile boolean binaryTransport;
+    
+    @PostConstruct
+    public void init() {
+        responseDecoder = new MLResponseDecoder(objectMapper.getFactory());
+        
+        if ("local".equalsIgnoreCase(inferenceMode)) {
+            try {
+                localEngine = LocalInferenceEngine.load(localModelPath, localThreads);
+            } catch (IOException | RuntimeException e) {
+                log.error("로컬 추론 모델 로드 실패, 원격 ML 서비스를 사용합니다: {}", e.getMessage());
+            }
+        }
+        
+        if (localEngine == null && udsPath != null && !udsPath.isBlank()) {
+            socketTransport = new MLSocketTransport(udsPath, udsConnections, responseTimeoutMs);
+            log.info("ML 예측 요청을 유닉스 도메인 소켓으로 전송: {} (연결 {}개)", udsPath, udsConnections);
+        }
+        
+        callGuard = new MLCallGuard(
+            bulkheadMaxConcurrent,
+            circuitWindowSize, circuitMinCalls, circuitFailureRate,
+            circuitSlowCallMs, circuitSlowCallRate,
+            circuitOpenMs, circuitHalfOpenProbes,
+            hedgeEnabled, hedgeMinDelayMs);
+        
+        if (cacheEnabled) {
+            predictionCache = new MLPredictionCache(cacheMaxEntries, cacheMaxBytes);
+            if (localEngine != null) {
+                predictionCache.updateModelVersion(localEngine.getVersion());
+            }
+        }
+        
+        if (batchEnabled) {
+            batchDispatcher = new MLBatchDispatcher(
+                this::sendBatch, batchMaxSize, batchMaxWaitMs, batchMaxInFlight, batchQueueCapacity);
+            log.info("ML 마이크로 배칭 활성화: 최대 {}건 / {}ms, 동시 배치 {}개",
+                batchMaxSize, batchMaxWaitMs, batchMaxInFlight);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (localEngine != null) {
+            localEngine.shutdown();
+        }
+        if (batchDispatcher != null) {
+            batchDispatcher.shutdown();
+        }
+        if (socketTransport != null) {
+            socketTransport.shutdown();
+        }
+        if (callGuard != null) {
+            callGuard.shutdown();
+        }
+    }
+    
+    /**
+     * ML 클라이언트 상태(서킷 브레이커, 벌크헤드, 헤지 요청, 배칭)를 조회합니다.
+     */
+    public MLClientStatusResponse getClientStatus() {
+        MLClientStatusResponse.MLClientStatusResponseBuilder status = MLClientStatusResponse.builder()
+            .circuitState(callGuard.getState().name())
+            .inFlight(callGuard.getInFlight())
+            .maxConcurrent(callGuard.getMaxConcurrent())
+            .calls(callGuard.getCallCount())
+            .failures(callGuard.getFailureCount())
+            .slowCalls(callGuard.getSlowCallCount())
+            .rejectedByBulkhead(callGuard.getRejectedByBulkheadCount())
+            .rejectedByCircuit(callGuard.getRejectedByCircuitCount())
+            .circuitOpened(callGuard.getCircuitOpenedCount())
+            .hedgesSent(callGuard.getHedgesSentCount())
+            .hedgesWon(callGuard.getHedgesWonCount())
+            .latencyP95Ms(callGuard.getLatencyP95Millis())
+            .inferenceMode(localEngine != null ? "local" : "remote")
+            .transport(binaryTransport ? MLWireFormat.MIME_TYPE : "application/json")
+            .endpoint(socketTransport != null ? "unix:" + socketTransport.getSocketPath() : mlServiceUrl);
+        if (socketTransport != null) {
+            status.socketPending(socketTransport.getPendingCount());
+        }
+        if (predictionCache != null) {
+            status.modelVersion(predictionCache.getModelVersion())
+                .cacheHits(predictionCache.getHitCount())
+                .cacheMisses(predictionCache.getMissCount())
+                .cacheEvictions(predictionCache.getEvictionCount())
+                .cacheInvalidations(predictionCache.getInvalidationCount())
+                .cacheEntries(predictionCache.getSize())
+                .cacheBytes(predictionCache.getBytes());
+        }
+        if (batchDispatcher != null) {
+            status.batches(batchDispatcher.getBatchCount())
+                .batchedItems(batchDispatcher.getItemCount())
+                .batchRejected(batchDispatcher.getRejectedCount())
+                .batchQueueDepth(batchDispatcher.getQueueDepth());
+        }
+        return status.build();
+    }
+    
+    /**
+     * ML 클라이언트 내부 상태(보호 계층, 캐시, 배칭, 소켓)를 계측 레지스트리에 등록합니다. (AnalysisMeterBinder에서 호출)
+     * 모두 기존 카운터를 스크레이프할 때 읽는 게이지/함수 카운터이므로 호출 경로에 추가 비용이 없습니다.
+     */
+    void bindMetrics(MeterRegistry registry) {
+        MLCallGuard guard = callGuard;
+        Gauge.builder("ml.calls.in.flight", guard, MLCallGuard::getInFlight)
+            .description("진행 중인 ML 호출 수 (벌크헤드 점유)")
+            .register(registry);
+        Gauge.builder("ml.circuit.state", guard, g -> g.getState().ordinal())
+            .description("서킷 브레이커 상태 (0: CLOSED, 1: OPEN, 2: HALF_OPEN)")
+            .register(registry);
+        FunctionCounter.builder("ml.calls", guard, MLCallGuard::getCallCount)
+            .description("보호 계층을 통과한 ML 호출 수")
+            .register(registry);
+        FunctionCounter.builder("ml.calls.failed", guard, MLCallGuard::getFailureCount)
+            .description("실패로 끝난 ML 호출 수 (헤지 요청을 포함한 호출 단위)")
+            .register(registry);
+        FunctionCounter.builder("ml.calls.slow", guard, MLCallGuard::getSlowCallCount)
+            .description("느린 호출 기준을 넘긴 ML 호출 수")
+            .register(registry);
+        FunctionCounter.builder("ml.errors", guard, MLCallGuard::getRejectedByCircuitCount)
+            .description("ML 호출 오류 (원인별)")
+            .tag("cause", "circuit_open")
+            .register(registry);
+        FunctionCounter.builder("ml.errors", guard, MLCallGuard::getRejectedByBulkheadCount)
+            .description("ML 호출 오류 (원인별)")
+            .tag("cause", "bulkhead_full")
+            .register(registry);
+        FunctionCounter.builder("ml.circuit.opened", guard, MLCallGuard::getCircuitOpenedCount)
+            .description("서킷 브레이커가 OPEN으로 전환된 횟수")
+            .register(registry);
+        FunctionCounter.builder("ml.hedges", guard, MLCallGuard::getHedgesSentCount)
+            .description("헤지 요청 수 (sent: 보낸 요청, won: 원래 요청보다 먼저 응답한 요청)")
+            .tag("result", "sent")
+            .register(registry);
+        FunctionCounter.builder("ml.hedges", guard, MLCallGuard::getHedgesWonCount)
+            .description("헤지 요청 수 (sent: 보낸 요청, won: 원래 요청보다 먼저 응답한 요청)")
+            .tag("result", "won")
+            .register(registry);
+        
+        if (socketTransport != null) {
+            Gauge.builder("ml.socket.pending", socketTransport, MLSocketTransport::getPendingCount)
+                .description("유닉스 도메인 소켓으로 보내고 응답을 기다리는 요청 수")
+                .register(registry);
+        }
+        if (predictionCache != null) {
+            FunctionCounter.builder("ml.cache.requests", predictionCache, MLPredictionCache::getHitCount)
+            .description("예측 캐시 조회 수 (결과별)")
+                .tag("result", "hit")
+                .register(registry);
+            FunctionCounter.builder("ml.cache.requests", predictionCache, MLPredictionCache::getMissCount)
+            .description("예측 캐시 조회 수 (결과별)")
+                .tag("result", "miss")
+                .register(registry);
+            FunctionCounter.builder("ml.cache.evictions", predictionCache, MLPredictionCache::getEvictionCount)
+            .description("한도 초과로 제거된 캐시 항목 수")
+                .register(registry);
+            Gauge.builder("ml.cache.entries", predictionCache, MLPredictionCache::getSize)
+            .description("예측 캐시 항목 수")
+                .register(registry);
+        }
+        if (batchDispatcher != null) {
+            FunctionCounter.builder("ml.batches", batchDispatcher, MLBatchDispatcher::getBatchCount)
+                .description("ML 서비스로 보낸 배치 수")
+                .register(registry);
+            FunctionCounter.builder("ml.batch.items", batchDispatcher, MLBatchDispatcher::getItemCount)
+                .description("배치로 보낸 예측 요청 수")
+                .register(registry);
+            FunctionCounter.builder("ml.batch.rejected", batchDispatcher, MLBatchDispatcher::getRejectedCount)
+                .description("배치 대기열이 가득 차 거절된 예측 요청 수")
+                .register(registry);
+            Gauge.builder("ml.batch.queue.depth", batchDispatcher, MLBatchDispatcher::getQueueDepth)
+                .description("배치 전송을 기다리는 예측 요청 수")
+                .register(registry);
+        }
+    }
+    
+    /**
+     * 원격 ML 서비스의 모델 정보를 주기적으로 확인합니다.
+     * - 모델 버전이 바뀌었으면 예측 캐시를 비웁니다. 버전을 확인하기 전까지는 캐시를 사용하지 않습니다.
+     * - 서비스가 wire_formats에 바이너리 형식을 알리면 바이너리 전송으로 전환합니다 (ml.transport.format=binary일 때).
+     */
+    @Scheduled(fixedDelayString = "${ml.cache.version-refresh-ms:30000}")
+    public void refreshModelVersion() {
+        if (localEngine != null) {
+            return;
+        }
+        try {
+            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                mlServiceUrl + "/api/model/info", HttpMethod.GET, null, JSON_OBJECT);
+            Object data = response.getBody() != null ? response.getBody().get("data") : null;
+            if (data instanceof Map<?, ?> info) {
+                updateTransport(info.get("wire_formats"));
+            }
+            if (predictionCache != null && data instanceof Map<?, ?> info && info.get("model_version") != null) {
+                String version = info.get("model_version").toString();
+                if (!version.equals(predictionCache.getModelVersion())) {
+                    log.info("ML 모델 버전 확인: {} (예측 캐시 초기화)", version);
+                }
+                predictionCache.updateModelVersion(version);
+            }
+        } catch (RestClientException e) {
+            log.debug("ML 모델 버전 확인 실패: {}", e.getMessage());
+        }
+    }
+    
+    private void updateTransport(Object wireFormats) {
+        boolean supported = "binary".equalsIgnoreCase(transportFormat)
+            && wireFormats instanceof List<?> formats && formats.contains(MLWireFormat.MIME_TYPE);
+        if (supported != binaryTransport) {
+            log.info("ML 서비스 전송 형식: {}", supported ? MLWireFormat.MIME_TYPE : "application/json");
+            binaryTransport = supported;
+        }
+    }
+    
+    /**
+     * ML 서비스 연결을 미리 열어 둡니다 (시작 시 예열).
+     * HTTP는 /api/health를 동시에 count번 호출하여 커넥션 풀에 count개의 keep-alive 연결을 만들고,
+     * 유닉스 도메인 소켓은 모든 지속 연결을 엽니다. 로컬 추론 모드에서는 할 일이 없습니다.
+     *
+     * @return 열린 연결 수 Future (예외로 완료되지 않음)
+     */
+    public CompletableFuture<Integer> prewarmConnections(int count) {
+        if (localEngine != null) {
+            return CompletableFuture.completedFuture(0);
+        }
+        if (socketTransport != null) {
+            return CompletableFuture.completedFuture(socketTransport.connectAll());
+        }
+        
+        String url = mlServiceUrl + "/api/health";
+        List<CompletableFuture<Boolean>> probes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CompletableFuture<Boolean> probe = new CompletableFuture<>();
+            mlHttpAsyncClient.execute(SimpleRequestBuilder.get(url).build(), new FutureCallback<SimpleHttpResponse>() {
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    probe.complete(response.getCode() < 500);
+                }
+                
+                @Override
+                public void failed(Exception e) {
+                    log.debug("ML 연결 예열 실패: {}", e.getMessage());
+                    probe.complete(false);
+                }
+                
+                @Override
+                public void cancelled() {
+                    probe.complete(false);
+                }
+            });
+            probes.add(probe);
+        }
+        return CompletableFuture.allOf(probes.toArray(new CompletableFuture<?>[0]))
+            .thenApply(done -> (int) probes.stream().filter(CompletableFuture::join).count());
+    }
     
     /**
      * AI 모델을 사용하여 예측을 수행합니다.
-     * 
-     * @param inputData 모델 입력 데이터
+     *
+     * @param inputData 모델 입력 데이터 (정규화된 오디오 샘플)
      * @param sampleRate 샘플링 레이트 (기본값: 16000)
      * @return 예측 결과
      */
-    public MLPredictionResponse predict(List<Double> inputData, Integer sampleRate) {
-        try {
-            String url = mlServiceUrl + "/api/predict";
-            
-            if (sampleRate == null) {
-                sampleRate = 16000;  // 기본값
-            }
-            
-            MLPredictionRequest request = new MLPredictionRequest(inputData, sampleRate);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            HttpEntity<MLPredictionRequest> entity = new HttpEntity<>(request, headers);
-            
-            log.info("ML 서비스 호출: {}", url);
-            
-            // 먼저 Map으로 받아서 수동으로 변환 (유연한 처리)
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                url, entity, Map.class
-            );
-            
-            Map<String, Object> responseBody = response.getBody();
-            if (responseBody == null) {
-                throw new RuntimeException("ML 서비스 응답이 비어있습니다");
+    public MLPredictionResponse predict(float[] inputData, Integer sampleRate) {
+        return predict(inputData, inputData.length, sampleRate);
+    }
+    
+    /**
+     * AI 모델을 사용하여 예측을 수행합니다.
+     *
+     * @param inputData 모델 입력 데이터 버퍼 (앞의 length개만 전송)
+     * @param length 유효한 샘플 수
+     * @param sampleRate 샘플링 레이트 (기본값: 16000)
+     * @return 예측 결과
+     */
+    public MLPredictionResponse predict(float[] inputData, int length, Integer sampleRate) {
+        return predictAsync(inputData, length, sampleRate).join();
+    }
+    
+    /**
+     * 백엔드에서 계산한 log-mel 특징 텐서로 예측을 수행합니다.
+     * Python 서비스는 librosa 전처리 없이 바로 모델을 실행합니다.
+     *
+     * @param features 특징 텐서 버퍼 (행 우선, 앞의 length개만 전송)
+     * @param length 유효한 값 수
+     * @param featureShape 특징 텐서 shape (예: [128, 63, 1])
+     * @param sampleRate 원본 오디오 샘플링 레이트
+     * @return 예측 결과
+     */
+    public MLPredictionResponse predictFeatures(float[] features, int length, int[] featureShape, Integer sampleRate) {
+        return predictFeaturesAsync(features, length, featureShape, sampleRate).join();
+    }
+    
+    /**
+     * 비동기로 예측을 수행합니다. 응답을 기다리는 동안 호출 스레드를 점유하지 않습니다.
+     * 입력 버퍼는 이 메서드 안에서 바로 인코딩되므로, 반환 직후 재사용해도 됩니다.
+     *
+     * @return 예측 결과 Future (예외로 완료되지 않으며, 실패 시 success=false 응답)
+     */
+    public CompletableFuture<MLPredictionResponse> predictAsync(float[] inputData, int length, Integer sampleRate) {
+        return submit(new MLPredictionRequest(inputData, length, sampleRate));
+    }
+    
+    /**
+     * 비동기로 log-mel 특징 텐서 예측을 수행합니다.
+     * 특징 버퍼는 이 메서드 안에서 바로 인코딩되므로, 반환 직후 재사용해도 됩니다.
+     *
+     * @return 예측 결과 Future (예외로 완료되지 않으며, 실패 시 success=false 응답)
+     */
+    public CompletableFuture<MLPredictionResponse> predictFeaturesAsync(float[] features, int length, int[] featureShape, Integer sampleRate) {
+        return submit(new MLPredictionRequest(features, length, sampleRate, featureShape));
+    }
+    
+    /**
+     * 예측 캐시를 먼저 조회하고, 없으면 예측을 수행한 뒤 성공한 결과를 캐시에 저장합니다.
+     * 캐시 키는 요청 버퍼가 재사용되기 전에 호출 스레드에서 계산합니다.
+     */
+    private CompletableFuture<MLPredictionResponse> submit(MLPredictionRequest request) {
+        if (request.getSampleRate() == null) {
+            request.setSampleRate(16000);  // 기본값
+        }
+        
+        MLPredictionCache.Key cacheKey = predictionCache != null ? predictionCache.keyOf(request) : null;
+        if (cacheKey != null) {
+            MLPredictionResponse cached = predictionCache.get(cacheKey);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
             }
-            
-            MLPredictionResponse result = new MLPredictionResponse();
-            result.setSuccess((Boolean) responseBody.getOrDefault("success", false));
-            
-            // prediction 필드 처리 (배열이든 중첩 배열이든 처리)
-            Object predictionObj = responseBody.get("prediction");
-            if (predictionObj != null) {
-                if (predictionObj instanceof List) {
-                    List<?> predList = (List<?>) predictionObj;
-                    // 중첩 배열인 경우 첫 번째 요소 사용
-                    if (!predList.isEmpty() && predList.get(0) instanceof List) {
-                        List<?> nestedList = (List<?>) predList.get(0);
-                        result.setPrediction(nestedList.stream()
-                            .filter(obj -> obj != null)  // null 값 필터링
-                            .map(obj -> {
-                                if (obj instanceof Number) {
-                                    return ((Number) obj).doubleValue();
-                                }
-                                return Double.parseDouble(obj.toString());
-                            })
-                            .collect(Collectors.toList()));
-                    } else {
-                        // 단일 배열인 경우
-                        result.setPrediction(predList.stream()
-                            .filter(obj -> obj != null)  // null 값 필터링
-                            .map(obj -> {
-                                if (obj instanceof Number) {
-                                    return ((Number) obj).doubleValue();
-                                }
-                                return Double.parseDouble(obj.toString());
-                            })
-                            .collect(Collectors.toList()));
+        }
+        
+        CompletableFuture<MLPredictionResponse> result = dispatch(request);
+        if (cacheKey != null) {
+            result = result.whenComplete((response, e) -> {
+                if (response != null) {
+                    predictionCache.put(cacheKey, response);
+                }
+            });
+        }
+        return result;
+    }
+    
+    /**
+     * 예측 요청을 바이너리 항목(ML 서비스가 지원할 때) 또는 JSON으로 인코딩하여 전송합니다.
+     * 마이크로 배칭이 활성화되어 있으면 동시에 들어온 요청들과 묶어서 한 번에 전송합니다.
+     * 로컬 추론 모드에서는 호출 스레드에서 바로 추론합니다 (요청 버퍼가 재사용되기 전에 완료).
+     */
+    private CompletableFuture<MLPredictionResponse> dispatch(MLPredictionRequest request) {
+        if (localEngine != null) {
+            return CompletableFuture.completedFuture(localEngine.predict(request));
+        }
+        
+        byte[] body;
+        try {
+            body = binaryTransport ? MLWireFormat.encodeItem(request) : objectMapper.writeValueAsBytes(request);
+        } catch (IOException e) {
+            analysisMetrics.recordMLError(AnalysisMetrics.MLErrorCause.ENCODE);
+            log.error("ML 요청 인코딩 실패: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(errorResponse("ML 요청 인코딩 실패: " + e.getMessage()));
+        }
+        
+        if (batchDispatcher != null) {
+            return batchDispatcher.submit(body);
+        }
+        return sendSingle(body);
+    }
+    
+    /**
+     * 단일 예측 요청을 ML 서비스로 전송합니다.
+     */
+    private CompletableFuture<MLPredictionResponse> sendSingle(byte[] body) {
+        String url = mlServiceUrl + "/api/predict";
+        log.info("ML 서비스 호출: {}", url);
+        
+        return postItems(url, List.of(body), responseDecoder::decodeSingle)
+            .exceptionally(e -> errorResponse(describeFailure(e, "호출")));
+    }
+    
+    /**
+     * 여러 예측 요청을 하나의 배치 요청으로 ML 서비스에 전송합니다.
+     *
+     * 요청: {"batch": [{...}, {...}]} 또는 항목 여러 개를 담은 바이너리 프레임
+     * 응답: {"prediction": [[...], [...]], "errors": [null, "..."]}
+     *
+     * @return 요청 순서와 같은 순서의 예측 결과
+     */
+    private CompletableFuture<List<MLPredictionResponse>> sendBatch(List<byte[]> requests) {
+        if (requests.size() == 1) {
+            return sendSingle(requests.get(0)).thenApply(List::of);
+        }
+        
+        String url = mlServiceUrl + "/api/predict";
+        log.info("ML 서비스 배치 호출: {} ({}건)", url, requests.size());
+        
+        return postItems(url, requests, json -> responseDecoder.decodeBatch(json, requests.size()))
+            .exceptionally(e -> errorResponses(requests.size(), describeFailure(e, "배치 호출")));
+    }
+    
+    /**
+     * 인코딩된 요청 항목들을 한 번의 요청으로 POST합니다.
+     * 모두 바이너리 항목이면 바이너리 프레임으로 보내고, ML 서비스가 415로 거절하면
+     * JSON 전송으로 되돌아간 뒤 같은 항목들을 JSON으로 다시 보냅니다.
+     */
+    private <T> CompletableFuture<T> postItems(String url, List<byte[]> items, BodyDecoder<T> decoder) {
+        if (!binaryTransport || !items.stream().allMatch(MLWireFormat::isEncodedItem)) {
+            return postJson(url, items, decoder);
+        }
+        byte[] body = MLWireFormat.frame(items, transportCompress);
+        return post(url, body, MLWireFormat.CONTENT_TYPE, decoder)
+            .exceptionallyCompose(e -> {
+                if (!(unwrap(e) instanceof MLWireFormat.UnsupportedException)) {
+                    return CompletableFuture.failedFuture(e);
+                }
+                if (binaryTransport) {
+                    binaryTransport = false;
+                    log.warn("ML 서비스가 바이너리 전송을 지원하지 않아 JSON으로 전환합니다");
+                }
+                return postJson(url, items, decoder);
+            });
+    }
+    
+    /**
+     * 요청 항목들을 JSON 본문으로 POST합니다. 항목이 여러 개면 {"batch": [...]}로 묶습니다.
+     * 바이너리로 인코딩되어 있던 항목은 JSON으로 다시 인코딩합니다.
+     */
+    private <T> CompletableFuture<T> postJson(String url, List<byte[]> items, BodyDecoder<T> decoder) {
+        byte[] body;
+        try {
+            if (items.size() == 1) {
+                body = toJsonItem(items.get(0));
+            } else {
+                // 이미 인코딩된 요청들을 그대로 이어 붙여 배치 본문을 만듭니다
+                int size = BATCH_PREFIX.length + BATCH_SUFFIX.length + items.size();
+                for (byte[] item : items) {
+                    size += item.length;
+                }
+                ByteArrayOutputStream batch = new ByteArrayOutputStream(size);
+                batch.writeBytes(BATCH_PREFIX);
+                for (int i = 0; i < items.size(); i++) {
+                    if (i > 0) {
+                        batch.write(',');
                     }
+                    batch.writeBytes(toJsonItem(items.get(i)));
                 }
+                batch.writeBytes(BATCH_SUFFIX);
+                body = batch.toByteArray();
             }
-            
-            // input_shape, output_shape 처리
-            if (responseBody.get("input_shape") instanceof List) {
-                List<?> inputShape = (List<?>) responseBody.get("input_shape");
-                result.setInputShape(inputShape.stream()
-                    .filter(obj -> obj != null)  // null 값 필터링
-                    .map(obj -> {
-                        if (obj instanceof Number) {
-                            return ((Number) obj).intValue();
-                        }
-                        return Integer.parseInt(obj.toString());
-                    })
-                    .collect(Collectors.toList()));
+        } catch (IOException e) {
+            analysisMetrics.recordMLError(AnalysisMetrics.MLErrorCause.ENCODE);
+            return CompletableFuture.failedFuture(new IllegalStateException("ML 요청 인코딩 실패: " + e.getMessage(), e));
+        }
+        return post(url, body, ContentType.APPLICATION_JSON, decoder);
+    }
+    
+    private byte[] toJsonItem(byte[] item) throws IOException {
+        return MLWireFormat.isEncodedItem(item) ? objectMapper.writeValueAsBytes(MLWireFormat.decodeItem(item)) : item;
+    }
+    
+    /**
+     * 호출 실패를 사용자에게 보여줄 오류 메시지로 변환합니다.
+     * 보호 계층(벌크헤드/서킷 브레이커)의 거절은 정상적인 부하 차단이므로 error 로그를 남기지 않습니다.
+     */
+    private String describeFailure(Throwable e, String callName) {
+        Throwable cause = unwrap(e);
+        if (cause instanceof MLCallGuard.RejectedException) {
+            log.debug("ML 서비스 {} 거절: {}", callName, cause.getMessage());
+            return cause.getMessage();
+        }
+        if (cause instanceof IOException) {
+            log.error("ML 서비스 {} 실패: {}", callName, cause.getMessage(), cause);
+            return "ML 서비스 연결 실패: " + cause.getMessage();
+        }
+        log.error("ML 서비스 {} 응답 처리 실패: {}", callName, cause.getMessage(), cause);
+        return "ML 서비스 응답 처리 실패: " + cause.getMessage();
+    }
+    
+    /**
+     * 요청 본문을 보호 계층(벌크헤드, 서킷 브레이커, 헤지 요청)을 거쳐 POST합니다.
+     */
+    private <T> CompletableFuture<T> post(String url, byte[] body, ContentType contentType, BodyDecoder<T> decoder) {
+        return callGuard.execute(() -> exchange(url, body, contentType, decoder));
+    }
+    
+    /**
+     * 요청 본문을 비동기로 POST하고 응답 본문(JSON)을 decoder로 변환하여 반환합니다.
+     * 연결/타임아웃 오류와 HTTP 5xx 응답은 IOException으로 완료되어 서킷 브레이커에서 실패로 집계됩니다.
+     * HTTP 415 응답은 MLWireFormat.UnsupportedException으로 완료됩니다.
+     * 반환된 Future를 취소하면 진행 중인 HTTP 요청도 취소됩니다.
+     */
+    private <T> CompletableFuture<T> exchange(String url, byte[] body, ContentType contentType, BodyDecoder<T> decoder) {
+        if (socketTransport != null) {
+            return exchangeOverSocket(body, contentType, decoder);
+        }
+        
+        CompletableFuture<T> future = new CompletableFuture<>();
+        SimpleHttpRequest httpRequest = SimpleRequestBuilder.post(url)
+            .setBody(body, contentType)
+            .build();
+        
+        Future<SimpleHttpResponse> httpFuture = mlHttpAsyncClient.execute(httpRequest, new FutureCallback<SimpleHttpResponse>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                completeWithResponse(future, response.getCode(), response.getBodyBytes(), contentType, decoder);
             }
             
-            if (responseBody.get("output_shape") instanceof List) {
-                List<?> outputShape = (List<?>) responseBody.get("output_shape");
-                result.setOutputShape(outputShape.stream()
-                    .filter(obj -> obj != null)  // null 값 필터링
-                    .map(obj -> {
-                        if (obj instanceof Number) {
-                            return ((Number) obj).intValue();
-                        }
-                        return Integer.parseInt(obj.toString());
-                    })
-                    .collect(Collectors.toList()));
+            @Override
+            public void failed(Exception e) {
+                recordTransportFailure(e);
+                future.completeExceptionally(e instanceof IOException ? e : new IOException(e.getMessage(), e));
             }
             
-            if (responseBody.get("error") != null) {
-                result.setError(responseBody.get("error").toString());
+            @Override
+            public void cancelled() {
+                future.completeExceptionally(new IOException("요청이 취소되었습니다"));
             }
-            
-            return result;
-            
-        } catch (RestClientException e) {
-            log.error("ML 서비스 호출 실패: {}", e.getMessage(), e);
-            MLPredictionResponse errorResponse = new MLPredictionResponse();
-            errorResponse.setSuccess(false);
-            errorResponse.setError("ML 서비스 연결 실패: " + e.getMessage());
-            return errorResponse;
-        } catch (Exception e) {
-            log.error("ML 서비스 응답 처리 실패: {}", e.getMessage(), e);
-            MLPredictionResponse errorResponse = new MLPredictionResponse();
-            errorResponse.setSuccess(false);
-            errorResponse.setError("ML 서비스 응답 처리 실패: " + e.getMessage());
-            return errorResponse;
+        });
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                httpFuture.cancel(true);
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * 요청 본문을 유닉스 도메인 소켓으로 보내고 응답을 HTTP 응답과 같은 규칙으로 변환합니다.
+     * 응답 제한 시간 초과는 HTTP 클라이언트와 같이 IOException으로 완료됩니다.
+     */
+    private <T> CompletableFuture<T> exchangeOverSocket(byte[] body, ContentType contentType, BodyDecoder<T> decoder) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        byte kind = contentType == MLWireFormat.CONTENT_TYPE ? MLSocketTransport.KIND_TENSOR : MLSocketTransport.KIND_JSON;
+        socketTransport.exchange(kind, body).whenComplete((reply, error) -> {
+            if (error == null) {
+                completeWithResponse(future, reply.status(), reply.body(), contentType, decoder);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            recordTransportFailure(cause);
+            future.completeExceptionally(cause instanceof TimeoutException
+                ? new IOException("ML 소켓 응답 제한 시간을 초과했습니다", cause) : cause);
+        });
+        return future;
+    }
+    
+    /**
+     * ML 서비스 응답(상태 코드, 본문)으로 future를 완료합니다.
+     * HTTP 5xx는 IOException, 415는 MLWireFormat.UnsupportedException, 본문 파싱 실패는 IllegalStateException입니다.
+     */
+    private <T> void completeWithResponse(CompletableFuture<T> future, int status, byte[] responseBytes,
+                                          ContentType contentType, BodyDecoder<T> decoder) {
+        if (status >= 500) {
+            analysisMetrics.recordMLError(AnalysisMetrics.MLErrorCause.SERVER_ERROR);
+            String text = responseBytes != null ? new String(responseBytes, StandardCharsets.UTF_8) : "";
+            future.completeExceptionally(new IOException("HTTP " + status + ": " + text));
+            return;
+        }
+        if (status == 415) {
+            analysisMetrics.recordMLError(AnalysisMetrics.MLErrorCause.UNSUPPORTED);
+            future.completeExceptionally(new MLWireFormat.UnsupportedException(
+                "지원하지 않는 요청 형식 (" + contentType.getMimeType() + ")"));
+            return;
+        }
+        if (responseBytes == null || responseBytes.length == 0) {
+            analysisMetrics.recordMLError(AnalysisMetrics.MLErrorCause.BAD_RESPONSE);
+            future.completeExceptionally(new IllegalStateException(
+                "ML 서비스 응답이 비어있습니다 (HTTP " + status + ")"));
+            return;
+        }
+        try {
+            future.complete(decoder.decode(responseBytes));
+        } catch (IOException e) {
+            // 파싱 실패는 연결 오류가 아니라 응답 처리 오류로 구분
+            analysisMetrics.recordMLError(AnalysisMetrics.MLErrorCause.BAD_RESPONSE);
+            future.completeExceptionally(new IllegalStateException(
+                "응답 파싱 실패 (HTTP " + status + "): " + e.getMessage(), e));
         }
     }
     
+    /**
+     * 전송 실패(응답을 받지 못한 경우)를 원인별로 집계합니다.
+     * 응답/연결 제한 시간(SocketTimeoutException, ConnectTimeoutException)과 커넥션 풀 대기 시간 초과,
+     * 소켓 응답 제한 시간(TimeoutException)은 timeout, 나머지는 connection입니다.
+     */
+    private void recordTransportFailure(Throwable e) {
+        analysisMetrics.recordMLError(e instanceof InterruptedIOException || e instanceof TimeoutException
+            ? AnalysisMetrics.MLErrorCause.TIMEOUT : AnalysisMetrics.MLErrorCause.CONNECTION);
+    }
+    
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+    
+    private MLPredictionResponse errorResponse(String message) {
+        MLPredictionResponse errorResponse = new MLPredictionResponse();
+        errorResponse.setSuccess(false);
+        errorResponse.setError(message);
+        return errorResponse;
+    }
+    
+    private List<MLPredictionResponse> errorResponses(int count, String message) {
+        List<MLPredictionResponse> responses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            responses.add(errorResponse(message));
+        }
+        return responses;
+    }
+    
     /**
      * 모델 정보를 조회합니다.
      */
     public Map<String, Object> getModelInfo() {
         try {
             String url = mlServiceUrl + "/api/model/info";
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(url, HttpMethod.GET, null, JSON_OBJECT);
             return response.getBody();
         } catch (RestClientException e) {
             log.error("모델 정보 조회 실패: {}", e.getMessage(), e);
             return Map.of("error", "모델 정보 조회 실패: " + e.getMessage());
         }
     }
+    
+    /**
+     * 응답 본문 바이트를 결과 객체로 변환하는 함수
+     */
+    @FunctionalInterface
+    private interface BodyDecoder<T> {
+        T decode(byte[] body) throws IOException;
+    }
 }
-
@@ -0,0 +1,305 @@
+package com.factory.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 같은 호스트의 ML 서비스와 유닉스 도메인 소켓으로 통신하는 전송 계층 (ml_service/uds_server.py)
+ *
+ * TCP 루프백과 HTTP 헤더 처리 없이, 길이 접두 프레임을 지속 연결 위에서 파이프라인으로 주고받습니다.
+ * - 요청: u32 본문 길이, u8 종류 (0 = JSON, 1 = application/x-factory-tensor), 본문
+ * - 응답: u32 본문 길이, u16 상태 코드 (HTTP와 같은 의미), JSON 본문
+ * 정수는 리틀 엔디언이며, 서버는 한 연결의 요청을 받은 순서대로 응답합니다.
+ *
+ * - 연결마다 쓰기 스레드가 전송 대기열의 요청을 순서대로 쓰면서 응답 대기 큐에 넣고,
+ *   읽기 스레드가 도착한 응답을 큐의 맨 앞과 짝지웁니다. 따라서 응답을 기다리지 않고 다음 요청을 바로 보냅니다.
+ * - 호출 스레드는 소켓 쓰기를 기다리지 않으므로, ML 서비스가 멈춰도 제한 시간 뒤에 실패로 끝납니다.
+ * - 요청은 연결들에 번갈아 배분합니다. 끊어진 연결은 다음 요청 때 다시 연결합니다.
+ * - 연결이 끊기면 그 연결에서 응답을 기다리던 요청은 모두 IOException으로 완료됩니다.
+ * - 응답 제한 시간을 넘긴 요청은 IOException으로 완료되며, 늦게 도착한 응답은 순서만 맞추고 버립니다.
+ */
+@Slf4j
+final class MLSocketTransport {
+    
+    static final byte KIND_JSON = 0;
+    static final byte KIND_TENSOR = 1;
+    
+    private static final int REQUEST_HEADER_BYTES = 5;
+    private static final int RESPONSE_HEADER_BYTES = 6;
+    private static final int MAX_RESPONSE_BYTES = 16 * 1024 * 1024;
+    
+    /**
+     * ML 서비스 응답 (상태 코드와 본문)
+     */
+    record Reply(int status, byte[] body) {
+    }
+    
+    private final UnixDomainSocketAddress address;
+    private final long responseTimeoutMillis;
+    private final Connection[] connections;
+    private final AtomicInteger nextConnection = new AtomicInteger();
+    private volatile boolean running = true;
+    
+    MLSocketTransport(String socketPath, int connectionCount, long responseTimeoutMillis) {
+        this.address = UnixDomainSocketAddress.of(Path.of(socketPath));
+        this.responseTimeoutMillis = responseTimeoutMillis;
+        this.connections = new Connection[Math.max(1, connectionCount)];
+        for (int i = 0; i < connections.length; i++) {
+            connections[i] = new Connection(i);
+        }
+    }
+    
+    String getSocketPath() {
+        return address.getPath().toString();
+    }
+    
+    /**
+     * 요청을 연결의 전송 대기열에 넣고 응답 Future를 반환합니다. 호출 스레드는 소켓 쓰기를 기다리지 않습니다.
+     * body는 전송이 끝날 때까지 참조하므로 호출 후 변경하면 안 됩니다.
+     */
+    CompletableFuture<Reply> exchange(byte kind, byte[] body) {
+        Connection connection = connections[Math.floorMod(nextConnection.getAndIncrement(), connections.length)];
+        return connection.send(kind, body);
+    }
+    
+    /**
+     * 아직 열리지 않은 연결을 모두 미리 엽니다 (시작 시 예열).
+     *
+     * @return 열려 있는 연결 수
+     */
+    int connectAll() {
+        int connected = 0;
+        for (Connection connection : connections) {
+            if (connection.ensureOpen()) {
+                connected++;
+            }
+        }
+        return connected;
+    }
+    
+    /**
+     * 응답을 기다리는 요청 수 (모든 연결 합계)
+     */
+    int getPendingCount() {
+        int pending = 0;
+        for (Connection connection : connections) {
+            pending += connection.outgoing.size() + connection.pending.size();
+        }
+        return pending;
+    }
+    
+    void shutdown() {
+        running = false;
+        for (Connection connection : connections) {
+            connection.close(new IOException("ML 소켓 전송이 종료되었습니다"));
+        }
+    }
+    
+    private record Outgoing(byte kind, byte[] body, CompletableFuture<Reply> reply) {
+    }
+    
+    /**
+     * 지속 연결 하나: 전송 대기열을 순서대로 쓰는 쓰기 스레드와, 응답을 순서대로 짝짓는 읽기 스레드
+     */
+    private final class Connection {
+        private final int index;
+        private final BlockingQueue<Outgoing> outgoing = new LinkedBlockingQueue<>();
+        private final Queue<CompletableFuture<Reply>> pending = new ConcurrentLinkedQueue<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Thread writer;
+        private SocketChannel channel;  // lock으로 보호
+        
+        Connection(int index) {
+            this.index = index;
+            this.writer = new Thread(this::writeLoop, "ml-uds-writer-" + index);
+            this.writer.setDaemon(true);
+            this.writer.start();
+        }
+        
+        CompletableFuture<Reply> send(byte kind, byte[] body) {
+            CompletableFuture<Reply> reply = new CompletableFuture<>();
+            if (!running) {
+                reply.completeExceptionally(new IOException("ML 소켓 전송이 종료되었습니다"));
+                return reply;
+            }
+            outgoing.add(new Outgoing(kind, body, reply));
+            return reply.orTimeout(responseTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        
+        private void writeLoop() {
+            ByteBuffer header = ByteBuffer.allocate(REQUEST_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (running) {
+                Outgoing request;
+                try {
+                    request = outgoing.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (request.reply().isDone()) {
+                    continue;  // 전송 전에 제한 시간 초과
+                }
+                
+                SocketChannel current = null;
+                try {
+                    lock.lock();
+                    try {
+                        current = channel != null ? channel : open();
+                        // 응답은 보낸 순서대로 오므로, 쓰기 전에 응답 대기 큐에 넣음 (쓰기 스레드가 하나라 순서 유지)
+                        pending.add(request.reply());
+                    } finally {
+                        lock.unlock();
+                    }
+                    header.clear();
+                    header.putInt(request.body().length).put(request.kind()).flip();
+                    ByteBuffer[] frame = {header, ByteBuffer.wrap(request.body())};
+                    // 본문이 비어 있어도 헤더는 끝까지 써야 응답과 짝이 맞음
+                    while (frame[0].hasRemaining() || frame[1].hasRemaining()) {
+                        current.write(frame);
+                    }
+                } catch (IOException e) {
+                    if (current != null) {
+                        fail(current, e);
+                    }
+                    request.reply().completeExceptionally(e);
+                }
+            }
+        }
+        
+        boolean ensureOpen() {
+            lock.lock();
+            try {
+                if (channel == null && running) {
+                    open();
+                }
+                return channel != null;
+            } catch (IOException e) {
+                log.warn("ML 소켓 예열 실패 (#{}): {}", index, e.getMessage());
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        /**
+         * 새 연결을 열고 읽기 스레드를 시작합니다 (lock 안에서 호출).
+         */
+        private SocketChannel open() throws IOException {
+            SocketChannel opened = SocketChannel.open(StandardProtocolFamily.UNIX);
+            try {
+                opened.connect(address);
+            } catch (IOException e) {
+                opened.close();
+                throw new IOException("ML 소켓 연결 실패 (" + address.getPath() + "): " + e.getMessage(), e);
+            }
+            channel = opened;
+            Thread reader = new Thread(() -> readLoop(opened), "ml-uds-reader-" + index);
+            reader.setDaemon(true);
+            reader.start();
+            log.info("ML 소켓 연결: {} (#{})", address.getPath(), index);
+            return opened;
+        }
+        
+        private void readLoop(SocketChannel source) {
+            ByteBuffer responseHeader = ByteBuffer.allocate(RESPONSE_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            try {
+                while (true) {
+                    responseHeader.clear();
+                    readFully(source, responseHeader);
+                    responseHeader.flip();
+                    int length = responseHeader.getInt();
+                    int status = responseHeader.getShort() & 0xFFFF;
+                    if (length < 0 || length > MAX_RESPONSE_BYTES) {
+                        throw new IOException("ML 소켓 응답 길이가 올바르지 않습니다: " + length);
+                    }
+                    ByteBuffer body = ByteBuffer.allocate(length);
+                    readFully(source, body);
+                    
+                    CompletableFuture<Reply> reply = pending.poll();
+                    if (reply == null) {
+                        throw new IOException("요청하지 않은 ML 소켓 응답을 받았습니다");
+                    }
+                    reply.complete(new Reply(status, body.array()));  // 제한 시간이 지난 요청이면 버려짐
+                }
+            } catch (IOException e) {
+                fail(source, e);
+            }
+        }
+        
+        private void readFully(SocketChannel source, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (source.read(buffer) < 0) {
+                    throw new EOFException("ML 소켓 연결이 끊어졌습니다");
+                }
+            }
+        }
+        
+        /**
+         * 연결을 닫고 응답을 기다리던 요청을 모두 실패로 완료합니다 (이미 새 연결로 바뀌었으면 무시).
+         */
+        private void fail(SocketChannel failed, IOException cause) {
+            lock.lock();
+            try {
+                if (channel != failed && channel != null) {
+                    return;
+                }
+                if (running && channel == failed) {
+                    log.warn("ML 소켓 연결 종료 (#{}): {}", index, cause.getMessage());
+                }
+                channel = null;
+                closeQuietly(failed);
+                failPending(cause);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void close(IOException cause) {
+            writer.interrupt();
+            lock.lock();
+            try {
+                if (channel != null) {
+                    closeQuietly(channel);
+                    channel = null;
+                }
+                failPending(cause);
+                Outgoing request;
+                while ((request = outgoing.poll()) != null) {
+                    request.reply().completeExceptionally(cause);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        private void failPending(IOException cause) {
+            CompletableFuture<Reply> reply;
+            while ((reply = pending.poll()) != null) {
+                reply.completeExceptionally(cause);
+            }
+        }
+        
+        private void closeQuietly(SocketChannel target) {
+            try {
+                target.close();
+            } catch (IOException ignored) {
+                // 닫는 중 오류는 무시
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.factory.service;
+
+import com.factory.dto.MLPredictionRequest;
+import org.apache.hc.core5.http.ContentType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * ML 서비스 바이너리 전송 형식 (application/x-factory-tensor, ml_service/wire_format.py와 같은 형식)
+ *
+ * JSON 숫자 배열 대신 값을 2바이트로 보내므로 본문이 약 1/4~1/5로 줄고, 양쪽의 숫자 문자열 변환이 사라집니다.
+ * - 파형: int16 (값 × 32767, 정규화된 [-1, 1] 샘플 기준 양자화 오차 약 3e-5)
+ * - 특징: float16 (log-mel [0, 1] 기준 상대 오차 약 5e-4)
+ *
+ * 프레임 헤더 8바이트 ("FTN1", flags, reserved, u16 항목 수) 뒤에 항목들이 이어지고,
+ * 항목은 헤더 12바이트 (kind, dtype, ndim, reserved, u32 sampleRate, u32 값 개수) + u32 shape × ndim + 값입니다.
+ * 모든 정수는 리틀 엔디언입니다.
+ *
+ * 마이크로 배칭을 위해 항목 단위로 먼저 인코딩해 두고, 전송할 때 프레임 헤더를 붙여 이어 붙입니다.
+ * 인코딩된 항목의 첫 바이트(kind)는 '{'가 될 수 없으므로 JSON으로 인코딩된 요청과 구분할 수 있습니다.
+ */
+final class MLWireFormat {
+    
+    static final String MIME_TYPE = "application/x-factory-tensor";
+    static final ContentType CONTENT_TYPE = ContentType.create(MIME_TYPE);
+    
+    private static final byte[] MAGIC = {'F', 'T', 'N', '1'};
+    private static final int FLAG_DEFLATE = 0x01;
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int ITEM_HEADER_BYTES = 12;
+    
+    private static final byte KIND_WAVEFORM = 0;
+    private static final byte KIND_FEATURES = 1;
+    private static final byte DTYPE_FLOAT16 = 1;
+    private static final byte DTYPE_INT16 = 2;
+    
+    private static final float INT16_SCALE = 32767.0f;
+    
+    /**
+     * ML 서비스가 바이너리 형식을 지원하지 않음 (HTTP 415)
+     */
+    static final class UnsupportedException extends RuntimeException {
+        UnsupportedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+    
+    private MLWireFormat() {
+    }
+    
+    /**
+     * 예측 요청 하나를 바이너리 항목으로 인코딩합니다 (data의 앞쪽 length개만).
+     */
+    static byte[] encodeItem(MLPredictionRequest request) {
+        float[] data = request.getData();
+        int length = data != null ? Math.min(request.getLength(), data.length) : 0;
+        int[] shape = request.getFeatureShape();
+        int ndim = shape != null ? shape.length : 0;
+        
+        ByteBuffer buffer = ByteBuffer.allocate(ITEM_HEADER_BYTES + 4 * ndim + 2 * length)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(shape != null ? KIND_FEATURES : KIND_WAVEFORM)
+            .put(shape != null ? DTYPE_FLOAT16 : DTYPE_INT16)
+            .put((byte) ndim)
+            .put((byte) 0)
+            .putInt(request.getSampleRate() != null ? request.getSampleRate() : 0)
+            .putInt(length);
+        for (int i = 0; i < ndim; i++) {
+            buffer.putInt(shape[i]);
+        }
+        if (shape != null) {
+            for (int i = 0; i < length; i++) {
+                buffer.putShort(toHalf(data[i]));
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                buffer.putShort(toInt16(data[i]));
+            }
+        }
+        return buffer.array();
+    }
+    
+    /**
+     * 바이너리 항목이면 true (JSON으로 인코딩된 요청은 '{'로 시작)
+     */
+    static boolean isEncodedItem(byte[] item) {
+        return item.length > 0 && item[0] != '{';
+    }
+    
+    /**
+     * 인코딩된 항목들에 프레임 헤더를 붙여 요청 본문을 만듭니다.
+     *
+     * @param compress true면 항목 부분을 zlib(deflate)로 압축
+     */
+    static byte[] frame(List<byte[]> items, boolean compress) {
+        int size = FRAME_HEADER_BYTES;
+        for (byte[] item : items) {
+            size += item.length;
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream(size);
+        body.writeBytes(MAGIC);
+        body.write(compress ? FLAG_DEFLATE : 0);
+        body.write(0);
+        body.write(items.size() & 0xFF);
+        body.write((items.size() >>> 8) & 0xFF);
+        
+        if (!compress) {
+            for (byte[] item : items) {
+                body.writeBytes(item);
+            }
+            return body.toByteArray();
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(body, deflater)) {
+            for (byte[] item : items) {
+                out.write(item);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);  // 메모리 스트림이므로 발생하지 않음
+        } finally {
+            deflater.end();
+        }
+        return body.toByteArray();
+    }
+    
+    /**
+     * 인코딩된 항목을 예측 요청으로 되돌립니다 (ML 서비스가 바이너리를 지원하지 않아 JSON으로 다시 보낼 때 사용).
+     */
+    static MLPredictionRequest decodeItem(byte[] item) {
+        ByteBuffer buffer = ByteBuffer.wrap(item).order(ByteOrder.LITTLE_ENDIAN);
+        byte kind = buffer.get();
+        byte dtype = buffer.get();
+        int ndim = buffer.get();
+        buffer.get();
+        int sampleRate = buffer.getInt();
+        int length = buffer.getInt();
+        int[] shape = null;
+        if (kind == KIND_FEATURES) {
+            shape = new int[ndim];
+            for (int i = 0; i < ndim; i++) {
+                shape[i] = buffer.getInt();
+            }
+        }
+        float[] data = new float[length];
+        for (int i = 0; i < length; i++) {
+            short value = buffer.getShort();
+            data[i] = dtype == DTYPE_FLOAT16 ? fromHalf(value) : value / INT16_SCALE;
+        }
+        return new MLPredictionRequest(data, length, sampleRate != 0 ? sampleRate : null, shape);
+    }
+    
+    private static short toInt16(float value) {
+        float scaled = value * INT16_SCALE;
+        if (scaled >= Short.MAX_VALUE) {
+            return Short.MAX_VALUE;
+        }
+        if (scaled <= -Short.MAX_VALUE) {
+            return -Short.MAX_VALUE;
+        }
+        return (short) Math.round(scaled);  // NaN은 0
+    }
+    
+    /**
+     * float → IEEE 754 binary16 (가장 가까운 짝수로 반올림, 범위를 넘으면 ±Inf)
+     */
+    static short toHalf(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int exponent = (bits >>> 23) & 0xFF;
+        int mantissa = bits & 0x7FFFFF;
+        
+        if (exponent == 0xFF) {
+            return (short) (sign | 0x7C00 | (mantissa != 0 ? 0x200 : 0));  // Inf / NaN
+        }
+        int halfExponent = exponent - 127 + 15;
+        if (halfExponent >= 0x1F) {
+            return (short) (sign | 0x7C00);
+        }
+        if (halfExponent <= 0) {
+            // 비정규화 수: 값 = m × 2^-24
+            if (halfExponent < -10) {
+                return (short) sign;
+            }
+            mantissa |= 0x800000;
+            int shift = 14 - halfExponent;
+            int half = mantissa >>> shift;
+            int remainder = mantissa & ((1 << shift) - 1);
+            int halfway = 1 << (shift - 1);
+            if (remainder > halfway || (remainder == halfway && (half & 1) != 0)) {
+                half++;
+            }
+            return (short) (sign | half);
+        }
+        int half = (halfExponent << 10) | (mantissa >>> 13);
+        int remainder = mantissa & 0x1FFF;
+        if (remainder > 0x1000 || (remainder == 0x1000 && (half & 1) != 0)) {
+            half++;  // 가수 올림이 지수로 넘어가도 올바른 값 (최댓값을 넘으면 Inf)
+        }
+        return (short) (sign | half);
+    }
+    
+    /**
+     * IEEE 754 binary16 → float
+     */
+    static float fromHalf(short value) {
+        int bits = value & 0xFFFF;
+        int sign = (bits & 0x8000) << 16;
+        int exponent = (bits >>> 10) & 0x1F;
+        int mantissa = bits & 0x3FF;
+        if (exponent == 0) {
+            float subnormal = mantissa * 0x1p-24f;
+            return sign != 0 ? -subnormal : subnormal;
+        }
+        if (exponent == 0x1F) {
+            return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+        }
+        return Float.intBitsToFloat(sign | ((exponent - 15 + 127) << 23) | (mantissa << 13));
+    }
+}
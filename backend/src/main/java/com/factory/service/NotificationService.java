@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -44,6 +45,21 @@ public class NotificationService {
         return mapToResponse(notification);
     }
     
+    /**
+     * 비상 알림을 켠 모든 사용자에게 알림을 생성합니다.
+     * 사용자 조회, 설정 확인, 알림 저장을 DB에서 INSERT ... SELECT 한 번으로 처리하므로
+     * 사용자 수와 관계없이 DB 왕복이 한 번입니다.
+     * 
+     * @return 알림을 받은 사용자 수
+     */
+    @Transactional
+    public int broadcastEmergencyNotification(String type, String title, String message, String priority) {
+        int recipients = notificationRepository.insertForEmergencyRecipients(
+            type, title, message, priority, LocalDateTime.now());
+        log.info("알림 일괄 생성: {}명 - {}", recipients, title);
+        return recipients;
+    }
+    
     @Transactional
     public void markAsRead(Long id, String userId) {
         notificationRepository.markAsReadByIdAndUserId(id, userId);
@@ -5,10 +5,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.OperatingSystemMXBean;
 import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
 import java.time.Duration;
 
 @Service
@@ -157,6 +160,15 @@ public class SystemInfoService {
         long minutes = uptime.toMinutes() % 60;
         String uptimeString = String.format("%d일 %d시간 %d분", days, hours, minutes);
         
+        // 힙 할당 누적량 / GC 횟수
+        Long heapAllocatedBytes = getHeapAllocatedBytes();
+        long gcCount = 0;
+        long gcTimeMillis = 0;
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gcBean.getCollectionCount());
+            gcTimeMillis += Math.max(0, gcBean.getCollectionTime());
+        }
+        
         return SystemInfoResponse.builder()
                 .cpuUsage(Math.round(cpuUsage * 10.0) / 10.0)
                 .memoryUsage(Math.round(memoryUsage * 10.0) / 10.0)
@@ -172,7 +184,35 @@ public class SystemInfoService {
                 .javaVersion(javaVersion)
                 .uptime(uptimeString)
                 .processorCount(processorCount)
+                .heapAllocatedBytes(heapAllocatedBytes)
+                .gcCount(gcCount)
+                .gcTimeMillis(gcTimeMillis)
                 .build();
     }
+    
+    /**
+     * JVM 시작 이후 힙 할당 누적 바이트 (지원하지 않으면 null)
+     * Java 21 이상은 종료된 스레드를 포함한 전체 합계를, 17에서는 살아 있는 스레드들의 합계를 사용합니다
+     * (요청 처리 스레드는 대부분 풀 스레드라 부하 측정 중 전후 차이를 비교하는 데는 충분합니다).
+     */
+    private Long getHeapAllocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean sunThreadBean)
+                || !sunThreadBean.isThreadAllocatedMemoryEnabled()) {
+            return null;
+        }
+        try {
+            Method total = com.sun.management.ThreadMXBean.class.getMethod("getTotalThreadAllocatedBytes");
+            long allocated = (long) total.invoke(sunThreadBean);
+            return allocated >= 0 ? allocated : null;
+        } catch (ReflectiveOperationException e) {
+            // Java 17: 살아 있는 스레드 합계
+        }
+        long allocated = 0;
+        for (long bytes : sunThreadBean.getThreadAllocatedBytes(threadBean.getAllThreadIds())) {
+            allocated += Math.max(0, bytes);
+        }
+        return allocated;
+    }
 }
 
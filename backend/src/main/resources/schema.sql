@@ -101,3 +101,15 @@ CREATE TABLE IF NOT EXISTS audio_files (
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+
+-- 오디오 입력 장치 테이블 (장치 ID별 설치 구역)
+CREATE TABLE IF NOT EXISTS devices (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    device_id VARCHAR(64) NOT NULL UNIQUE COMMENT '분석 요청의 deviceId',
+    name VARCHAR(100),
+    zone VARCHAR(100) NOT NULL COMMENT '구역 (예: A동 1층)',
+    area VARCHAR(100) COMMENT '세부 구역 (예: 프레스 구역)',
+    high_priority BOOLEAN NOT NULL DEFAULT FALSE COMMENT '과부하 시 우선 분석',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,133 @@
+package com.factory.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MelSpectrogramExtractor가 ml_service의 audio_to_mel_spectrogram()과 같은 값을 내는지 확인합니다.
+ *
+ * 기준값(audio/mel_reference_16k.txt)은 ml_service/export_mel_fixture.py로 생성합니다.
+ * 고정 입력 신호 1.5초를 2초로 0 패딩하므로 길이 조정, center=True 0 패딩(librosa 0.10 기본 pad_mode='constant'),
+ * Slaney mel 필터뱅크, power_to_db(ref=max, top_db=80)와 [0, 1] 정규화가 모두 기준값에 반영됩니다.
+ */
+class MelSpectrogramExtractorTest {
+    
+    private static final int SAMPLE_RATE = 16000;
+    private static final String REFERENCE = "/audio/mel_reference_16k.txt";
+    
+    /**
+     * 허용 오차: 출력은 (dB + 80) / 80 이므로 1e-3 = 0.08dB
+     * (librosa는 float32 입력을 complex64로 STFT하므로 아주 작은 mel 값에서 float64 기준과 이 정도 차이가 남)
+     */
+    private static final double TOLERANCE = 1e-3;
+    
+    @Test
+    void matchesLibrosaReference() throws IOException {
+        float[][] expected = readReference();
+        MelSpectrogramExtractor extractor = MelSpectrogramExtractor.forSampleRate(SAMPLE_RATE);
+        assertArrayEquals(new int[]{expected.length, expected[0].length, 1}, extractor.getOutputShape());
+        
+        float[] samples = referenceSignal(24000);
+        float[] out = new float[extractor.getOutputSize()];
+        extractor.extract(samples, samples.length, out);
+        
+        int frames = extractor.getFrames();
+        double maxError = 0.0;
+        int worstMel = -1;
+        int worstFrame = -1;
+        for (int m = 0; m < expected.length; m++) {
+            for (int t = 0; t < frames; t++) {
+                double error = Math.abs(out[m * frames + t] - expected[m][t]);
+                if (error > maxError) {
+                    maxError = error;
+                    worstMel = m;
+                    worstFrame = t;
+                }
+            }
+        }
+        assertTrue(maxError <= TOLERANCE,
+            "최대 오차 " + maxError + " (mel " + worstMel + ", frame " + worstFrame + ")");
+    }
+    
+    @Test
+    void outputShapeAt16kHz() {
+        MelSpectrogramExtractor extractor = MelSpectrogramExtractor.forSampleRate(SAMPLE_RATE);
+        assertArrayEquals(new int[]{128, 63, 1}, extractor.getOutputShape());
+        assertEquals(128 * 63, extractor.getOutputSize());
+    }
+    
+    @Test
+    void cropsToTwoSecondsBeforeNormalizing() {
+        MelSpectrogramExtractor extractor = MelSpectrogramExtractor.forSampleRate(SAMPLE_RATE);
+        float[] twoSeconds = referenceSignal(32000);
+        // 2초 이후에 더 큰 진폭을 붙여도 잘린 뒤의 최대값으로 정규화해야 함
+        float[] longer = new float[40000];
+        System.arraycopy(twoSeconds, 0, longer, 0, twoSeconds.length);
+        for (int i = twoSeconds.length; i < longer.length; i++) {
+            longer[i] = (i % 2 == 0) ? 4.0f : -4.0f;
+        }
+        
+        float[] expected = new float[extractor.getOutputSize()];
+        float[] actual = new float[extractor.getOutputSize()];
+        extractor.extract(twoSeconds, twoSeconds.length, expected);
+        extractor.extract(longer, longer.length, actual);
+        assertArrayEquals(expected, actual);
+    }
+    
+    @Test
+    void rejectsUnsupportedSampleRates() {
+        assertThrows(IllegalArgumentException.class, () -> MelSpectrogramExtractor.forSampleRate(0));
+        assertThrows(IllegalArgumentException.class, () -> MelSpectrogramExtractor.forSampleRate(Integer.MAX_VALUE));
+    }
+    
+    /**
+     * export_mel_fixture.py의 reference_signal()과 같은 신호 (float64로 계산 후 float32로 반올림)
+     */
+    static float[] referenceSignal(int length) {
+        float[] samples = new float[length];
+        long state = 1;
+        for (int n = 0; n < length; n++) {
+            double t = (double) n / SAMPLE_RATE;
+            double x = 0.6 * Math.sin(2 * Math.PI * 440 * t);
+            x += 0.3 * Math.sin(2 * Math.PI * (500 * t + 1500 * t * t));
+            if (n < 8000) {
+                x += 0.1 * Math.sin(2 * Math.PI * 6500 * t);
+            }
+            x += 0.02 * (state / 2147483648.0 - 0.5);
+            state = (1103515245L * state + 12345) % 2147483648L;
+            samples[n] = (float) x;
+        }
+        return samples;
+    }
+    
+    private static float[][] readReference() throws IOException {
+        InputStream in = MelSpectrogramExtractorTest.class.getResourceAsStream(REFERENCE);
+        assertNotNull(in, REFERENCE + " 없음 (ml_service/export_mel_fixture.py로 생성)");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.startsWith("#"));
+            String[] shape = line.trim().split(" ");
+            float[][] values = new float[Integer.parseInt(shape[0])][Integer.parseInt(shape[1])];
+            for (float[] row : values) {
+                String[] fields = reader.readLine().trim().split(" ");
+                for (int t = 0; t < row.length; t++) {
+                    row[t] = Float.parseFloat(fields[t]);
+                }
+            }
+            return values;
+        }
+    }
+}
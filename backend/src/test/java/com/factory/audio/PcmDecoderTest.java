@@ -0,0 +1,44 @@
+package com.factory.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * PcmDecoder의 다운믹스와 입력 검증을 확인합니다.
+ */
+class PcmDecoderTest {
+    
+    private static final long MAX_BYTES = 1024 * 1024;
+    
+    @Test
+    void downmixesInt16Stereo() throws IOException {
+        // 프레임 2개: (16384, -16384), (32767, 32767)
+        byte[] pcm = {0x00, 0x40, 0x00, (byte) 0xC0, (byte) 0xFF, 0x7F, (byte) 0xFF, 0x7F};
+        float[] samples = PcmDecoder.decode(new ByteArrayInputStream(pcm), PcmDecoder.SampleFormat.INT16, 2,
+            pcm.length, MAX_BYTES);
+        assertArrayEquals(new float[]{0.0f, 32767.0f / 32768.0f}, samples, 1e-6f);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 9, 500_000_000, 1 << 30})
+    void rejectsUnsupportedChannelCounts(int channels) {
+        // 1 << 30 채널은 int16 프레임 크기가 넘쳐 0바이트씩 읽으며 멈추고, 5억 채널은 float32 버퍼 할당으로 OOM이 나던 값
+        for (PcmDecoder.SampleFormat format : PcmDecoder.SampleFormat.values()) {
+            assertThrows(IllegalArgumentException.class, () -> PcmDecoder.decode(
+                new ByteArrayInputStream(new byte[64]), format, channels, 64, MAX_BYTES));
+        }
+    }
+    
+    @Test
+    void rejectsPartialFrame() {
+        assertThrows(IllegalArgumentException.class, () -> PcmDecoder.decode(
+            new ByteArrayInputStream(new byte[3]), PcmDecoder.SampleFormat.INT16, 1, 3, MAX_BYTES));
+    }
+}
@@ -0,0 +1,121 @@
+package com.factory.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 브라우저 입력 레이트(48kHz, 44.1kHz)를 모델 레이트(16kHz)로 변환할 때의 길이, 이득, 저지대역 감쇠를 확인합니다.
+ *
+ * 필터 양 끝(입력 범위 밖을 0으로 취급하는 구간)의 영향을 피하도록 출력 앞뒤 MARGIN 샘플은 측정에서 제외합니다.
+ */
+class PolyphaseResamplerTest {
+    
+    private static final int OUTPUT_RATE = 16000;
+    private static final int MARGIN = 160;  // 출력 샘플 (10ms, 1kHz 주기의 배수)
+    
+    @ParameterizedTest
+    @ValueSource(ints = {48000, 44100})
+    void outputLengthMatchesRateRatio(int inputRate) {
+        PolyphaseResampler resampler = PolyphaseResampler.forRates(inputRate, OUTPUT_RATE);
+        assertEquals(16000, resampler.getOutputLength(inputRate));       // 1초
+        assertEquals(32000, resampler.getOutputLength(inputRate * 2));   // 2초 (분석 윈도우)
+        assertEquals(1, resampler.getOutputLength(1));
+        // 나누어떨어지지 않으면 올림 (442 × 160/441 = 160.4, 442 / 3 = 147.3)
+        assertEquals(inputRate == 44100 ? 161 : 148, resampler.getOutputLength(442));
+        
+        float[] in = new float[inputRate];
+        float[] out = new float[resampler.getOutputLength(in.length)];
+        assertEquals(out.length, resampler.resample(in, in.length, out));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {48000, 44100})
+    void unityGainAtDc(int inputRate) {
+        float[] in = new float[inputRate];
+        Arrays.fill(in, 0.5f);
+        float[] out = resample(inputRate, in);
+        
+        for (int j = MARGIN; j < out.length - MARGIN; j++) {
+            assertEquals(0.5, out[j], 1e-4, "출력 " + j);
+        }
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {48000, 44100})
+    void passbandSineKeepsAmplitude(int inputRate) {
+        float[] out = resample(inputRate, sine(inputRate, 1000.0, 0.8));
+        
+        // 출력 레이트 기준 1kHz 성분의 진폭 (주기의 정수배 구간에서 sin/cos 투영)
+        double amplitude = toneAmplitude(out, 1000.0);
+        assertEquals(0.8, amplitude, 0.8 * 0.005);  // ±0.5% (≈ 0.04dB)
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {48000, 44100})
+    void attenuatesToneAboveOutputNyquist(int inputRate) {
+        // 12kHz는 16kHz 출력의 나이퀴스트(8kHz)보다 높으므로 남으면 4kHz로 앨리어싱됨
+        float[] out = resample(inputRate, sine(inputRate, 12000.0, 0.8));
+        
+        double attenuationDb = 20.0 * Math.log10(rms(out) / (0.8 / Math.sqrt(2.0)));
+        assertTrue(attenuationDb < -60.0, "저지대역 감쇠 " + attenuationDb + "dB");
+    }
+    
+    @Test
+    void cachesStandardRatePairs() {
+        assertSame(PolyphaseResampler.forRates(48000, OUTPUT_RATE), PolyphaseResampler.forRates(48000, OUTPUT_RATE));
+        assertSame(PolyphaseResampler.forRates(44100, OUTPUT_RATE), PolyphaseResampler.forRates(44100, OUTPUT_RATE));
+    }
+    
+    @Test
+    void rejectsUnsupportedRates() {
+        assertThrows(IllegalArgumentException.class, () -> PolyphaseResampler.forRates(0, OUTPUT_RATE));
+        assertThrows(IllegalArgumentException.class, () -> PolyphaseResampler.forRates(7999, OUTPUT_RATE));
+        assertThrows(IllegalArgumentException.class, () -> PolyphaseResampler.forRates(Integer.MAX_VALUE, OUTPUT_RATE));
+        assertThrows(IllegalArgumentException.class, () -> PolyphaseResampler.forRates(48000, 192001));
+    }
+    
+    private static float[] resample(int inputRate, float[] in) {
+        PolyphaseResampler resampler = PolyphaseResampler.forRates(inputRate, OUTPUT_RATE);
+        float[] out = new float[resampler.getOutputLength(in.length)];
+        resampler.resample(in, in.length, out);
+        return out;
+    }
+    
+    /** 1초 길이의 사인파 */
+    private static float[] sine(int rate, double frequency, double amplitude) {
+        float[] samples = new float[rate];
+        for (int n = 0; n < samples.length; n++) {
+            samples[n] = (float) (amplitude * Math.sin(2.0 * Math.PI * frequency * n / rate));
+        }
+        return samples;
+    }
+    
+    private static double toneAmplitude(float[] out, double frequency) {
+        double sin = 0.0;
+        double cos = 0.0;
+        int count = out.length - 2 * MARGIN;
+        for (int j = MARGIN; j < out.length - MARGIN; j++) {
+            double angle = 2.0 * Math.PI * frequency * j / OUTPUT_RATE;
+            sin += out[j] * Math.sin(angle);
+            cos += out[j] * Math.cos(angle);
+        }
+        return 2.0 * Math.hypot(sin, cos) / count;
+    }
+    
+    private static double rms(float[] out) {
+        double sum = 0.0;
+        int count = out.length - 2 * MARGIN;
+        for (int j = MARGIN; j < out.length - MARGIN; j++) {
+            sum += (double) out[j] * out[j];
+        }
+        return Math.sqrt(sum / count);
+    }
+}
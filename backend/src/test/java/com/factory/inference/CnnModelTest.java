@@ -0,0 +1,138 @@
+package com.factory.inference;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CnnModel이 Keras와 같은 값을 내는지 레이어별로 확인합니다.
+ *
+ * 기준 모델(inference/reference_model.cnn)과 레이어별 기준 출력(inference/reference_model_layers.txt)은
+ * ml_service/export_cnn_fixture.py로 생성합니다. 모델은 same 패딩 + stride 2 합성곱(위/아래 비대칭 패딩),
+ * BatchNorm, 가장자리가 잘리는 same 평균/최대 풀링, valid 합성곱, ReLU, Flatten, Dense와 softmax로 구성됩니다.
+ */
+class CnnModelTest {
+    
+    private static final String MODEL = "/inference/reference_model.cnn";
+    private static final String LAYERS = "/inference/reference_model_layers.txt";
+    private static final double TOLERANCE = 1e-5;
+    
+    private record LayerReference(String name, float[] values) {
+    }
+    
+    @Test
+    void matchesKerasLayerByLayer() throws IOException {
+        CnnModel model = CnnModel.load(new ByteArrayInputStream(readResource(MODEL)), null);
+        List<LayerReference> references = readLayerReferences();
+        assertArrayEquals(new int[]{10, 11, 2}, model.getInputShape());
+        assertEquals(references.size(), model.getLayerCount());
+        
+        float[] input = CnnModel.referenceInput(model.getInputSize());
+        for (int i = 0; i < references.size(); i++) {
+            LayerReference reference = references.get(i);
+            assertEquals(reference.values().length, model.getOutputSize(i + 1), "레이어 " + i + " " + reference.name() + " 출력 크기");
+            
+            float[] output = new float[model.getOutputSize(i + 1)];
+            model.predict(input, i + 1, output);
+            int worst = 0;
+            double maxError = 0.0;
+            for (int j = 0; j < output.length; j++) {
+                double error = Math.abs(output[j] - reference.values()[j]);
+                if (error > maxError) {
+                    maxError = error;
+                    worst = j;
+                }
+            }
+            assertTrue(maxError <= TOLERANCE, "레이어 " + i + " " + reference.name() + ": 최대 오차 " + maxError
+                + " (원소 " + worst + ", 기대 " + reference.values()[worst] + ", 실제 " + output[worst] + ")");
+        }
+    }
+    
+    @Test
+    void embeddedReferenceOutputMatches() throws IOException {
+        CnnModel model = CnnModel.load(new ByteArrayInputStream(readResource(MODEL)), null);
+        assertTrue(model.hasReferenceOutput());
+        assertTrue(model.referenceError() <= TOLERANCE, "최대 오차 " + model.referenceError());
+        
+        float[] output = new float[model.getOutputSize()];
+        model.predict(CnnModel.referenceInput(model.getInputSize()), output);
+        double sum = 0.0;
+        for (float value : output) {
+            sum += value;
+        }
+        assertEquals(1.0, sum, 1e-6);
+    }
+    
+    @Test
+    void loadsFileWithoutReferenceOutput() throws IOException {
+        byte[] bytes = readResource(MODEL);
+        CnnModel withReference = CnnModel.load(new ByteArrayInputStream(bytes), null);
+        // 끝의 기준 출력 블록("FREF", 개수, float32 × 출력 크기)을 잘라낸 이전 형식
+        byte[] withoutReference = Arrays.copyOf(bytes, bytes.length - 8 - 4 * withReference.getOutputSize());
+        
+        CnnModel model = CnnModel.load(new ByteArrayInputStream(withoutReference), null);
+        assertFalse(model.hasReferenceOutput());
+        assertThrows(IllegalStateException.class, model::referenceError);
+        assertEquals(withReference.getLayerCount(), model.getLayerCount());
+    }
+    
+    @Test
+    void rejectsTruncatedOrUnknownTrailer() throws IOException {
+        byte[] bytes = readResource(MODEL);
+        int outputSize = CnnModel.load(new ByteArrayInputStream(bytes), null).getOutputSize();
+        
+        // 기준 출력 값이 중간에 잘린 파일
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 4);
+        assertThrows(IOException.class, () -> CnnModel.load(new ByteArrayInputStream(truncated), null));
+        
+        // 가중치 뒤에 "FREF"가 아닌 데이터가 붙은 파일
+        int trailerStart = bytes.length - 8 - 4 * outputSize;
+        byte[] unknown = Arrays.copyOf(bytes, trailerStart + 4);
+        System.arraycopy("JUNK".getBytes(StandardCharsets.US_ASCII), 0, unknown, trailerStart, 4);
+        assertThrows(IOException.class, () -> CnnModel.load(new ByteArrayInputStream(unknown), null));
+    }
+    
+    private static byte[] readResource(String name) throws IOException {
+        try (InputStream in = CnnModelTest.class.getResourceAsStream(name)) {
+            assertNotNull(in, name + " 없음 (ml_service/export_cnn_fixture.py로 생성)");
+            return in.readAllBytes();
+        }
+    }
+    
+    private static List<LayerReference> readLayerReferences() throws IOException {
+        InputStream in = CnnModelTest.class.getResourceAsStream(LAYERS);
+        assertNotNull(in, LAYERS + " 없음 (ml_service/export_cnn_fixture.py로 생성)");
+        List<LayerReference> references = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    continue;
+                }
+                String[] header = line.trim().split(" ");
+                String[] fields = reader.readLine().trim().split(" ");
+                float[] values = new float[Integer.parseInt(header[2])];
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = Float.parseFloat(fields[j]);
+                }
+                references.add(new LayerReference(header[1], values));
+            }
+        }
+        return references;
+    }
+}
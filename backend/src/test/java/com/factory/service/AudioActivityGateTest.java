@@ -0,0 +1,69 @@
+package com.factory.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * AudioActivityGate가 DC 오프셋과 무관하게 판단하는지, 작은 험만 걸러내는지 확인합니다. (application.yml 기본값 사용)
+ */
+class AudioActivityGateTest {
+    
+    private AudioActivityGate gate;
+    
+    @BeforeEach
+    void createGate() {
+        gate = new AudioActivityGate();
+        ReflectionTestUtils.setField(gate, "enabled", true);
+        ReflectionTestUtils.setField(gate, "rmsThreshold", 0.01);
+        ReflectionTestUtils.setField(gate, "peakThreshold", 0.05);
+        ReflectionTestUtils.setField(gate, "humMaxCrossingRate", 320.0);
+        ReflectionTestUtils.setField(gate, "humMaxCrest", 1.8);
+        ReflectionTestUtils.setField(gate, "humMaxRms", 0.1);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {16000, 48000})
+    void tonePassesWithAndWithoutDcOffset(int sampleRate) {
+        // 1.5kHz, 진폭 0.25: 0.3 오프셋이 있으면 원본 샘플은 0을 지나지 않음
+        assertEquals(AudioActivityGate.Result.PASS, evaluate(tone(sampleRate, 1500.0, 0.25, 0.0), sampleRate));
+        assertEquals(AudioActivityGate.Result.PASS, evaluate(tone(sampleRate, 1500.0, 0.25, 0.3), sampleRate));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {16000, 48000})
+    void quietMainsHumIsGatedWithAndWithoutDcOffset(int sampleRate) {
+        // 60Hz, 진폭 0.03 (RMS ≈ 0.021): 무음 임계값보다 크지만 작고 일정한 험
+        assertEquals(AudioActivityGate.Result.STEADY_HUM, evaluate(tone(sampleRate, 60.0, 0.03, 0.0), sampleRate));
+        assertEquals(AudioActivityGate.Result.STEADY_HUM, evaluate(tone(sampleRate, 60.0, 0.03, 0.3), sampleRate));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {16000, 48000})
+    void loudLowFrequencyToneIsNotTreatedAsHum(int sampleRate) {
+        // 100Hz, 진폭 0.5: 저주파 사인파지만 RMS 상한을 넘으므로 모델로 분석
+        assertEquals(AudioActivityGate.Result.PASS, evaluate(tone(sampleRate, 100.0, 0.5, 0.0), sampleRate));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {16000, 48000})
+    void dcOffsetAloneIsSilence(int sampleRate) {
+        assertEquals(AudioActivityGate.Result.SILENCE, evaluate(tone(sampleRate, 1500.0, 0.001, 0.3), sampleRate));
+    }
+    
+    private AudioActivityGate.Result evaluate(float[] samples, int sampleRate) {
+        return gate.evaluate(samples, samples.length, sampleRate);
+    }
+    
+    /** 2초 길이의 사인파 + DC 오프셋 */
+    private static float[] tone(int sampleRate, double frequency, double amplitude, double offset) {
+        float[] samples = new float[sampleRate * 2];
+        for (int n = 0; n < samples.length; n++) {
+            samples[n] = (float) (offset + amplitude * Math.sin(2.0 * Math.PI * frequency * n / sampleRate));
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,128 @@
+package com.factory.service;
+
+import com.factory.dto.DeviceRequest;
+import com.factory.entity.Device;
+import com.factory.repository.DeviceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * DeviceRegistryService가 트랜잭션이 커밋된 뒤에만 메모리 목록을 바꾸는지 확인합니다.
+ *
+ * 저장소는 "커밋된 행"만 돌려주는 Map으로 대신하고, 트랜잭션 동기화는 직접 열고 닫습니다.
+ */
+class DeviceRegistryServiceTest {
+    
+    private final Map<String, Device> committed = new ConcurrentHashMap<>();
+    private DeviceRegistryService registry;
+    
+    @BeforeEach
+    void createRegistry() {
+        DeviceRepository repository = mock(DeviceRepository.class);
+        when(repository.findAll()).thenAnswer(invocation -> List.copyOf(committed.values()));
+        // 트랜잭션 안의 변경이 커밋 전에 보이지 않도록 복사본을 돌려줌
+        when(repository.findByDeviceId(anyString())).thenAnswer(invocation ->
+            Optional.ofNullable(committed.get(invocation.<String>getArgument(0)))
+                .map(d -> device(d.getDeviceId(), d.getZone(), d.getArea(), d.getHighPriority())));
+        when(repository.save(any(Device.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        registry = new DeviceRegistryService(repository, mock(AnalysisShards.class));
+        ReflectionTestUtils.setField(registry, "defaultZone", "기본 구역");
+        ReflectionTestUtils.setField(registry, "defaultArea", "기본 영역");
+    }
+    
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void publishesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        registry.saveDevice("mic-1", new DeviceRequest("1번", "B동 2층", "용접 구역", true));
+        assertFalse(registry.isHighPriority("mic-1"), "커밋 전에는 반영되지 않아야 함");
+        assertEquals("기본 구역", registry.resolve("mic-1").zone());
+        
+        // 커밋: 행이 보이게 된 뒤 afterCommit 콜백 실행
+        committed.put("mic-1", device("mic-1", "B동 2층", "용접 구역", true));
+        commit();
+        assertTrue(registry.isHighPriority("mic-1"));
+        assertEquals(new DeviceRegistryService.Location("B동 2층", "용접 구역"), registry.resolve("mic-1"));
+    }
+    
+    @Test
+    void rolledBackSaveIsNotPublished() {
+        TransactionSynchronizationManager.initSynchronization();
+        registry.saveDevice("mic-1", new DeviceRequest("1번", "B동 2층", "용접 구역", true));
+        rollback();
+        
+        assertFalse(registry.isHighPriority("mic-1"));
+        assertEquals("기본 구역", registry.resolve("mic-1").zone());
+    }
+    
+    @Test
+    void staleScheduledRefreshIsReplacedByCommitRefresh() {
+        committed.put("mic-1", device("mic-1", "A동 1층", "프레스 구역", false));
+        registry.refresh();
+        
+        TransactionSynchronizationManager.initSynchronization();
+        registry.saveDevice("mic-1", new DeviceRequest("1번", "A동 1층", "프레스 구역", true));
+        // 주기 갱신이 커밋 직전의 DB를 읽음
+        registry.refresh();
+        assertFalse(registry.isHighPriority("mic-1"));
+        
+        committed.put("mic-1", device("mic-1", "A동 1층", "프레스 구역", true));
+        commit();
+        assertTrue(registry.isHighPriority("mic-1"), "커밋 뒤 다시 읽은 목록이 오래된 목록을 대체해야 함");
+    }
+    
+    @Test
+    void deleteIsPublishedAfterCommit() {
+        committed.put("mic-1", device("mic-1", "B동 2층", "용접 구역", true));
+        registry.refresh();
+        
+        TransactionSynchronizationManager.initSynchronization();
+        registry.deleteDevice("mic-1");
+        assertTrue(registry.isHighPriority("mic-1"), "커밋 전에는 반영되지 않아야 함");
+        
+        committed.remove("mic-1");
+        commit();
+        assertFalse(registry.isHighPriority("mic-1"));
+        assertEquals("기본 구역", registry.resolve("mic-1").zone());
+    }
+    
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+    
+    private static void rollback() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+    
+    private static Device device(String deviceId, String zone, String area, boolean highPriority) {
+        return Device.builder().deviceId(deviceId).zone(zone).area(area).highPriority(highPriority).build();
+    }
+}
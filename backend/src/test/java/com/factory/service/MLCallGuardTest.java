@@ -0,0 +1,289 @@
+package com.factory.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MLCallGuard의 벌크헤드, 서킷 브레이커, 헤지 요청을 로컬 HTTP 스텁 서버에 대한 실제 비동기 호출로 확인합니다.
+ *
+ * 스텁은 쿼리 파라미터대로 응답합니다: /predict?delayMs=100&status=500
+ */
+class MLCallGuardTest {
+    
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private HttpClient client;
+    private MLCallGuard guard;
+    private final AtomicInteger serverHits = new AtomicInteger();
+    
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/predict", this::handle);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+    
+    @AfterEach
+    void stopStub() {
+        if (guard != null) {
+            guard.shutdown();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        serverHits.incrementAndGet();
+        int delayMs = 0;
+        int status = 200;
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                String[] kv = pair.split("=", 2);
+                if (kv[0].equals("delayMs")) {
+                    delayMs = Integer.parseInt(kv[1]);
+                } else if (kv[0].equals("status")) {
+                    status = Integer.parseInt(kv[1]);
+                }
+            }
+        }
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = ("{\"status\":" + status + "}").getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+    
+    /**
+     * 스텁을 호출합니다. 5xx는 MLService와 같이 예외로 완료합니다.
+     */
+    private CompletableFuture<String> call(String query) {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/predict?" + query))
+            .timeout(Duration.ofSeconds(5))
+            .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .thenApply(response -> {
+                if (response.statusCode() >= 500) {
+                    throw new CompletionException(new IOException("HTTP " + response.statusCode()));
+                }
+                return response.body();
+            });
+    }
+    
+    private static MLCallGuard guard(int maxConcurrent, int windowSize, double failureRate,
+                                     long slowCallMs, double slowCallRate, long openMs, int halfOpenProbes) {
+        return new MLCallGuard(maxConcurrent, windowSize, windowSize, failureRate,
+            slowCallMs, slowCallRate, openMs, halfOpenProbes, false, 1);
+    }
+    
+    private static Throwable failureOf(CompletableFuture<?> future) throws InterruptedException {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+    
+    @Test
+    void bulkheadRejectsCallsAboveTheCap() throws Exception {
+        guard = guard(2, 10, 0.5, 10_000, 1.0, 1_000, 1);
+        
+        CompletableFuture<String> first = guard.execute(() -> call("delayMs=300"));
+        CompletableFuture<String> second = guard.execute(() -> call("delayMs=300"));
+        assertEquals(2, guard.getInFlight());
+        
+        // 한도를 넘은 호출은 기다리지 않고 바로 거절되며 서버로 전송되지 않음
+        CompletableFuture<String> third = guard.execute(() -> call("delayMs=0"));
+        assertTrue(third.isCompletedExceptionally());
+        assertInstanceOf(MLCallGuard.RejectedException.class, failureOf(third));
+        assertEquals(1, guard.getRejectedByBulkheadCount());
+        
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(2, serverHits.get());
+        assertEquals(0, guard.getInFlight());
+        
+        // 자리가 나면 다시 호출 가능
+        guard.execute(() -> call("delayMs=0")).get(5, TimeUnit.SECONDS);
+        assertEquals(3, serverHits.get());
+    }
+    
+    @Test
+    void opensOnFailureRateAndFailsFastWhileOpen() throws Exception {
+        guard = guard(8, 4, 0.5, 10_000, 1.0, 60_000, 1);
+        
+        guard.execute(() -> call("status=200")).get(5, TimeUnit.SECONDS);
+        guard.execute(() -> call("status=200")).get(5, TimeUnit.SECONDS);
+        failureOf(guard.execute(() -> call("status=500")));
+        awaitTrue(() -> guard.getFailureCount() == 1, "실패 집계");
+        assertEquals(MLCallGuard.State.CLOSED, guard.getState());  // 최소 호출 수(4) 전에는 판단하지 않음
+        
+        failureOf(guard.execute(() -> call("status=500")));
+        awaitState(MLCallGuard.State.OPEN);                         // 실패율 2/4 = 50%
+        assertEquals(1, guard.getCircuitOpenedCount());
+        
+        // OPEN 동안은 서버로 보내지 않고 즉시 실패
+        int hits = serverHits.get();
+        CompletableFuture<String> rejected = guard.execute(() -> call("status=200"));
+        assertTrue(rejected.isCompletedExceptionally());
+        assertInstanceOf(MLCallGuard.RejectedException.class, failureOf(rejected));
+        assertEquals(hits, serverHits.get());
+        assertEquals(1, guard.getRejectedByCircuitCount());
+    }
+    
+    @Test
+    void opensOnSlowCallRate() throws Exception {
+        guard = guard(8, 4, 1.0, 100, 0.5, 60_000, 1);
+        
+        guard.execute(() -> call("delayMs=0")).get(5, TimeUnit.SECONDS);
+        guard.execute(() -> call("delayMs=0")).get(5, TimeUnit.SECONDS);
+        guard.execute(() -> call("delayMs=150")).get(5, TimeUnit.SECONDS);
+        awaitTrue(() -> guard.getSlowCallCount() == 1, "느린 호출 집계");
+        assertEquals(MLCallGuard.State.CLOSED, guard.getState());
+        
+        guard.execute(() -> call("delayMs=150")).get(5, TimeUnit.SECONDS);
+        awaitState(MLCallGuard.State.OPEN);                         // 느린 호출 2/4 = 50%, 실패는 없음
+        assertEquals(0, guard.getFailureCount());
+        assertEquals(2, guard.getSlowCallCount());
+    }
+    
+    @Test
+    void halfOpenProbesCloseTheCircuit() throws Exception {
+        guard = guard(8, 2, 0.5, 10_000, 1.0, 200, 2);
+        openCircuit();
+        
+        Thread.sleep(250);
+        // 첫 탐색 호출이 진행 중이면 탐색 수(2)만큼만 허용
+        CompletableFuture<String> probe1 = guard.execute(() -> call("delayMs=200"));
+        assertEquals(MLCallGuard.State.HALF_OPEN, guard.getState());
+        CompletableFuture<String> probe2 = guard.execute(() -> call("delayMs=200"));
+        CompletableFuture<String> extra = guard.execute(() -> call("delayMs=0"));
+        assertInstanceOf(MLCallGuard.RejectedException.class, failureOf(extra));
+        
+        probe1.get(5, TimeUnit.SECONDS);
+        probe2.get(5, TimeUnit.SECONDS);
+        awaitState(MLCallGuard.State.CLOSED);
+        guard.execute(() -> call("delayMs=0")).get(5, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    void failedHalfOpenProbeReopensTheCircuit() throws Exception {
+        guard = guard(8, 2, 0.5, 10_000, 1.0, 200, 2);
+        openCircuit();
+        
+        Thread.sleep(250);
+        failureOf(guard.execute(() -> call("status=500")));
+        awaitState(MLCallGuard.State.OPEN);
+        assertEquals(2, guard.getCircuitOpenedCount());
+        
+        // 다시 OPEN 유지 시간 동안 즉시 실패
+        int hits = serverHits.get();
+        assertInstanceOf(MLCallGuard.RejectedException.class, failureOf(guard.execute(() -> call("status=200"))));
+        assertEquals(hits, serverHits.get());
+    }
+    
+    private void openCircuit() throws InterruptedException {
+        failureOf(guard.execute(() -> call("status=500")));
+        failureOf(guard.execute(() -> call("status=500")));
+        awaitState(MLCallGuard.State.OPEN);
+    }
+    
+    @Test
+    void hedgeFiresAfterP95AndCancelsTheLoser() throws Exception {
+        guard = new MLCallGuard(32, 100, 100, 1.0, 10_000, 1.0, 1_000, 1, true, 1);
+        
+        // 응답 시간 표본 (약 50ms) - 20건 미만이면 헤지하지 않음
+        List<CompletableFuture<String>> warmup = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            warmup.add(guard.execute(() -> call("delayMs=50")));
+        }
+        for (CompletableFuture<String> future : warmup) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        double p95Millis = guard.getLatencyP95Millis();
+        assertTrue(p95Millis >= 50, "p95 " + p95Millis + "ms");
+        
+        // p95보다 빨리 응답하면 헤지하지 않음
+        guard.execute(() -> call("delayMs=0")).get(5, TimeUnit.SECONDS);
+        assertEquals(0, guard.getHedgesSentCount());
+        
+        // 원래 요청은 느리고 헤지 요청은 바로 응답
+        List<CompletableFuture<String>> attempts = new ArrayList<>();
+        List<Long> startedAt = new ArrayList<>();
+        CompletableFuture<String> result = guard.execute(() -> {
+            synchronized (attempts) {
+                startedAt.add(System.nanoTime());
+                CompletableFuture<String> attempt = call(attempts.isEmpty() ? "delayMs=2000" : "delayMs=0");
+                attempts.add(attempt);
+                return attempt;
+            }
+        });
+        long begin = System.nanoTime();
+        result.get(5, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        
+        assertTrue(elapsedMillis < 1000, "헤지 응답을 기다리지 않음: " + elapsedMillis + "ms");
+        assertEquals(1, guard.getHedgesSentCount());
+        // 집계는 결과를 완료한 응답 스레드에서 완료 직후에 반영됨
+        awaitTrue(() -> guard.getHedgesWonCount() == 1, "헤지 요청이 이긴 횟수");
+        synchronized (attempts) {
+            assertEquals(2, attempts.size());
+            long hedgeDelayMillis = TimeUnit.NANOSECONDS.toMillis(startedAt.get(1) - startedAt.get(0));
+            assertTrue(hedgeDelayMillis >= (long) p95Millis - 1, "헤지 지연 " + hedgeDelayMillis + "ms < p95 " + p95Millis + "ms");
+            assertTrue(attempts.get(0).isCancelled(), "느린 원래 요청은 취소되어야 함");
+        }
+        
+        // 진 요청의 벌크헤드 허가는 반환됨 (취소로 완료)
+        awaitTrue(() -> guard.getInFlight() == 0, "벌크헤드 허가 반환");
+    }
+    
+    /**
+     * 호출 결과 집계(서킷 상태 갱신)는 결과 Future의 완료 콜백에서 실행되므로, 결과를 받은 직후에는 아직 반영 전일 수 있음
+     */
+    private void awaitState(MLCallGuard.State expected) throws InterruptedException {
+        awaitTrue(() -> guard.getState() == expected, "서킷 상태 " + expected);
+    }
+    
+    private static void awaitTrue(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, what);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.factory.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MLSocketTransport의 파이프라인 짝짓기, 응답 제한 시간, 연결 끊김 처리를 유닉스 도메인 소켓 대역 서버로 확인합니다.
+ *
+ * 대역 서버는 ml_service/uds_server.py와 같은 프레임을 쓰며, 한 연결의 요청을 받은 순서대로 본문을 그대로 돌려줍니다.
+ * 본문이 "sleep:<ms>:"로 시작하면 그만큼 기다린 뒤 응답합니다. (읽기는 응답과 별도 스레드라 그동안에도 다음 요청을 받음)
+ */
+class MLSocketTransportTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private StandInServer server;
+    private MLSocketTransport transport;
+    
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new StandInServer(tempDir.resolve("ml.sock"));
+    }
+    
+    @AfterEach
+    void stopServer() {
+        if (transport != null) {
+            transport.shutdown();
+        }
+        server.close();
+    }
+    
+    @Test
+    void pipelinedRepliesPairWithTheirRequests() throws Exception {
+        transport = new MLSocketTransport(server.path(), 1, 5000);
+        
+        List<String> bodies = List.of("sleep:300:first", "second", "third", "fourth", "fifth");
+        List<CompletableFuture<MLSocketTransport.Reply>> replies = new ArrayList<>();
+        for (String body : bodies) {
+            replies.add(send(body));
+        }
+        
+        // 첫 응답이 오기 전에 나머지 요청도 모두 소켓으로 나감 (응답을 기다리지 않고 이어서 전송)
+        awaitTrue(() -> server.received.get() == bodies.size(), "요청 5개 수신");
+        assertFalse(replies.get(0).isDone(), "첫 요청은 아직 응답 전이어야 함");
+        assertEquals(bodies.size(), transport.getPendingCount());
+        
+        for (int i = 0; i < bodies.size(); i++) {
+            MLSocketTransport.Reply reply = replies.get(i).get(5, TimeUnit.SECONDS);
+            assertEquals(200, reply.status());
+            assertEquals(bodies.get(i), text(reply));
+        }
+        assertEquals(0, transport.getPendingCount());
+        assertEquals(1, server.accepted.get());
+    }
+    
+    @Test
+    void emptyBodyStillSendsItsFrame() throws Exception {
+        transport = new MLSocketTransport(server.path(), 1, 5000);
+        
+        CompletableFuture<MLSocketTransport.Reply> empty = send("");
+        CompletableFuture<MLSocketTransport.Reply> next = send("next");
+        assertEquals("", text(empty.get(5, TimeUnit.SECONDS)));
+        assertEquals("next", text(next.get(5, TimeUnit.SECONDS)));
+        assertEquals(2, server.received.get());
+    }
+    
+    @Test
+    void lateReplyTimesOutAndLaterRepliesStillPair() throws Exception {
+        transport = new MLSocketTransport(server.path(), 1, 200);
+        
+        CompletableFuture<MLSocketTransport.Reply> late = send("sleep:500:late");
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, failure.getCause());
+        
+        // 늦은 응답이 도착하면 시간 초과된 요청 자리에서 버려지고, 다음 요청과 짝지어지지 않음
+        awaitTrue(() -> transport.getPendingCount() == 0, "늦은 응답 수신");
+        CompletableFuture<MLSocketTransport.Reply> next = send("next");
+        CompletableFuture<MLSocketTransport.Reply> after = send("after");
+        assertEquals("next", text(next.get(5, TimeUnit.SECONDS)));
+        assertEquals("after", text(after.get(5, TimeUnit.SECONDS)));
+        assertEquals(1, server.accepted.get());
+    }
+    
+    @Test
+    void dropFailsPendingRequestsAndReconnects() throws Exception {
+        transport = new MLSocketTransport(server.path(), 1, 5000);
+        
+        CompletableFuture<MLSocketTransport.Reply> first = send("sleep:10000:first");
+        CompletableFuture<MLSocketTransport.Reply> second = send("second");
+        awaitTrue(() -> server.received.get() == 2, "요청 2개 수신");
+        
+        server.dropConnections();
+        for (CompletableFuture<MLSocketTransport.Reply> reply : List.of(first, second)) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> reply.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IOException.class, failure.getCause());
+        }
+        assertEquals(0, transport.getPendingCount());
+        
+        // 다음 요청 때 다시 연결
+        assertEquals("third", text(send("third").get(5, TimeUnit.SECONDS)));
+        assertEquals(2, server.accepted.get());
+    }
+    
+    private CompletableFuture<MLSocketTransport.Reply> send(String body) {
+        return transport.exchange(MLSocketTransport.KIND_JSON, body.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String text(MLSocketTransport.Reply reply) {
+        return new String(reply.body(), StandardCharsets.UTF_8);
+    }
+    
+    private static void awaitTrue(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, what);
+            Thread.sleep(5);
+        }
+    }
+    
+    /**
+     * uds_server.py와 같은 프레임을 쓰는 대역 서버 (연결마다 읽기 스레드와 응답 스레드)
+     */
+    private static final class StandInServer {
+        private final Path socketPath;
+        private final ServerSocketChannel server;
+        private final List<SocketChannel> connections = new CopyOnWriteArrayList<>();
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+        final AtomicInteger accepted = new AtomicInteger();
+        final AtomicInteger received = new AtomicInteger();
+        
+        StandInServer(Path socketPath) throws IOException {
+            this.socketPath = socketPath;
+            this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+            start(this::acceptLoop, "stand-in-accept");
+        }
+        
+        String path() {
+            return socketPath.toString();
+        }
+        
+        private void acceptLoop() {
+            try {
+                while (true) {
+                    SocketChannel connection = server.accept();
+                    accepted.incrementAndGet();
+                    connections.add(connection);
+                    BlockingQueue<byte[]> requests = new LinkedBlockingQueue<>();
+                    start(() -> readLoop(connection, requests), "stand-in-reader");
+                    start(() -> replyLoop(connection, requests), "stand-in-responder");
+                }
+            } catch (IOException e) {
+                // 서버 종료
+            }
+        }
+        
+        private void readLoop(SocketChannel connection, BlockingQueue<byte[]> requests) {
+            ByteBuffer header = ByteBuffer.allocate(5).order(ByteOrder.LITTLE_ENDIAN);
+            try {
+                while (true) {
+                    header.clear();
+                    readFully(connection, header);
+                    header.flip();
+                    ByteBuffer body = ByteBuffer.allocate(header.getInt());
+                    readFully(connection, body);
+                    received.incrementAndGet();
+                    requests.add(body.array());
+                }
+            } catch (IOException e) {
+                // 연결 종료
+            }
+        }
+        
+        private void replyLoop(SocketChannel connection, BlockingQueue<byte[]> requests) {
+            try {
+                while (true) {
+                    byte[] body = requests.take();
+                    String text = new String(body, StandardCharsets.UTF_8);
+                    if (text.startsWith("sleep:")) {
+                        Thread.sleep(Long.parseLong(text.split(":", 3)[1]));
+                    }
+                    ByteBuffer header = ByteBuffer.allocate(6).order(ByteOrder.LITTLE_ENDIAN);
+                    header.putInt(body.length).putShort((short) 200).flip();
+                    ByteBuffer[] frame = {header, ByteBuffer.wrap(body)};
+                    while (frame[0].hasRemaining() || frame[1].hasRemaining()) {
+                        connection.write(frame);
+                    }
+                }
+            } catch (InterruptedException | IOException e) {
+                // 연결 종료
+            }
+        }
+        
+        private static void readFully(SocketChannel source, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (source.read(buffer) < 0) {
+                    throw new EOFException();
+                }
+            }
+        }
+        
+        /**
+         * 열린 연결을 모두 끊습니다 (서버는 계속 새 연결을 받음).
+         */
+        void dropConnections() {
+            for (SocketChannel connection : connections) {
+                closeQuietly(connection);
+            }
+            connections.clear();
+        }
+        
+        void close() {
+            closeQuietly(server);
+            dropConnections();
+            threads.forEach(Thread::interrupt);
+        }
+        
+        private void start(Runnable task, String name) {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        
+        private static void closeQuietly(Channel channel) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // 닫는 중 오류는 무시
+            }
+        }
+    }
+}
@@ -5,8 +5,12 @@ Java 백엔드에서 호출할 수 있는 REST API를 제공합니다.
 
 from flask import Flask, request, jsonify
 from flask_cors import CORS
+from werkzeug.serving import WSGIRequestHandler
+import os
 import traceback
-from model_loader import load_ai_model, get_model_info, predict
+from model_loader import warm_up_model, is_ready, get_model_info, predict, predict_features, predict_batch_items
+import wire_format
+import uds_server
 
 app = Flask(__name__)
 CORS(app)  # Java 백엔드에서 호출할 수 있도록 CORS 허용
@@ -21,11 +25,22 @@ def health_check():
     })
 
 
+@app.route('/api/health/ready', methods=['GET'])
+def readiness_check():
+    """준비 상태 확인 - 모델 예열이 끝나기 전에는 503"""
+    ready = is_ready()
+    return jsonify({
+        "ready": ready
+    }), 200 if ready else 503
+
+
 @app.route('/api/model/info', methods=['GET'])
 def model_info():
     """모델 정보 조회"""
     try:
-        info = get_model_info()
+        info = dict(get_model_info())
+        # 백엔드는 이 목록에 바이너리 형식이 있을 때만 바이너리로 전송합니다
+        info["wire_formats"] = ["application/json", wire_format.CONTENT_TYPE]
         return jsonify({
             "success": True,
             "data": info
@@ -48,6 +63,22 @@ def predict_endpoint():
         "data": [1.0, 2.0, 3.0, ...]  # 모델 입력 데이터
     }
     
+    또는 백엔드에서 Mel Spectrogram을 계산한 경우:
+    {
+        "features": [0.1, 0.2, ...],   # (128, 63, 1)을 행 우선으로 펼친 8,064개 값
+        "feature_shape": [128, 63, 1]
+    }
+    
+    또는 백엔드에서 여러 윈도우를 묶은 경우 (마이크로 배칭):
+    {
+        "batch": [ {위 형식의 항목}, {위 형식의 항목}, ... ]
+    }
+    → "prediction"은 항목 순서대로의 중첩 배열, "errors"는 항목별 오류 (없으면 null)
+    
+    또는 Content-Type: application/x-factory-tensor 바이너리 본문 (wire_format.py 참고)
+    → 값을 float16/int16으로 보내므로 JSON보다 본문이 작고 파싱이 빠릅니다.
+      항목이 하나면 단일 예측, 여러 개면 배치와 같은 형식으로 응답합니다.
+    
     응답 형식:
     {
         "success": true,
@@ -57,15 +88,26 @@ def predict_endpoint():
     }
     """
     try:
+        if request.mimetype == wire_format.CONTENT_TYPE:
+            return _predict_binary_response(request.get_data(cache=False))
+        
         # 요청 데이터 확인
         if not request.is_json:
             return jsonify({
                 "success": False,
-                "error": "Content-Type이 application/json이어야 합니다."
-            }), 400
+                "error": f"Content-Type이 application/json 또는 {wire_format.CONTENT_TYPE}이어야 합니다."
+            }), 415
         
         data = request.get_json()
         
+        # 여러 윈도우를 한 번의 모델 호출로 예측
+        if 'batch' in data:
+            return _predict_batch_response(data)
+        
+        # 백엔드에서 계산한 특징 텐서가 있으면 librosa 전처리 없이 바로 예측
+        if 'features' in data:
+            return _predict_features_response(data)
+        
         if 'data' not in data:
             return jsonify({
                 "success": False,
@@ -117,13 +159,13 @@ def predict_endpoint():
                 "success": False,
                 "error": f"입력 데이터 오류: {str(e)}"
             }), 400
-        
+    
     except FileNotFoundError as e:
         return jsonify({
             "success": False,
             "error": f"모델 파일을 찾을 수 없습니다: {str(e)}"
         }), 404
-        
+    
     except Exception as e:
         return jsonify({
             "success": False,
@@ -132,6 +174,95 @@ def predict_endpoint():
         }), 500
 
 
+def _predict_features_response(data):
+    """특징 텐서(features) 예측 요청 처리"""
+    features = data['features']
+    feature_shape = data.get('feature_shape')
+    
+    if not isinstance(features, list) or len(features) == 0:
+        return jsonify({
+            "success": False,
+            "error": "'features' 필드는 비어있지 않은 리스트여야 합니다."
+        }), 400
+    
+    try:
+        prediction = predict_features(features, feature_shape)
+    except ValueError as e:
+        return jsonify({
+            "success": False,
+            "error": f"입력 데이터 오류: {str(e)}"
+        }), 400
+    
+    if prediction is None or len(prediction) == 0:
+        return jsonify({
+            "success": False,
+            "error": "예측 결과가 비어있습니다."
+        }), 500
+    
+    info = get_model_info()
+    
+    return jsonify({
+        "success": True,
+        "prediction": prediction,
+        "input_shape": info.get('input_shape', []),
+        "output_shape": info.get('output_shape', [])
+    })
+
+
+def _predict_batch_response(data):
+    """마이크로 배칭 요청(batch) 처리 - 항목별 결과를 같은 순서로 반환"""
+    items = data['batch']
+    
+    if not isinstance(items, list) or len(items) == 0:
+        return jsonify({
+            "success": False,
+            "error": "'batch' 필드는 비어있지 않은 리스트여야 합니다."
+        }), 400
+    
+    predictions, errors = predict_batch_items(items)
+    
+    info = get_model_info()
+    
+    return jsonify({
+        "success": any(p is not None for p in predictions),
+        "prediction": predictions,
+        "errors": errors,
+        "count": len(predictions),
+        "input_shape": info.get('input_shape', []),
+        "output_shape": info.get('output_shape', [])
+    })
+
+
+def _predict_binary_response(body):
+    """바이너리(application/x-factory-tensor) 예측 요청 처리"""
+    try:
+        items = wire_format.decode_request(body)
+    except ValueError as e:
+        return jsonify({
+            "success": False,
+            "error": f"입력 데이터 오류: {str(e)}"
+        }), 400
+    
+    if len(items) > 1:
+        return _predict_batch_response({"batch": items})
+    
+    predictions, errors = predict_batch_items(items)
+    if predictions[0] is None:
+        return jsonify({
+            "success": False,
+            "error": errors[0] or "예측 결과가 비어있습니다."
+        }), 400
+    
+    info = get_model_info()
+    
+    return jsonify({
+        "success": True,
+        "prediction": predictions[0],
+        "input_shape": info.get('input_shape', []),
+        "output_shape": info.get('output_shape', [])
+    })
+
+
 @app.route('/api/predict/batch', methods=['POST'])
 def predict_batch():
     """
@@ -171,7 +302,7 @@ def predict_batch():
             "predictions": predictions,
             "count": len(predictions)
         })
-        
+    
     except Exception as e:
         return jsonify({
             "success": False,
@@ -180,14 +311,23 @@ def predict_batch():
         }), 500
 
 
-if __name__ == '__main__':
-    print("=" * 50)
-    print("AI 모델 서비스 시작 중...")
-    print("=" * 50)
-    
-    # 서버 시작 전 모델 로드 테스트
+def _handle_socket_request(content_type, body):
+    """유닉스 도메인 소켓으로 받은 예측 요청을 /api/predict와 똑같이 처리합니다."""
+    with app.test_request_context('/api/predict', method='POST', data=body, content_type=content_type):
+        response = app.make_response(predict_endpoint())
+        return response.status_code, response.get_data()
+
+
+def start_serving():
+    """
+    요청을 받기 전에 모델을 예열하고 예측 소켓(ML_UDS_PATH)을 엽니다. 프로세스마다 한 번 호출합니다.
+    - python app.py: 실제로 요청을 처리하는 프로세스에서 호출 (디버그 리로더의 감시 프로세스 제외)
+    - WSGI 서버(gunicorn 등): wsgi.py가 앱을 불러올 때 호출
+    예열에 실패하면 경고만 출력하며, 준비 상태 확인(/api/health/ready)은 계속 503을 반환합니다.
+    """
+    # 모델 로드 및 예열 (첫 요청의 모델 로드/그래프 추적 지연 제거)
     try:
-        model = load_ai_model()
+        model = warm_up_model()
         print(f"✅ 모델 로드 성공!")
         print(f"   입력 shape: {model.input_shape}")
         print(f"   출력 shape: {model.output_shape}")
@@ -197,14 +337,36 @@ if __name__ == '__main__':
     except Exception as e:
         print(f"⚠️  경고: 모델 로드 중 오류 발생: {e}")
     
+    # 같은 호스트의 백엔드용 유닉스 도메인 소켓 (백엔드 ml.transport.uds-path와 같은 경로)
+    uds_path = os.environ.get('ML_UDS_PATH')
+    if uds_path:
+        uds_server.start(uds_path, _handle_socket_request)
+        print(f"예측 소켓: {uds_path}")
+
+
+if __name__ == '__main__':
+    print("=" * 50)
+    print("AI 모델 서비스 시작 중...")
+    print("=" * 50)
+    
+    debug = os.environ.get('FLASK_DEBUG', '1') != '0'
+    
+    # 디버그 리로더는 스크립트를 두 번 실행하므로, 예열과 소켓은 실제로 요청을 처리하는 자식 프로세스에서만 수행합니다
+    # (리로더를 쓰지 않으면 이 프로세스가 요청을 처리)
+    if not debug or os.environ.get('WERKZEUG_RUN_MAIN') == 'true':
+        start_serving()
+    
     print("\n서버 시작: http://localhost:5000")
     print("API 엔드포인트:")
     print("  - GET  /api/health")
+    print("  - GET  /api/health/ready")
     print("  - GET  /api/model/info")
     print("  - POST /api/predict")
     print("  - POST /api/predict/batch")
     print("=" * 50)
     
-    # 개발 모드로 실행 (프로덕션에서는 gunicorn 등 사용)
-    app.run(host='0.0.0.0', port=5000, debug=True)
-
+    # 백엔드의 커넥션 풀이 연결을 재사용할 수 있도록 HTTP/1.1 keep-alive 사용
+    WSGIRequestHandler.protocol_version = "HTTP/1.1"
+    
+    # 개발 모드로 실행 (FLASK_DEBUG=0이면 리로더/디버거 없이 실행, 프로덕션에서는 wsgi.py로 gunicorn 등 사용)
+    app.run(host='0.0.0.0', port=5000, debug=debug, threaded=True)
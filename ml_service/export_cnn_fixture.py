@@ -0,0 +1,299 @@
+"""
+Java 백엔드의 로컬 추론 엔진(com.factory.inference.CnnModel)이 Keras와 같은 값을 내는지 확인하는
+작은 테스트용 모델(.cnn)과 레이어별 기준 출력을 만듭니다.
+
+사용법:
+    python export_cnn_fixture.py        # ../backend/src/test/resources/inference/
+    python export_cnn_fixture.py 출력_디렉터리
+
+모델 (입력 10 x 11 x 2, 가중치는 고정 시드의 의사 난수):
+    0 Conv2D(4, 3x3, strides=2, padding='same', relu)   10x11 → 5x6  (위/아래 패딩 0/1, 좌/우 1/1)
+    1 BatchNormalization (이동 평균/분산, gamma, beta 모두 1/0이 아닌 값)
+    2 AveragePooling2D(2x2, strides=1, padding='same')   가장자리는 패딩을 뺀 원소 수로 나눔
+    3 Conv2D(5, 2x2, padding='valid', linear)          5x6 → 4x5
+    4 Activation('relu')
+    5 MaxPooling2D(2x2, strides=2, padding='same')       4x5 → 2x3
+    6 Flatten
+    7 Dense(4, linear)
+    8 Activation('softmax')
+
+입력은 export_weights.py의 검증용 고정 입력(input[i] = (i % 97) / 96)입니다.
+
+기준 출력은 ml_service 가상환경(requirements.txt)에서 Keras로 계산하고, .cnn 파일은 export_weights.export()로 씁니다.
+TensorFlow가 없는 환경에서는 TensorFlow의 레이어 정의(same 패딩 규칙, 패딩을 제외한 평균 풀링 등)를 따른
+순수 파이썬 구현(float64)으로 계산하고 같은 바이너리 형식으로 씁니다. 어느 쪽으로 만들었는지 기준값 파일 머리말에 기록합니다.
+
+출력:
+    reference_model.cnn          가중치 + 기준 출력(마지막 레이어, 파일 끝의 FREF 블록)
+    reference_model_layers.txt   레이어마다 두 줄: "번호 이름 크기", 출력값 (H, W, C 행 우선, 공백 구분)
+"""
+
+import math
+import os
+import struct
+import sys
+
+INPUT_SHAPE = (10, 11, 2)
+EPSILON = 1e-3
+
+DEFAULT_OUTPUT = os.path.join(os.path.dirname(__file__), '..', 'backend', 'src', 'test', 'resources', 'inference')
+
+# export_weights.py와 같은 코드
+CONV2D, MAX_POOL, AVG_POOL, DENSE, FLATTEN, BATCH_NORM, GLOBAL_AVG, ACTIVATION, GLOBAL_MAX = range(1, 10)
+LINEAR, RELU, SOFTMAX = 0, 1, 2
+VALID, SAME = 0, 1
+
+
+def _f32(value):
+    return struct.unpack('<f', struct.pack('<f', value))[0]
+
+
+class _Random:
+    """고정 시드 선형 합동 난수 ([-1, 1) 균등, float32로 반올림)"""
+
+    def __init__(self, seed):
+        self.state = seed
+
+    def next(self, scale=1.0):
+        self.state = (1103515245 * self.state + 12345) % 2 ** 31
+        return _f32(scale * (self.state / 2 ** 30 - 1.0))
+
+    def array(self, shape, scale=1.0, offset=0.0):
+        if len(shape) == 1:
+            return [_f32(offset + self.next(scale)) for _ in range(shape[0])]
+        return [self.array(shape[1:], scale, offset) for _ in range(shape[0])]
+
+
+def build_weights():
+    rng = _Random(20240611)
+    conv1_kernel = rng.array((3, 3, 2, 4), 0.4)
+    # 입력이 모두 0 ~ 1이므로, 편향을 평균 입력(0.5)에 대한 응답의 반대로 두어 ReLU 뒤에도 채널마다 0과 양수가 섞이게 함
+    conv1_bias = [_f32(-0.5 * sum(kernel_x[c][o] for kernel_y in conv1_kernel for kernel_x in kernel_y for c in range(2))
+                       + rng.next(0.1)) for o in range(4)]
+    weights = {
+        'conv1_kernel': conv1_kernel,
+        'conv1_bias': conv1_bias,
+        'bn_gamma': rng.array((4,), 0.3, 1.0),
+        'bn_beta': rng.array((4,), 0.2),
+        'bn_mean': rng.array((4,), 0.2, 0.3),
+        'bn_variance': rng.array((4,), 0.3, 0.6),
+        'conv2_kernel': rng.array((2, 2, 4, 5), 0.4),
+    }
+    # 두 번째 합성곱도 같은 방식으로, 입력(평균 풀링 출력)의 채널 평균에 대한 응답을 편향으로 상쇄
+    pooled = _flat(_forward(weights, 3))
+    channel_mean = [sum(pooled[k::4]) / (len(pooled) // 4) for k in range(4)]
+    conv2_kernel = weights['conv2_kernel']
+    weights['conv2_bias'] = [_f32(-sum(kernel_x[c][o] * channel_mean[c]
+                                       for kernel_y in conv2_kernel for kernel_x in kernel_y for c in range(4))
+                                  + rng.next(0.1)) for o in range(5)]
+    weights['dense_kernel'] = rng.array((30, 4), 0.4)
+    weights['dense_bias'] = rng.array((4,), 0.1)
+    return weights
+
+
+def reference_input():
+    h, w, c = INPUT_SHAPE
+    flat = [_f32((i % 97) / 96.0) for i in range(h * w * c)]
+    return [[[flat[(y * w + x) * c + k] for k in range(c)] for x in range(w)] for y in range(h)]
+
+
+# ---- Keras ----
+
+def outputs_with_keras(weights):
+    import numpy as np
+    from tensorflow import keras
+    from export_weights import export
+
+    layers = keras.layers
+    model = keras.Sequential([
+        keras.Input(shape=INPUT_SHAPE),
+        layers.Conv2D(4, 3, strides=2, padding='same', activation='relu', name='conv_same_stride2'),
+        layers.BatchNormalization(epsilon=EPSILON, name='batch_norm'),
+        layers.AveragePooling2D(2, strides=1, padding='same', name='avg_pool_same'),
+        layers.Conv2D(5, 2, padding='valid', name='conv_valid'),
+        layers.Activation('relu', name='relu'),
+        layers.MaxPooling2D(2, strides=2, padding='same', name='max_pool_same'),
+        layers.Flatten(name='flatten'),
+        layers.Dense(4, name='dense'),
+        layers.Activation('softmax', name='softmax'),
+    ])
+    f32 = lambda key: np.array(weights[key], dtype=np.float32)
+    model.get_layer('conv_same_stride2').set_weights([f32('conv1_kernel'), f32('conv1_bias')])
+    model.get_layer('batch_norm').set_weights([f32('bn_gamma'), f32('bn_beta'), f32('bn_mean'), f32('bn_variance')])
+    model.get_layer('conv_valid').set_weights([f32('conv2_kernel'), f32('conv2_bias')])
+    model.get_layer('dense').set_weights([f32('dense_kernel'), f32('dense_bias')])
+
+    sample = np.array(reference_input(), dtype=np.float32)[np.newaxis]
+    probe = keras.Model(model.inputs, [layer.output for layer in model.layers])
+    outputs = [(layer.name, np.ravel(value[0]).astype(np.float64).tolist())
+               for layer, value in zip(model.layers, probe.predict(sample, verbose=0))]
+
+    def write(path):
+        export(model, path, np.array(outputs[-1][1], dtype=np.float32))
+
+    return outputs, write, f"Keras {keras.__version__} (export_weights.export)"
+
+
+# ---- TensorFlow 레이어 정의를 따른 순수 파이썬 구현 (TensorFlow가 없을 때) ----
+
+def _same_padding(size, kernel, stride):
+    out = -(-size // stride)
+    total = max((out - 1) * stride + kernel - size, 0)
+    return out, total // 2
+
+
+def _conv2d(x, kernel, bias, stride, padding, activation):
+    h, w, in_c = len(x), len(x[0]), len(x[0][0])
+    kh, kw, out_c = len(kernel), len(kernel[0]), len(bias)
+    if padding == 'same':
+        out_h, top = _same_padding(h, kh, stride)
+        out_w, left = _same_padding(w, kw, stride)
+    else:
+        out_h, top = (h - kh) // stride + 1, 0
+        out_w, left = (w - kw) // stride + 1, 0
+    out = []
+    for oy in range(out_h):
+        row = []
+        for ox in range(out_w):
+            values = list(bias)
+            for ky in range(kh):
+                for kx in range(kw):
+                    iy, ix = oy * stride + ky - top, ox * stride + kx - left
+                    if 0 <= iy < h and 0 <= ix < w:
+                        for ic in range(in_c):
+                            for oc in range(out_c):
+                                values[oc] += x[iy][ix][ic] * kernel[ky][kx][ic][oc]
+            row.append([max(v, 0.0) for v in values] if activation == 'relu' else values)
+        out.append(row)
+    return out
+
+
+def _pool2d(x, size, stride, use_max):
+    # padding='same': 패딩 위치는 최대값/평균 모두에서 제외 (tf.nn.max_pool / avg_pool)
+    h, w, c = len(x), len(x[0]), len(x[0][0])
+    out_h, top = _same_padding(h, size, stride)
+    out_w, left = _same_padding(w, size, stride)
+    out = []
+    for oy in range(out_h):
+        row = []
+        for ox in range(out_w):
+            window = [x[iy][ix]
+                      for iy in range(oy * stride - top, oy * stride - top + size) if 0 <= iy < h
+                      for ix in range(ox * stride - left, ox * stride - left + size) if 0 <= ix < w]
+            if use_max:
+                row.append([max(v[k] for v in window) for k in range(c)])
+            else:
+                row.append([sum(v[k] for v in window) / len(window) for k in range(c)])
+        out.append(row)
+    return out
+
+
+def _map(x, fn):
+    return [[[fn(k, v) for k, v in enumerate(cell)] for cell in row] for row in x]
+
+
+def _flat(x):
+    return [v for row in x for cell in row for v in cell] if isinstance(x[0], list) else list(x)
+
+
+def _forward(weights, layer_count, outputs=None):
+    """앞의 layer_count개 레이어(합성곱 ~ 평균 풀링, 최대 3개)를 실행합니다."""
+    x = reference_input()
+    steps = [
+        ('conv_same_stride2', lambda x: _conv2d(x, weights['conv1_kernel'], weights['conv1_bias'], 2, 'same', 'relu')),
+        ('batch_norm', lambda x: _map(x, lambda k, v: weights['bn_gamma'][k] * (v - weights['bn_mean'][k])
+                                      / math.sqrt(weights['bn_variance'][k] + EPSILON) + weights['bn_beta'][k])),
+        ('avg_pool_same', lambda x: _pool2d(x, 2, 1, use_max=False)),
+    ]
+    for name, step in steps[:layer_count]:
+        x = step(x)
+        if outputs is not None:
+            outputs.append((name, _flat(x)))
+    return x
+
+
+def outputs_without_keras(weights):
+    outputs = []
+    x = _forward(weights, 3, outputs)
+    x = _conv2d(x, weights['conv2_kernel'], weights['conv2_bias'], 1, 'valid', 'linear')
+    outputs.append(('conv_valid', _flat(x)))
+    x = _map(x, lambda k, v: max(v, 0.0))
+    outputs.append(('relu', _flat(x)))
+    x = _pool2d(x, 2, 2, use_max=True)
+    outputs.append(('max_pool_same', _flat(x)))
+    x = _flat(x)
+    outputs.append(('flatten', x))
+    kernel, bias = weights['dense_kernel'], weights['dense_bias']
+    x = [bias[o] + sum(x[i] * kernel[i][o] for i in range(len(x))) for o in range(len(bias))]
+    outputs.append(('dense', x))
+    peak = max(x)
+    exps = [math.exp(v - peak) for v in x]
+    x = [e / sum(exps) for e in exps]
+    outputs.append(('softmax', x))
+
+    def write(path):
+        _write_cnn(path, weights, outputs[-1][1])
+
+    return outputs, write, "TensorFlow 레이어 정의를 따른 순수 파이썬 구현 (float64)"
+
+
+def _write_cnn(path, weights, reference_output):
+    # export_weights.export()와 같은 형식 (BatchNorm은 scale/shift로 미리 합쳐서 float32로 기록)
+    def ints(*values):
+        out.write(struct.pack('<%di' % len(values), *values))
+
+    def floats(values):
+        out.write(struct.pack('<%df' % len(values), *values))
+
+    def flatten(nested):
+        return [v for item in nested for v in flatten(item)] if isinstance(nested, list) else [nested]
+
+    scale = [_f32(g / math.sqrt(_f32(v + EPSILON))) for g, v in zip(weights['bn_gamma'], weights['bn_variance'])]
+    shift = [b - m * s for b, m, s in zip(weights['bn_beta'], weights['bn_mean'], scale)]
+    with open(path, 'wb') as out:
+        out.write(b"FCNN")
+        ints(1, *INPUT_SHAPE, 9)
+        ints(CONV2D, 3, 3, 2, 4, 2, 2, SAME, RELU)
+        floats(flatten(weights['conv1_kernel']))
+        floats(weights['conv1_bias'])
+        ints(BATCH_NORM, 4)
+        floats(scale)
+        floats(shift)
+        ints(AVG_POOL, 2, 2, 1, 1, SAME)
+        ints(CONV2D, 2, 2, 4, 5, 1, 1, VALID, LINEAR)
+        floats(flatten(weights['conv2_kernel']))
+        floats(weights['conv2_bias'])
+        ints(ACTIVATION, RELU)
+        ints(MAX_POOL, 2, 2, 2, 2, SAME)
+        ints(FLATTEN)
+        ints(DENSE, 30, 4, LINEAR)
+        floats(flatten(weights['dense_kernel']))
+        floats(weights['dense_bias'])
+        ints(ACTIVATION, SOFTMAX)
+        out.write(b"FREF")
+        ints(len(reference_output))
+        floats(reference_output)
+
+
+def main():
+    output_dir = sys.argv[1] if len(sys.argv) > 1 else DEFAULT_OUTPUT
+    weights = build_weights()
+    try:
+        outputs, write_cnn, source = outputs_with_keras(weights)
+    except ImportError:
+        outputs, write_cnn, source = outputs_without_keras(weights)
+
+    os.makedirs(output_dir, exist_ok=True)
+    write_cnn(os.path.join(output_dir, 'reference_model.cnn'))
+    with open(os.path.join(output_dir, 'reference_model_layers.txt'), 'w', encoding='utf-8') as f:
+        f.write("# ml_service/export_cnn_fixture.py로 생성 - 직접 수정하지 마세요\n")
+        f.write(f"# 기준: {source}\n")
+        f.write(f"# 입력: {INPUT_SHAPE[0]}x{INPUT_SHAPE[1]}x{INPUT_SHAPE[2]}, input[i] = (i % 97) / 96\n")
+        for index, (name, values) in enumerate(outputs):
+            f.write(f"{index} {name} {len(values)}\n")
+            f.write(" ".join(f"{v:.9g}" for v in values) + "\n")
+    print(f"기준 모델 저장: {output_dir} (레이어 {len(outputs)}개, 출력 {[round(v, 6) for v in outputs[-1][1]]}, {source})")
+
+
+if __name__ == '__main__':
+    main()
@@ -0,0 +1,173 @@
+"""
+Java 백엔드의 log-mel 특징 추출기(com.factory.audio.MelSpectrogramExtractor)가
+model_loader.audio_to_mel_spectrogram()과 같은 값을 내는지 확인하는 테스트 기준값을 만듭니다.
+
+사용법:
+    python export_mel_fixture.py        # ../backend/src/test/resources/audio/mel_reference_16k.txt
+    python export_mel_fixture.py 출력.txt
+
+입력 신호 (16kHz, 1.5초 → 2초로 0 패딩, MelSpectrogramExtractorTest.referenceSignal()과 동일):
+    t = n / 16000, n = 0 .. 23999
+    x[n] = 0.6 * sin(2π·440·t)
+         + 0.3 * sin(2π·(500·t + 1500·t²))          (500Hz → 5000Hz 처프)
+         + 0.1 * sin(2π·6500·t)   (n < 8000 일 때만)
+         + 0.02 * (r[n] / 2^31 - 0.5)   (r[n+1] = (1103515245·r[n] + 12345) mod 2^31, r[0] = 1: 광대역 잡음)
+    float32로 반올림한 값을 사용합니다.
+
+기준값은 ml_service 가상환경(requirements.txt)에서 audio_to_mel_spectrogram()으로 계산합니다.
+librosa/TensorFlow가 없는 환경에서는 librosa 0.10.1의 해당 함수(stft, filters.mel, power_to_db)를
+그대로 옮긴 순수 파이썬 구현으로 계산하며, 어느 쪽으로 만들었는지 파일 머리말에 기록합니다.
+
+출력 형식 (텍스트):
+    # 주석 줄
+    128 63
+    mel 밴드마다 한 줄: 프레임별 값 (공백 구분, 소수점 6자리)
+"""
+
+import cmath
+import math
+import os
+import struct
+import sys
+
+SAMPLE_RATE = 16000
+LENGTH = 24000
+N_FFT = 2048
+HOP_LENGTH = 512
+N_MELS = 128
+DURATION = 2.0
+AMIN = 1e-10
+TOP_DB = 80.0
+
+DEFAULT_OUTPUT = os.path.join(os.path.dirname(__file__), '..', 'backend', 'src', 'test', 'resources',
+                              'audio', 'mel_reference_16k.txt')
+
+
+def reference_signal():
+    samples = []
+    state = 1
+    for n in range(LENGTH):
+        t = n / SAMPLE_RATE
+        x = 0.6 * math.sin(2 * math.pi * 440 * t)
+        x += 0.3 * math.sin(2 * math.pi * (500 * t + 1500 * t * t))
+        if n < 8000:
+            x += 0.1 * math.sin(2 * math.pi * 6500 * t)
+        x += 0.02 * (state / 2 ** 31 - 0.5)
+        state = (1103515245 * state + 12345) % 2 ** 31
+        samples.append(struct.unpack('f', struct.pack('f', x))[0])
+    return samples
+
+
+def mel_with_librosa(samples):
+    from model_loader import audio_to_mel_spectrogram
+    import librosa
+
+    mel = audio_to_mel_spectrogram(samples, sample_rate=SAMPLE_RATE)
+    return mel[:, :, 0].tolist(), f"model_loader.audio_to_mel_spectrogram (librosa {librosa.__version__})"
+
+
+# ---- librosa 0.10.1 순수 파이썬 구현 (librosa가 없을 때) ----
+
+def _hz_to_mel(frequency):
+    # Slaney mel 스케일 (htk=False)
+    f_sp = 200.0 / 3
+    mel = frequency / f_sp
+    min_log_hz = 1000.0
+    if frequency >= min_log_hz:
+        mel = min_log_hz / f_sp + math.log(frequency / min_log_hz) / (math.log(6.4) / 27.0)
+    return mel
+
+
+def _mel_to_hz(mel):
+    f_sp = 200.0 / 3
+    min_log_mel = 1000.0 / f_sp
+    if mel >= min_log_mel:
+        return 1000.0 * math.exp(math.log(6.4) / 27.0 * (mel - min_log_mel))
+    return f_sp * mel
+
+
+def _mel_filters():
+    # librosa.filters.mel(sr, n_fft, n_mels, fmin=0, fmax=sr/2, htk=False, norm='slaney')
+    fft_freqs = [k * SAMPLE_RATE / N_FFT for k in range(N_FFT // 2 + 1)]
+    min_mel = _hz_to_mel(0.0)
+    max_mel = _hz_to_mel(SAMPLE_RATE / 2)
+    mel_f = [_mel_to_hz(min_mel + (max_mel - min_mel) * i / (N_MELS + 1)) for i in range(N_MELS + 2)]
+    weights = []
+    for m in range(N_MELS):
+        lower_width = mel_f[m + 1] - mel_f[m]
+        upper_width = mel_f[m + 2] - mel_f[m + 1]
+        enorm = 2.0 / (mel_f[m + 2] - mel_f[m])
+        row = []
+        for f in fft_freqs:
+            lower = (f - mel_f[m]) / lower_width
+            upper = (mel_f[m + 2] - f) / upper_width
+            row.append(max(0.0, min(lower, upper)) * enorm)
+        weights.append(row)
+    return weights
+
+
+def _fft(values):
+    n = len(values)
+    if n == 1:
+        return list(values)
+    even = _fft(values[0::2])
+    odd = _fft(values[1::2])
+    out = [0j] * n
+    for k in range(n // 2):
+        twiddle = cmath.exp(-2j * math.pi * k / n) * odd[k]
+        out[k] = even[k] + twiddle
+        out[k + n // 2] = even[k] - twiddle
+    return out
+
+
+def mel_without_librosa(samples):
+    target = int(SAMPLE_RATE * DURATION)
+    y = list(samples[:target]) + [0.0] * max(0, target - len(samples))
+    peak = max(abs(v) for v in y)
+    if peak > 0:
+        y = [v / peak for v in y]
+
+    # stft(center=True, pad_mode='constant'), 주기적 Hann 윈도우, power=2
+    pad = N_FFT // 2
+    padded = [0.0] * pad + y + [0.0] * pad
+    window = [0.5 - 0.5 * math.cos(2 * math.pi * n / N_FFT) for n in range(N_FFT)]
+    frames = 1 + (len(padded) - N_FFT) // HOP_LENGTH
+    filters = _mel_filters()
+
+    mel = [[0.0] * frames for _ in range(N_MELS)]
+    for t in range(frames):
+        start = t * HOP_LENGTH
+        spectrum = _fft([padded[start + n] * window[n] for n in range(N_FFT)])
+        power = [abs(spectrum[k]) ** 2 for k in range(N_FFT // 2 + 1)]
+        for m in range(N_MELS):
+            mel[m][t] = sum(w * p for w, p in zip(filters[m], power) if w)
+
+    # power_to_db(ref=np.max, amin=1e-10, top_db=80) → (dB + 80) / 80 → [0, 1]
+    ref_db = 10 * math.log10(max(AMIN, max(max(row) for row in mel)))
+    db = [[10 * math.log10(max(AMIN, v)) - ref_db for v in row] for row in mel]
+    floor = max(max(row) for row in db) - TOP_DB
+    return ([[min(1.0, max(0.0, (max(v, floor) + TOP_DB) / TOP_DB)) for v in row] for row in db],
+            "librosa 0.10.1 stft/filters.mel/power_to_db 순수 파이썬 구현 (float64)")
+
+
+def main():
+    output = sys.argv[1] if len(sys.argv) > 1 else DEFAULT_OUTPUT
+    samples = reference_signal()
+    try:
+        mel, source = mel_with_librosa(samples)
+    except ImportError:
+        mel, source = mel_without_librosa(samples)
+
+    os.makedirs(os.path.dirname(os.path.abspath(output)), exist_ok=True)
+    with open(output, 'w', encoding='utf-8') as f:
+        f.write("# ml_service/export_mel_fixture.py로 생성 - 직접 수정하지 마세요\n")
+        f.write(f"# 기준: {source}\n")
+        f.write(f"# 입력: 16kHz, {LENGTH}샘플 (2초로 0 패딩), n_fft={N_FFT}, hop={HOP_LENGTH}, n_mels={N_MELS}\n")
+        f.write(f"{len(mel)} {len(mel[0])}\n")
+        for row in mel:
+            f.write(" ".join(f"{v:.6f}" for v in row) + "\n")
+    print(f"기준값 저장: {output} ({len(mel)} x {len(mel[0])}, {source})")
+
+
+if __name__ == '__main__':
+    main()
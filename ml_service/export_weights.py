@@ -0,0 +1,211 @@
+"""
+Keras 모델(.h5)을 Java 백엔드의 로컬 추론 엔진(com.factory.inference.CnnModel)이
+읽을 수 있는 단순 바이너리 형식으로 변환합니다.
+
+사용법:
+    python export_weights.py                      # models/final.h5 -> models/final.cnn
+    python export_weights.py 입력.h5 출력.cnn
+
+바이너리 형식 (모두 리틀 엔디언, int32 / float32):
+    magic "FCNN", version(1)
+    입력 shape: H, W, C
+    레이어 수
+    레이어마다: 타입 코드 + 타입별 필드 + 가중치
+
+    CONV2D(1):      kh, kw, in_c, out_c, stride_h, stride_w, padding, activation,
+                    kernel[kh][kw][in_c][out_c], bias[out_c]
+    MAX_POOL(2):    ph, pw, stride_h, stride_w, padding
+    AVG_POOL(3):    ph, pw, stride_h, stride_w, padding
+    DENSE(4):       in, out, activation, kernel[in][out], bias[out]
+    FLATTEN(5)
+    BATCH_NORM(6):  channels, scale[c], shift[c]   (추론용으로 미리 합친 값)
+    GLOBAL_AVG(7)
+    ACTIVATION(8):  activation
+    GLOBAL_MAX(9)
+
+    (선택) 기준 출력: magic "FREF", 출력 크기 N, float32[N]
+        고정 입력 input[i] = (i % 97) / 96 에 대한 Keras 출력. 백엔드는 로드할 때 같은 입력으로 추론해 비교합니다.
+
+    padding: 0=valid, 1=same
+    activation: 0=linear, 1=relu, 2=softmax, 3=sigmoid, 4=tanh
+
+Dropout 계열 레이어는 추론 시 항등이므로 기록하지 않습니다.
+"""
+
+import os
+import struct
+import sys
+
+import numpy as np
+
+from model_loader import MODEL_PATH, load_ai_model
+
+MAGIC = b"FCNN"
+REFERENCE_MAGIC = b"FREF"
+VERSION = 1
+
+CONV2D, MAX_POOL, AVG_POOL, DENSE, FLATTEN, BATCH_NORM, GLOBAL_AVG, ACTIVATION, GLOBAL_MAX = range(1, 10)
+
+ACTIVATIONS = {
+    "linear": 0,
+    "relu": 1,
+    "softmax": 2,
+    "sigmoid": 3,
+    "tanh": 4,
+}
+
+PADDINGS = {
+    "valid": 0,
+    "same": 1,
+}
+
+SKIPPED_LAYERS = {"InputLayer", "Dropout", "SpatialDropout2D", "GaussianNoise", "GaussianDropout"}
+
+
+def _ints(out, *values):
+    out.write(struct.pack("<%di" % len(values), *values))
+
+
+def _floats(out, array):
+    out.write(np.ascontiguousarray(array, dtype="<f4").tobytes())
+
+
+def _activation_code(name):
+    if name not in ACTIVATIONS:
+        raise ValueError(f"지원하지 않는 활성화 함수입니다: {name}")
+    return ACTIVATIONS[name]
+
+
+def _write_layer(out, layer):
+    kind = type(layer).__name__
+    config = layer.get_config()
+
+    if kind == "Conv2D":
+        if tuple(config.get("dilation_rate", (1, 1))) != (1, 1):
+            raise ValueError(f"{layer.name}: dilation은 지원하지 않습니다")
+        if config.get("data_format", "channels_last") != "channels_last":
+            raise ValueError(f"{layer.name}: channels_last 형식만 지원합니다")
+        weights = layer.get_weights()
+        kernel = weights[0]
+        bias = weights[1] if config.get("use_bias", True) else np.zeros(kernel.shape[3], dtype=np.float32)
+        kh, kw, in_c, out_c = kernel.shape
+        sh, sw = config["strides"]
+        _ints(out, CONV2D, kh, kw, in_c, out_c, sh, sw,
+              PADDINGS[config["padding"]], _activation_code(config["activation"]))
+        _floats(out, kernel)
+        _floats(out, bias)
+
+    elif kind in ("MaxPooling2D", "AveragePooling2D"):
+        ph, pw = config["pool_size"]
+        strides = config.get("strides") or config["pool_size"]
+        sh, sw = strides
+        _ints(out, MAX_POOL if kind == "MaxPooling2D" else AVG_POOL,
+              ph, pw, sh, sw, PADDINGS[config["padding"]])
+
+    elif kind == "Dense":
+        weights = layer.get_weights()
+        kernel = weights[0]
+        bias = weights[1] if config.get("use_bias", True) else np.zeros(kernel.shape[1], dtype=np.float32)
+        _ints(out, DENSE, kernel.shape[0], kernel.shape[1], _activation_code(config["activation"]))
+        _floats(out, kernel)
+        _floats(out, bias)
+
+    elif kind == "Flatten":
+        _ints(out, FLATTEN)
+
+    elif kind == "BatchNormalization":
+        axis = config["axis"]
+        axis = axis[0] if isinstance(axis, (list, tuple)) else axis
+        if axis not in (-1, len(layer.input_shape) - 1):
+            raise ValueError(f"{layer.name}: 마지막 축(채널) 정규화만 지원합니다")
+        params = dict(zip([w.name.split("/")[-1].split(":")[0] for w in layer.weights], layer.get_weights()))
+        mean = params["moving_mean"]
+        variance = params["moving_variance"]
+        gamma = params.get("gamma", np.ones_like(mean))
+        beta = params.get("beta", np.zeros_like(mean))
+        scale = gamma / np.sqrt(variance + config["epsilon"])
+        shift = beta - mean * scale
+        _ints(out, BATCH_NORM, mean.shape[0])
+        _floats(out, scale)
+        _floats(out, shift)
+
+    elif kind == "GlobalAveragePooling2D":
+        _ints(out, GLOBAL_AVG)
+
+    elif kind == "GlobalMaxPooling2D":
+        _ints(out, GLOBAL_MAX)
+
+    elif kind == "Activation":
+        _ints(out, ACTIVATION, _activation_code(config["activation"]))
+
+    elif kind == "ReLU":
+        if config.get("max_value") is not None or config.get("negative_slope", 0) != 0:
+            raise ValueError(f"{layer.name}: 기본 ReLU만 지원합니다")
+        _ints(out, ACTIVATION, ACTIVATIONS["relu"])
+
+    elif kind == "Softmax":
+        _ints(out, ACTIVATION, ACTIVATIONS["softmax"])
+
+    else:
+        raise ValueError(f"{layer.name}: 지원하지 않는 레이어입니다 ({kind})")
+
+
+def reference_input(model):
+    """
+    Java 엔진에서도 쉽게 만들 수 있는 고정 입력 (input[i] = (i % 97) / 96, CnnModel.referenceInput()과 동일)
+    """
+    size = int(np.prod(model.input_shape[1:]))
+    return ((np.arange(size) % 97) / 96.0).astype(np.float32).reshape((1,) + tuple(model.input_shape[1:]))
+
+
+def export(model, output_path, reference_output=None):
+    """
+    모델을 바이너리 형식으로 저장합니다. reference_output이 있으면 기준 출력으로 파일 끝에 기록합니다.
+    """
+    input_shape = model.input_shape
+    if len(input_shape) != 4:
+        raise ValueError(f"(batch, H, W, C) 입력만 지원합니다: {input_shape}")
+
+    layers = [layer for layer in model.layers if type(layer).__name__ not in SKIPPED_LAYERS]
+
+    with open(output_path, "wb") as out:
+        out.write(MAGIC)
+        _ints(out, VERSION)
+        _ints(out, *input_shape[1:])
+        _ints(out, len(layers))
+        for layer in layers:
+            _write_layer(out, layer)
+        if reference_output is not None:
+            reference_output = np.ravel(reference_output)
+            out.write(REFERENCE_MAGIC)
+            _ints(out, reference_output.size)
+            _floats(out, reference_output)
+
+    return layers
+
+
+def main():
+    model_path = sys.argv[1] if len(sys.argv) > 1 else MODEL_PATH
+    output_path = sys.argv[2] if len(sys.argv) > 2 else os.path.splitext(model_path)[0] + ".cnn"
+
+    if model_path == MODEL_PATH:
+        model = load_ai_model()
+    else:
+        from tensorflow.keras.models import load_model
+        model = load_model(model_path)
+
+    # 검증: 고정 입력의 Keras 결과를 파일에 기록하고 출력합니다 (백엔드가 로드할 때 같은 값을 내는지 확인)
+    expected = model.predict(reference_input(model), verbose=0)[0]
+    layers = export(model, output_path, expected)
+
+    print(f"변환 완료: {output_path}")
+    print(f"   입력 shape: {model.input_shape}")
+    print(f"   출력 shape: {model.output_shape}")
+    print(f"   레이어 수: {len(layers)}")
+    for layer in layers:
+        print(f"   - {layer.name} ({type(layer).__name__})")
+    print(f"   검증용 출력: {np.round(expected, 6).tolist()}")
+
+
+if __name__ == "__main__":
+    main()
@@ -3,6 +3,7 @@ AI 모델 로더 및 예측 함수
 .h5 파일을 로드하고 예측을 수행합니다.
 """
 
+import hashlib
 import os
 import numpy as np
 from tensorflow import keras
@@ -14,6 +15,8 @@ MODEL_PATH = os.path.join(os.path.dirname(__file__), 'models', 'final.h5')
 
 # 전역 변수로 모델 저장 (한 번만 로드)
 _model = None
+_model_version = None
+_ready = False  # 예열(warm_up_model)이 끝났는지
 
 
 def load_ai_model():
@@ -21,7 +24,7 @@ def load_ai_model():
     .h5 모델 파일을 로드합니다.
     첫 호출 시에만 로드하고, 이후에는 캐시된 모델을 반환합니다.
     """
-    global _model
+    global _model, _model_version
     
     if _model is None:
         if not os.path.exists(MODEL_PATH):
@@ -32,7 +35,8 @@ def load_ai_model():
         
         print(f"모델 로딩 중: {MODEL_PATH}")
         _model = load_model(MODEL_PATH)
-        print("모델 로드 완료!")
+        _model_version = _file_version(MODEL_PATH)
+        print(f"모델 로드 완료! (버전 {_model_version})")
         
         # 모델 정보 출력
         print(f"입력 shape: {_model.input_shape}")
@@ -41,6 +45,46 @@ def load_ai_model():
     return _model
 
 
+def warm_up_model(batch_sizes=(1, 16)):
+    """
+    모델을 미리 로드하고 더미 입력으로 예측을 실행하여 첫 요청의 지연을 없앱니다.
+    모델 로드, TensorFlow 그래프 추적(배치 크기별), librosa 멜 필터 계산이 모두 첫 호출에서 일어나기 때문입니다.
+    batch_sizes의 최댓값은 백엔드 마이크로 배칭 크기(ml.batch.max-size)와 맞춥니다.
+    끝나면 is_ready()가 True가 됩니다.
+    """
+    global _ready
+    
+    model = load_ai_model()
+    input_shape = tuple(model.input_shape[1:])
+    for batch_size in batch_sizes:
+        model.predict(np.zeros((batch_size,) + input_shape, dtype=np.float32), verbose=0)
+    
+    # 파형 요청 경로 (librosa Mel Spectrogram)
+    noise = np.random.default_rng(0).normal(0.0, 0.1, 32000).astype(np.float32)
+    _predict_mel(model, audio_to_mel_spectrogram(noise))
+    
+    _ready = True
+    print(f"모델 예열 완료 (배치 크기 {list(batch_sizes)})")
+    return model
+
+
+def is_ready():
+    """모델 예열이 끝나 요청을 바로 처리할 수 있는지"""
+    return _ready
+
+
+def _file_version(path):
+    """
+    모델 파일 내용의 SHA-256 앞 12자리를 버전으로 사용합니다.
+    백엔드는 이 값이 바뀌면 예측 캐시를 비웁니다.
+    """
+    digest = hashlib.sha256()
+    with open(path, 'rb') as f:
+        for chunk in iter(lambda: f.read(1 << 20), b''):
+            digest.update(chunk)
+    return digest.hexdigest()[:12]
+
+
 def get_model_info():
     """
     모델의 정보를 반환합니다.
@@ -52,7 +96,8 @@ def get_model_info():
         "output_shape": model.output_shape,
         "model_type": type(model).__name__,
         "layers_count": len(model.layers),
-        "total_params": model.count_params()
+        "total_params": model.count_params(),
+        "model_version": _model_version
     }
 
 
@@ -127,58 +172,38 @@ def predict(input_data, sample_rate=16000):
     Returns:
         예측 결과 (list) - None이나 NaN이 포함되지 않은 깨끗한 리스트
     """
-    import numpy as np
-    
     try:
         model = load_ai_model()
         
-        # 입력 데이터 검증
-        if input_data is None:
-            raise ValueError("입력 데이터가 None입니다")
-        
-        if isinstance(input_data, list):
-            if len(input_data) == 0:
-                raise ValueError("입력 데이터가 비어있습니다")
-            audio_data = np.array(input_data, dtype=np.float32)
-        else:
-            audio_data = np.array(input_data, dtype=np.float32)
-        
-        # NaN이나 Inf 값 체크
-        if np.any(np.isnan(audio_data)) or np.any(np.isinf(audio_data)):
-            raise ValueError("입력 데이터에 NaN이나 Inf 값이 포함되어 있습니다")
-        
-        # 오디오 데이터를 Mel Spectrogram으로 변환
-        mel_spec = audio_to_mel_spectrogram(audio_data, sample_rate=sample_rate)
-        
-        # 모델 입력 형식: (1, 128, 63, 1) - 배치 차원 추가
-        mel_spec = np.expand_dims(mel_spec, axis=0)
+        mel_spec = prepare_audio_input(input_data, sample_rate)
         
-        # 예측 수행
-        predictions = model.predict(mel_spec, verbose=0)
+        return _predict_mel(model, mel_spec)
         
-        # NaN이나 Inf 값 체크
-        if np.any(np.isnan(predictions)) or np.any(np.isinf(predictions)):
-            raise ValueError("예측 결과에 NaN이나 Inf 값이 포함되어 있습니다")
-        
-        # 결과를 리스트로 변환 (JSON 직렬화를 위해)
-        # 배치 예측의 경우 첫 번째 결과만 반환 (단일 예측 결과)
-        if len(predictions.shape) == 1:
-            # 1D 배열인 경우 그대로 반환
-            result = predictions.tolist()
-        else:
-            # 2D 이상 배열인 경우 첫 번째 결과만 반환
-            # 예: (1, 7) -> (7,) 또는 (2, 7) -> (7,)
-            result = predictions[0].tolist()
+    except Exception as e:
+        import traceback
+        print(f"예측 중 오류 발생: {str(e)}")
+        print(traceback.format_exc())
+        raise
+
+
+def predict_features(features, feature_shape=None):
+    """
+    Java 백엔드에서 계산한 log-mel 특징 텐서로 예측을 수행합니다.
+    librosa 전처리를 건너뛰므로 Flask 프로세스의 CPU 사용량이 크게 줄어듭니다.
+    
+    Args:
+        features: 행 우선으로 펼친 특징 값 (list) - (128, 63, 1) 기준 8,064개
+        feature_shape: 특징 텐서 shape (없으면 모델 입력 shape 사용)
+    
+    Returns:
+        예측 결과 (list)
+    """
+    try:
+        model = load_ai_model()
         
-        # None이나 NaN 값 제거 및 검증
-        cleaned_result = []
-        for val in result:
-            if val is None or (isinstance(val, float) and (np.isnan(val) or np.isinf(val))):
-                cleaned_result.append(0.0)  # 기본값으로 0.0 사용
-            else:
-                cleaned_result.append(float(val))
+        mel_spec = prepare_feature_input(features, feature_shape, model)
         
-        return cleaned_result
+        return _predict_mel(model, mel_spec)
         
     except Exception as e:
         import traceback
@@ -187,6 +212,140 @@ def predict(input_data, sample_rate=16000):
         raise
 
 
+def predict_batch_items(items):
+    """
+    여러 윈도우를 한 번의 model.predict 호출로 예측합니다 (배치 크기만큼 효율 향상).
+    
+    Args:
+        items: 요청 항목 리스트. 각 항목은 다음 중 하나
+            {"data": [...], "sampleRate": 16000}
+            {"features": [...], "feature_shape": [128, 63, 1]}
+    
+    Returns:
+        (predictions, errors) - 항목 순서대로의 예측 결과 리스트와 오류 메시지 리스트
+        잘못된 항목은 prediction이 None이고 errors에 사유가 들어갑니다.
+    """
+    model = load_ai_model()
+    
+    predictions = [None] * len(items)
+    errors = [None] * len(items)
+    valid_indices = []
+    mel_specs = []
+    
+    for i, item in enumerate(items):
+        try:
+            if not isinstance(item, dict):
+                raise ValueError("배치 항목은 객체여야 합니다")
+            if 'features' in item:
+                mel_spec = prepare_feature_input(item['features'], item.get('feature_shape'), model)
+            elif 'data' in item:
+                sample_rate = item.get('sample_rate', item.get('sampleRate', 16000))
+                if not isinstance(sample_rate, int):
+                    sample_rate = 16000
+                mel_spec = prepare_audio_input(item['data'], sample_rate)
+            else:
+                raise ValueError("배치 항목에 'data' 또는 'features' 필드가 필요합니다")
+            valid_indices.append(i)
+            mel_specs.append(mel_spec)
+        except ValueError as e:
+            errors[i] = f"입력 데이터 오류: {str(e)}"
+    
+    if mel_specs:
+        batch_predictions = model.predict(np.stack(mel_specs, axis=0), verbose=0)
+        for row, i in enumerate(valid_indices):
+            prediction = batch_predictions[row]
+            if np.any(np.isnan(prediction)) or np.any(np.isinf(prediction)):
+                errors[i] = "예측 결과에 NaN이나 Inf 값이 포함되어 있습니다"
+            else:
+                predictions[i] = _clean_prediction(prediction)
+    
+    return predictions, errors
+
+
+def prepare_audio_input(input_data, sample_rate=16000):
+    """
+    시간 도메인 오디오 데이터를 검증하고 Mel Spectrogram (128, 63, 1)으로 변환합니다.
+    """
+    # 입력 데이터 검증
+    if input_data is None:
+        raise ValueError("입력 데이터가 None입니다")
+    
+    if isinstance(input_data, list):
+        if len(input_data) == 0:
+            raise ValueError("입력 데이터가 비어있습니다")
+        audio_data = np.array(input_data, dtype=np.float32)
+    else:
+        audio_data = np.array(input_data, dtype=np.float32)
+    
+    # NaN이나 Inf 값 체크
+    if np.any(np.isnan(audio_data)) or np.any(np.isinf(audio_data)):
+        raise ValueError("입력 데이터에 NaN이나 Inf 값이 포함되어 있습니다")
+    
+    # 오디오 데이터를 Mel Spectrogram으로 변환
+    return audio_to_mel_spectrogram(audio_data, sample_rate=sample_rate)
+
+
+def prepare_feature_input(features, feature_shape, model):
+    """
+    백엔드에서 계산한 특징 값을 검증하고 모델 입력 shape으로 변환합니다.
+    """
+    if features is None or len(features) == 0:
+        raise ValueError("특징 데이터가 비어있습니다")
+    
+    if feature_shape is None:
+        feature_shape = model.input_shape[1:]
+    feature_shape = tuple(int(d) for d in feature_shape)
+    
+    mel_spec = np.asarray(features, dtype=np.float32)
+    if mel_spec.size != int(np.prod(feature_shape)):
+        raise ValueError(f"특징 데이터 크기({mel_spec.size})가 shape {feature_shape}과 맞지 않습니다")
+    
+    if np.any(np.isnan(mel_spec)) or np.any(np.isinf(mel_spec)):
+        raise ValueError("특징 데이터에 NaN이나 Inf 값이 포함되어 있습니다")
+    
+    return mel_spec.reshape(feature_shape)
+
+
+def _predict_mel(model, mel_spec):
+    """
+    Mel Spectrogram (128, 63, 1) 하나로 모델 예측을 수행하고 결과를 정리합니다.
+    """
+    # 모델 입력 형식: (1, 128, 63, 1) - 배치 차원 추가
+    mel_spec = np.expand_dims(mel_spec, axis=0)
+    
+    # 예측 수행
+    predictions = model.predict(mel_spec, verbose=0)
+    
+    # NaN이나 Inf 값 체크
+    if np.any(np.isnan(predictions)) or np.any(np.isinf(predictions)):
+        raise ValueError("예측 결과에 NaN이나 Inf 값이 포함되어 있습니다")
+    
+    # 결과를 리스트로 변환 (JSON 직렬화를 위해)
+    # 배치 예측의 경우 첫 번째 결과만 반환 (단일 예측 결과)
+    if len(predictions.shape) == 1:
+        # 1D 배열인 경우 그대로 반환
+        return _clean_prediction(predictions)
+    else:
+        # 2D 이상 배열인 경우 첫 번째 결과만 반환
+        # 예: (1, 7) -> (7,) 또는 (2, 7) -> (7,)
+        return _clean_prediction(predictions[0])
+
+
+def _clean_prediction(prediction):
+    """
+    예측 결과 한 건을 JSON 직렬화 가능한 리스트로 변환합니다.
+    None이나 NaN/Inf 값은 0.0으로 대체합니다.
+    """
+    cleaned_result = []
+    for val in np.asarray(prediction).tolist():
+        if val is None or (isinstance(val, float) and (np.isnan(val) or np.isinf(val))):
+            cleaned_result.append(0.0)  # 기본값으로 0.0 사용
+        else:
+            cleaned_result.append(float(val))
+    
+    return cleaned_result
+
+
 # 테스트 코드
 if __name__ == "__main__":
     try:
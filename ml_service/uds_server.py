@@ -0,0 +1,87 @@
+"""
+같은 호스트의 백엔드를 위한 유닉스 도메인 소켓 예측 서버
+
+TCP 루프백과 HTTP 헤더 처리 없이 길이 접두 프레임으로 예측 요청을 받습니다.
+백엔드는 연결을 유지한 채 응답을 기다리지 않고 요청을 연달아 보내며(파이프라인),
+서버는 한 연결의 요청을 받은 순서대로 처리하여 같은 순서로 응답합니다.
+
+요청 프레임:  u32 본문 길이, u8 종류 (0 = JSON, 1 = application/x-factory-tensor), 본문
+응답 프레임:  u32 본문 길이, u16 상태 코드 (HTTP와 같은 의미), JSON 본문
+정수는 리틀 엔디언입니다.
+"""
+
+import json
+import os
+import socket
+import struct
+import threading
+
+import wire_format
+
+KIND_JSON = 0
+KIND_TENSOR = 1
+
+_CONTENT_TYPES = {
+    KIND_JSON: 'application/json',
+    KIND_TENSOR: wire_format.CONTENT_TYPE,
+}
+
+MAX_REQUEST_BYTES = 64 * 1024 * 1024
+
+_REQUEST_HEADER = struct.Struct('<IB')
+_RESPONSE_HEADER = struct.Struct('<IH')
+
+
+def start(path, handler):
+    """
+    백그라운드 스레드에서 소켓 서버를 시작합니다.
+    
+    Args:
+        path: 소켓 파일 경로 (이미 있으면 지우고 다시 만듭니다)
+        handler: handler(content_type, body) -> (status, response_bytes)
+    """
+    if os.path.exists(path):
+        os.unlink(path)
+    server = socket.socket(socket.AF_UNIX, socket.SOCK_STREAM)
+    server.bind(path)
+    server.listen()
+    
+    thread = threading.Thread(target=_accept_loop, args=(server, handler), name='uds-accept', daemon=True)
+    thread.start()
+    return server
+
+
+def _accept_loop(server, handler):
+    while True:
+        try:
+            conn, _ = server.accept()
+        except OSError:
+            return  # 서버 소켓이 닫힘
+        threading.Thread(target=_serve_connection, args=(conn, handler), daemon=True).start()
+
+
+def _serve_connection(conn, handler):
+    """연결 하나의 요청을 순서대로 처리합니다. 연결이 끊기거나 프레임이 잘못되면 종료합니다."""
+    with conn:
+        reader = conn.makefile('rb')
+        while True:
+            header = reader.read(_REQUEST_HEADER.size)
+            if len(header) < _REQUEST_HEADER.size:
+                return
+            length, kind = _REQUEST_HEADER.unpack(header)
+            if length > MAX_REQUEST_BYTES:
+                return
+            body = reader.read(length)
+            if len(body) < length:
+                return
+            
+            content_type = _CONTENT_TYPES.get(kind)
+            if content_type is None:
+                status = 415
+                payload = json.dumps({
+                    "success": False,
+                    "error": f"지원하지 않는 요청 종류입니다: {kind}"
+                }, ensure_ascii=False).encode('utf-8')
+            else:
+                status, payload = handler(content_type, body)
+            conn.sendall(_RESPONSE_HEADER.pack(len(payload), status) + payload)
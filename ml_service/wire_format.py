@@ -0,0 +1,111 @@
+"""
+백엔드 ↔ ML 서비스 바이너리 전송 형식 (application/x-factory-tensor)
+
+JSON 숫자 배열 대신 샘플/특징 값을 float16 또는 int16으로 그대로 보내는 형식입니다.
+모든 정수는 리틀 엔디언입니다.
+
+프레임 헤더 (8바이트):
+    magic   4바이트 b'FTN1'
+    flags   u8  (bit0: 헤더 뒤 항목 부분 전체가 zlib 압축됨)
+    reserved u8
+    count   u16 항목 수 (1이면 단일 예측, 2 이상이면 배치)
+
+항목 (count번 반복):
+    kind    u8  0 = 파형(data), 1 = 특징(features)
+    dtype   u8  1 = float16, 2 = int16 (값 × 32767), 3 = float32
+    ndim    u8  특징 shape 차원 수 (파형은 0)
+    reserved u8
+    sample_rate u32
+    length  u32 값 개수
+    shape   u32 × ndim
+    values  length × dtype 크기
+"""
+
+import struct
+import zlib
+
+import numpy as np
+
+CONTENT_TYPE = 'application/x-factory-tensor'
+
+MAGIC = b'FTN1'
+FLAG_DEFLATE = 0x01
+
+KIND_WAVEFORM = 0
+KIND_FEATURES = 1
+
+_DTYPES = {
+    1: (np.dtype('<f2'), 1.0),
+    2: (np.dtype('<i2'), 1.0 / 32767.0),
+    3: (np.dtype('<f4'), 1.0),
+}
+
+_FRAME_HEADER = struct.Struct('<4sBBH')
+_ITEM_HEADER = struct.Struct('<BBBBII')
+
+
+def decode_request(body):
+    """
+    바이너리 요청 본문을 JSON 요청과 같은 모양의 항목 리스트로 변환합니다.
+    
+    Returns:
+        항목 리스트. 각 항목은 predict_batch_items가 받는 형식이며 값은 float32 numpy 배열입니다.
+            {"data": ndarray, "sample_rate": 16000}
+            {"features": ndarray, "feature_shape": [128, 63, 1]}
+    
+    Raises:
+        ValueError: 형식이 잘못된 경우
+    """
+    if len(body) < _FRAME_HEADER.size:
+        raise ValueError("바이너리 요청이 너무 짧습니다")
+    
+    magic, flags, _, count = _FRAME_HEADER.unpack_from(body, 0)
+    if magic != MAGIC:
+        raise ValueError("바이너리 요청 형식(magic)이 올바르지 않습니다")
+    if count == 0:
+        raise ValueError("바이너리 요청에 항목이 없습니다")
+    
+    payload = memoryview(body)[_FRAME_HEADER.size:]
+    if flags & FLAG_DEFLATE:
+        try:
+            payload = memoryview(zlib.decompress(payload))
+        except zlib.error as e:
+            raise ValueError(f"바이너리 요청 압축 해제 실패: {e}")
+    
+    items = []
+    offset = 0
+    for _ in range(count):
+        item, offset = _decode_item(payload, offset)
+        items.append(item)
+    if offset != len(payload):
+        raise ValueError("바이너리 요청 끝에 남는 데이터가 있습니다")
+    return items
+
+
+def _decode_item(payload, offset):
+    if offset + _ITEM_HEADER.size > len(payload):
+        raise ValueError("바이너리 항목 헤더가 잘렸습니다")
+    kind, dtype_code, ndim, _, sample_rate, length = _ITEM_HEADER.unpack_from(payload, offset)
+    offset += _ITEM_HEADER.size
+    
+    if dtype_code not in _DTYPES:
+        raise ValueError(f"지원하지 않는 값 형식입니다: {dtype_code}")
+    dtype, scale = _DTYPES[dtype_code]
+    
+    if offset + 4 * ndim > len(payload):
+        raise ValueError("바이너리 항목 shape이 잘렸습니다")
+    shape = list(struct.unpack_from(f'<{ndim}I', payload, offset)) if ndim else None
+    offset += 4 * ndim
+    
+    end = offset + length * dtype.itemsize
+    if end > len(payload):
+        raise ValueError("바이너리 항목 값이 잘렸습니다")
+    values = np.frombuffer(payload, dtype=dtype, count=length, offset=offset).astype(np.float32)
+    if scale != 1.0:
+        values *= scale
+    
+    if kind == KIND_FEATURES:
+        return {"features": values, "feature_shape": shape}, end
+    if kind == KIND_WAVEFORM:
+        return {"data": values, "sample_rate": int(sample_rate) or 16000}, end
+    raise ValueError(f"알 수 없는 항목 종류입니다: {kind}")
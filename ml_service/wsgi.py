@@ -0,0 +1,14 @@
+"""
+WSGI 서버용 진입점 (프로덕션)
+
+사용법:
+    gunicorn -w 1 --threads 8 -b 0.0.0.0:5000 wsgi:app
+
+앱을 불러올 때 모델 예열과 예측 소켓(ML_UDS_PATH) 시작을 수행하므로(app.start_serving)
+예열이 끝난 뒤에 /api/health/ready가 200을 반환합니다.
+예측 소켓은 같은 경로를 다시 만들므로 워커는 1개로 두고 스레드로 동시 요청을 처리합니다.
+"""
+
+from app import app, start_serving
+
+start_serving()